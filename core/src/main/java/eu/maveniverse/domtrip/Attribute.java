@@ -45,6 +45,10 @@ package eu.maveniverse.domtrip;
  * Attribute modified = attr.withValue("critical").withQuoteStyle(QuoteStyle.SINGLE);
  * }</pre>
  *
+ * <p>The setters of an attribute held by an {@link Element} mark that element as modified,
+ * like {@link Element#attribute(String, String)} does, so that changes made through
+ * {@link Element#attributeObject(String)} are seen by serialization, diffs and fingerprints.</p>
+ *
  * <h3>Attribute Formatting:</h3>
  * <p>Attributes are serialized with the following format:</p>
  * <p>{@code [whitespace][name]=[quote][value][quote]}</p>
@@ -69,6 +73,7 @@ public class Attribute {
     private String rawValue; // Original value with entities preserved
     private QuoteStyle quoteStyle; // Quote character used (' or ")
     private String precedingWhitespace; // Whitespace before the attribute
+    private Element owner; // Element holding this attribute, marked as modified by the setters
 
     public Attribute(String name, String value) {
         this(name, value, QuoteStyle.DOUBLE, " ");
@@ -112,6 +117,7 @@ public class Attribute {
     public Attribute value(String value) {
         this.value = value;
         this.rawValue = null; // Clear raw value when setting programmatically
+        ownerModified();
         return this;
     }
 
@@ -121,6 +127,7 @@ public class Attribute {
 
     public Attribute rawValue(String rawValue) {
         this.rawValue = rawValue;
+        ownerModified();
         return this;
     }
 
@@ -130,6 +137,7 @@ public class Attribute {
 
     public Attribute quoteStyle(QuoteStyle quoteStyle) {
         this.quoteStyle = quoteStyle != null ? quoteStyle : QuoteStyle.DOUBLE;
+        ownerModified();
         return this;
     }
 
@@ -139,88 +147,59 @@ public class Attribute {
 
     public Attribute precedingWhitespace(String precedingWhitespace) {
         this.precedingWhitespace = precedingWhitespace != null ? precedingWhitespace : " ";
+        ownerModified();
         return this;
     }
 
     /**
-     * Provides the attribute value to use during XML serialization, preferring the original raw text when requested.
-     *
-     * @param useRaw if true, return the preserved raw attribute text when present; otherwise produce an escaped form
-     * @return `rawValue` if `useRaw` is true and a raw value exists, otherwise the escaped form of `value` using the active quote character
+     * Sets the element holding this attribute, or null when it no longer does.
      */
-    public String getSerializationValue(boolean useRaw) {
-        if (useRaw && rawValue != null) {
-            return rawValue;
-        }
-        return escapeAttributeValue(value, quoteStyle.character());
+    void owner(Element owner) {
+        this.owner = owner;
     }
 
     /**
-     * Produce an XML-safe attribute value by escaping '&', '<', '>' and the active quote character.
-     *
-     * @param value the attribute value to escape; if {@code null} it is treated as empty
-     * @param quoteChar the quote character used to delimit the attribute (only this quote is escaped)
-     * @return the escaped attribute value; returns the original string unchanged if no escaping was required
+     * Returns the element holding this attribute, or null if none.
      */
-    private String escapeAttributeValue(String value, char quoteChar) {
-        if (value == null) return "";
-
-        // Fast path: scan for any character that needs escaping
-        int firstSpecial = indexOfSpecialChar(value, quoteChar);
-        if (firstSpecial < 0) {
-            return value; // No escaping needed — common case
-        }
-
-        // Single-pass escape from the first special character
-        return escapeFrom(value, firstSpecial, quoteChar);
+    Element owner() {
+        return owner;
     }
 
-    private static int indexOfSpecialChar(String value, char quoteChar) {
-        for (int i = 0, len = value.length(); i < len; i++) {
-            char c = value.charAt(i);
-            if (c == '&' || c == '<' || c == '>' || c == quoteChar) {
-                return i;
-            }
+    /**
+     * Marks the element holding this attribute as modified, so that the caches keyed on its
+     * generation see changes made through this object.
+     */
+    private void ownerModified() {
+        if (owner != null) {
+            owner.markModified();
         }
-        return -1;
     }
 
-    private static String escapeFrom(String value, int from, char quoteChar) {
-        int len = value.length();
-        StringBuilder sb = new StringBuilder(len + 16);
-        if (from > 0) {
-            sb.append(value, 0, from);
-        }
-        for (int i = from; i < len; i++) {
-            appendEscaped(sb, value.charAt(i), quoteChar);
-        }
-        return sb.toString();
-    }
-
-    private static void appendEscaped(StringBuilder sb, char c, char quoteChar) {
-        if (c == '&') {
-            sb.append("&amp;");
-        } else if (c == '<') {
-            sb.append("&lt;");
-        } else if (c == '>') {
-            sb.append("&gt;");
-        } else if (c == quoteChar) {
-            sb.append(quoteChar == '"' ? "&quot;" : "&apos;");
-        } else {
-            sb.append(c);
+    /**
+     * Provides the attribute value to use during XML serialization, preferring the original raw text when requested.
+     *
+     * @param useRaw if true, return the preserved raw attribute text when present; otherwise produce an escaped form
+     * @return `rawValue` if `useRaw` is true and a raw value exists, otherwise the escaped form of `value` using the active quote character
+     */
+    public String getSerializationValue(boolean useRaw) {
+        if (useRaw && rawValue != null) {
+            return rawValue;
         }
+        return XmlEscaper.escapeAttribute(value, quoteStyle.character());
     }
 
     /**
      * Serializes this attribute to XML
      */
     public void toXml(StringBuilder sb, boolean useRaw) {
-        sb.append(precedingWhitespace)
-                .append(name)
-                .append("=")
-                .append(quoteStyle.character())
-                .append(getSerializationValue(useRaw))
-                .append(quoteStyle.character());
+        char quote = quoteStyle.character();
+        sb.append(precedingWhitespace).append(name).append('=').append(quote);
+        if (useRaw && rawValue != null) {
+            sb.append(rawValue);
+        } else {
+            XmlEscaper.escapeAttribute(value, quote, sb);
+        }
+        sb.append(quote);
     }
 
     @Override
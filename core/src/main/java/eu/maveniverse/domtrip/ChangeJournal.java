@@ -0,0 +1,718 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * A journal of the changes made to a document, recorded in a compact binary form that can be
+ * replayed on another copy of the document.
+ *
+ * <p>A journal is started with {@link Document#startJournal()}. From then on, every change made
+ * to the document through its nodes, directly or through an {@link Editor}, is appended to the
+ * journal as an operation addressing its node by the path of child indices leading to it from
+ * the document. Replaying the journal with {@link #replay(byte[], Document)} on a document that
+ * serializes like the recorded one did when the journal was started, such as a
+ * {@linkplain Document#copy() copy} taken at that time, makes it serialize like the recorded
+ * one does when the journal is encoded.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>{@code
+ * Document replica = document.copy();
+ * ChangeJournal journal = document.startJournal();
+ * Editor editor = new Editor(document);
+ * editor.addElement(dependencies, "dependency");
+ * document.stopJournal();
+ *
+ * ChangeJournal.replay(journal.toByteArray(), replica);
+ * }</pre>
+ *
+ * <h3>Operations:</h3>
+ * <ul>
+ *   <li>insertion of a node, encoded with its whole subtree, and removal of a child by index,
+ *       or of all children</li>
+ *   <li>setting or removing an attribute, recording its value, raw value, quote and
+ *       whitespace</li>
+ *   <li>setting the value of a text, comment or processing instruction, along with its
+ *       preceding whitespace</li>
+ *   <li>changing the whitespace or the empty element style of an element</li>
+ *   <li>renaming an element and setting the document root</li>
+ * </ul>
+ *
+ * <p>Each operation records the resulting state of what it changed, together with the
+ * modification flag of the node, so that the replayed nodes serialize the same way. The
+ * properties of the document itself, such as its XML declaration or DOCTYPE, changes made to
+ * {@link Attribute} objects held by an element and the original tags of elements are not
+ * recorded.</p>
+ *
+ * <h3>Format:</h3>
+ * <p>The encoded journal starts with the bytes {@code DTJ} and a version byte, followed by the
+ * operations, each an opcode byte followed by its operands. Integers are unsigned LEB128
+ * varints. Strings are introduced by a varint tag: 0 for null, 1 for a new string added to the
+ * string table, 2 for a new string not added, or the index in the string table plus 3. New
+ * strings follow as their UTF-8 byte length and bytes. Strings up to
+ * {@value #SHARED_LENGTH} characters, such as names and whitespace, are added to the table, so
+ * that repeating them costs a byte or two.</p>
+ *
+ * <p>Recording adds the encoding of each operation to the change itself; while no journal is
+ * recording, changes only check a shared counter. A journal records changes made from a single
+ * thread.</p>
+ *
+ * @see Document#startJournal()
+ * @since 1.5.0
+ */
+public final class ChangeJournal {
+
+    /** Maximum length of the strings added to the string table */
+    static final int SHARED_LENGTH = 64;
+
+    private static final byte[] MAGIC = {'D', 'T', 'J'};
+    private static final byte VERSION = 1;
+
+    private static final byte INSERT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte CLEAR = 3;
+    private static final byte ATTRIBUTE = 4;
+    private static final byte TEXT = 5;
+    private static final byte WHITESPACE = 6;
+    private static final byte RENAME = 7;
+    private static final byte ROOT = 8;
+
+    private static final byte ELEMENT_NODE = 1;
+    private static final byte TEXT_NODE = 2;
+    private static final byte COMMENT_NODE = 3;
+    private static final byte PI_NODE = 4;
+
+    private static final int MODIFIED = 1;
+    private static final int PRESENT = 2;
+    private static final int SELF_CLOSING = 4;
+    private static final int CDATA = 4;
+    private static final int SINGLE_QUOTE = 4;
+    private static final int PRESERVE_WHITESPACE = 8;
+
+    /** The number of journals recording, so that changes skip looking for one while there are none */
+    private static final AtomicInteger RECORDING = new AtomicInteger();
+
+    private byte[] buffer = new byte[256];
+    private int length;
+    private int size;
+    private final Map<String, Integer> strings = new HashMap<>();
+    private int[] hints = new int[16];
+
+    ChangeJournal() {}
+
+    /**
+     * Returns the number of operations recorded.
+     *
+     * @return the number of operations
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Encodes the operations recorded so far.
+     *
+     * @return the encoded journal
+     */
+    public byte[] toByteArray() {
+        byte[] bytes = new byte[MAGIC.length + 1 + length];
+        System.arraycopy(MAGIC, 0, bytes, 0, MAGIC.length);
+        bytes[MAGIC.length] = VERSION;
+        System.arraycopy(buffer, 0, bytes, MAGIC.length + 1, length);
+        return bytes;
+    }
+
+    /**
+     * Replays an encoded journal on a document that serializes like the recorded document did
+     * when the journal was started.
+     *
+     * <p>The replayed changes mark the nodes they change as modified like the recorded changes
+     * did, and are recorded like any other change if the target document has a journal.</p>
+     *
+     * @param journal the encoded journal
+     * @param target the document to change
+     * @throws DomTripException if the journal is malformed or does not match the target
+     */
+    public static void replay(byte[] journal, Document target) throws DomTripException {
+        if (journal == null || target == null) {
+            throw new DomTripException("Journal and target document cannot be null");
+        }
+        if (journal.length < MAGIC.length + 1
+                || journal[0] != MAGIC[0]
+                || journal[1] != MAGIC[1]
+                || journal[2] != MAGIC[2]) {
+            throw new DomTripException("Not a change journal");
+        }
+        if (journal[MAGIC.length] != VERSION) {
+            throw new DomTripException("Unsupported change journal version " + journal[MAGIC.length]);
+        }
+        new Replay(journal, MAGIC.length + 1, target).run();
+    }
+
+    // --- Recording ---
+
+    static void started() {
+        RECORDING.incrementAndGet();
+    }
+
+    static void stopped() {
+        RECORDING.decrementAndGet();
+    }
+
+    /** Returns the journal recording the changes of the document of a node, if any. */
+    private static ChangeJournal of(Node node) {
+        if (RECORDING.get() == 0) {
+            return null;
+        }
+        Document document = node instanceof Document ? (Document) node : node.document();
+        return document != null ? document.journal() : null;
+    }
+
+    /** Records the insertion of a node at an index of a container, once inserted. */
+    static void inserted(ContainerNode parent, int index, Node node) {
+        ChangeJournal journal = of(parent);
+        if (journal != null) {
+            journal.operation(INSERT, parent);
+            journal.varint(index);
+            journal.node(node);
+        }
+    }
+
+    /** Records the removal of the child at an index of a container, before it is removed. */
+    static void removing(ContainerNode parent, int index) {
+        ChangeJournal journal = of(parent);
+        if (journal != null) {
+            journal.operation(REMOVE, parent);
+            journal.varint(index);
+        }
+    }
+
+    /** Records the removal of the children of a container matching a filter, before they are removed. */
+    static void removing(ContainerNode parent, Predicate<Node> filter) {
+        ChangeJournal journal = of(parent);
+        if (journal != null) {
+            for (int i = parent.children.size() - 1; i >= 0; i--) {
+                if (filter.test(parent.children.get(i))) {
+                    journal.operation(REMOVE, parent);
+                    journal.varint(i);
+                }
+            }
+        }
+    }
+
+    /** Records the removal of all children of a container. */
+    static void cleared(ContainerNode parent) {
+        ChangeJournal journal = of(parent);
+        if (journal != null) {
+            journal.operation(CLEAR, parent);
+        }
+    }
+
+    /** Records the current state of an attribute of an element, set or removed. */
+    static void attributeChanged(Element element, String name) {
+        ChangeJournal journal = of(element);
+        if (journal != null) {
+            Attribute attribute = element.attributeObject(name);
+            journal.operation(ATTRIBUTE, element);
+            journal.string(name);
+            if (attribute == null) {
+                journal.flags(element, 0);
+            } else {
+                journal.flags(element, PRESENT | (attribute.quoteStyle() == QuoteStyle.SINGLE ? SINGLE_QUOTE : 0));
+                journal.string(attribute.value());
+                journal.string(attribute.rawValue());
+                journal.string(attribute.precedingWhitespace());
+            }
+        }
+    }
+
+    /** Records the current value and whitespace of a text, comment or processing instruction. */
+    static void valueChanged(Node node) {
+        if (node instanceof Element) {
+            whitespaceChanged((Element) node);
+            return;
+        }
+        ChangeJournal journal = node instanceof Document ? null : of(node);
+        if (journal != null) {
+            journal.operation(TEXT, node);
+            journal.value(node);
+        }
+    }
+
+    /** Records the current whitespace and empty element style of an element. */
+    static void whitespaceChanged(Element element) {
+        ChangeJournal journal = of(element);
+        if (journal != null) {
+            journal.operation(WHITESPACE, element);
+            journal.tag(element);
+        }
+    }
+
+    /** Records the current name of an element. */
+    static void renamed(Element element) {
+        ChangeJournal journal = of(element);
+        if (journal != null) {
+            journal.operation(RENAME, element);
+            journal.string(element.name());
+        }
+    }
+
+    /** Records the root element of a document, referring to it by index if it is one of its children. */
+    static void rootChanged(Document document) {
+        ChangeJournal journal = document.journal();
+        if (journal != null) {
+            journal.operation(ROOT, document);
+            Element root = document.root();
+            int index = root != null ? indexOf(document, root) : -1;
+            if (root == null) {
+                journal.varint(0);
+            } else if (index < document.children.size()) {
+                journal.varint(1);
+                journal.varint(index);
+            } else {
+                journal.varint(2);
+                journal.node(root);
+            }
+        }
+    }
+
+    private void operation(byte opcode, Node node) {
+        size++;
+        ensure(1);
+        buffer[length++] = opcode;
+        path(node);
+    }
+
+    /** Writes the child indices leading from the document to a node. */
+    private void path(Node node) {
+        int depth = 0;
+        for (Node current = node; !(current instanceof Document); current = current.parent()) {
+            depth++;
+        }
+        int[] indices = new int[depth];
+        if (hints.length < depth) {
+            hints = Arrays.copyOf(hints, Math.max(depth, hints.length * 2));
+        }
+        Node current = node;
+        for (int i = depth - 1; i >= 0; i--) {
+            ContainerNode parent = current.parent();
+            indices[i] = indexOf(parent, current, hints[i]);
+            hints[i] = indices[i];
+            current = parent;
+        }
+        varint(depth);
+        for (int index : indices) {
+            varint(index);
+        }
+    }
+
+    /**
+     * Returns the index of a child by identity, searching outwards from the index found last at
+     * the same depth, since successive changes tend to address neighbouring nodes.
+     */
+    private static int indexOf(ContainerNode parent, Node child, int hint) {
+        List<Node> children = parent.children;
+        int size = children.size();
+        for (int after = Math.min(hint, size), before = after - 1; after < size || before >= 0; after++, before--) {
+            if (after < size && children.get(after) == child) {
+                return after;
+            }
+            if (before >= 0 && children.get(before) == child) {
+                return before;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the index of a child by identity, the number of children standing for the root
+     * element of a document that is not one of its children, which is serialized after them.
+     */
+    private static int indexOf(ContainerNode parent, Node child) {
+        List<Node> children = parent.children;
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i) == child) {
+                return i;
+            }
+        }
+        return children.size();
+    }
+
+    private void node(Node node) {
+        if (node instanceof Element) {
+            Element element = (Element) node;
+            ensure(1);
+            buffer[length++] = ELEMENT_NODE;
+            string(element.name());
+            tag(element);
+            string(element.originalOpenTag());
+            string(element.originalCloseTag());
+            varint(element.attributeValues().size());
+            for (Attribute attribute : element.attributeValues()) {
+                string(attribute.name());
+                varint(attribute.quoteStyle() == QuoteStyle.SINGLE ? SINGLE_QUOTE : 0);
+                string(attribute.value());
+                string(attribute.rawValue());
+                string(attribute.precedingWhitespace());
+            }
+            varint(element.children.size());
+            for (Node child : element.children) {
+                node(child);
+            }
+        } else {
+            ensure(1);
+            buffer[length++] = node instanceof Text ? TEXT_NODE : node instanceof Comment ? COMMENT_NODE : PI_NODE;
+            value(node);
+        }
+    }
+
+    private void tag(Element element) {
+        flags(element, element.selfClosing() ? SELF_CLOSING : 0);
+        string(element.precedingWhitespace());
+        string(element.openTagWhitespace());
+        string(element.closeTagWhitespace());
+        string(element.innerPrecedingWhitespace());
+    }
+
+    private void value(Node node) {
+        if (node instanceof Text) {
+            Text text = (Text) node;
+            flags(text, (text.cdata() ? CDATA : 0) | (text.preserveWhitespace() ? PRESERVE_WHITESPACE : 0));
+            string(text.content());
+            string(text.rawContent());
+        } else if (node instanceof Comment) {
+            flags(node, 0);
+            string(((Comment) node).content());
+        } else {
+            ProcessingInstruction pi = (ProcessingInstruction) node;
+            flags(node, 0);
+            string(pi.target());
+            string(pi.serializationData());
+            string(pi.originalContent());
+        }
+        string(node.precedingWhitespace());
+    }
+
+    private void flags(Node node, int flags) {
+        varint(flags | (node.isModified() ? MODIFIED : 0));
+    }
+
+    private void string(String s) {
+        if (s == null) {
+            varint(0);
+            return;
+        }
+        boolean shared = s.length() <= SHARED_LENGTH;
+        if (shared) {
+            Integer index = strings.get(s);
+            if (index != null) {
+                varint(index + 3);
+                return;
+            }
+            strings.put(s, strings.size());
+        }
+        varint(shared ? 1 : 2);
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        varint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void varint(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+        }
+    }
+
+    // --- Replay ---
+
+    /** Decodes the operations of a journal and applies them to a document one by one. */
+    private static final class Replay {
+        private final byte[] data;
+        private int position;
+        private final Document target;
+        private final List<String> strings = new ArrayList<>();
+
+        Replay(byte[] data, int position, Document target) {
+            this.data = data;
+            this.position = position;
+            this.target = target;
+        }
+
+        void run() {
+            while (position < data.length) {
+                int opcode = data[position++];
+                Node node = path();
+                switch (opcode) {
+                    case INSERT:
+                        int index = varint();
+                        container(node).insertChild(checkIndex(node, index, true), node());
+                        break;
+                    case REMOVE:
+                        ContainerNode parent = container(node);
+                        parent.removeChild(parent.children.get(checkIndex(node, varint(), false)));
+                        break;
+                    case CLEAR:
+                        container(node).clearChildren();
+                        break;
+                    case ATTRIBUTE:
+                        attribute(element(node));
+                        break;
+                    case TEXT:
+                        value(node);
+                        changed(node, varintFlags);
+                        break;
+                    case WHITESPACE:
+                        tag(element(node));
+                        changed(node, varintFlags);
+                        break;
+                    case RENAME:
+                        element(node).name(string());
+                        break;
+                    case ROOT:
+                        root();
+                        break;
+                    default:
+                        throw malformed("unknown operation " + opcode);
+                }
+            }
+        }
+
+        /** The flags of the last state read */
+        private int varintFlags;
+
+        private void attribute(Element element) {
+            String name = string();
+            int flags = varint();
+            if ((flags & PRESENT) == 0) {
+                element.removeAttribute(name);
+                return;
+            }
+            char quote = (flags & SINGLE_QUOTE) != 0 ? '\'' : '"';
+            String value = string();
+            String rawValue = string();
+            String whitespace = string();
+            if ((flags & MODIFIED) != 0) {
+                element.attributeObject(name, new Attribute(name, value, quote, whitespace, rawValue));
+            } else {
+                element.attributeInternal(name, value, quote, whitespace, rawValue);
+                element.advanceGeneration();
+            }
+        }
+
+        private void root() {
+            int kind = varint();
+            if (kind == 0) {
+                target.root(null);
+            } else if (kind == 1) {
+                int index = varint();
+                if (index >= target.children.size() || !(target.children.get(index) instanceof Element)) {
+                    throw malformed("no root element at index " + index);
+                }
+                target.root((Element) target.children.get(index));
+            } else {
+                Node root = node();
+                if (!(root instanceof Element)) {
+                    throw malformed("root is not an element");
+                }
+                target.root((Element) root);
+            }
+        }
+
+        /** Sets the tag state of an element, leaving its flags in {@link #varintFlags}. */
+        private void tag(Element element) {
+            varintFlags = varint();
+            element.selfClosingInternal((varintFlags & SELF_CLOSING) != 0);
+            element.precedingWhitespaceInternal(string());
+            element.openTagWhitespaceInternal(string());
+            element.closeTagWhitespaceInternal(string());
+            element.innerPrecedingWhitespaceInternal(string());
+        }
+
+        /** Sets the value of a text, comment or processing instruction, leaving its flags in {@link #varintFlags}. */
+        private void value(Node node) {
+            varintFlags = varint();
+            if (node instanceof Text) {
+                String content = string();
+                String rawContent = string();
+                ((Text) node)
+                        .valueInternal(
+                                content,
+                                rawContent,
+                                (varintFlags & CDATA) != 0,
+                                (varintFlags & PRESERVE_WHITESPACE) != 0);
+            } else if (node instanceof Comment) {
+                ((Comment) node).contentInternal(string());
+            } else if (node instanceof ProcessingInstruction) {
+                String piTarget = string();
+                String data = string();
+                ((ProcessingInstruction) node).valueInternal(piTarget, data, string());
+            } else {
+                throw malformed("not a text, comment or processing instruction");
+            }
+            node.precedingWhitespaceInternal(string());
+        }
+
+        private static void changed(Node node, int flags) {
+            if ((flags & MODIFIED) != 0) {
+                node.markModified();
+            } else {
+                node.advanceGeneration();
+            }
+        }
+
+        private Node node() {
+            if (position >= data.length) {
+                throw malformed("truncated node");
+            }
+            byte kind = data[position++];
+            Node node;
+            switch (kind) {
+                case ELEMENT_NODE:
+                    Element element = new Element(string());
+                    tag(element);
+                    int flags = varintFlags;
+                    element.originalOpenTag(string());
+                    element.originalCloseTag(string());
+                    int attributes = varint();
+                    for (int i = 0; i < attributes; i++) {
+                        String name = string();
+                        char quote = (varint() & SINGLE_QUOTE) != 0 ? '\'' : '"';
+                        String value = string();
+                        String rawValue = string();
+                        element.attributeInternal(name, value, quote, string(), rawValue);
+                    }
+                    int children = varint();
+                    for (int i = 0; i < children; i++) {
+                        element.addChildInternal(node());
+                    }
+                    varintFlags = flags;
+                    node = element;
+                    break;
+                case TEXT_NODE:
+                    node = new Text("");
+                    value(node);
+                    break;
+                case COMMENT_NODE:
+                    node = new Comment("");
+                    value(node);
+                    break;
+                case PI_NODE:
+                    node = new ProcessingInstruction("", "");
+                    value(node);
+                    break;
+                default:
+                    throw malformed("unknown node kind " + kind);
+            }
+            node.modified = (varintFlags & MODIFIED) != 0;
+            return node;
+        }
+
+        private Node path() {
+            int depth = varint();
+            Node node = target;
+            for (int i = 0; i < depth; i++) {
+                ContainerNode parent = container(node);
+                int index = varint();
+                if (index < parent.children.size()) {
+                    node = parent.children.get(index);
+                } else if (index == parent.children.size()
+                        && parent == target
+                        && target.root() != null
+                        && !target.children.contains(target.root())) {
+                    node = target.root();
+                } else {
+                    throw malformed("no node at index " + index);
+                }
+            }
+            return node;
+        }
+
+        private static int checkIndex(Node parent, int index, boolean insertion) {
+            int size = ((ContainerNode) parent).children.size();
+            if (index < 0 || index > size || (!insertion && index == size)) {
+                throw new DomTripException("Malformed change journal: no child at index " + index);
+            }
+            return index;
+        }
+
+        private static ContainerNode container(Node node) {
+            if (!(node instanceof ContainerNode)) {
+                throw malformed("not a container");
+            }
+            return (ContainerNode) node;
+        }
+
+        private static Element element(Node node) {
+            if (!(node instanceof Element)) {
+                throw malformed("not an element");
+            }
+            return (Element) node;
+        }
+
+        private String string() {
+            int tag = varint();
+            if (tag == 0) {
+                return null;
+            }
+            if (tag >= 3) {
+                if (tag - 3 >= strings.size()) {
+                    throw malformed("unknown string " + (tag - 3));
+                }
+                return strings.get(tag - 3);
+            }
+            int bytes = varint();
+            if (bytes > data.length - position) {
+                throw malformed("truncated string");
+            }
+            String s = new String(data, position, bytes, StandardCharsets.UTF_8);
+            position += bytes;
+            if (tag == 1) {
+                strings.add(s);
+            }
+            return s;
+        }
+
+        private int varint() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                if (position >= data.length) {
+                    throw malformed("truncated integer");
+                }
+                byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw malformed("integer too long");
+        }
+
+        private static DomTripException malformed(String reason) {
+            return new DomTripException("Malformed change journal: " + reason);
+        }
+    }
+}
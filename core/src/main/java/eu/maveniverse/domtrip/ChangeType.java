@@ -75,7 +75,11 @@ public enum ChangeType {
     /** Entity encoding form changed, e.g. {@code &lt;} vs {@code &#60;} (formatting only). */
     ENTITY_FORM_CHANGED,
 
-    /** Empty element style changed between self-closing and expanded (formatting only). */
+    /**
+     * Empty element style changed between self-closing and expanded (formatting only). Also
+     * reported for an element that becomes self-closing as it loses all its children, but not
+     * for a self-closing element that gains children.
+     */
     EMPTY_ELEMENT_STYLE_CHANGED;
 
     /**
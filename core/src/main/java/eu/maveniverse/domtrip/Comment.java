@@ -140,6 +140,7 @@ public class Comment extends Node {
     public Comment precedingWhitespace(String whitespace) {
         this.precedingWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -155,9 +156,17 @@ public class Comment extends Node {
     public Comment content(String content) {
         this.content = content != null ? content : "";
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
+    /**
+     * Sets the content without marking as modified (for replaying a {@link ChangeJournal})
+     */
+    void contentInternal(String content) {
+        this.content = content != null ? content : "";
+    }
+
     /**
      * Serializes this comment to XML, appending to the provided StringBuilder.
      *
@@ -59,6 +59,7 @@ public abstract class ContainerNode extends Node {
             }
         }
         markModified();
+        ChangeJournal.inserted(this, children.size() - 1, node);
     }
 
     /**
@@ -103,6 +104,7 @@ public abstract class ContainerNode extends Node {
             }
         }
         markModified();
+        ChangeJournal.inserted(this, index, node);
     }
 
     /**
@@ -140,6 +142,7 @@ public abstract class ContainerNode extends Node {
             }
         }
         markModified();
+        ChangeJournal.inserted(this, index, newNode);
     }
 
     /**
@@ -182,6 +185,7 @@ public abstract class ContainerNode extends Node {
             }
         }
         markModified();
+        ChangeJournal.inserted(this, index, newNode);
     }
 
     /**
@@ -206,13 +210,34 @@ public abstract class ContainerNode extends Node {
         if (index < 0) {
             throw new IllegalArgumentException("existingNode not found in this ContainerNode");
         }
+        replaceChildAt(index, replacementNode);
+    }
+
+    /**
+     * Puts a node in place of the child at the specified index, detaching the node from its
+     * previous parent.
+     */
+    void replaceChildAt(int index, Node replacementNode) {
         // Remove from previous parent if it exists
         if (replacementNode.parent() != null) {
             replacementNode.parent().removeChild(replacementNode);
         }
         replacementNode.parent(this);
+        ChangeJournal.removing(this, index);
         children.set(index, replacementNode);
         markModified();
+        ChangeJournal.inserted(this, index, replacementNode);
+    }
+
+    /**
+     * Puts a node in place of the child at the specified index, without detaching either (for
+     * reordering children). The change is recorded by a {@link ChangeJournal}, but the caller
+     * marks this node as modified once done.
+     */
+    void setChildInternal(int index, Node node) {
+        ChangeJournal.removing(this, index);
+        children.set(index, node);
+        ChangeJournal.inserted(this, index, node);
     }
 
     /**
@@ -222,14 +247,35 @@ public abstract class ContainerNode extends Node {
      * @return {@code true} if this {@link ContainerNode} contained the specified {@link Node} and {@code false} otherwise
      */
     public boolean removeChild(Node node) {
-        if (children.remove(node)) {
-            node.parent(null);
-            markModified();
+        int index = children.indexOf(node);
+        if (index >= 0) {
+            removeChildAt(index);
             return true;
         }
         return false;
     }
 
+    /** Removes the child at the specified index. */
+    void removeChildAt(int index) {
+        ChangeJournal.removing(this, index);
+        Node node = children.remove(index);
+        node.parent(null);
+        markModified();
+    }
+
+    /**
+     * Returns the index of a child by identity, or -1 if the node is not a child of this node.
+     * Unlike {@code children.indexOf}, this tells apart processing instructions that are equal.
+     */
+    int indexOfChild(Node node) {
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i) == node) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Gets the child at the specified index.
      *
@@ -335,14 +381,14 @@ public abstract class ContainerNode extends Node {
         }
         children.clear();
         markModified();
+        ChangeJournal.cleared(this);
     }
 
-    /** {@inheritDoc} */
     @Override
-    public void clearModified() {
-        super.clearModified();
+    void clearModifiedSubtree() {
+        super.clearModifiedSubtree();
         for (Node node : children) {
-            node.clearModified();
+            node.clearModifiedSubtree();
         }
     }
 }
@@ -13,6 +13,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Configuration for XML diff operations.
@@ -21,6 +22,13 @@ import java.util.Map;
  * are matched positionally among same-name siblings. Configuring match keys enables
  * identity-based matching for domain-specific element types.</p>
  *
+ * <p>By default, the diff also skips matched subtrees that are identical, which it detects
+ * by comparing structural hashes of both documents computed once and cached until they
+ * change. Hashing can be disabled when the documents are expected to differ throughout.</p>
+ *
+ * <p>Large documents can be compared in parallel on a fork/join pool, with the same
+ * result as a sequential comparison.</p>
+ *
  * <h3>Example:</h3>
  * <pre>{@code
  * DiffConfig config = DiffConfig.builder()
@@ -36,12 +44,20 @@ public class DiffConfig {
 
     private final Map<String, List<String>> matchKeys;
     private final List<String> wildcardMatchKeys;
+    private final boolean subtreeHashing;
+    private final ForkJoinPool pool;
 
-    private DiffConfig(Map<String, List<String>> matchKeys, List<String> wildcardMatchKeys) {
+    private DiffConfig(
+            Map<String, List<String>> matchKeys,
+            List<String> wildcardMatchKeys,
+            boolean subtreeHashing,
+            ForkJoinPool pool) {
         this.matchKeys = Collections.unmodifiableMap(new LinkedHashMap<>(matchKeys));
         this.wildcardMatchKeys = wildcardMatchKeys.isEmpty()
                 ? Collections.<String>emptyList()
                 : Collections.unmodifiableList(new ArrayList<>(wildcardMatchKeys));
+        this.subtreeHashing = subtreeHashing;
+        this.pool = pool;
     }
 
     /**
@@ -50,7 +66,8 @@ public class DiffConfig {
      * @return the default configuration
      */
     public static DiffConfig defaults() {
-        return new DiffConfig(Collections.<String, List<String>>emptyMap(), Collections.<String>emptyList());
+        return new DiffConfig(
+                Collections.<String, List<String>>emptyMap(), Collections.<String>emptyList(), true, null);
     }
 
     /**
@@ -77,6 +94,33 @@ public class DiffConfig {
         return wildcardMatchKeys;
     }
 
+    /**
+     * Returns whether identical subtrees are detected by structural hashes and skipped.
+     *
+     * @return true if subtree hashing is enabled, which is the default
+     * @since 1.5.0
+     */
+    public boolean isSubtreeHashing() {
+        return subtreeHashing;
+    }
+
+    /**
+     * Returns whether large documents are compared in parallel.
+     *
+     * @return true if parallel comparison is enabled
+     * @since 1.5.0
+     */
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Returns the pool to compare on, or null to compare sequentially.
+     */
+    ForkJoinPool pool() {
+        return pool;
+    }
+
     /**
      * Builder for {@link DiffConfig}.
      */
@@ -84,6 +128,8 @@ public class DiffConfig {
 
         private final Map<String, List<String>> matchKeys = new LinkedHashMap<>();
         private final List<String> wildcardMatchKeys = new ArrayList<>();
+        private boolean subtreeHashing = true;
+        private ForkJoinPool pool;
 
         /**
          * Configures match keys for an element name. Use {@code "*"} as the element
@@ -105,13 +151,60 @@ public class DiffConfig {
             return this;
         }
 
+        /**
+         * Sets whether identical subtrees are detected by structural hashes and skipped.
+         *
+         * <p>Each document is hashed bottom-up in one pass, and the hashes are cached until the
+         * document is modified, so that diffing a large document against a copy with a few
+         * edits only compares the paths leading to the edits. Disabling hashing saves that
+         * pass when the documents differ throughout, at the cost of comparing every node.</p>
+         *
+         * @param subtreeHashing true to skip identical subtrees, false to compare every node
+         * @return this builder
+         * @since 1.5.0
+         */
+        public Builder subtreeHashing(boolean subtreeHashing) {
+            this.subtreeHashing = subtreeHashing;
+            return this;
+        }
+
+        /**
+         * Sets whether large documents are compared in parallel on the common fork/join pool.
+         *
+         * @param parallel true to compare in parallel, false to compare sequentially
+         * @return this builder
+         * @see #parallel(ForkJoinPool)
+         * @since 1.5.0
+         */
+        public Builder parallel(boolean parallel) {
+            return parallel(parallel ? ForkJoinPool.commonPool() : null);
+        }
+
+        /**
+         * Enables parallel comparison of large documents on the given fork/join pool.
+         *
+         * <p>When enabled, the matched children of an element whose subtrees hold a few
+         * thousand differing elements are split into consecutive ranges of similar size,
+         * which are compared by tasks of the pool into separate change lists. The lists are
+         * concatenated in document order, so the result is identical to a sequential
+         * comparison. The documents must not be modified while they are compared.</p>
+         *
+         * @param pool the pool to compare on, or null to compare sequentially
+         * @return this builder
+         * @since 1.5.0
+         */
+        public Builder parallel(ForkJoinPool pool) {
+            this.pool = pool;
+            return this;
+        }
+
         /**
          * Builds the configuration.
          *
          * @return the built configuration
          */
         public DiffConfig build() {
-            return new DiffConfig(matchKeys, wildcardMatchKeys);
+            return new DiffConfig(matchKeys, wildcardMatchKeys, subtreeHashing, pool);
         }
     }
 }
@@ -0,0 +1,581 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies the changes of a {@link DiffResult} to a document equal to the before side of the
+ * comparison. See {@link XmlDiff#apply(DiffResult, Document)}.
+ *
+ * <p>Every change is first resolved against the unmodified target, since the paths of the
+ * changes are those of the before side, except for the last step of added nodes which is
+ * their position on the after side. The changes are then applied in an order that keeps
+ * those positions meaningful: removals, moves of key-matched elements, additions, and finally
+ * the content of the remaining nodes.</p>
+ */
+final class DiffPatch {
+
+    private static final String COMMENT = "comment()";
+    private static final String PROCESSING_INSTRUCTION = "processing-instruction()";
+
+    private final Document target;
+    /** The configuration the diff was computed with, or null if unknown */
+    private final DiffConfig config;
+    /** The target elements resolved so far, by their before path */
+    private final Map<String, Element> elements = new HashMap<>();
+    /** The child elements of the resolved target elements, grouped by name, as they were before any change */
+    private final Map<Element, Map<String, List<Element>>> childrenByName = new IdentityHashMap<>();
+
+    private final List<Node> removals = new ArrayList<>();
+    private final Map<Element, Map<String, Map<Element, Integer>>> moves = new LinkedHashMap<>();
+    private final Map<Element, Map<String, TreeMap<Integer, Element>>> elementAdditions = new LinkedHashMap<>();
+    private final List<Node[]> nodeAdditions = new ArrayList<>();
+    private final List<Node[]> nodeReplacements = new ArrayList<>();
+    private final Map<Element, Update> updates = new LinkedHashMap<>();
+    /** The after counterparts of the target elements the changes are about, and of their ancestors */
+    private final Map<Element, Element> counterparts = new IdentityHashMap<>();
+    private Element rootAddition;
+    private boolean rootRemoval;
+
+    private DiffPatch(Document target, DiffConfig config) {
+        this.target = target;
+        this.config = config;
+    }
+
+    static void apply(DiffResult diff, Document target) {
+        if (!diff.isComplete()) {
+            throw new DomTripException(
+                    "Cannot apply a diff truncated at " + diff.changes().size() + " changes, changes may be missing");
+        }
+        DiffPatch patch = new DiffPatch(target, diff.config());
+        for (XmlChange change : diff.changes()) {
+            patch.resolve(change);
+        }
+        patch.apply();
+    }
+
+    // --- Resolution against the unmodified target ---
+
+    private void resolve(XmlChange change) {
+        String path = change.path();
+        int slash = path.lastIndexOf('/');
+        if (slash < 0) {
+            throw invalid(change, "not an absolute path");
+        }
+        String parentPath = path.substring(0, slash);
+        String step = path.substring(slash + 1);
+        switch (change.type()) {
+            case ELEMENT_ADDED:
+                if (parentPath.isEmpty()) {
+                    rootAddition = (Element) change.afterNode();
+                } else {
+                    Step added = Step.parse(step, change);
+                    Element parent = element(parentPath, change);
+                    pair(parent, change.afterNode().parent());
+                    elementAdditions
+                            .computeIfAbsent(parent, k -> new LinkedHashMap<>())
+                            .computeIfAbsent(added.name, k -> new TreeMap<>())
+                            .put(added.position, (Element) change.afterNode());
+                }
+                break;
+            case ELEMENT_REMOVED:
+                if (parentPath.isEmpty()) {
+                    element(path, change);
+                    rootRemoval = true;
+                } else {
+                    removals.add(element(path, change));
+                }
+                break;
+            case ELEMENT_MOVED:
+                Element moved = element(path, change);
+                counterpart(moved, change);
+                moves.computeIfAbsent((Element) moved.parent(), k -> new LinkedHashMap<>())
+                        .computeIfAbsent(moved.name(), k -> new IdentityHashMap<>())
+                        .put(moved, position(change.afterValue(), change));
+                break;
+            case COMMENT_ADDED:
+            case PI_ADDED:
+                Element parent = element(parentPath, change);
+                pair(parent, change.afterNode().parent());
+                nodeAdditions.add(new Node[] {parent, change.afterNode()});
+                break;
+            case COMMENT_REMOVED:
+            case PI_REMOVED:
+                removals.add(node(parentPath, step, change));
+                break;
+            case COMMENT_CHANGED:
+            case PI_CHANGED:
+                nodeReplacements.add(new Node[] {node(parentPath, step, change), change.afterNode()});
+                break;
+            case NAMESPACE_CHANGED:
+                // Follows from the changes of the namespace declarations in scope
+                break;
+            default:
+                if (step.startsWith("@")) {
+                    Update update = update(element(parentPath, change), change);
+                    update.attributes.add(step.substring(1));
+                    if (change.type() == ChangeType.ATTRIBUTE_ADDED || change.type() == ChangeType.ATTRIBUTE_MOVED) {
+                        update.attributeOrder = true;
+                    }
+                } else if (change.type() == ChangeType.EMPTY_ELEMENT_STYLE_CHANGED) {
+                    counterpart(element(path, change), change);
+                } else {
+                    Update update = update(element(path, change), change);
+                    if (change.type() == ChangeType.WHITESPACE_CHANGED) {
+                        update.whitespace = true;
+                    } else {
+                        update.text = true;
+                    }
+                }
+                break;
+        }
+    }
+
+    private Update update(Element element, XmlChange change) {
+        return updates.computeIfAbsent(element, k -> new Update(counterpart(element, change)));
+    }
+
+    /**
+     * Records the after element of a change as the counterpart of a target element, along with
+     * their ancestors, which were matched as well.
+     */
+    private Element counterpart(Element element, XmlChange change) {
+        if (!(change.afterNode() instanceof Element)) {
+            throw invalid(change, "no element on the after side");
+        }
+        pair(element, change.afterNode());
+        return (Element) change.afterNode();
+    }
+
+    /** Records an after node as the counterpart of a target element, along with their ancestors. */
+    private void pair(Node target, Node after) {
+        while (target instanceof Element && after instanceof Element && !counterparts.containsKey(target)) {
+            counterparts.put((Element) target, (Element) after);
+            target = target.parent();
+            after = after.parent();
+        }
+    }
+
+    /** Resolves the target element at a before path. */
+    private Element element(String path, XmlChange change) {
+        Element element = elements.get(path);
+        if (element != null) {
+            return element;
+        }
+        int slash = path.lastIndexOf('/');
+        Step step = Step.parse(path.substring(slash + 1), change);
+        if (slash == 0) {
+            element = target.root();
+            if (element == null || !element.name().equals(step.name) || step.position != 1) {
+                throw invalid(change, "no root element " + step.name);
+            }
+        } else {
+            Element parent = element(path.substring(0, slash), change);
+            List<Element> named = childrenByName
+                    .computeIfAbsent(parent, p -> p.childElements().collect(Collectors.groupingBy(Element::name)))
+                    .get(step.name);
+            if (named == null || step.position > named.size()) {
+                throw invalid(change, "no element " + path);
+            }
+            element = named.get(step.position - 1);
+        }
+        elements.put(path, element);
+        return element;
+    }
+
+    /** Resolves a target comment or processing instruction of an element. */
+    private Node node(String parentPath, String step, XmlChange change) {
+        Element parent = element(parentPath, change);
+        Step node = Step.parse(step, change);
+        Class<? extends Node> type = node.name.equals(COMMENT)
+                ? Comment.class
+                : node.name.equals(PROCESSING_INSTRUCTION) ? ProcessingInstruction.class : null;
+        if (type == null) {
+            throw invalid(change, "not a comment or processing instruction");
+        }
+        List<Node> nodes = parent.children().filter(type::isInstance).collect(Collectors.toList());
+        if (node.position > nodes.size()) {
+            throw invalid(change, "no " + node.name + " at " + parentPath);
+        }
+        return nodes.get(node.position - 1);
+    }
+
+    private static int position(String value, XmlChange change) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw invalid(change, "invalid position " + value);
+        }
+    }
+
+    private static DomTripException invalid(XmlChange change, String reason) {
+        return new DomTripException("Cannot apply " + change.type() + " at " + change.path() + ": " + reason);
+    }
+
+    // --- Application ---
+
+    private void apply() {
+        for (Node node : removals) {
+            node.parent().removeChildAt(node.parent().indexOfChild(node));
+        }
+        for (Map.Entry<Element, Map<String, Map<Element, Integer>>> entry : moves.entrySet()) {
+            for (Map<Element, Integer> group : entry.getValue().values()) {
+                reorder(entry.getKey(), group);
+            }
+        }
+        for (Map.Entry<Element, Map<String, TreeMap<Integer, Element>>> entry : elementAdditions.entrySet()) {
+            for (Map.Entry<String, TreeMap<Integer, Element>> group : entry.getValue().entrySet()) {
+                insertElements(entry.getKey(), group.getKey(), group.getValue());
+            }
+        }
+        for (Node[] addition : nodeAdditions) {
+            insertNode((Element) addition[0], addition[1]);
+        }
+        for (Node[] replacement : nodeReplacements) {
+            ContainerNode parent = replacement[0].parent();
+            parent.replaceChildAt(parent.indexOfChild(replacement[0]), replacement[1].copy());
+        }
+        for (Map.Entry<Element, Update> entry : updates.entrySet()) {
+            entry.getValue().applyTo(entry.getKey());
+        }
+        for (Map.Entry<Element, Element> entry : counterparts.entrySet()) {
+            Element element = entry.getKey();
+            Element after = entry.getValue();
+            placeText(element, after);
+            // Elements left without children by the changes take the empty element style of the after side
+            if (element.selfClosing() != after.selfClosing() && element.isEmpty() && after.isEmpty()) {
+                element.selfClosing(after.selfClosing());
+            }
+        }
+        if (rootAddition != null) {
+            replaceRoot(rootAddition.copy());
+        } else if (rootRemoval) {
+            replaceRoot(null);
+        }
+    }
+
+    /**
+     * Reorders a same-name group of children holding moved elements like the group of their
+     * after parent. The group, as it was before any change, is matched against the after group
+     * with the configuration of the diff, and the remaining elements are sorted by the after
+     * index of their match, so that the elements matched by position are placed around the
+     * moved ones as on the after side. Without a known configuration, the moved elements are
+     * put to their 1-based after positions, the other elements of the group filling the
+     * remaining positions in their current order. The elements are swapped in place, so that
+     * the nodes between them stay where they are.
+     */
+    private void reorder(Element parent, Map<Element, Integer> moved) {
+        String name = moved.keySet().iterator().next().name();
+        List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < parent.children.size(); i++) {
+            Node child = parent.children.get(i);
+            if (child instanceof Element && ((Element) child).name().equals(name)) {
+                indices.add(i);
+            }
+        }
+        Element[] order = config != null ? afterOrder(parent, name) : pinnedOrder(parent, moved, indices);
+        if (order.length != indices.size()) {
+            throw new DomTripException("Cannot reorder " + name + ": the elements do not match the after side");
+        }
+        for (int i = 0; i < order.length; i++) {
+            if (parent.children.get(indices.get(i)) != order[i]) {
+                parent.setChildInternal(indices.get(i), order[i]);
+            }
+        }
+        parent.markModified();
+    }
+
+    /** Returns the matched elements of a same-name group in the order of their after matches. */
+    private Element[] afterOrder(Element parent, String name) {
+        List<Element> before = childrenByName.get(parent).get(name);
+        List<Element> after = counterparts.get(parent).childElements(name).collect(Collectors.toList());
+        int[] matches = XmlDiff.matchElements(before, after, config, true);
+        Element[] slots = new Element[after.size()];
+        for (int i = 0; i < matches.length; i++) {
+            if (matches[i] >= 0) {
+                slots[matches[i]] = before.get(i);
+            }
+        }
+        return Arrays.stream(slots).filter(Objects::nonNull).toArray(Element[]::new);
+    }
+
+    /**
+     * Returns a same-name group with the moved elements at their 1-based after positions and
+     * the other elements in their current order.
+     */
+    private static Element[] pinnedOrder(Element parent, Map<Element, Integer> moved, List<Integer> indices) {
+        Element[] order = new Element[indices.size()];
+        for (Map.Entry<Element, Integer> entry : moved.entrySet()) {
+            int slot = entry.getValue() - 1;
+            if (slot < 0 || slot >= order.length || order[slot] != null) {
+                throw new DomTripException(
+                        "Cannot move " + entry.getKey().name() + " to position " + entry.getValue());
+            }
+            order[slot] = entry.getKey();
+        }
+        int slot = 0;
+        for (int index : indices) {
+            Element element = (Element) parent.children.get(index);
+            if (!moved.containsKey(element)) {
+                while (order[slot] != null) {
+                    slot++;
+                }
+                order[slot] = element;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Inserts copies of added elements so that each becomes the same-name child of its after
+     * position, in ascending positions. An element without same-name siblings goes to its after
+     * index among all children.
+     */
+    private static void insertElements(Element parent, String name, TreeMap<Integer, Element> added) {
+        List<Element> named = parent.childElements(name).collect(Collectors.toList());
+        for (Map.Entry<Integer, Element> entry : added.entrySet()) {
+            int position = Math.min(entry.getKey(), named.size() + 1);
+            Element element = entry.getValue().copy();
+            if (position > 1) {
+                parent.insertChildAfter(named.get(position - 2), element);
+            } else if (!named.isEmpty()) {
+                parent.insertChildBefore(named.get(0), element);
+            } else {
+                parent.insertChild(Math.min(entry.getValue().siblingIndex(), parent.childCount()), element);
+            }
+            named.add(position - 1, element);
+        }
+    }
+
+    /**
+     * Inserts a copy of an added comment or processing instruction at its after index, but
+     * after the existing nodes of its kind so that it keeps its rank among them.
+     */
+    private static void insertNode(Element parent, Node added) {
+        int index = 0;
+        for (int i = 0; i < parent.children.size(); i++) {
+            if (parent.children.get(i).getClass() == added.getClass()) {
+                index = i + 1;
+            }
+        }
+        parent.insertChild(Math.max(index, Math.min(added.siblingIndex(), parent.childCount())), added.copy());
+    }
+
+    private void replaceRoot(Element root) {
+        Element old = target.root();
+        if (old != null && root != null) {
+            root.precedingWhitespace(old.precedingWhitespace());
+        }
+        if (old != null && target.children.contains(old)) {
+            if (root != null) {
+                target.replaceChild(old, root);
+            } else {
+                target.removeChild(old);
+            }
+        }
+        target.root(root);
+    }
+
+    /** The changes to the content of a remaining element, taken from its after counterpart. */
+    private static final class Update {
+        private final Element after;
+        private final Set<String> attributes = new LinkedHashSet<>();
+        private boolean attributeOrder;
+        private boolean text;
+        private boolean whitespace;
+
+        Update(Element after) {
+            this.after = after;
+        }
+
+        void applyTo(Element element) {
+            for (String name : attributes) {
+                Attribute attribute = after.attributeObject(name);
+                if (attribute != null) {
+                    element.attributeObject(name, attribute.copy());
+                } else {
+                    element.removeAttribute(name);
+                }
+            }
+            if (attributeOrder) {
+                reorderAttributes(element);
+            }
+            if (whitespace) {
+                copyWhitespace(element);
+            }
+            if (text) {
+                replaceText(element);
+            }
+        }
+
+        private void reorderAttributes(Element element) {
+            Map<String, Attribute> current = element.attributeObjects();
+            List<String> order = after.attributeValues().stream()
+                    .map(Attribute::name)
+                    .filter(current::containsKey)
+                    .collect(Collectors.toList());
+            if (new ArrayList<>(current.keySet()).subList(0, order.size()).equals(order)) {
+                return;
+            }
+            for (String name : current.keySet()) {
+                element.removeAttribute(name);
+            }
+            for (String name : order) {
+                element.attributeObject(name, current.remove(name));
+            }
+            for (Map.Entry<String, Attribute> remaining : current.entrySet()) {
+                element.attributeObject(remaining.getKey(), remaining.getValue());
+            }
+        }
+
+        private void copyWhitespace(Element element) {
+            if (!Objects.equals(element.precedingWhitespace(), after.precedingWhitespace())) {
+                element.precedingWhitespace(after.precedingWhitespace());
+            }
+            if (!Objects.equals(element.openTagWhitespace(), after.openTagWhitespace())) {
+                element.openTagWhitespace(after.openTagWhitespace());
+            }
+            if (!Objects.equals(element.innerPrecedingWhitespace(), after.innerPrecedingWhitespace())) {
+                element.innerPrecedingWhitespace(after.innerPrecedingWhitespace());
+            }
+            if (!Objects.equals(element.closeTagWhitespace(), after.closeTagWhitespace())) {
+                element.closeTagWhitespace(after.closeTagWhitespace());
+            }
+        }
+
+        /**
+         * Replaces the text nodes of an element by copies of those of its after counterpart,
+         * one by one when both have as many, otherwise at their after indices.
+         */
+        private void replaceText(Element element) {
+            List<Text> texts = texts(element);
+            List<Text> afterTexts = texts(after);
+            if (texts.size() == afterTexts.size()) {
+                for (int i = 0; i < texts.size(); i++) {
+                    if (!sameText(texts.get(i), afterTexts.get(i))) {
+                        element.replaceChild(texts.get(i), afterTexts.get(i).copy());
+                    }
+                }
+                return;
+            }
+            for (Text text : texts) {
+                element.removeChild(text);
+            }
+            for (Text text : afterTexts) {
+                element.insertChild(Math.min(text.siblingIndex(), element.childCount()), text.copy());
+            }
+        }
+
+        private static List<Text> texts(Element element) {
+            return element.children()
+                    .filter(Text.class::isInstance)
+                    .map(Text.class::cast)
+                    .collect(Collectors.toList());
+        }
+
+        private static boolean sameText(Text text, Text other) {
+            return text.content().equals(other.content())
+                    && String.valueOf(text.rawContent()).equals(String.valueOf(other.rawContent()))
+                    && text.cdata() == other.cdata()
+                    && Objects.equals(text.precedingWhitespace(), other.precedingWhitespace());
+        }
+    }
+
+    /**
+     * Distributes the text of an element between its other children like on the after side,
+     * provided these children are alike on both sides, along with the whitespace preceding
+     * them. The diff compares the joined text of elements, whatever its position, and ignores
+     * the whitespace preceding comments and processing instructions, but moving the other
+     * children around the text or changing their whitespace would otherwise change how the
+     * patched document is parsed again.
+     */
+    private static void placeText(Element element, Element after) {
+        List<String> segments = new ArrayList<>();
+        List<String> afterSegments = new ArrayList<>();
+        if (!textSegments(element, segments).equals(textSegments(after, afterSegments))
+                || segments.equals(afterSegments)) {
+            return;
+        }
+        List<Node> others = element.children().filter(c -> !(c instanceof Text)).collect(Collectors.toList());
+        List<Node> afterOthers = after.children().filter(c -> !(c instanceof Text)).collect(Collectors.toList());
+        for (int i = 0; i < others.size(); i++) {
+            String whitespace = afterOthers.get(i).precedingWhitespace();
+            if (!Objects.equals(others.get(i).precedingWhitespace(), whitespace)) {
+                others.get(i).precedingWhitespace(whitespace);
+            }
+        }
+        for (Text text : Update.texts(element)) {
+            element.removeChildAt(element.indexOfChild(text));
+        }
+        for (Text text : Update.texts(after)) {
+            element.insertChild(text.siblingIndex(), text.copy());
+        }
+    }
+
+    /**
+     * Collects the raw text between and around the children of an element that are not text,
+     * each segment ending with the whitespace preceding the next of these children, returning
+     * their names, or their kinds for comments and processing instructions.
+     */
+    private static List<String> textSegments(Element element, List<String> segments) {
+        List<String> others = new ArrayList<>();
+        StringBuilder segment = new StringBuilder();
+        for (Node child : element.children) {
+            if (child instanceof Text) {
+                Text text = (Text) child;
+                String raw = text.rawContent() != null ? text.rawContent() : text.content();
+                segment.append(text.precedingWhitespace());
+                segment.append(text.cdata() ? "<![CDATA[" + text.content() + "]]>" : raw);
+            } else {
+                segments.add(segment.append(child.precedingWhitespace()).toString());
+                segment.setLength(0);
+                others.add(child instanceof Element ? ((Element) child).name() : child.getClass().getSimpleName());
+            }
+        }
+        segments.add(segment.toString());
+        return others;
+    }
+
+    /** A path step: a name with its 1-based position among same-name siblings. */
+    private static final class Step {
+        private final String name;
+        private final int position;
+
+        private Step(String name, int position) {
+            this.name = name;
+            this.position = position;
+        }
+
+        static Step parse(String step, XmlChange change) {
+            int bracket = step.indexOf('[');
+            if (bracket < 0) {
+                return new Step(step, 1);
+            }
+            if (!step.endsWith("]")) {
+                throw invalid(change, "invalid step " + step);
+            }
+            int position = position(step.substring(bracket + 1, step.length() - 1), change);
+            if (position < 1) {
+                throw invalid(change, "invalid step " + step);
+            }
+            return new Step(step.substring(0, bracket), position);
+        }
+    }
+}
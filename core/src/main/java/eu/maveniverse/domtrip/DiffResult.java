@@ -40,6 +40,10 @@ import java.util.stream.Collectors;
 public class DiffResult {
 
     private final List<XmlChange> changes;
+    /** The configuration the changes were computed with, or null if unknown */
+    private final DiffConfig config;
+    /** Whether the changes are all those between the documents, rather than the first ones */
+    private final boolean complete;
 
     /**
      * Creates a new DiffResult with the given changes.
@@ -47,7 +51,18 @@ public class DiffResult {
      * @param changes the list of changes
      */
     public DiffResult(List<XmlChange> changes) {
+        this(changes, null, true);
+    }
+
+    DiffResult(List<XmlChange> changes, DiffConfig config, boolean complete) {
         this.changes = Collections.unmodifiableList(new ArrayList<>(changes));
+        this.config = config;
+        this.complete = complete;
+    }
+
+    /** Returns the configuration the changes were computed with, or null if unknown. */
+    DiffConfig config() {
+        return config;
     }
 
     /**
@@ -92,6 +107,19 @@ public class DiffResult {
         return changes.stream().filter(c -> isAtOrUnder(c.path(), path)).collect(Collectors.toList());
     }
 
+    /**
+     * Returns whether this result holds every change between the compared documents. A result
+     * of {@link XmlDiff#diff(Document, Document, DiffConfig, int)} that reached its limit only
+     * holds the first changes, and cannot be {@linkplain XmlDiff#apply(DiffResult, Document)
+     * applied}.
+     *
+     * @return {@code true} unless the comparison stopped at a limit
+     * @since 1.5.0
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
     /**
      * Returns {@code true} if any changes were detected.
      *
@@ -112,7 +140,7 @@ public class DiffResult {
      * @since 1.3.0
      */
     public List<XmlChange> changesFor(String xpath, Document doc) {
-        return changesFor(XPathExpression.compile(xpath), doc);
+        return changesFor(XPathExpression.cache().get(xpath), doc);
     }
 
     /**
@@ -14,8 +14,12 @@ import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 /**
@@ -84,6 +88,10 @@ public class Document extends ContainerNode {
     /** Default character encoding for XML documents. */
     private static final String DEFAULT_ENCODING = "UTF-8";
 
+    /** Attributes holding element IDs unless configured otherwise. */
+    private static final List<String> DEFAULT_ID_ATTRIBUTES =
+            Collections.unmodifiableList(Arrays.asList("xml:id", "id"));
+
     private String xmlDeclaration;
     private String doctype;
     private String doctypePrecedingWhitespace;
@@ -92,6 +100,10 @@ public class Document extends ContainerNode {
     private String version;
     private boolean standalone;
     private boolean bom;
+    private List<String> idAttributes = DEFAULT_ID_ATTRIBUTES;
+    private volatile IdIndex idIndex;
+    private volatile SubtreeHashes subtreeHashes;
+    private ChangeJournal journal;
 
     /**
      * Creates a new empty XML document with default settings.
@@ -126,21 +138,25 @@ public class Document extends ContainerNode {
         this.version = original.version;
         this.standalone = original.standalone;
         this.bom = original.bom;
+        this.idAttributes = original.idAttributes;
 
         // Copy inherited Node properties
         this.precedingWhitespace = original.precedingWhitespace;
 
-        // Copy root element if it exists
-        if (original.root != null) {
-            this.root = original.root.copy();
-            this.root.parent(this); // Set parent directly
-        }
-
         // Deep copy children directly to avoid addNode() side effects
         for (Node child : original.children().collect(Collectors.toList())) {
             Node copiedChild = child.copy();
             copiedChild.parent(this); // Set parent directly
             this.children.add(copiedChild); // Add directly to list
+            if (child == original.root) {
+                this.root = (Element) copiedChild; // The root element is copied once, in place
+            }
+        }
+
+        // Copy root element if it exists outside of the children
+        if (original.root != null && this.root == null) {
+            this.root = original.root.copy();
+            this.root.parent(this); // Set parent directly
         }
 
         // Note: parent is intentionally not copied - clone has no parent
@@ -305,6 +321,7 @@ public class Document extends ContainerNode {
             root.parent(this);
         }
         markModified();
+        ChangeJournal.rootChanged(this);
         return this;
     }
 
@@ -467,6 +484,199 @@ public class Document extends ContainerNode {
         return this;
     }
 
+    /**
+     * Returns the names of the attributes holding element IDs, used by
+     * {@link #elementById(String)}.
+     *
+     * <p>Defaults to {@code xml:id} and {@code id}.</p>
+     *
+     * @return the ID attribute names, in order of precedence
+     * @see #idAttributes(String...)
+     * @since 1.5.0
+     */
+    public List<String> idAttributes() {
+        return idAttributes;
+    }
+
+    /**
+     * Sets the names of the attributes holding element IDs, used by
+     * {@link #elementById(String)}.
+     *
+     * <p>Names are matched against the attribute names as written, including any prefix.
+     * This is a lookup setting and does not mark the document as modified.</p>
+     *
+     * @param names the ID attribute names
+     * @return this document for method chaining
+     * @throws IllegalArgumentException if no name is given or a name is null or empty
+     * @see #idAttributes()
+     * @since 1.5.0
+     */
+    public Document idAttributes(String... names) {
+        if (names == null || names.length == 0) {
+            throw new IllegalArgumentException("At least one ID attribute name is required");
+        }
+        List<String> list = new ArrayList<>(names.length);
+        for (String name : names) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("ID attribute name cannot be null or empty");
+            }
+            if (!list.contains(name)) {
+                list.add(name);
+            }
+        }
+        this.idAttributes = Collections.unmodifiableList(list);
+        return this;
+    }
+
+    /**
+     * Finds the element whose ID attribute has the given value.
+     *
+     * <p>The attributes listed by {@link #idAttributes()} are consulted. When several elements
+     * carry the same ID, the first one in document order is returned.</p>
+     *
+     * <p>The lookup uses an index built on first use and reused until the document changes.
+     * Any change to the tree, such as setting an attribute or adding or removing an element,
+     * causes the index to be rebuilt on the next lookup, so repeated lookups on an unchanged
+     * document take constant time.</p>
+     *
+     * <pre>{@code
+     * Document doc = Document.of("<book><chapter xml:id='intro'/></book>");
+     * Optional<Element> intro = doc.elementById("intro");
+     * }</pre>
+     *
+     * @param id the ID to look up
+     * @return the element with that ID, or empty if there is none
+     * @see #idAttributes(String...)
+     * @since 1.5.0
+     */
+    public Optional<Element> elementById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(idIndex().first(id));
+    }
+
+    /**
+     * Returns the semantic fingerprint of this document with the default configuration.
+     *
+     * @return the fingerprint of this document
+     * @see #fingerprint(FingerprintConfig)
+     * @since 1.5.0
+     */
+    public Fingerprint fingerprint() {
+        return fingerprint(FingerprintConfig.defaults());
+    }
+
+    /**
+     * Returns the semantic fingerprint of this document: a 128-bit hash of its content
+     * which ignores formatting, as well as the XML declaration and document type.
+     *
+     * <p>The fingerprint covers the {@linkplain Element#fingerprint(FingerprintConfig)
+     * fingerprint} of the root element and the processing instructions around it, and the
+     * comments around it if configured. Two documents with equal fingerprints therefore
+     * have the same content, barring hash collisions, even when they are formatted
+     * differently. Element fingerprints are cached until their subtree is modified, so
+     * fingerprinting a document again after a small edit only rehashes the elements on the
+     * path to the change.</p>
+     *
+     * <pre>{@code
+     * Fingerprint before = doc.fingerprint();
+     * editor.setAttribute(root, "version", "2");
+     * if (!doc.fingerprint().equals(before)) {
+     *     Files.writeString(path, doc.toXml());
+     * }
+     * }</pre>
+     *
+     * @param config defines the content covered by the fingerprint
+     * @return the fingerprint of this document
+     * @see Fingerprint
+     * @since 1.5.0
+     */
+    public Fingerprint fingerprint(FingerprintConfig config) {
+        return Fingerprinter.document(this, Objects.requireNonNull(config, "config"));
+    }
+
+    /**
+     * Returns the ID index of this document, rebuilding it if the document has changed since.
+     */
+    IdIndex idIndex() {
+        List<String> names = idAttributes;
+        IdIndex index = idIndex;
+        if (index == null || !index.isCurrent(this, names)) {
+            index = IdIndex.build(this, names);
+            idIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the structural hashes of the elements of this document, rehashing it if the
+     * document has changed since.
+     */
+    SubtreeHashes subtreeHashes() {
+        SubtreeHashes hashes = subtreeHashes;
+        if (hashes == null || !hashes.isCurrent(this)) {
+            hashes = SubtreeHashes.build(this);
+            subtreeHashes = hashes;
+        }
+        return hashes;
+    }
+
+    /**
+     * Starts recording the changes made to this document in a {@link ChangeJournal}.
+     *
+     * <p>Every change made to the nodes of this document from then on, until
+     * {@link #stopJournal()} is called, is appended to the returned journal, which can be
+     * replayed on a copy of this document taken before the first change. If a journal is
+     * already recording, it is returned and keeps recording.</p>
+     *
+     * <pre>{@code
+     * Document replica = document.copy();
+     * ChangeJournal journal = document.startJournal();
+     * document.root().attribute("version", "2");
+     * document.stopJournal();
+     * ChangeJournal.replay(journal.toByteArray(), replica);
+     * }</pre>
+     *
+     * @return the journal recording the changes
+     * @see ChangeJournal
+     * @since 1.5.0
+     */
+    public ChangeJournal startJournal() {
+        if (journal == null) {
+            journal = new ChangeJournal();
+            ChangeJournal.started();
+        }
+        return journal;
+    }
+
+    /**
+     * Returns the journal recording the changes made to this document, if any.
+     *
+     * @return the journal recording the changes, or null if none is recording
+     * @see #startJournal()
+     * @since 1.5.0
+     */
+    public ChangeJournal journal() {
+        return journal;
+    }
+
+    /**
+     * Stops recording the changes made to this document.
+     *
+     * @return the journal that was recording the changes, or null if none was recording
+     * @see #startJournal()
+     * @since 1.5.0
+     */
+    public ChangeJournal stopJournal() {
+        ChangeJournal stopped = journal;
+        if (stopped != null) {
+            journal = null;
+            ChangeJournal.stopped();
+        }
+        return stopped;
+    }
+
     /**
      * Serializes this document to XML, appending to the provided StringBuilder.
      *
@@ -486,6 +696,14 @@ public class Document extends ContainerNode {
      */
     @Override
     public void toXml(StringBuilder sb) {
+        toXml(sb, Node::toXml);
+    }
+
+    /**
+     * Serializes this document like {@link #toXml(StringBuilder)}, delegating the
+     * serialization of each top-level node to the given serializer.
+     */
+    void toXml(StringBuilder sb, BiConsumer<Node, StringBuilder> nodeSerializer) {
         // Add XML declaration only if it was present in original
         if (!xmlDeclaration.isEmpty()) {
             sb.append(xmlDeclaration);
@@ -504,12 +722,12 @@ public class Document extends ContainerNode {
         Element rootSnapshot = root;
         List<Node> snapshot = new ArrayList<>(children);
         for (Node child : snapshot) {
-            child.toXml(sb);
+            nodeSerializer.accept(child, sb);
         }
 
         // Add document element if set and not already in children
         if (rootSnapshot != null && !snapshot.contains(rootSnapshot)) {
-            rootSnapshot.toXml(sb);
+            nodeSerializer.accept(rootSnapshot, sb);
         }
     }
 
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes many documents to files in parallel, replacing each target file atomically.
+ *
+ * <p>Every document is serialized on a bounded pool of worker threads into a temporary file
+ * created next to its target, which is then moved into place with
+ * {@link StandardCopyOption#ATOMIC_MOVE}. The temporary file is forced to the storage device
+ * before the move, so readers of a target file see either its previous or its new content,
+ * never a partially written file, even after a crash. When the file system does not support
+ * atomic moves, the temporary file replaces the target with a regular move.</p>
+ *
+ * <p>Documents that have not been modified since parsing ({@link Document#isModified()} is
+ * false) are skipped and their files are left untouched. Failures are reported per file
+ * through {@link Result}, and never prevent the remaining documents from being written.</p>
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * Map<Path, Document> poms = ...; // documents edited in bulk
+ * try (DocumentWriter writer = new DocumentWriter()) {
+ *     for (DocumentWriter.Result result : writer.writeAll(poms)) {
+ *         if (result.status() == DocumentWriter.Status.FAILED) {
+ *             log.error("Cannot write " + result.path(), result.failure());
+ *         }
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see Serializer#serialize(Document, OutputStream)
+ * @since 1.5.0
+ */
+public class DocumentWriter implements AutoCloseable {
+
+    /**
+     * Outcome of writing a single document.
+     */
+    public enum Status {
+        /** The document was written to its target file */
+        WRITTEN,
+        /** The document is unmodified and was not written */
+        SKIPPED,
+        /** The document could not be written, the target file is unchanged */
+        FAILED
+    }
+
+    /**
+     * The result of writing a single document to its target file.
+     */
+    public static final class Result {
+        private final Path path;
+        private final Status status;
+        private final DomTripException failure;
+
+        Result(Path path, Status status, DomTripException failure) {
+            this.path = path;
+            this.status = status;
+            this.failure = failure;
+        }
+
+        /**
+         * Returns the target file of the document.
+         *
+         * @return the target path
+         */
+        public Path path() {
+            return path;
+        }
+
+        /**
+         * Returns the outcome of the write.
+         *
+         * @return the write status
+         */
+        public Status status() {
+            return status;
+        }
+
+        /**
+         * Returns the reason the write failed.
+         *
+         * @return the failure, or null unless the status is {@link Status#FAILED}
+         */
+        public DomTripException failure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            return "Result{path=" + path + ", status=" + status + (failure != null ? ", failure=" + failure : "") + "}";
+        }
+    }
+
+    private final Serializer serializer;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a writer using the default configuration and one worker thread per available processor.
+     */
+    public DocumentWriter() {
+        this(DomTripConfig.defaults(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a writer using the default configuration and the given number of worker threads.
+     *
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public DocumentWriter(int threads) {
+        this(DomTripConfig.defaults(), threads);
+    }
+
+    /**
+     * Creates a writer serializing with the given configuration on the given number of worker threads.
+     *
+     * @param config the serialization configuration, or null for the default configuration
+     * @param threads the number of worker threads
+     * @throws IllegalArgumentException if threads is less than 1
+     */
+    public DocumentWriter(DomTripConfig config, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1, was " + threads);
+        }
+        this.serializer = new Serializer(config != null ? config : DomTripConfig.defaults());
+        this.executor = Executors.newFixedThreadPool(threads, new WriterThreadFactory());
+    }
+
+    /**
+     * Writes all given documents to their target files and waits for completion.
+     *
+     * @param documents the documents to write, keyed by their target file
+     * @return one result per document, in the iteration order of the map
+     */
+    public List<Result> writeAll(Map<Path, Document> documents) {
+        List<CompletableFuture<Result>> futures = new ArrayList<>(documents.size());
+        for (Map.Entry<Path, Document> entry : documents.entrySet()) {
+            futures.add(writeAsync(entry.getValue(), entry.getKey()));
+        }
+        List<Result> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<Result> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Schedules writing the given document to the given file.
+     *
+     * <p>The returned future always completes normally; a failure to write the document is
+     * reported through {@link Result#failure()}.</p>
+     *
+     * @param document the document to write
+     * @param path the target file
+     * @return a future completed with the result once the document has been written or skipped
+     */
+    public CompletableFuture<Result> writeAsync(Document document, Path path) {
+        try {
+            return CompletableFuture.supplyAsync(() -> write(document, path), executor);
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(
+                    new Result(path, Status.FAILED, new DomTripException("Failed to schedule write: " + path, e)));
+        }
+    }
+
+    /**
+     * Writes the given document to the given file on the calling thread.
+     *
+     * @param document the document to write
+     * @param path the target file
+     * @return the result of the write
+     */
+    public Result write(Document document, Path path) {
+        if (path == null) {
+            return new Result(null, Status.FAILED, new DomTripException("Path cannot be null"));
+        }
+        if (document == null) {
+            return new Result(path, Status.FAILED, new DomTripException("Document cannot be null"));
+        }
+        if (!document.isModified()) {
+            return new Result(path, Status.SKIPPED, null);
+        }
+
+        Path target = path.toAbsolutePath();
+        Path temp = null;
+        try {
+            temp = createTempFile(target);
+            writeDurably(document, temp);
+            moveIntoPlace(temp, target);
+            return new Result(path, Status.WRITTEN, null);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(temp);
+            DomTripException failure = e instanceof DomTripException
+                    ? (DomTripException) e
+                    : new DomTripException("Failed to write file: " + path, e);
+            return new Result(path, Status.FAILED, failure);
+        }
+    }
+
+    /**
+     * Creates an empty temporary file next to the target. Unlike {@link Files#createTempFile},
+     * the file gets the default permissions of new files, or those of the target if it exists,
+     * so replacing the target does not restrict access to it.
+     */
+    private static Path createTempFile(Path target) throws IOException {
+        Set<PosixFilePermission> permissions = permissionsOf(target);
+        while (true) {
+            Path temp = target.resolveSibling("." + target.getFileName() + "."
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.createFile(temp);
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+            if (permissions != null) {
+                Files.setPosixFilePermissions(temp, permissions);
+            }
+            return temp;
+        }
+    }
+
+    /**
+     * Returns the POSIX permissions of the given file, or null if it does not exist or the
+     * file system does not support POSIX permissions.
+     */
+    private static Set<PosixFilePermission> permissionsOf(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, PosixFileAttributes.class).permissions();
+        } catch (NoSuchFileException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Serializes a document into the temporary file and forces its content to the storage
+     * device, so that a crash after the move cannot leave the target empty or truncated.
+     */
+    private void writeDurably(Document document, Path temp) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            // The serializer closes the stream, which must leave the channel open for force()
+            OutputStream out = new BufferedOutputStream(new UnclosedOutputStream(Channels.newOutputStream(channel)));
+            serializer.serialize(document, out);
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp != null) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                // Ignore, the original failure is reported
+            }
+        }
+    }
+
+    /**
+     * Stops accepting new writes. Writes that have already been scheduled still complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Passes writes through to a stream that closing this one only flushes.
+     */
+    private static final class UnclosedOutputStream extends FilterOutputStream {
+
+        UnclosedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * Creates named daemon threads, so that an unclosed writer does not keep the JVM alive.
+     */
+    private static final class WriterThreadFactory implements ThreadFactory {
+        private static final AtomicInteger WRITERS = new AtomicInteger();
+        private final int writer = WRITERS.incrementAndGet();
+        private final AtomicInteger threads = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "domtrip-writer-" + writer + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -70,6 +70,8 @@ public class DomTripConfig {
     private String lineEnding = "\n";
     private boolean omitXmlDeclaration = false;
     private boolean ignoreInvalidEncoding = true;
+    private boolean serializationCache = false;
+    private boolean parallelSerialization = false;
 
     private DomTripConfig() {}
 
@@ -161,6 +163,38 @@ public class DomTripConfig {
         return this;
     }
 
+    /**
+     * Enables caching of serialized subtrees between successive serializations.
+     *
+     * <p>When enabled, serializers created from this configuration (including the one
+     * used by {@link Editor#toXml()}) remember the output of every sufficiently large
+     * element together with its {@link Node#generation() generation}, and reuse it as
+     * long as the element has not changed. Repeated serialization of a large document
+     * after a small edit then only re-serializes the elements on the path to the change.</p>
+     *
+     * @param serializationCache true to cache serialized subtrees
+     * @return this configuration for method chaining
+     * @see Serializer#setSerializationCache(boolean)
+     * @since 1.5.0
+     */
+    public DomTripConfig withSerializationCache(boolean serializationCache) {
+        this.serializationCache = serializationCache;
+        return this;
+    }
+
+    /**
+     * Enables parallel serialization of elements with many children on the common fork/join pool.
+     *
+     * @param parallelSerialization true to serialize wide elements in parallel
+     * @return this configuration for method chaining
+     * @see Serializer#setParallel(java.util.concurrent.ForkJoinPool)
+     * @since 1.5.0
+     */
+    public DomTripConfig withParallelSerialization(boolean parallelSerialization) {
+        this.parallelSerialization = parallelSerialization;
+        return this;
+    }
+
     /**
      * Automatically detects and configures the empty element style based on existing
      * empty elements in the provided document.
@@ -214,4 +248,12 @@ public class DomTripConfig {
     public boolean isIgnoreInvalidEncoding() {
         return ignoreInvalidEncoding;
     }
+
+    public boolean isSerializationCache() {
+        return serializationCache;
+    }
+
+    public boolean isParallelSerialization() {
+        return parallelSerialization;
+    }
 }
@@ -10,6 +10,7 @@ package eu.maveniverse.domtrip;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -180,6 +181,8 @@ public class Editor {
     public Editor(Document document, DomTripConfig config) {
         this.config = config != null ? config : DomTripConfig.defaults();
         this.serializer = new Serializer();
+        this.serializer.setSerializationCache(this.config.isSerializationCache());
+        this.serializer.setParallel(this.config.isParallelSerialization());
         this.document = document; // Can be null for empty editors
         this.lineEnding = detectLineEnding(); // Detect from document or use config default
         this.detectedIndentationUnit = detectDocumentIndentationUnit(); // Detect once after parsing
@@ -550,8 +553,10 @@ public class Editor {
                 target.contentPreservingWhitespace(content);
                 // Remove any other non-whitespace text nodes (mixed content cleanup)
                 final Text kept = target;
-                element.children.removeIf(
-                        child -> child instanceof Text && child != kept && !((Text) child).isWhitespaceOnly());
+                Predicate<Node> mixed =
+                        child -> child instanceof Text && child != kept && !((Text) child).isWhitespaceOnly();
+                ChangeJournal.removing(element, mixed);
+                element.children.removeIf(mixed);
                 return;
             }
         }
@@ -1087,7 +1092,7 @@ public class Editor {
      * @since 1.3.0
      */
     public java.util.List<Element> select(String expression) {
-        return XPathExpression.compile(expression).select(root());
+        return XPathExpression.cache().get(expression).select(root());
     }
 
     /**
@@ -1106,7 +1111,7 @@ public class Editor {
      * @since 1.3.0
      */
     public java.util.Optional<Element> selectFirst(String expression) {
-        return XPathExpression.compile(expression).selectFirst(root());
+        return XPathExpression.cache().get(expression).selectFirst(root());
     }
 
     /**
@@ -2076,6 +2081,7 @@ public class Editor {
         if (nodeIndex == parent.children.size() - 1) {
             // Last node - this is inner preceding whitespace for the parent
             parentElement.innerPrecedingWhitespaceInternal(whitespace);
+            ChangeJournal.whitespaceChanged(parentElement);
             parent.removeChild(textNode);
             return true;
         }
@@ -2084,6 +2090,7 @@ public class Editor {
         Node nextNode = parent.children.get(nodeIndex + 1);
         if (nextNode instanceof Element) {
             nextNode.precedingWhitespaceInternal(whitespace);
+            ChangeJournal.valueChanged(nextNode);
             parent.removeChild(textNode);
             return true;
         }
@@ -8,6 +8,7 @@
 package eu.maveniverse.domtrip;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -109,6 +110,9 @@ public class Element extends ContainerNode {
     private String originalOpenTag; // Materialized string (from public API or lazily from source)
     private String originalCloseTag;
 
+    /** The fingerprint last computed for this element, validated by its generation */
+    Fingerprinter.Entry fingerprintEntry;
+
     /**
      * Create a new Element with the given tag name.
      *
@@ -148,16 +152,19 @@ public class Element extends ContainerNode {
         // Deep copy attributes to avoid sharing Attribute objects
         this.attributes = new LinkedHashMap<>();
         for (Map.Entry<String, Attribute> entry : original.attributes.entrySet()) {
-            this.attributes.put(entry.getKey(), entry.getValue().copy());
+            Attribute copy = entry.getValue().copy();
+            copy.owner(this);
+            this.attributes.put(entry.getKey(), copy);
         }
 
         this.openTagWhitespace = original.openTagWhitespace;
         this.closeTagWhitespace = original.closeTagWhitespace;
         this.innerPrecedingWhitespace = original.innerPrecedingWhitespace;
         this.selfClosing = original.selfClosing;
-        // Materialize original tags to avoid pinning the entire source buffer
-        this.originalOpenTag = original.originalOpenTag();
-        this.originalCloseTag = original.originalCloseTag();
+        // Materialize original tags to avoid pinning the entire source buffer, dropping them once
+        // stale, since the copy starts unmodified and would otherwise serialize them
+        this.originalOpenTag = original.isModified() ? "" : original.originalOpenTag();
+        this.originalCloseTag = original.isModified() ? "" : original.originalCloseTag();
         this.tagSource = null;
         this.openTagStart = -1;
         this.openTagEnd = -1;
@@ -212,6 +219,7 @@ public class Element extends ContainerNode {
     public Element name(String name) {
         this.name = name;
         markModified();
+        ChangeJournal.renamed(this);
         return this;
     }
 
@@ -258,9 +266,10 @@ public class Element extends ContainerNode {
             existingAttr.value(value);
         } else {
             // Create new attribute with default formatting
-            attributes.put(name, new Attribute(name, value));
+            putAttribute(name, new Attribute(name, value));
         }
         markModified();
+        ChangeJournal.attributeChanged(this, name);
         return this;
     }
 
@@ -285,9 +294,10 @@ public class Element extends ContainerNode {
             existingAttr.quoteStyle(quoteStyle);
         } else {
             // Create new attribute with specified quote style
-            attributes.put(name, new Attribute(name, value, quoteStyle, " "));
+            putAttribute(name, new Attribute(name, value, quoteStyle, " "));
         }
         markModified();
+        ChangeJournal.attributeChanged(this, name);
         return this;
     }
 
@@ -296,18 +306,40 @@ public class Element extends ContainerNode {
      */
     void attributeInternal(String name, String value, char quoteChar, String precedingWhitespace, String rawValue)
             throws DomTripException {
-        attributes.put(name, new Attribute(name, value, quoteChar, precedingWhitespace, rawValue));
+        putAttribute(name, new Attribute(name, value, quoteChar, precedingWhitespace, rawValue));
         // Don't call markModified() here
     }
 
+    /**
+     * Puts an attribute in the map, making this element its owner and releasing the attribute
+     * it replaces.
+     */
+    private void putAttribute(String name, Attribute attribute) {
+        attribute.owner(this);
+        Attribute previous = attributes.put(name, attribute);
+        if (previous != attribute) {
+            release(previous);
+        }
+    }
+
+    /** Stops an attribute no longer held by this element from marking it as modified. */
+    private void release(Attribute attribute) {
+        if (attribute != null && attribute.owner() == this) {
+            attribute.owner(null);
+        }
+    }
+
     /**
      * Removes the specified attribute from this element.
      *
      * @param name the name of the attribute to remove
      */
     public void removeAttribute(String name) {
-        if (attributes.remove(name) != null) {
+        Attribute removed = attributes.remove(name);
+        if (removed != null) {
+            release(removed);
             markModified();
+            ChangeJournal.attributeChanged(this, name);
         }
     }
 
@@ -333,6 +365,25 @@ public class Element extends ContainerNode {
         return new LinkedHashMap<>(attributes);
     }
 
+    /**
+     * Checks if this element has any attributes, including namespace declarations,
+     * without copying them.
+     *
+     * @return true if the element has at least one attribute
+     * @since 1.5.0
+     */
+    public boolean hasAttributes() {
+        return !attributes.isEmpty();
+    }
+
+    /**
+     * Returns a live view of the attribute objects in declaration order, for internal
+     * iteration without copying. Callers must not modify it.
+     */
+    Collection<Attribute> attributeValues() {
+        return attributes.values();
+    }
+
     /**
      * Checks if this element has the specified attribute.
      *
@@ -362,8 +413,9 @@ public class Element extends ContainerNode {
      */
     public Element attributeObject(String name, Attribute attribute) {
         if (name != null && attribute != null) {
-            attributes.put(name, attribute);
+            putAttribute(name, attribute);
             markModified();
+            ChangeJournal.attributeChanged(this, name);
         }
         return this;
     }
@@ -381,6 +433,7 @@ public class Element extends ContainerNode {
         Attribute attr = attributes.get(attributeName);
         if (attr != null) {
             attr.precedingWhitespace(whitespace);
+            ChangeJournal.attributeChanged(this, attributeName);
         }
         return this;
     }
@@ -407,6 +460,7 @@ public class Element extends ContainerNode {
         Attribute attr = attributes.get(attributeName);
         if (attr != null) {
             attr.quoteStyle(quoteStyle);
+            ChangeJournal.attributeChanged(this, attributeName);
         }
         return this;
     }
@@ -443,6 +497,7 @@ public class Element extends ContainerNode {
     public Element precedingWhitespace(String whitespace) {
         this.precedingWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.whitespaceChanged(this);
         return this;
     }
 
@@ -464,6 +519,7 @@ public class Element extends ContainerNode {
     public Element openTagWhitespace(String whitespace) {
         this.openTagWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.whitespaceChanged(this);
         return this;
     }
 
@@ -492,6 +548,7 @@ public class Element extends ContainerNode {
     public Element closeTagWhitespace(String whitespace) {
         this.closeTagWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.whitespaceChanged(this);
         return this;
     }
 
@@ -542,6 +599,7 @@ public class Element extends ContainerNode {
     public Element innerPrecedingWhitespace(String whitespace) {
         this.innerPrecedingWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.whitespaceChanged(this);
         return this;
     }
 
@@ -550,6 +608,7 @@ public class Element extends ContainerNode {
      */
     void innerPrecedingWhitespaceInternal(String whitespace) {
         this.innerPrecedingWhitespace = whitespace != null ? whitespace : "";
+        advanceGeneration();
     }
 
     /**
@@ -570,6 +629,7 @@ public class Element extends ContainerNode {
     public Element selfClosing(boolean selfClosing) {
         this.selfClosing = selfClosing;
         markModified();
+        ChangeJournal.whitespaceChanged(this);
         return this;
     }
 
@@ -578,6 +638,7 @@ public class Element extends ContainerNode {
      */
     void selfClosingInternal(boolean selfClosing) {
         this.selfClosing = selfClosing;
+        advanceGeneration();
     }
 
     // Original tag preservation
@@ -675,6 +736,13 @@ public class Element extends ContainerNode {
         this.originalCloseTag = null; // Lazily materialized
     }
 
+    /**
+     * Returns the length of the source this element was parsed from, or 0 if it is not source-backed.
+     */
+    int sourceLength() {
+        return tagSource != null ? tagSource.length() : 0;
+    }
+
     /**
      * Serialize this element into XML and append the result to the supplied StringBuilder.
      *
@@ -686,13 +754,73 @@ public class Element extends ContainerNode {
      */
     @Override
     public void toXml(StringBuilder sb) {
-        if (!isModified() && hasOriginalOpenTag()) {
-            toXmlPreserved(sb);
+        if (appendOpenTag(sb)) {
+            appendChildren(sb);
+            appendCloseTag(sb);
+        }
+    }
+
+    /**
+     * Appends this element's preceding whitespace and open tag to the provided StringBuilder.
+     *
+     * <p>The preserved original tag is used when the element is unmodified, otherwise the tag is
+     * built from the element's current state. Together with {@link #appendCloseTag(StringBuilder)}
+     * this lets callers serialize the children themselves, producing exactly the output of
+     * {@link #toXml(StringBuilder)}.</p>
+     *
+     * @param sb the StringBuilder to append to
+     * @return {@code true} if children and a close tag follow, {@code false} for a self-closing element
+     */
+    boolean appendOpenTag(StringBuilder sb) {
+        sb.append(precedingWhitespace);
+
+        if (isPreserved()) {
+            appendOriginalOpenTag(sb);
+            return !selfClosing;
+        }
+
+        sb.append("<").append(name);
+
+        // Add attributes
+        for (Attribute attr : attributes.values()) {
+            attr.toXml(sb, !isModified());
+        }
+
+        if (selfClosing) {
+            sb.append(openTagWhitespace).append("/>");
+            return false;
+        }
+        sb.append(openTagWhitespace).append(">");
+        return true;
+    }
+
+    /**
+     * Appends this element's inner preceding whitespace and close tag to the provided StringBuilder,
+     * using the preserved original close-tag text when available.
+     *
+     * @param sb the StringBuilder to append to
+     */
+    void appendCloseTag(StringBuilder sb) {
+        sb.append(innerPrecedingWhitespace);
+
+        if (!isPreserved()) {
+            sb.append("</").append(closeTagWhitespace).append(name).append(">");
+        } else if (hasOriginalCloseTag()) {
+            appendOriginalCloseTag(sb);
         } else {
-            toXmlFromScratch(sb);
+            sb.append("</").append(name).append(">");
         }
     }
 
+    /**
+     * Determine whether this element is serialized using its preserved original tags.
+     *
+     * @return `true` if the element is unmodified and an original open tag is available
+     */
+    private boolean isPreserved() {
+        return !isModified() && hasOriginalOpenTag();
+    }
+
     /**
      * Determine whether an original open tag is available.
      *
@@ -740,63 +868,6 @@ public class Element extends ContainerNode {
         }
     }
 
-    /**
-     * Serialize this element into the given StringBuilder using preserved original tags and formatting.
-     *
-     * @param sb the StringBuilder to append the serialized element to
-     */
-    private void toXmlPreserved(StringBuilder sb) {
-        sb.append(precedingWhitespace);
-
-        if (selfClosing) {
-            appendOriginalOpenTag(sb);
-            return;
-        }
-
-        appendOriginalOpenTag(sb);
-
-        appendChildrenAndCloseTag(sb);
-    }
-
-    /**
-     * Serializes by building the tag from scratch.
-     */
-    private void toXmlFromScratch(StringBuilder sb) {
-        sb.append(precedingWhitespace);
-        sb.append("<").append(name);
-
-        // Add attributes
-        for (Attribute attr : attributes.values()) {
-            attr.toXml(sb, !isModified());
-        }
-
-        if (selfClosing) {
-            sb.append(openTagWhitespace).append("/>");
-        } else {
-            sb.append(openTagWhitespace).append(">");
-            appendChildren(sb);
-            sb.append(innerPrecedingWhitespace);
-            sb.append("</").append(closeTagWhitespace).append(name).append(">");
-        }
-    }
-
-    /**
-     * Append this element's children, then its inner preceding whitespace, and finally the closing tag to the provided StringBuilder,
-     * using the preserved original close-tag text when available.
-     *
-     * @param sb the StringBuilder to append XML content to
-     */
-    private void appendChildrenAndCloseTag(StringBuilder sb) {
-        appendChildren(sb);
-        sb.append(innerPrecedingWhitespace);
-
-        if (hasOriginalCloseTag()) {
-            appendOriginalCloseTag(sb);
-        } else {
-            sb.append("</").append(name).append(">");
-        }
-    }
-
     /**
      * Appends all children XML to the builder.
      */
@@ -858,6 +929,7 @@ public class Element extends ContainerNode {
      */
     public Element textContent(String content) {
         // Remove all existing text children
+        ChangeJournal.removing(this, Text.class::isInstance);
         children.removeIf(Text.class::isInstance);
 
         // Add new text content if not empty
@@ -1011,6 +1083,43 @@ public class Element extends ContainerNode {
         return NamespaceResolver.buildNamespaceContext(this);
     }
 
+    /**
+     * Returns the semantic fingerprint of this element with the default configuration.
+     *
+     * @return the fingerprint of this element
+     * @see #fingerprint(FingerprintConfig)
+     * @since 1.5.0
+     */
+    public Fingerprint fingerprint() {
+        return fingerprint(FingerprintConfig.defaults());
+    }
+
+    /**
+     * Returns the semantic fingerprint of this element: a 128-bit hash of its names,
+     * namespaces, attributes and text and of those of its descendants, which ignores
+     * formatting.
+     *
+     * <p>Elements with the same content have the same fingerprint wherever they appear, as
+     * names are hashed by namespace URI and local name, whatever their prefix. The
+     * fingerprint of every element is cached until its subtree is modified, so after a
+     * small edit the fingerprint is only recomputed for the elements on the path to the
+     * change.</p>
+     *
+     * <pre>{@code
+     * Fingerprint before = dependencies.fingerprint();
+     * editor.setTextContent(version, "2.0");
+     * boolean changed = !dependencies.fingerprint().equals(before);
+     * }</pre>
+     *
+     * @param config defines the content covered by the fingerprint
+     * @return the fingerprint of this element
+     * @see Fingerprint
+     * @since 1.5.0
+     */
+    public Fingerprint fingerprint(FingerprintConfig config) {
+        return Fingerprinter.element(this, Objects.requireNonNull(config, "config"));
+    }
+
     /**
      * Sets a namespace declaration attribute (xmlns or xmlns:prefix).
      *
@@ -1289,8 +1398,8 @@ public class Element extends ContainerNode {
      * Evaluates a mini-XPath expression against this element and returns all matching elements.
      *
      * <p>This is a convenience method that compiles and evaluates the expression in one step.
-     * For repeated evaluation of the same expression, use {@link XPathExpression#compile(String)}
-     * to compile once and reuse.</p>
+     * Compiled expressions are kept in the bounded {@link XPathExpression#cache()}, so repeated
+     * evaluation of the same expression does not parse it again.</p>
      *
      * <h3>Examples:</h3>
      * <pre>{@code
@@ -1306,15 +1415,15 @@ public class Element extends ContainerNode {
      * @since 1.3.0
      */
     public List<Element> select(String expression) {
-        return XPathExpression.compile(expression).select(this);
+        return XPathExpression.cache().get(expression).select(this);
     }
 
     /**
      * Evaluates a mini-XPath expression against this element and returns the first match.
      *
      * <p>This is a convenience method that compiles and evaluates the expression in one step.
-     * For repeated evaluation of the same expression, use {@link XPathExpression#compile(String)}
-     * to compile once and reuse.</p>
+     * Compiled expressions are kept in the bounded {@link XPathExpression#cache()}, so repeated
+     * evaluation of the same expression does not parse it again.</p>
      *
      * <h3>Examples:</h3>
      * <pre>{@code
@@ -1329,7 +1438,7 @@ public class Element extends ContainerNode {
      * @since 1.3.0
      */
     public Optional<Element> selectFirst(String expression) {
-        return XPathExpression.compile(expression).selectFirst(this);
+        return XPathExpression.cache().get(expression).selectFirst(this);
     }
 
     /**
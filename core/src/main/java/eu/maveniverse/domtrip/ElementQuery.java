@@ -7,11 +7,18 @@
  */
 package eu.maveniverse.domtrip;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Fluent API for querying and filtering XML elements.
@@ -51,14 +58,35 @@ import java.util.stream.Stream;
  *   <li><strong>Namespace-based</strong> - Filter by namespace URI</li>
  * </ul>
  *
+ * <h3>Evaluation:</h3>
+ * <p>A query keeps its name, namespace, depth, attribute and child-element constraints
+ * apart from custom predicates. When a terminal operation runs, the descendants of the
+ * root element are walked depth-first without descending below the queried depth, the
+ * cheap constraints are tested first, and {@link #first()} and {@link #exists()} stop at
+ * the first match. When the query requires an attribute value and that attribute is one of the
+ * document's {@linkplain Document#idAttributes() ID attributes}, the candidates are taken from
+ * the document's ID index instead of walking the tree. Each terminal operation sees the
+ * current state of the tree, so a query can be evaluated any number of times.</p>
+ *
  * @see Element
  * @see QName
  */
 public class ElementQuery {
 
     private final Element rootElement;
-    private final Stream<Element> baseStream;
-    private final Predicate<Element> filter;
+
+    // Constraints the planner can use to prune the traversal or test cheaply
+    private String localName;
+    private List<String> namespaceURIs = Collections.emptyList();
+    private List<QName> qnames = Collections.emptyList();
+    private int depth = -1;
+    private List<AttributeConstraint> attributes = Collections.emptyList();
+    private Boolean withChildElements;
+    /** Set when two constraints contradict each other, so that nothing can match */
+    private boolean unsatisfiable;
+
+    /** Remaining constraints, tested in the order they were added */
+    private Predicate<Element> filter;
 
     /**
      * Creates a new ElementQuery starting from the given element.
@@ -67,21 +95,74 @@ public class ElementQuery {
      */
     ElementQuery(Element rootElement) {
         this.rootElement = rootElement;
-        this.baseStream = rootElement.descendants();
-        this.filter = element -> true; // Start with no filtering
     }
 
     /**
-     * Creates a new ElementQuery with a custom base stream and filter.
+     * Creates a copy of a query, to which a constraint is then added.
      *
-     * @param rootElement the root element
-     * @param baseStream the base stream of elements to filter
-     * @param filter the current filter predicate
+     * @param query the query to copy
      */
-    private ElementQuery(Element rootElement, Stream<Element> baseStream, Predicate<Element> filter) {
-        this.rootElement = rootElement;
-        this.baseStream = baseStream;
-        this.filter = filter;
+    private ElementQuery(ElementQuery query) {
+        this.rootElement = query.rootElement;
+        this.localName = query.localName;
+        this.namespaceURIs = query.namespaceURIs;
+        this.qnames = query.qnames;
+        this.depth = query.depth;
+        this.attributes = query.attributes;
+        this.withChildElements = query.withChildElements;
+        this.unsatisfiable = query.unsatisfiable;
+        this.filter = query.filter;
+    }
+
+    private ElementQuery withLocalName(String name) {
+        ElementQuery query = new ElementQuery(this);
+        if (query.localName == null) {
+            query.localName = name;
+        } else if (!query.localName.equals(name)) {
+            query.unsatisfiable = true;
+        }
+        return query;
+    }
+
+    private ElementQuery inNamespace(String namespaceURI) {
+        ElementQuery query = new ElementQuery(this);
+        query.namespaceURIs = append(namespaceURIs, namespaceURI);
+        return query;
+    }
+
+    private ElementQuery inNamespaceOf(QName qname) {
+        ElementQuery query = new ElementQuery(this);
+        query.qnames = append(qnames, qname);
+        return query;
+    }
+
+    private ElementQuery withAttributeConstraint(String name, String value) {
+        ElementQuery query = new ElementQuery(this);
+        query.attributes = append(attributes, new AttributeConstraint(name, value));
+        return query;
+    }
+
+    private ElementQuery withChildElements(boolean present) {
+        ElementQuery query = new ElementQuery(this);
+        if (query.withChildElements == null) {
+            query.withChildElements = present;
+        } else if (query.withChildElements != present) {
+            query.unsatisfiable = true;
+        }
+        return query;
+    }
+
+    private ElementQuery withFilter(Predicate<Element> predicate) {
+        ElementQuery query = new ElementQuery(this);
+        query.filter = filter != null ? filter.and(predicate) : predicate;
+        return query;
+    }
+
+    private static <T> List<T> append(List<T> list, T value) {
+        List<T> result = new ArrayList<>(list.size() + 1);
+        result.addAll(list);
+        result.add(value);
+        return result;
     }
 
     /**
@@ -94,7 +175,7 @@ public class ElementQuery {
         if (name == null) {
             return this;
         }
-        return new ElementQuery(rootElement, baseStream, filter.and(element -> name.equals(element.localName())));
+        return withLocalName(name);
     }
 
     /**
@@ -107,10 +188,7 @@ public class ElementQuery {
         if (qname == null) {
             return this;
         }
-        return new ElementQuery(
-                rootElement,
-                baseStream,
-                filter.and(element -> qname.matches(element.namespaceURI(), element.localName())));
+        return withLocalName(qname.localName()).inNamespaceOf(qname);
     }
 
     /**
@@ -123,8 +201,7 @@ public class ElementQuery {
         if (namespaceURI == null) {
             return this;
         }
-        return new ElementQuery(
-                rootElement, baseStream, filter.and(element -> namespaceURI.equals(element.namespaceURI())));
+        return inNamespace(namespaceURI);
     }
 
     /**
@@ -137,7 +214,7 @@ public class ElementQuery {
         if (attributeName == null) {
             return this;
         }
-        return new ElementQuery(rootElement, baseStream, filter.and(element -> element.hasAttribute(attributeName)));
+        return withAttributeConstraint(attributeName, null);
     }
 
     /**
@@ -151,12 +228,7 @@ public class ElementQuery {
         if (attributeName == null) {
             return this;
         }
-        return new ElementQuery(
-                rootElement,
-                baseStream,
-                filter.and(element -> attributeValue != null
-                        ? attributeValue.equals(element.attribute(attributeName))
-                        : element.hasAttribute(attributeName)));
+        return withAttributeConstraint(attributeName, attributeValue);
     }
 
     /**
@@ -169,8 +241,7 @@ public class ElementQuery {
         if (attributeQName == null) {
             return this;
         }
-        return new ElementQuery(
-                rootElement, baseStream, filter.and(element -> element.hasAttribute(attributeQName.qualifiedName())));
+        return withAttributeConstraint(attributeQName.qualifiedName(), null);
     }
 
     /**
@@ -184,12 +255,7 @@ public class ElementQuery {
         if (attributeQName == null) {
             return this;
         }
-        return new ElementQuery(
-                rootElement,
-                baseStream,
-                filter.and(element -> attributeValue != null
-                        ? attributeValue.equals(element.attribute(attributeQName.qualifiedName()))
-                        : element.hasAttribute(attributeQName.qualifiedName())));
+        return withAttributeConstraint(attributeQName.qualifiedName(), attributeValue);
     }
 
     /**
@@ -202,8 +268,7 @@ public class ElementQuery {
         if (textContent == null) {
             return this;
         }
-        return new ElementQuery(
-                rootElement, baseStream, filter.and(element -> textContent.equals(element.textContent())));
+        return withFilter(element -> textContent.equals(element.textContent()));
     }
 
     /**
@@ -216,24 +281,30 @@ public class ElementQuery {
         if (text == null) {
             return this;
         }
-        return new ElementQuery(rootElement, baseStream, filter.and(element -> {
+        return withFilter(element -> {
             String content = element.textContent();
             return content != null && content.contains(text);
-        }));
+        });
     }
 
     /**
      * Filters elements at the specified depth from the root element.
+     * The traversal does not descend below that depth.
      *
-     * @param depth the depth level (0 = root element, 1 = direct children, etc.)
+     * @param depth the depth level (0 = direct children of the root element, 1 = their children, etc.)
      * @return a new ElementQuery with the depth filter applied
      */
     public ElementQuery atDepth(int depth) {
         if (depth < 0) {
             return this;
         }
-        return new ElementQuery(
-                rootElement, baseStream, filter.and(element -> element.depth() - rootElement.depth() == depth + 1));
+        ElementQuery query = new ElementQuery(this);
+        if (query.depth < 0) {
+            query.depth = depth;
+        } else if (query.depth != depth) {
+            query.unsatisfiable = true;
+        }
+        return query;
     }
 
     /**
@@ -242,7 +313,7 @@ public class ElementQuery {
      * @return a new ElementQuery with the has children filter applied
      */
     public ElementQuery withChildren() {
-        return new ElementQuery(rootElement, baseStream, filter.and(Element::hasChildElements));
+        return withChildElements(true);
     }
 
     /**
@@ -251,7 +322,7 @@ public class ElementQuery {
      * @return a new ElementQuery with the no children filter applied
      */
     public ElementQuery withoutChildren() {
-        return new ElementQuery(rootElement, baseStream, filter.and(element -> !element.hasChildElements()));
+        return withChildElements(false);
     }
 
     /**
@@ -264,25 +335,50 @@ public class ElementQuery {
         if (customFilter == null) {
             return this;
         }
-        return new ElementQuery(rootElement, baseStream, filter.and(customFilter));
+        return withFilter(customFilter);
     }
 
     /**
      * Returns the first element matching the query criteria.
+     * The traversal stops at the first match.
      *
      * @return an Optional containing the first matching element, or empty if none found
      */
     public Optional<Element> first() {
-        return baseStream.filter(filter).findFirst();
+        return Optional.ofNullable(new Traversal().next());
     }
 
     /**
      * Returns all elements matching the query criteria as a Stream.
+     * The elements are found lazily, in document order, as the stream is consumed.
      *
      * @return a Stream of matching elements
      */
     public Stream<Element> all() {
-        return baseStream.filter(filter);
+        if (unsatisfiable) {
+            return Stream.empty();
+        }
+        Traversal traversal = new Traversal();
+        Iterator<Element> iterator = new Iterator<Element>() {
+            private Element next = traversal.next();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public Element next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Element result = next;
+                next = traversal.next();
+                return result;
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
     /**
@@ -291,7 +387,12 @@ public class ElementQuery {
      * @return a List of matching elements
      */
     public List<Element> toList() {
-        return all().collect(Collectors.toList());
+        List<Element> result = new ArrayList<>();
+        Traversal traversal = new Traversal();
+        for (Element element = traversal.next(); element != null; element = traversal.next()) {
+            result.add(element);
+        }
+        return result;
     }
 
     /**
@@ -300,15 +401,189 @@ public class ElementQuery {
      * @return the count of matching elements
      */
     public long count() {
-        return all().count();
+        long count = 0;
+        Traversal traversal = new Traversal();
+        while (traversal.next() != null) {
+            count++;
+        }
+        return count;
     }
 
     /**
      * Checks if any elements match the query criteria.
+     * The traversal stops at the first match.
      *
      * @return true if at least one element matches
      */
     public boolean exists() {
-        return first().isPresent();
+        return new Traversal().next() != null;
+    }
+
+    private boolean matches(Element element, int elementDepth) {
+        if (depth >= 0 && elementDepth != depth) {
+            return false;
+        }
+        if (localName != null && !hasLocalName(element.name(), localName)) {
+            return false;
+        }
+        for (AttributeConstraint attribute : attributes) {
+            if (!attribute.matches(element)) {
+                return false;
+            }
+        }
+        if (withChildElements != null && element.hasChildElements() != withChildElements) {
+            return false;
+        }
+        if (!namespaceURIs.isEmpty() || !qnames.isEmpty()) {
+            // Resolving the namespace walks the ancestors, so it is tested after the local checks
+            String namespaceURI = element.namespaceURI();
+            for (String expected : namespaceURIs) {
+                if (!expected.equals(namespaceURI)) {
+                    return false;
+                }
+            }
+            for (QName qname : qnames) {
+                if (!qname.matches(namespaceURI, qname.localName())) {
+                    return false;
+                }
+            }
+        }
+        return filter == null || filter.test(element);
+    }
+
+    /**
+     * Checks the local name of a qualified name in place, without splitting it.
+     */
+    private static boolean hasLocalName(String qualifiedName, String name) {
+        int localStart = XPathExpression.localNameStart(qualifiedName);
+        return qualifiedName.length() - localStart == name.length() && qualifiedName.startsWith(name, localStart);
+    }
+
+    /**
+     * An attribute that must be present, with the given value unless it is null.
+     */
+    private static final class AttributeConstraint {
+        private final String name;
+        private final String value;
+
+        AttributeConstraint(String name, String value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        boolean matches(Element element) {
+            return value != null ? value.equals(element.attribute(name)) : element.hasAttribute(name);
+        }
+    }
+
+    /**
+     * Returns the elements the document's ID index holds for an ID attribute value this query
+     * requires, or null if the query has no such constraint or the root is not in a document.
+     */
+    private List<Element> indexedCandidates() {
+        Document document = null;
+        for (AttributeConstraint attribute : attributes) {
+            if (attribute.value == null) {
+                continue;
+            }
+            if (document == null) {
+                document = rootElement.document();
+                if (document == null) {
+                    return null;
+                }
+            }
+            if (document.idAttributes().contains(attribute.name)) {
+                return document.idIndex().all(attribute.value);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the depth of an element below the root element, or -1 if it is not a descendant.
+     */
+    private int depthBelowRoot(Element element) {
+        int elementDepth = 0;
+        for (Node ancestor = element.parent(); ancestor != null; ancestor = ancestor.parent()) {
+            if (ancestor == rootElement) {
+                return elementDepth;
+            }
+            elementDepth++;
+        }
+        return -1;
+    }
+
+    /**
+     * The plan of a query: the candidates from the ID index when the query requires an ID,
+     * otherwise a depth-first walk over the live child lists below the root element, which does
+     * not descend below the queried depth. Either way it stops as soon as the caller has enough
+     * matches. A new traversal is started for each terminal operation, so that a query can be
+     * evaluated again after the document changed.
+     */
+    private final class Traversal {
+        private List<?>[] lists = new List<?>[16];
+        private int[] positions = new int[16];
+        /** Number of open child lists, one more than the depth of the elements in the top one */
+        private int size;
+        /** Candidates from the ID index, in document order, or null when walking the tree */
+        private List<Element> candidates;
+
+        private int candidate;
+
+        Traversal() {
+            if (!unsatisfiable) {
+                candidates = indexedCandidates();
+                if (candidates == null) {
+                    push(rootElement.children);
+                }
+            }
+        }
+
+        /**
+         * Returns the next matching element in document order, or null when there are no more.
+         */
+        Element next() {
+            if (candidates != null) {
+                while (candidate < candidates.size()) {
+                    Element element = candidates.get(candidate++);
+                    int elementDepth = depthBelowRoot(element);
+                    if (elementDepth >= 0 && matches(element, elementDepth)) {
+                        return element;
+                    }
+                }
+                return null;
+            }
+            while (size > 0) {
+                List<?> children = lists[size - 1];
+                int position = positions[size - 1];
+                if (position == children.size()) {
+                    size--;
+                    continue;
+                }
+                positions[size - 1] = position + 1;
+                Object child = children.get(position);
+                if (!(child instanceof Element)) {
+                    continue;
+                }
+                Element element = (Element) child;
+                int elementDepth = size - 1;
+                if ((depth < 0 || elementDepth < depth) && !element.children.isEmpty()) {
+                    push(element.children);
+                }
+                if (matches(element, elementDepth)) {
+                    return element;
+                }
+            }
+            return null;
+        }
+
+        private void push(List<?> children) {
+            if (size == lists.length) {
+                lists = Arrays.copyOf(lists, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            lists[size] = children;
+            positions[size++] = 0;
+        }
     }
 }
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A concurrent, bounded cache of compiled expressions keyed by their expression string.
+ *
+ * <p>The expressions are spread by hash over up to 16 segments, each an access-ordered map
+ * with its own lock and a share of the maximum size, so that concurrent lookups rarely wait
+ * for each other. When a miss would grow a segment beyond its share, the least recently used
+ * expression of that segment is evicted in constant time. Caches of fewer than 32 expressions
+ * have a single segment and evict exactly the least recently used expression. Expressions are
+ * compiled outside of the locks, and those that fail to compile are not cached, so every
+ * lookup of an invalid expression fails again.</p>
+ *
+ * <p>The cache counts hits, misses and evictions, which makes it possible to check whether
+ * an application evaluates a bounded set of expressions. A consistently high miss rate
+ * indicates expressions built from variable data, which are better compiled explicitly.</p>
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * ExpressionCache<XPathExpression> cache = XPathExpression.cache();
+ * List<Element> deps = root.select("//dependency"); // compiled and cached
+ * deps = root.select("//dependency");                // reused
+ * System.out.println(cache.hitCount() + " hits, " + cache.missCount() + " misses");
+ * }</pre>
+ *
+ * @param <T> the type of compiled expressions, which must be safe to share across threads
+ * @see XPathExpression#cache()
+ * @since 1.5.0
+ */
+public final class ExpressionCache<T> {
+
+    /** The maximum number of expressions kept by the shared caches */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    /** The maximum number of independently locked segments */
+    private static final int MAXIMUM_SEGMENTS = 16;
+
+    /** The number of expressions a segment can hold before the cache is split further */
+    private static final int MINIMUM_SEGMENT_SIZE = 16;
+
+    private final int maximumSize;
+    private final Function<String, ? extends T> compiler;
+    private final Segment<T>[] segments;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding up to the given number of expressions.
+     *
+     * @param maximumSize the maximum number of cached expressions
+     * @param compiler compiles an expression string, throwing an exception if it is invalid
+     * @throws IllegalArgumentException if maximumSize is less than 1 or compiler is null
+     */
+    @SuppressWarnings("unchecked")
+    public ExpressionCache(int maximumSize, Function<String, ? extends T> compiler) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be at least 1, was " + maximumSize);
+        }
+        if (compiler == null) {
+            throw new IllegalArgumentException("compiler cannot be null");
+        }
+        this.maximumSize = maximumSize;
+        this.compiler = compiler;
+        int count = 1;
+        while (count < MAXIMUM_SEGMENTS && count * 2 * MINIMUM_SEGMENT_SIZE <= maximumSize) {
+            count *= 2;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>(maximumSize / count + (i < maximumSize % count ? 1 : 0), evictions);
+        }
+    }
+
+    /**
+     * Returns the compiled form of the given expression, compiling and caching it on first use.
+     *
+     * @param expression the expression string
+     * @return the compiled expression
+     * @throws RuntimeException any exception thrown by the compiler for an invalid expression
+     */
+    public T get(String expression) {
+        if (expression == null) {
+            misses.increment();
+            return compiler.apply(null);
+        }
+        Segment<T> segment = segment(expression);
+        T value;
+        synchronized (segment) {
+            value = segment.get(expression);
+        }
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        value = compiler.apply(expression);
+        synchronized (segment) {
+            T existing = segment.get(expression);
+            if (existing != null) {
+                return existing; // Compiled concurrently by another thread, keep a single instance
+            }
+            segment.put(expression, value);
+        }
+        return value;
+    }
+
+    private Segment<T> segment(String expression) {
+        int hash = expression.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+    /**
+     * Returns the maximum number of cached expressions.
+     *
+     * @return the maximum size
+     */
+    public int maximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Returns the number of currently cached expressions.
+     *
+     * @return the cache size
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<T> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of lookups that found a cached expression.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that had to compile the expression.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of expressions removed to keep the cache within its maximum size.
+     *
+     * @return the eviction count
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Removes all cached expressions and resets the counters.
+     */
+    public void clear() {
+        for (Segment<T> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "ExpressionCache{size=" + size() + "/" + maximumSize + ", hits=" + hitCount() + ", misses=" + missCount()
+                + ", evictions=" + evictionCount() + "}";
+    }
+
+    /**
+     * A share of the cache, ordered from the least to the most recently used expression and
+     * guarded by its own monitor.
+     */
+    private static final class Segment<T> extends LinkedHashMap<String, T> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+        private final transient LongAdder evictions;
+
+        Segment(int capacity, LongAdder evictions) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.evictions = evictions;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+/**
+ * A 128-bit semantic fingerprint of a document or element.
+ *
+ * <p>Two documents or elements with the same content, as defined by a
+ * {@link FingerprintConfig}, have the same fingerprint whatever their formatting, and
+ * different content yields different fingerprints barring hash collisions. Fingerprints are
+ * stable across runs and JVMs, so they can be stored to detect later whether a document
+ * changed, for instance to skip rewriting a file or re-running an analysis.</p>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * Fingerprint before = Fingerprint.parse(Files.readString(stamp));
+ * if (!document.fingerprint().equals(before)) {
+ *     analyze(document);
+ *     Files.writeString(stamp, document.fingerprint().toString());
+ * }
+ * }</pre>
+ *
+ * @see Document#fingerprint()
+ * @see Element#fingerprint()
+ * @since 1.5.0
+ */
+public class Fingerprint {
+
+    private final long high;
+    private final long low;
+
+    Fingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Parses a fingerprint from the 32 hexadecimal digits returned by {@link #toString()}.
+     *
+     * @param hex the hexadecimal form of the fingerprint
+     * @return the parsed fingerprint
+     * @throws IllegalArgumentException if the string is not 32 hexadecimal digits
+     */
+    public static Fingerprint parse(String hex) {
+        if (hex == null || hex.length() != 32) {
+            throw new IllegalArgumentException("Fingerprint must be 32 hexadecimal digits: " + hex);
+        }
+        try {
+            return new Fingerprint(
+                    Long.parseUnsignedLong(hex.substring(0, 16), 16), Long.parseUnsignedLong(hex.substring(16), 16));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Fingerprint must be 32 hexadecimal digits: " + hex, e);
+        }
+    }
+
+    /**
+     * Returns the high 64 bits of the fingerprint.
+     *
+     * @return the high bits
+     */
+    public long high() {
+        return high;
+    }
+
+    /**
+     * Returns the low 64 bits of the fingerprint.
+     *
+     * @return the low bits
+     */
+    public long low() {
+        return low;
+    }
+
+    /**
+     * Returns the fingerprint as 32 lowercase hexadecimal digits.
+     *
+     * @return the hexadecimal form of the fingerprint
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(32);
+        appendHex(sb, high);
+        appendHex(sb, low);
+        return sb.toString();
+    }
+
+    private static void appendHex(StringBuilder sb, long value) {
+        String hex = Long.toHexString(value);
+        for (int i = hex.length(); i < 16; i++) {
+            sb.append('0');
+        }
+        sb.append(hex);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Fingerprint that = (Fingerprint) o;
+        return high == that.high && low == that.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+}
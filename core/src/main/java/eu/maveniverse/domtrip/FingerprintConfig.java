@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+/**
+ * Configuration for {@linkplain Fingerprint fingerprints}, defining which content they cover.
+ *
+ * <p>Fingerprints always cover the namespace URIs and local names of elements and
+ * attributes, attribute values, text content and processing instructions, and never cover
+ * formatting: whitespace between tags and within them, quotes, entity and character
+ * references, CDATA sections, empty element style and namespace prefixes. By default,
+ * attribute order is ignored, whitespace in text is normalized and comments are ignored.</p>
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * FingerprintConfig config = FingerprintConfig.builder()
+ *     .comments(true)
+ *     .build();
+ * Fingerprint fingerprint = document.fingerprint(config);
+ * }</pre>
+ *
+ * @see Fingerprint
+ * @since 1.5.0
+ */
+public class FingerprintConfig {
+
+    private static final FingerprintConfig DEFAULTS = new FingerprintConfig(false, true, false);
+
+    private final boolean attributeOrder;
+    private final boolean normalizeWhitespace;
+    private final boolean comments;
+
+    private FingerprintConfig(boolean attributeOrder, boolean normalizeWhitespace, boolean comments) {
+        this.attributeOrder = attributeOrder;
+        this.normalizeWhitespace = normalizeWhitespace;
+        this.comments = comments;
+    }
+
+    /**
+     * Returns the default configuration, ignoring attribute order and comments and
+     * normalizing whitespace.
+     *
+     * @return the default configuration
+     */
+    public static FingerprintConfig defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * Returns a new builder for constructing a custom configuration.
+     *
+     * @return a new builder instance
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns whether the order of the attributes of an element is covered.
+     *
+     * @return true if attribute order is covered
+     */
+    public boolean isAttributeOrder() {
+        return attributeOrder;
+    }
+
+    /**
+     * Returns whether whitespace in text is normalized.
+     *
+     * @return true if whitespace is normalized, which is the default
+     */
+    public boolean isNormalizeWhitespace() {
+        return normalizeWhitespace;
+    }
+
+    /**
+     * Returns whether comments are covered.
+     *
+     * @return true if comments are covered
+     */
+    public boolean isComments() {
+        return comments;
+    }
+
+    /**
+     * Returns the options as bits, identifying the configurations yielding equal fingerprints.
+     */
+    int options() {
+        return (attributeOrder ? 1 : 0) | (normalizeWhitespace ? 2 : 0) | (comments ? 4 : 0);
+    }
+
+    /**
+     * Builder for {@link FingerprintConfig}.
+     */
+    public static class Builder {
+
+        private boolean attributeOrder;
+        private boolean normalizeWhitespace = true;
+        private boolean comments;
+
+        /**
+         * Sets whether the order of the attributes of an element is covered. By default,
+         * elements with the same attributes in a different order have the same fingerprint.
+         *
+         * @param attributeOrder true to cover attribute order
+         * @return this builder
+         */
+        public Builder attributeOrder(boolean attributeOrder) {
+            this.attributeOrder = attributeOrder;
+            return this;
+        }
+
+        /**
+         * Sets whether whitespace in text is normalized. When enabled, which is the default,
+         * the text between two other nodes is trimmed and its runs of whitespace are
+         * collapsed to a single space, so that reindenting mixed content keeps the
+         * fingerprint. When disabled, text is covered exactly.
+         *
+         * @param normalizeWhitespace true to normalize whitespace
+         * @return this builder
+         */
+        public Builder normalizeWhitespace(boolean normalizeWhitespace) {
+            this.normalizeWhitespace = normalizeWhitespace;
+            return this;
+        }
+
+        /**
+         * Sets whether comments are covered. By default, comments are ignored, and the text
+         * around them is covered as if they were absent.
+         *
+         * @param comments true to cover comments
+         * @return this builder
+         */
+        public Builder comments(boolean comments) {
+            this.comments = comments;
+            return this;
+        }
+
+        /**
+         * Builds the configuration.
+         *
+         * @return the built configuration
+         */
+        public FingerprintConfig build() {
+            return new FingerprintConfig(attributeOrder, normalizeWhitespace, comments);
+        }
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes the {@linkplain Fingerprint fingerprints} of documents and elements.
+ *
+ * <p>Every element is hashed with MurmurHash3 over a canonical encoding of its content: its
+ * namespace URI and local name, its attributes other than namespace declarations, either in
+ * order or combined independently of their order, and its children in order, where a child
+ * element contributes its own fingerprint and adjacent text nodes are joined. Names are
+ * resolved against the namespace declarations in scope, which are tracked while descending
+ * the tree, so that prefixes do not matter.</p>
+ *
+ * <p>The fingerprint of an element is cached on the element along with its
+ * {@linkplain Node#generation() generation} and a hash of the namespace bindings it
+ * inherits. Since marking a node as modified advances the generation of all its ancestors,
+ * the cached value stays valid as long as nothing inside the subtree changed and the
+ * element was not moved into a different namespace scope. After a small edit, only the
+ * elements on the path from the document to the change are hashed again, while the cached
+ * fingerprints of every untouched sibling subtree are reused.</p>
+ */
+final class Fingerprinter {
+
+    private static final long ELEMENT = 1;
+    private static final long ATTRIBUTE = 2;
+    private static final long TEXT = 3;
+    private static final long COMMENT = 4;
+    private static final long PROCESSING_INSTRUCTION = 5;
+    private static final long DOCUMENT = 6;
+
+    private final FingerprintConfig config;
+    private final int options;
+    /** Namespace URIs by prefix, the default namespace having the empty prefix */
+    private final Map<String, String> bindings = new HashMap<>();
+    /** Order-independent hash of the bindings, identifying the namespace scope */
+    private long scope;
+
+    private final StringBuilder text = new StringBuilder();
+    private final Hasher attribute = new Hasher();
+
+    private Fingerprinter(FingerprintConfig config) {
+        this.config = config;
+        this.options = config.options();
+    }
+
+    /**
+     * Returns the fingerprint of an element, resolving names against the namespace
+     * declarations of its ancestors.
+     */
+    static Fingerprint element(Element element, FingerprintConfig config) {
+        Fingerprinter fingerprinter = new Fingerprinter(config);
+        List<Element> ancestors = new ArrayList<>();
+        for (Element parent = element.parentElement(); parent != null; parent = parent.parentElement()) {
+            ancestors.add(parent);
+        }
+        for (int i = ancestors.size() - 1; i >= 0; i--) {
+            fingerprinter.declare(ancestors.get(i));
+        }
+        return fingerprinter.fingerprint(element);
+    }
+
+    /**
+     * Returns the fingerprint of a document, covering its root element and the processing
+     * instructions, and comments if configured, around it.
+     */
+    static Fingerprint document(Document document, FingerprintConfig config) {
+        Fingerprinter fingerprinter = new Fingerprinter(config);
+        Hasher hasher = new Hasher();
+        hasher.putLong(DOCUMENT);
+        fingerprinter.children(hasher, document);
+        return hasher.finish();
+    }
+
+    private Fingerprint fingerprint(Element element) {
+        long generation = element.generation();
+        Entry entry = element.fingerprintEntry;
+        if (entry != null && entry.generation == generation && entry.scope == scope && entry.options == options) {
+            return entry.fingerprint;
+        }
+        long inherited = scope;
+        List<String> shadowed = declare(element);
+
+        Hasher hasher = new Hasher();
+        hasher.putLong(ELEMENT);
+        name(hasher, element.name(), true);
+        attributes(hasher, element);
+        children(hasher, element);
+        Fingerprint fingerprint = hasher.finish();
+
+        if (shadowed != null) {
+            undeclare(shadowed);
+        }
+        scope = inherited;
+        element.fingerprintEntry = new Entry(generation, inherited, options, fingerprint);
+        return fingerprint;
+    }
+
+    /**
+     * Binds the namespaces declared by an element, returning the prefixes and previous URIs
+     * of the bindings it replaced, or null if it declares none.
+     */
+    private List<String> declare(Element element) {
+        List<String> shadowed = null;
+        for (Attribute a : element.attributeValues()) {
+            String name = a.name();
+            String prefix;
+            if (name.equals(Element.XMLNS)) {
+                prefix = "";
+            } else if (name.startsWith(Element.XMLNS_PREFIX)) {
+                prefix = name.substring(Element.XMLNS_PREFIX.length());
+            } else {
+                continue;
+            }
+            String uri = a.value() != null ? a.value() : "";
+            String previous = bindings.put(prefix, uri);
+            if (previous != null) {
+                scope -= binding(prefix, previous);
+            }
+            scope += binding(prefix, uri);
+            if (shadowed == null) {
+                shadowed = new ArrayList<>();
+            }
+            shadowed.add(prefix);
+            shadowed.add(previous);
+        }
+        return shadowed;
+    }
+
+    /** Restores the bindings replaced by {@link #declare(Element)}, latest first. */
+    private void undeclare(List<String> shadowed) {
+        for (int i = shadowed.size() - 2; i >= 0; i -= 2) {
+            String prefix = shadowed.get(i);
+            String previous = shadowed.get(i + 1);
+            if (previous != null) {
+                bindings.put(prefix, previous);
+            } else {
+                bindings.remove(prefix);
+            }
+        }
+    }
+
+    private long binding(String prefix, String uri) {
+        attribute.reset();
+        attribute.putString(prefix);
+        attribute.putString(uri);
+        attribute.complete();
+        return attribute.h1;
+    }
+
+    /**
+     * Hashes the namespace URI and local name of an element or attribute name. Unprefixed
+     * attributes are in no namespace, and names with an undeclared prefix keep it.
+     */
+    private void name(Hasher hasher, String name, boolean element) {
+        int colon = name.indexOf(':');
+        String uri;
+        String localName = name;
+        if (colon < 0) {
+            uri = element ? bindings.get("") : null;
+        } else {
+            String prefix = name.substring(0, colon);
+            uri = prefix.equals("xml") ? NamespaceResolver.XML_NAMESPACE_URI : bindings.get(prefix);
+            if (uri != null) {
+                localName = name.substring(colon + 1);
+            }
+        }
+        hasher.putString(uri != null ? uri : "");
+        hasher.putString(localName);
+    }
+
+    /**
+     * Hashes the attributes of an element other than namespace declarations, in order or
+     * as a sum of their individual hashes.
+     */
+    private void attributes(Hasher hasher, Element element) {
+        boolean ordered = config.isAttributeOrder();
+        long sum1 = 0;
+        long sum2 = 0;
+        int count = 0;
+        for (Attribute a : element.attributeValues()) {
+            String name = a.name();
+            if (name.equals(Element.XMLNS) || name.startsWith(Element.XMLNS_PREFIX)) {
+                continue;
+            }
+            String value = a.value() != null ? a.value() : "";
+            if (ordered) {
+                hasher.putLong(ATTRIBUTE);
+                name(hasher, name, false);
+                hasher.putString(value);
+            } else {
+                attribute.reset();
+                name(attribute, name, false);
+                attribute.putString(value);
+                attribute.complete();
+                sum1 += attribute.h1;
+                sum2 += attribute.h2;
+            }
+            count++;
+        }
+        if (!ordered && count > 0) {
+            hasher.putLong(ATTRIBUTE);
+            hasher.putLong(count);
+            hasher.putLong(sum1);
+            hasher.putLong(sum2);
+        }
+    }
+
+    /** Hashes the children of an element or document in order. */
+    private void children(Hasher hasher, ContainerNode container) {
+        for (Node child : container.children) {
+            if (child instanceof Text) {
+                text.append(((Text) child).content());
+            } else if (child instanceof Element) {
+                text(hasher);
+                Fingerprint fingerprint = fingerprint((Element) child);
+                hasher.putLong(ELEMENT);
+                hasher.putLong(fingerprint.high());
+                hasher.putLong(fingerprint.low());
+            } else if (child instanceof ProcessingInstruction) {
+                text(hasher);
+                ProcessingInstruction pi = (ProcessingInstruction) child;
+                hasher.putLong(PROCESSING_INSTRUCTION);
+                hasher.putString(pi.target() != null ? pi.target() : "");
+                hasher.putString(pi.data() != null ? pi.data() : "");
+            } else if (child instanceof Comment && config.isComments()) {
+                text(hasher);
+                hasher.putLong(COMMENT);
+                hasher.putString(((Comment) child).content());
+            }
+        }
+        text(hasher);
+    }
+
+    /** Hashes the pending text, normalized if configured, unless it is empty. */
+    private void text(Hasher hasher) {
+        if (config.isNormalizeWhitespace()) {
+            normalize(text);
+        }
+        if (text.length() > 0) {
+            hasher.putLong(TEXT);
+            hasher.putString(text);
+            text.setLength(0);
+        }
+    }
+
+    /** Trims the text and collapses its runs of whitespace into single spaces, in place. */
+    private static void normalize(StringBuilder sb) {
+        int length = 0;
+        boolean space = false;
+        for (int i = 0; i < sb.length(); i++) {
+            char c = sb.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+                space = length > 0;
+            } else {
+                if (space) {
+                    sb.setCharAt(length++, ' ');
+                    space = false;
+                }
+                sb.setCharAt(length++, c);
+            }
+        }
+        sb.setLength(length);
+    }
+
+    /** A fingerprint cached on an element, valid for a generation, scope and configuration. */
+    static final class Entry {
+        final long generation;
+        final long scope;
+        final int options;
+        final Fingerprint fingerprint;
+
+        Entry(long generation, long scope, int options, Fingerprint fingerprint) {
+            this.generation = generation;
+            this.scope = scope;
+            this.options = options;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * MurmurHash3 x64 128 over a sequence of 64-bit values, strings being encoded as their
+     * length followed by their characters packed four to a value.
+     */
+    static final class Hasher {
+        private static final long C1 = 0x87C37B91114253D5L;
+        private static final long C2 = 0x4CF5AD432745937FL;
+
+        long h1;
+        long h2;
+        private long pending;
+        private boolean half;
+        private long length;
+
+        void reset() {
+            h1 = 0;
+            h2 = 0;
+            half = false;
+            length = 0;
+        }
+
+        void putLong(long value) {
+            if (half) {
+                mix(pending, value);
+                half = false;
+            } else {
+                pending = value;
+                half = true;
+            }
+            length += 8;
+        }
+
+        void putString(CharSequence s) {
+            int n = s.length();
+            putLong(n);
+            int i = 0;
+            for (; i + 4 <= n; i += 4) {
+                putLong(s.charAt(i)
+                        | (long) s.charAt(i + 1) << 16
+                        | (long) s.charAt(i + 2) << 32
+                        | (long) s.charAt(i + 3) << 48);
+            }
+            if (i < n) {
+                long value = 0;
+                for (int shift = 0; i < n; i++, shift += 16) {
+                    value |= (long) s.charAt(i) << shift;
+                }
+                putLong(value);
+            }
+        }
+
+        private void mix(long k1, long k2) {
+            h1 ^= Long.rotateLeft(k1 * C1, 31) * C2;
+            h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52DCE729;
+            h2 ^= Long.rotateLeft(k2 * C2, 33) * C1;
+            h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495AB5;
+        }
+
+        Fingerprint finish() {
+            complete();
+            return new Fingerprint(h1, h2);
+        }
+
+        /** Finalizes the hash into {@link #h1} and {@link #h2}. */
+        void complete() {
+            if (half) {
+                h1 ^= Long.rotateLeft(pending * C1, 31) * C2;
+                half = false;
+            }
+            h1 ^= length;
+            h2 ^= length;
+            h1 += h2;
+            h2 += h1;
+            h1 = fmix(h1);
+            h2 = fmix(h2);
+            h1 += h2;
+            h2 += h1;
+        }
+
+        private static long fmix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB93FE53B87CDL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
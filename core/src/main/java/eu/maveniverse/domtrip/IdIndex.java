@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index from ID attribute values to the elements of a document carrying them.
+ *
+ * <p>The index is a snapshot of the document at a given {@linkplain Node#generation()
+ * generation}. Any change to the tree advances the generation of the document, so a snapshot
+ * whose generation differs is stale and is rebuilt by {@link Document#elementById(String)} on
+ * the next lookup.</p>
+ */
+final class IdIndex {
+
+    private final long generation;
+    private final List<String> attributeNames;
+    /** The elements carrying each ID value, in document order; most lists have one element */
+    private final Map<String, List<Element>> elements;
+
+    private IdIndex(long generation, List<String> attributeNames, Map<String, List<Element>> elements) {
+        this.generation = generation;
+        this.attributeNames = attributeNames;
+        this.elements = elements;
+    }
+
+    /**
+     * Indexes the elements of a document by the values of the given attributes.
+     */
+    static IdIndex build(Document document, List<String> attributeNames) {
+        Map<String, List<Element>> elements = new HashMap<>();
+        List<ContainerNode> stack = new ArrayList<>();
+        // A root element that is not among the children comes last, as in serialization
+        Element root = document.root();
+        if (root != null && !document.children.contains(root)) {
+            stack.add(root);
+        }
+        stack.add(document);
+        while (!stack.isEmpty()) {
+            ContainerNode container = stack.remove(stack.size() - 1);
+            // Push in reverse so that children are indexed in document order
+            for (int i = container.children.size() - 1; i >= 0; i--) {
+                Node child = container.children.get(i);
+                if (child instanceof Element) {
+                    stack.add((Element) child);
+                }
+            }
+            if (container instanceof Element && ((Element) container).hasAttributes()) {
+                Element element = (Element) container;
+                for (String attributeName : attributeNames) {
+                    String id = element.attribute(attributeName);
+                    if (id != null) {
+                        add(elements, id, element);
+                    }
+                }
+            }
+        }
+        return new IdIndex(document.generation(), attributeNames, elements);
+    }
+
+    private static void add(Map<String, List<Element>> elements, String id, Element element) {
+        List<Element> existing = elements.get(id);
+        if (existing == null) {
+            elements.put(id, Collections.singletonList(element));
+        } else if (existing.get(existing.size() - 1) != element) {
+            // An element carrying the same value in two ID attributes is listed once
+            List<Element> list = new ArrayList<>(existing);
+            list.add(element);
+            elements.put(id, list);
+        }
+    }
+
+    /**
+     * Returns whether this index still describes the given document with the given ID attributes.
+     */
+    boolean isCurrent(Document document, List<String> attributeNames) {
+        return generation == document.generation() && this.attributeNames.equals(attributeNames);
+    }
+
+    /**
+     * Returns the first element in document order carrying the given ID, or null.
+     */
+    Element first(String id) {
+        List<Element> list = elements.get(id);
+        return list != null ? list.get(0) : null;
+    }
+
+    /**
+     * Returns all elements carrying the given ID, in document order.
+     */
+    List<Element> all(String id) {
+        List<Element> list = elements.get(id);
+        return list != null ? list : Collections.emptyList();
+    }
+}
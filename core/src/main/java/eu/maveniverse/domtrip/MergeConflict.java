@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.Objects;
+
+/**
+ * A conflict found by a three-way merge: a node that both sides changed in different ways.
+ *
+ * <p>Each side of the conflict is described by the change it made to the base document, with
+ * the same types, paths and values as {@link XmlDiff} reports. When an element was modified on
+ * one side and removed on the other, the modification is the first semantic change within
+ * it.</p>
+ *
+ * <h3>Example output:</h3>
+ * <pre>
+ * /project/version: ours TEXT_CHANGED: /project/version: "1.0" &rarr; "1.1",
+ *     theirs TEXT_CHANGED: /project/version: "1.0" &rarr; "2.0"
+ * </pre>
+ *
+ * @see XmlMerge
+ * @see MergeResult
+ * @since 1.5.0
+ */
+public class MergeConflict {
+
+    private final String path;
+    private final XmlChange ours;
+    private final XmlChange theirs;
+
+    /**
+     * Creates a new MergeConflict.
+     *
+     * @param path the XPath-like path to the conflicting node in the base document, or in the
+     *     side that added it
+     * @param ours the change made by our side
+     * @param theirs the change made by their side
+     */
+    public MergeConflict(String path, XmlChange ours, XmlChange theirs) {
+        this.path = Objects.requireNonNull(path, "path");
+        this.ours = Objects.requireNonNull(ours, "ours");
+        this.theirs = Objects.requireNonNull(theirs, "theirs");
+    }
+
+    /**
+     * Returns the path to the conflicting node.
+     *
+     * @return the XPath-like path
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Returns the change made by our side, which the merged document keeps.
+     *
+     * @return our change
+     */
+    public XmlChange ours() {
+        return ours;
+    }
+
+    /**
+     * Returns the change made by their side, which the merged document does not have.
+     *
+     * @return their change
+     */
+    public XmlChange theirs() {
+        return theirs;
+    }
+
+    @Override
+    public String toString() {
+        return path + ": ours " + ours + ", theirs " + theirs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MergeConflict that = (MergeConflict) o;
+        return path.equals(that.path) && ours.equals(that.ours) && theirs.equals(that.theirs);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(path, ours, theirs);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The result of a three-way merge: the merged document and the conflicts left unresolved.
+ *
+ * <h3>Example:</h3>
+ * <pre>{@code
+ * MergeResult result = XmlMerge.merge(base, ours, theirs, config);
+ * if (result.hasConflicts()) {
+ *     result.conflicts().forEach(System.out::println);
+ * } else {
+ *     Files.writeString(pom, result.document().toXml());
+ * }
+ * }</pre>
+ *
+ * @see XmlMerge
+ * @see MergeConflict
+ * @since 1.5.0
+ */
+public class MergeResult {
+
+    private final Document document;
+    private final List<MergeConflict> conflicts;
+
+    /**
+     * Creates a new MergeResult.
+     *
+     * @param document the merged document
+     * @param conflicts the conflicts left unresolved
+     */
+    public MergeResult(Document document, List<MergeConflict> conflicts) {
+        this.document = document;
+        this.conflicts = Collections.unmodifiableList(new ArrayList<>(conflicts));
+    }
+
+    /**
+     * Returns the merged document, which holds our side of every conflict.
+     *
+     * @return the merged document
+     */
+    public Document document() {
+        return document;
+    }
+
+    /**
+     * Returns the conflicts, in document order.
+     *
+     * @return an unmodifiable list of the conflicts
+     */
+    public List<MergeConflict> conflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Returns whether the merge left any conflict.
+     *
+     * @return {@code true} if there is at least one conflict
+     */
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (conflicts.isEmpty()) {
+            return "No conflicts";
+        }
+        return conflicts.stream().map(MergeConflict::toString).collect(Collectors.joining("\n"));
+    }
+}
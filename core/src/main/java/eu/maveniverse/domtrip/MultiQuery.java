@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import eu.maveniverse.domtrip.XPathExpression.Axis;
+import eu.maveniverse.domtrip.XPathExpression.Step;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of compiled XPath expressions evaluated together in a single traversal.
+ *
+ * <p>Evaluating many expressions one by one walks the document once per expression.
+ * A {@code MultiQuery} merges the steps of all expressions into a shared automaton, in which
+ * expressions with a common prefix such as {@code build/plugins/plugin} and
+ * {@code build/plugins/plugin/version} share their states, and evaluates it during one
+ * depth-first traversal of the document. Subtrees in which no expression can match any more
+ * are skipped, so the cost grows with the size of the document rather than with the size of
+ * the document times the number of expressions.</p>
+ *
+ * <p>The results are the same as those of {@link XPathExpression#select(Element)}: each
+ * element at most once, in document order. Expressions that cannot be evaluated in a single
+ * forward pass, namely those with a {@code ..} step or a positional predicate on a
+ * {@code //} step, are evaluated separately.</p>
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * XPathExpression dependencies = XPathExpression.compile("dependencies/dependency");
+ * XPathExpression plugins = XPathExpression.compile("build/plugins/plugin");
+ * MultiQuery query = MultiQuery.of(dependencies, plugins);
+ *
+ * Map<XPathExpression, List<Element>> results = query.select(root);
+ * List<Element> deps = results.get(dependencies);
+ * }</pre>
+ *
+ * @implNote A {@code MultiQuery} is immutable and thread-safe, and can be evaluated
+ *           concurrently against different context elements.
+ *
+ * @see XPathExpression
+ * @since 1.5.0
+ */
+public final class MultiQuery {
+
+    private final List<XPathExpression> expressions;
+    private final State root;
+    private final int stateCount;
+    /** Expressions that cannot be evaluated in a single forward pass */
+    private final boolean[] separate;
+
+    private MultiQuery(List<XPathExpression> expressions) {
+        this.expressions = expressions;
+        this.separate = new boolean[expressions.size()];
+        this.root = new State(0, null);
+        int count = 1;
+        for (int i = 0; i < expressions.size(); i++) {
+            List<Step> steps = expressions.get(i).steps();
+            if (!isStreamable(steps)) {
+                separate[i] = true;
+                continue;
+            }
+            State state = root;
+            for (Step step : steps) {
+                State next = state.next(step);
+                if (next == null) {
+                    next = state.add(new State(count++, step));
+                }
+                state = next;
+            }
+            state.addExpression(i);
+        }
+        this.stateCount = count;
+    }
+
+    /**
+     * Creates a query evaluating the given expressions together.
+     *
+     * @param expressions the expressions to evaluate
+     * @return a new MultiQuery
+     * @throws IllegalArgumentException if expressions is null or contains null
+     */
+    public static MultiQuery of(XPathExpression... expressions) {
+        if (expressions == null) {
+            throw new IllegalArgumentException("Expressions cannot be null");
+        }
+        return of(Arrays.asList(expressions));
+    }
+
+    /**
+     * Creates a query evaluating the given expressions together. An expression contained
+     * more than once is evaluated once.
+     *
+     * @param expressions the expressions to evaluate
+     * @return a new MultiQuery
+     * @throws IllegalArgumentException if expressions is null or contains null
+     */
+    public static MultiQuery of(Collection<XPathExpression> expressions) {
+        if (expressions == null) {
+            throw new IllegalArgumentException("Expressions cannot be null");
+        }
+        List<XPathExpression> distinct = new ArrayList<>(expressions.size());
+        for (XPathExpression expression : expressions) {
+            if (expression == null) {
+                throw new IllegalArgumentException("Expressions cannot contain null");
+            }
+            if (!distinct.contains(expression)) {
+                distinct.add(expression);
+            }
+        }
+        return new MultiQuery(Collections.unmodifiableList(distinct));
+    }
+
+    /**
+     * Creates a query evaluating the given expression strings together, compiling them through
+     * the shared {@linkplain XPathExpression#cache() expression cache}.
+     *
+     * @param expressions the expressions to compile and evaluate
+     * @return a new MultiQuery
+     * @throws IllegalArgumentException if expressions is null
+     * @throws DomTripException if an expression is invalid
+     */
+    public static MultiQuery compile(String... expressions) {
+        if (expressions == null) {
+            throw new IllegalArgumentException("Expressions cannot be null");
+        }
+        List<XPathExpression> compiled = new ArrayList<>(expressions.length);
+        for (String expression : expressions) {
+            compiled.add(XPathExpression.cache().get(expression));
+        }
+        return of(compiled);
+    }
+
+    /**
+     * Returns the expressions of this query, in the order they were given.
+     *
+     * @return an unmodifiable list of the expressions
+     */
+    public List<XPathExpression> expressions() {
+        return expressions;
+    }
+
+    /**
+     * Evaluates all expressions against the given context element in one traversal.
+     *
+     * @param context the element to evaluate the expressions against
+     * @return a map from each expression, in the order they were given, to the elements it
+     *         selects in document order; never null and containing every expression
+     */
+    public Map<XPathExpression, List<Element>> select(Element context) {
+        List<List<Element>> results = new ArrayList<>(expressions.size());
+        for (int i = 0; i < expressions.size(); i++) {
+            results.add(separate[i] ? expressions.get(i).select(context) : new ArrayList<>());
+        }
+        if (context != null) {
+            new Traversal(results).run(context);
+        }
+        Map<XPathExpression, List<Element>> map = new LinkedHashMap<>();
+        for (int i = 0; i < expressions.size(); i++) {
+            map.put(expressions.get(i), results.get(i));
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiQuery{" + expressions.size() + " expressions, " + stateCount + " states}";
+    }
+
+    /**
+     * Checks whether the candidates of every step are known when the traversal reaches them:
+     * parent steps look backwards, and positions among descendants depend on the context.
+     */
+    private static boolean isStreamable(List<Step> steps) {
+        for (Step step : steps) {
+            if (step.axis == Axis.PARENT || (step.axis == Axis.DESCENDANT && step.isPositional())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A state of the automaton, reached at an element once the steps leading to it have
+     * matched. Its transitions are the next steps of all expressions sharing this prefix,
+     * grouped by axis.
+     */
+    private static final class State {
+        private static final State[] NO_STATES = new State[0];
+        private static final int[] NO_EXPRESSIONS = new int[0];
+
+        final int id;
+        final Step step;
+        final boolean positional;
+        State[] selfSteps = NO_STATES;
+        State[] childSteps = NO_STATES;
+        State[] descendantSteps = NO_STATES;
+        /** Indexes of the expressions ending in this state */
+        int[] accepting = NO_EXPRESSIONS;
+
+        State(int id, Step step) {
+            this.id = id;
+            this.step = step;
+            this.positional = step != null && step.isPositional();
+        }
+
+        State next(Step nextStep) {
+            for (State state : transitions(nextStep.axis)) {
+                if (state.step.sameTest(nextStep)) {
+                    return state;
+                }
+            }
+            return null;
+        }
+
+        State add(State state) {
+            State[] states = transitions(state.step.axis);
+            states = Arrays.copyOf(states, states.length + 1);
+            states[states.length - 1] = state;
+            switch (state.step.axis) {
+                case SELF:
+                    selfSteps = states;
+                    break;
+                case DESCENDANT:
+                    descendantSteps = states;
+                    break;
+                default: // CHILD
+                    childSteps = states;
+                    break;
+            }
+            return state;
+        }
+
+        void addExpression(int index) {
+            accepting = Arrays.copyOf(accepting, accepting.length + 1);
+            accepting[accepting.length - 1] = index;
+        }
+
+        private State[] transitions(Axis axis) {
+            switch (axis) {
+                case SELF:
+                    return selfSteps;
+                case DESCENDANT:
+                    return descendantSteps;
+                default: // CHILD
+                    return childSteps;
+            }
+        }
+
+        /**
+         * Checks whether the given element is selected by the step leading to this state, when
+         * the step is not positional or is a self step.
+         */
+        boolean accepts(Element element) {
+            if (!positional) {
+                return step.matches(element);
+            }
+            return step.selectPositional(step.candidates(element)) == element;
+        }
+    }
+
+    /**
+     * The child steps to test against the children of an element on the traversal path.
+     */
+    private static final class Frame {
+        State[] childTests = new State[8];
+        int childCount;
+        /** For child steps with positional predicates, the one child they select */
+        Element[] selected = new Element[8];
+
+        List<Node> children;
+        int index;
+        /** Number of active descendant steps before this element was reached */
+        int descendantMark;
+
+        void reset(List<Node> children, int descendantMark) {
+            this.children = children;
+            this.index = 0;
+            this.descendantMark = descendantMark;
+            this.childCount = 0;
+        }
+
+        void addChildTests(State[] states) {
+            if (childCount + states.length > childTests.length) {
+                int length = Math.max(childTests.length * 2, childCount + states.length);
+                childTests = Arrays.copyOf(childTests, length);
+                selected = new Element[length];
+            }
+            System.arraycopy(states, 0, childTests, childCount, states.length);
+            childCount += states.length;
+        }
+
+        /**
+         * Resolves the positional child steps once per element, before visiting its children.
+         */
+        void selectPositional(Element element) {
+            for (int i = 0; i < childCount; i++) {
+                State state = childTests[i];
+                if (state.positional) {
+                    selected[i] = state.step.selectPositional(state.step.candidates(element));
+                }
+            }
+        }
+
+        boolean accepts(int test, Element child, int localStart) {
+            State state = childTests[test];
+            return state.positional ? selected[test] == child : state.step.matches(child, localStart);
+        }
+    }
+
+    /**
+     * The state of one evaluation, walking the document depth-first without recursion.
+     */
+    private final class Traversal {
+        private final List<List<Element>> results;
+        /** Descendant steps that apply to the current element, activated by its ancestors */
+        private State[] descendantTests = new State[8];
+
+        private int descendantCount;
+        /** Whether a state's descendant step is already active, making its repetition redundant */
+        private final boolean[] active = new boolean[stateCount];
+
+        private Frame[] frames = new Frame[16];
+
+        Traversal(List<List<Element>> results) {
+            this.results = results;
+        }
+
+        void run(Element context) {
+            Frame frame = frame(0, context.children, 0);
+            reach(root, context, frame);
+            if (frame.childCount == 0 && descendantCount == 0) {
+                return;
+            }
+            frame.selectPositional(context);
+
+            int depth = 0;
+            while (depth >= 0) {
+                Frame parent = frames[depth];
+                if (parent.index >= parent.children.size()) {
+                    leave(parent);
+                    depth--;
+                    continue;
+                }
+                Node node = parent.children.get(parent.index++);
+                if (!(node instanceof Element)) {
+                    continue;
+                }
+                Element element = (Element) node;
+                int localStart = XPathExpression.localNameStart(element.name());
+                int mark = descendantCount;
+                Frame current = frame(depth + 1, element.children, mark);
+                for (int i = 0; i < parent.childCount; i++) {
+                    if (parent.accepts(i, element, localStart)) {
+                        reach(parent.childTests[i], element, current);
+                    }
+                }
+                for (int i = 0; i < mark; i++) {
+                    State state = descendantTests[i];
+                    if (state.step.matches(element, localStart)) {
+                        reach(state, element, current);
+                    }
+                }
+                if (element.children.isEmpty() || (current.childCount == 0 && descendantCount == 0)) {
+                    // No expression can match below this element
+                    leave(current);
+                } else {
+                    current.selectPositional(element);
+                    depth++;
+                }
+            }
+        }
+
+        /**
+         * Records that the element matched the step leading to a state: the element is selected
+         * by the expressions ending there, and the next steps apply to the element itself, its
+         * children and its descendants.
+         */
+        private void reach(State state, Element element, Frame frame) {
+            for (int index : state.accepting) {
+                List<Element> selected = results.get(index);
+                if (selected.isEmpty() || selected.get(selected.size() - 1) != element) {
+                    selected.add(element);
+                }
+            }
+            for (State next : state.selfSteps) {
+                if (next.accepts(element)) {
+                    reach(next, element, frame);
+                }
+            }
+            if (state.childSteps.length > 0) {
+                frame.addChildTests(state.childSteps);
+            }
+            for (State next : state.descendantSteps) {
+                // The descendants of this element are a subset of those of the ancestor
+                // which activated the same step
+                if (!active[next.id]) {
+                    active[next.id] = true;
+                    if (descendantCount == descendantTests.length) {
+                        descendantTests = Arrays.copyOf(descendantTests, descendantCount * 2);
+                    }
+                    descendantTests[descendantCount++] = next;
+                }
+            }
+        }
+
+        /**
+         * Deactivates the descendant steps activated at the element of the given frame.
+         */
+        private void leave(Frame frame) {
+            while (descendantCount > frame.descendantMark) {
+                active[descendantTests[--descendantCount].id] = false;
+            }
+        }
+
+        private Frame frame(int depth, List<Node> children, int descendantMark) {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = new Frame();
+                frames[depth] = frame;
+            }
+            frame.reset(children, descendantMark);
+            return frame;
+        }
+    }
+}
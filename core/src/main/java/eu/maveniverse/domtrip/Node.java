@@ -83,6 +83,8 @@ public abstract class Node {
     protected String precedingWhitespace;
     /** Flag indicating whether this node has been modified since parsing */
     protected boolean modified;
+    /** Counter advanced whenever the serialized form of this node may have changed */
+    private long generation;
 
     /**
      * Creates a new XML node with default settings.
@@ -221,6 +223,7 @@ public abstract class Node {
     public Node precedingWhitespace(String whitespace) {
         this.precedingWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -229,6 +232,7 @@ public abstract class Node {
      */
     void precedingWhitespaceInternal(String whitespace) {
         this.precedingWhitespace = whitespace != null ? whitespace : "";
+        advanceGeneration();
     }
 
     // Modification tracking
@@ -238,6 +242,7 @@ public abstract class Node {
 
     public void markModified() {
         this.modified = true;
+        generation++;
         // Propagate modification flag up the tree
         if (parent != null) {
             parent.markModified();
@@ -245,8 +250,49 @@ public abstract class Node {
     }
 
     public void clearModified() {
+        clearModifiedSubtree();
+        if (parent != null) {
+            parent.advanceGeneration();
+        }
+    }
+
+    /**
+     * Clears the modification flag of this node, and of its descendants in ContainerNode
+     * subclasses, advancing their generations but not those of the ancestors.
+     */
+    void clearModifiedSubtree() {
         this.modified = false;
-        // Child clearing is handled by ContainerNode subclasses
+        generation++;
+    }
+
+    /**
+     * Returns the modification generation of this node.
+     *
+     * <p>The generation is advanced every time the node is marked as modified, whenever
+     * its modification flag is cleared and on any other change to its serialized form,
+     * each of which also advances the generation of all its ancestors. Changes made
+     * through the {@link Attribute} objects held by an element mark the element as
+     * modified as well. Two equal
+     * generations observed on the same node therefore guarantee that its serialized form
+     * has not changed in between, which makes the generation suitable for validating
+     * values derived from a subtree, such as cached serializations.</p>
+     *
+     * @return the current modification generation of this node
+     * @see #markModified()
+     * @since 1.5.0
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Advances the generation of this node and its ancestors, for internal changes that
+     * affect serialization without marking the node as modified.
+     */
+    void advanceGeneration() {
+        for (Node node = this; node != null; node = node.parent) {
+            node.generation++;
+        }
     }
 
     /**
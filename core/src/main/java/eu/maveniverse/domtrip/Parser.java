@@ -318,7 +318,7 @@ public class Parser {
         }
 
         String rawText = precedingWhitespace.toString();
-        String decodedText = Text.unescapeTextContent(rawText);
+        String decodedText = XmlEscaper.unescape(rawText);
 
         Text textNode = new Text(decodedText, rawText);
         applyPendingWhitespace(textNode, pendingWhitespace);
@@ -474,7 +474,7 @@ public class Parser {
             Document document, StringBuilder precedingWhitespace, StringBuilder pendingWhitespace) {
         if (precedingWhitespace.length() > 0) {
             String rawText = precedingWhitespace.toString();
-            String decodedText = Text.unescapeTextContent(rawText);
+            String decodedText = XmlEscaper.unescape(rawText);
 
             if (isWhitespaceOnly(decodedText)) {
                 pendingWhitespace.append(decodedText);
@@ -799,7 +799,7 @@ public class Parser {
         String rawValue = xml.substring(valueStart, position);
         position++; // Skip closing quote
 
-        String decodedValue = Text.unescapeTextContent(rawValue);
+        String decodedValue = XmlEscaper.unescape(rawValue);
         String actualWhitespace = precedingWhitespace.isEmpty() ? " " : precedingWhitespace;
         element.attributeInternal(name, decodedValue, quote, actualWhitespace, rawValue);
     }
@@ -898,12 +898,13 @@ public class Parser {
 
     /**
      * Detects the character encoding of XML content from byte array.
+     * The first bytes of the content suffice, as long as they contain the XML declaration.
      *
      * @param xmlBytes the XML content as bytes
      * @param defaultCharset fallback charset if detection fails
      * @return the detected or default charset
      */
-    private Charset detectEncoding(byte[] xmlBytes, Charset defaultCharset) {
+    static Charset detectEncoding(byte[] xmlBytes, Charset defaultCharset) {
         // Check for BOM first
         Charset bomCharset = detectBOM(xmlBytes);
         if (bomCharset != null) {
@@ -950,7 +951,7 @@ public class Parser {
     /**
      * Detects Byte Order Mark (BOM) and returns corresponding charset.
      */
-    private Charset detectBOM(byte[] bytes) {
+    private static Charset detectBOM(byte[] bytes) {
         Charset charset = detectUtf32BOM(bytes);
         if (charset != null) {
             return charset;
@@ -962,14 +963,14 @@ public class Parser {
         return detectUtf16BOM(bytes);
     }
 
-    private Charset detectUtf8BOM(byte[] bytes) {
+    private static Charset detectUtf8BOM(byte[] bytes) {
         if (bytes.length >= 3 && bytes[0] == (byte) 0xEF && bytes[1] == (byte) 0xBB && bytes[2] == (byte) 0xBF) {
             return StandardCharsets.UTF_8;
         }
         return null;
     }
 
-    private Charset detectUtf16BOM(byte[] bytes) {
+    private static Charset detectUtf16BOM(byte[] bytes) {
         if (bytes.length >= 2) {
             if (bytes[0] == (byte) 0xFE && bytes[1] == (byte) 0xFF) {
                 return StandardCharsets.UTF_16BE;
@@ -981,7 +982,7 @@ public class Parser {
         return null;
     }
 
-    private Charset detectUtf32BOM(byte[] bytes) {
+    private static Charset detectUtf32BOM(byte[] bytes) {
         if (bytes.length >= 4) {
             if (bytes[0] == 0x00 && bytes[1] == 0x00 && bytes[2] == (byte) 0xFE && bytes[3] == (byte) 0xFF) {
                 return Charset.forName("UTF-32BE");
@@ -999,7 +1000,7 @@ public class Parser {
      * @param xmlString the XML content as string
      * @return the encoding value from XML declaration, or null if not found
      */
-    private String extractEncodingFromXmlDeclaration(String xmlString) {
+    private static String extractEncodingFromXmlDeclaration(String xmlString) {
         // Look for XML declaration at the beginning of the document
         String trimmed = xmlString.trim();
         if (!trimmed.startsWith(XML_DECL_PREFIX)) {
@@ -124,6 +124,7 @@ public class ProcessingInstruction extends Node {
     public ProcessingInstruction precedingWhitespace(String whitespace) {
         this.precedingWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -135,6 +136,7 @@ public class ProcessingInstruction extends Node {
         this.target = target != null ? target : "";
         this.originalContent = ""; // Clear original when modified
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -154,6 +156,7 @@ public class ProcessingInstruction extends Node {
         this.data = data != null ? data : "";
         this.originalContent = ""; // Clear original when modified
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -163,6 +166,16 @@ public class ProcessingInstruction extends Node {
 
     public void originalContent(String originalContent) {
         this.originalContent = originalContent != null ? originalContent : "";
+        ChangeJournal.valueChanged(this);
+    }
+
+    /**
+     * Sets the whole value without marking as modified (for replaying a {@link ChangeJournal})
+     */
+    void valueInternal(String target, String data, String originalContent) {
+        this.target = target != null ? target : "";
+        this.data = data != null ? data : "";
+        this.originalContent = originalContent != null ? originalContent : "";
     }
 
     @Override
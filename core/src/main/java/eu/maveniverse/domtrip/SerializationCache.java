@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the serialized form of elements and documents between successive
+ * serializations, keyed on the node identity and validated by its
+ * {@link Node#generation() generation}.
+ *
+ * <p>Since marking a node as modified advances the generation of all its ancestors,
+ * a cached chunk stays valid exactly as long as nothing inside the subtree changed.
+ * After a small edit, serialization therefore only walks the elements on the path
+ * from the document to the change, while every untouched sibling subtree is appended
+ * as a single pre-rendered chunk.</p>
+ *
+ * <p>Entries are held weakly so that removed or discarded nodes do not leak, and
+ * elements whose output is shorter than {@link #MIN_CHUNK_LENGTH} are not stored, as
+ * re-serializing them is cheaper than keeping a copy. The cache only covers the
+ * preservation mode output, which for elements does not depend on the serializer
+ * configuration. Access is synchronized, so the owning serializer may be shared.</p>
+ *
+ * @see Serializer#setSerializationCache(boolean)
+ */
+final class SerializationCache {
+
+    /** Minimum length of an element's output for it to be cached. */
+    static final int MIN_CHUNK_LENGTH = 64;
+
+    private final Map<Node, Chunk> chunks = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Returns the serialized document, reusing the previous result if the document
+     * has not changed since.
+     *
+     * @param document the document to serialize
+     * @param serializer produces the document output on a cache miss
+     * @return the serialized document
+     */
+    String document(Document document, Supplier<String> serializer) {
+        long generation = document.generation();
+        Chunk chunk = chunks.get(document);
+        if (chunk != null && chunk.generation == generation) {
+            return chunk.xml;
+        }
+        String xml = serializer.get();
+        chunks.put(document, new Chunk(generation, xml));
+        return xml;
+    }
+
+    /**
+     * Returns the cached serialized form of the given node if it is still valid.
+     *
+     * @param node the node to look up
+     * @param generation the current generation of the node
+     * @return the cached output, or {@code null} if none is available for this generation
+     */
+    String get(Node node, long generation) {
+        Chunk chunk = chunks.get(node);
+        return chunk != null && chunk.generation == generation ? chunk.xml : null;
+    }
+
+    /**
+     * Remembers the serialized form of the given node, which has been appended to the
+     * buffer starting at the given offset.
+     *
+     * @param node the serialized node
+     * @param generation the generation of the node when it was serialized
+     * @param sb the buffer holding the output
+     * @param start the offset of the node's output in the buffer
+     */
+    void put(Node node, long generation, StringBuilder sb, int start) {
+        if (sb.length() - start >= MIN_CHUNK_LENGTH) {
+            chunks.put(node, new Chunk(generation, sb.substring(start)));
+        } else {
+            chunks.remove(node);
+        }
+    }
+
+    /**
+     * Returns the number of cached chunks.
+     */
+    int size() {
+        return chunks.size();
+    }
+
+    /**
+     * Discards all cached chunks.
+     */
+    void clear() {
+        chunks.clear();
+    }
+
+    private static final class Chunk {
+        final long generation;
+        final String xml;
+
+        Chunk(long generation, String xml) {
+            this.generation = generation;
+            this.xml = xml;
+        }
+    }
+}
@@ -15,6 +15,10 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.BiConsumer;
 
 /**
  * Serializes XML node trees back to XML string format with configurable
@@ -114,6 +118,13 @@ import java.util.List;
  */
 public class Serializer {
 
+    /** Minimum number of children of an element for them to be serialized in parallel */
+    private static final int PARALLEL_THRESHOLD = 256;
+    /** Minimum number of consecutive children serialized by a single parallel task */
+    private static final int PARALLEL_RANGE_SIZE = 32;
+    /** Initial output buffer size for documents that were not parsed from a source */
+    private static final int DEFAULT_BUFFER_SIZE = 1024;
+
     private String indentString;
     private boolean prettyPrint;
     private boolean preserveComments;
@@ -122,6 +133,10 @@ public class Serializer {
     private String lineEnding;
     private EmptyElementStyle emptyElementStyle;
     private boolean ignoreInvalidEncoding;
+    private SerializationCache cache;
+    private ForkJoinPool pool;
+    /** Line ending followed by the indentation of each depth, built lazily for pretty printing */
+    private volatile String[] indentations = new String[0];
 
     /**
      * Creates a new Serializer with default settings.
@@ -154,6 +169,8 @@ public class Serializer {
         this.lineEnding = config.lineEnding();
         this.emptyElementStyle = config.emptyElementStyle();
         this.ignoreInvalidEncoding = config.isIgnoreInvalidEncoding();
+        setSerializationCache(config.isSerializationCache());
+        setParallel(config.isParallelSerialization());
     }
 
     /**
@@ -192,6 +209,7 @@ public class Serializer {
      */
     public void setIndentString(String indentString) {
         this.indentString = indentString != null ? indentString : "  ";
+        this.indentations = new String[0];
     }
 
     /**
@@ -239,6 +257,7 @@ public class Serializer {
      */
     public void setLineEnding(String lineEnding) {
         this.lineEnding = lineEnding != null ? lineEnding : "\n";
+        this.indentations = new String[0];
     }
 
     /**
@@ -270,6 +289,75 @@ public class Serializer {
         this.emptyElementStyle = emptyElementStyle != null ? emptyElementStyle : EmptyElementStyle.SELF_CLOSING;
     }
 
+    /**
+     * Checks if serialized subtrees are cached between serializations.
+     *
+     * @return true if the serialization cache is enabled, false otherwise
+     * @since 1.5.0
+     */
+    public boolean isSerializationCache() {
+        return cache != null;
+    }
+
+    /**
+     * Sets whether serialized subtrees are cached between serializations.
+     *
+     * <p>When enabled, this serializer remembers the preservation mode output of
+     * elements together with their {@link Node#generation() generation} and reuses
+     * it for as long as they remain unchanged, so that serializing a large document
+     * again after a small edit costs roughly the size of the change rather than the
+     * size of the document. Serializing an unchanged document returns the previously
+     * produced string. The cache has no effect on pretty printing. Disabling the
+     * cache discards its contents.</p>
+     *
+     * @param serializationCache true to enable the serialization cache, false otherwise
+     * @since 1.5.0
+     */
+    public void setSerializationCache(boolean serializationCache) {
+        if (!serializationCache) {
+            this.cache = null;
+        } else if (this.cache == null) {
+            this.cache = new SerializationCache();
+        }
+    }
+
+    /**
+     * Checks if wide elements are serialized in parallel.
+     *
+     * @return true if parallel serialization is enabled, false otherwise
+     * @since 1.5.0
+     */
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Sets whether wide elements are serialized in parallel on the common fork/join pool.
+     *
+     * @param parallel true to enable parallel serialization, false otherwise
+     * @see #setParallel(ForkJoinPool)
+     * @since 1.5.0
+     */
+    public void setParallel(boolean parallel) {
+        setParallel(parallel ? ForkJoinPool.commonPool() : null);
+    }
+
+    /**
+     * Enables parallel serialization of wide elements on the given fork/join pool.
+     *
+     * <p>When enabled, the children of every element with several hundred children are
+     * split into consecutive ranges that are serialized into separate buffers by tasks
+     * of the pool, and the buffers are appended in document order. Both preservation
+     * and pretty print modes are supported, and the output is identical to sequential
+     * serialization. The document must not be modified while it is being serialized.</p>
+     *
+     * @param pool the pool to serialize on, or null to serialize sequentially
+     * @since 1.5.0
+     */
+    public void setParallel(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
     /**
      * Serializes an XML document to string with custom configuration.
      *
@@ -306,18 +394,45 @@ public class Serializer {
             return "";
         }
 
+        if (!prettyPrint && cache != null) {
+            return cache.document(document, () -> serializeToString(document));
+        }
+        return serializeToString(document);
+    }
+
+    private String serializeToString(Document document) {
         if (!prettyPrint && !document.isModified() && isDefaultOutputConfig()) {
             // If pretty printing is disabled, document is unmodified, and no output
             // filtering is configured, use original formatting for maximum fidelity
-            return document.toXml();
+            StringBuilder sb = new StringBuilder(estimateLength(document));
+            if (cache == null && pool == null) {
+                document.toXml(sb);
+            } else {
+                document.toXml(sb, this::appendNode);
+            }
+            return sb.toString();
         }
 
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(estimateLength(document));
         serializeProlog(document, sb);
         serializeChildren(document, sb);
         return sb.toString();
     }
 
+    /**
+     * Estimates the length of the serialized document from the length of the source it was
+     * parsed from, so that the output buffer rarely needs to grow.
+     */
+    private int estimateLength(Document document) {
+        Element root = document.root();
+        int sourceLength = root != null ? root.sourceLength() : 0;
+        if (sourceLength == 0) {
+            return DEFAULT_BUFFER_SIZE;
+        }
+        // Leave some headroom for edits and, when pretty printing, for re-indentation
+        return sourceLength + (prettyPrint ? sourceLength >> 2 : 64);
+    }
+
     private void serializeProlog(Document document, StringBuilder sb) {
         // Add XML declaration only if it was present in original and not omitted by config
         boolean hasXmlDeclaration = !document.xmlDeclaration().isEmpty();
@@ -587,7 +702,7 @@ public class Serializer {
             // Use original formatting for unmodified nodes when not pretty printing.
             // Document nodes are excluded because serialize(Document) handles the XML
             // declaration and DOCTYPE separately, and children need filtering applied.
-            node.toXml(sb);
+            appendNode(node, sb);
             return;
         }
 
@@ -663,7 +778,117 @@ public class Serializer {
 
     private void serializeElement(Element element, StringBuilder sb) {
         // Use the Element's own toXml method to ensure all whitespace fields are respected
-        element.toXml(sb);
+        appendNode(element, sb);
+    }
+
+    /**
+     * Appends the node's own serialization, as produced by {@link Node#toXml(StringBuilder)},
+     * serving unchanged elements from the serialization cache and serializing wide elements
+     * in parallel when enabled.
+     */
+    private void appendNode(Node node, StringBuilder sb) {
+        if (!(node instanceof Element) || (cache == null && pool == null)) {
+            node.toXml(sb);
+            return;
+        }
+
+        Element element = (Element) node;
+        long generation = element.generation();
+        if (cache != null) {
+            String cached = cache.get(element, generation);
+            if (cached != null) {
+                sb.append(cached);
+                return;
+            }
+        }
+
+        int start = sb.length();
+        if (element.appendOpenTag(sb)) {
+            if (isParallelizable(element.children)) {
+                appendInParallel(element.children, sb, this::appendNode);
+            } else {
+                for (Node child : element.children) {
+                    appendNode(child, sb);
+                }
+            }
+            element.appendCloseTag(sb);
+        }
+        if (cache != null) {
+            cache.put(element, generation, sb, start);
+        }
+    }
+
+    /**
+     * Checks whether the given children are numerous enough to be serialized in parallel.
+     */
+    private boolean isParallelizable(List<Node> children) {
+        return pool != null && children.size() >= PARALLEL_THRESHOLD;
+    }
+
+    /**
+     * Serializes consecutive ranges of the given children into separate buffers on the
+     * fork/join pool, then appends the buffers in document order.
+     */
+    private void appendInParallel(List<Node> children, StringBuilder sb, BiConsumer<Node, StringBuilder> serializer) {
+        int rangeSize = Math.max(PARALLEL_RANGE_SIZE, children.size() / (pool.getParallelism() * 4));
+        StringBuilder[] buffers = new StringBuilder[(children.size() + rangeSize - 1) / rangeSize];
+        ChildRangeTask task = new ChildRangeTask(children, buffers, 0, buffers.length, rangeSize, serializer);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+        for (StringBuilder buffer : buffers) {
+            sb.append(buffer);
+        }
+    }
+
+    /**
+     * Serializes the children of the buffer slots {@code [from, to)}, each slot holding
+     * {@code rangeSize} consecutive children, splitting the slots in halves until a single
+     * slot remains.
+     */
+    @SuppressWarnings("serial")
+    private static final class ChildRangeTask extends RecursiveAction {
+        private final List<Node> children;
+        private final StringBuilder[] buffers;
+        private final int from;
+        private final int to;
+        private final int rangeSize;
+        private final BiConsumer<Node, StringBuilder> serializer;
+
+        ChildRangeTask(
+                List<Node> children,
+                StringBuilder[] buffers,
+                int from,
+                int to,
+                int rangeSize,
+                BiConsumer<Node, StringBuilder> serializer) {
+            this.children = children;
+            this.buffers = buffers;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+            this.serializer = serializer;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new ChildRangeTask(children, buffers, from, middle, rangeSize, serializer),
+                        new ChildRangeTask(children, buffers, middle, to, rangeSize, serializer));
+                return;
+            }
+            int start = from * rangeSize;
+            int end = Math.min(start + rangeSize, children.size());
+            StringBuilder buffer = new StringBuilder();
+            for (int i = start; i < end; i++) {
+                serializer.accept(children.get(i), buffer);
+            }
+            buffers[from] = buffer;
+        }
     }
 
     private void serializeElementPretty(Element element, StringBuilder sb, int depth) {
@@ -686,17 +911,32 @@ public class Serializer {
 
     private void appendPrettyIndentation(StringBuilder sb, int depth) {
         if (depth > 0 && !lineEnding.isEmpty()) {
-            sb.append(lineEnding);
-            for (int i = 0; i < depth; i++) {
-                sb.append(indentString);
-            }
+            sb.append(indentation(depth));
         }
     }
 
+    /**
+     * Returns the line ending followed by {@code depth} indentation strings, reusing the
+     * string built for the same depth by previous calls.
+     */
+    private String indentation(int depth) {
+        String[] cached = indentations;
+        if (depth < cached.length) {
+            return cached[depth];
+        }
+        String[] grown = new String[Math.max(depth + 1, cached.length * 2)];
+        StringBuilder sb = new StringBuilder(lineEnding);
+        for (int i = 0; i < grown.length; i++) {
+            grown[i] = sb.toString();
+            sb.append(indentString);
+        }
+        indentations = grown;
+        return grown[depth];
+    }
+
     private void appendPrettyAttributes(Element element, StringBuilder sb) {
-        for (String attrName : element.attributes().keySet()) {
-            Attribute attr = element.attributeObject(attrName);
-            if (attr != null) {
+        if (element.hasAttributes()) {
+            for (Attribute attr : element.attributeValues()) {
                 attr.toXml(sb, false); // Don't preserve original formatting in pretty print mode
             }
         }
@@ -717,22 +957,34 @@ public class Serializer {
     }
 
     private void serializeChildrenPretty(Element element, StringBuilder sb, int depth) {
-        boolean hasElementChildren = element.children.stream().anyMatch(Element.class::isInstance);
+        List<Node> children = element.children;
+        int count = children.size();
+        boolean hasElementChildren = false;
+        for (int i = 0; i < count && !hasElementChildren; i++) {
+            hasElementChildren = children.get(i) instanceof Element;
+        }
 
-        for (Node child : element.children) {
-            if (hasElementChildren && !(child instanceof Text)) {
-                serializeNodePretty(child, sb, depth + 1);
-            } else {
-                serializeNode(child, sb);
+        if (isParallelizable(children)) {
+            boolean elementContent = hasElementChildren;
+            appendInParallel(
+                    children, sb, (child, buffer) -> serializeChildPretty(child, buffer, depth, elementContent));
+        } else {
+            for (int i = 0; i < count; i++) {
+                serializeChildPretty(children.get(i), sb, depth, hasElementChildren);
             }
         }
 
         // Closing tag indentation
         if (hasElementChildren && !lineEnding.isEmpty()) {
-            sb.append(lineEnding);
-            for (int i = 0; i < depth; i++) {
-                sb.append(indentString);
-            }
+            sb.append(indentation(depth));
+        }
+    }
+
+    private void serializeChildPretty(Node child, StringBuilder sb, int depth, boolean hasElementChildren) {
+        if (hasElementChildren && !(child instanceof Text)) {
+            serializeNodePretty(child, sb, depth + 1);
+        } else {
+            serializeNode(child, sb);
         }
     }
 
@@ -745,7 +997,7 @@ public class Serializer {
             if (rawContent != null && !text.isModified()) {
                 sb.append(rawContent);
             } else {
-                sb.append(escapeTextContent(text.serializationContent()));
+                Text.escapeTextContent(text.serializationContent(), sb);
             }
         }
     }
@@ -763,12 +1015,7 @@ public class Serializer {
     }
 
     private void serializeCommentPretty(Comment comment, StringBuilder sb, int depth) {
-        if (depth > 0 && !lineEnding.isEmpty()) {
-            sb.append(lineEnding);
-            for (int i = 0; i < depth; i++) {
-                sb.append(indentString);
-            }
-        }
+        appendPrettyIndentation(sb, depth);
         serializeComment(comment, sb);
     }
 
@@ -783,12 +1030,7 @@ public class Serializer {
     }
 
     private void serializeProcessingInstructionPretty(ProcessingInstruction pi, StringBuilder sb, int depth) {
-        if (depth > 0 && !lineEnding.isEmpty()) {
-            sb.append(lineEnding);
-            for (int i = 0; i < depth; i++) {
-                sb.append(indentString);
-            }
-        }
+        appendPrettyIndentation(sb, depth);
         sb.append("<?").append(pi.target());
         String data = pi.serializationData();
         if (!data.isEmpty()) {
@@ -796,9 +1038,4 @@ public class Serializer {
         }
         sb.append("?>");
     }
-
-    private String escapeTextContent(String text) {
-        if (text == null) return "";
-        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
-    }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Buffered character input with the tokenizing steps shared by the readers that process
+ * XML without holding it in memory: {@link StreamingXPath} and {@link StreamingXmlDiff}.
+ *
+ * <p>The steps follow the rules of the {@link Parser}, which works on the whole input as a
+ * string: whitespace between tags is not text, a DOCTYPE may contain bracketed and quoted
+ * sections, and error positions count characters from the start of the input. Subclasses
+ * decide what to keep from each token, and may scan {@link #buffer} between
+ * {@link #position} and {@link #limit} directly.</p>
+ */
+abstract class StreamingTokenizer {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+    final char[] buffer = new char[BUFFER_SIZE];
+    int position;
+    int limit;
+    /** Number of characters before the buffer, for error positions */
+    private long offset;
+
+    /** Scratch space for the token being read */
+    final StringBuilder token = new StringBuilder();
+
+    StreamingTokenizer(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Skips the byte order mark at the start of the input, if any. */
+    void skipByteOrderMark() throws IOException {
+        if (peek() == '\uFEFF') {
+            position++;
+        }
+    }
+
+    /**
+     * Reads a text chunk whose first character was read, up to the next tag, into
+     * {@link #token}.
+     *
+     * @return whether the chunk is only whitespace
+     */
+    boolean readText(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        boolean whitespace = isWhitespace(first);
+        while (true) {
+            if (position == limit && !fill()) {
+                break;
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '<') {
+                whitespace = whitespace && isWhitespace(buffer[position]);
+                position++;
+            }
+            token.append(buffer, start, position - start);
+            if (position < limit) {
+                break;
+            }
+        }
+        return whitespace;
+    }
+
+    /**
+     * Reads a token whose first character was read, up to the end of the input or one of the
+     * given characters, which is not consumed.
+     */
+    String readUntil(int first, char end, char otherEnd, boolean whitespaceEnds) throws IOException {
+        if (first < 0) {
+            return "";
+        }
+        int start = position - 1;
+        if (isEnd(first, end, otherEnd, whitespaceEnds)) {
+            position = start;
+            return "";
+        }
+        while (position < limit) {
+            char c = buffer[position];
+            if (isEnd(c, end, otherEnd, whitespaceEnds)) {
+                return new String(buffer, start, position - start);
+            }
+            position++;
+        }
+        // The token continues after the buffer
+        token.setLength(0);
+        token.append(buffer, start, position - start);
+        int c;
+        while ((c = peek()) >= 0 && !isEnd(c, end, otherEnd, whitespaceEnds)) {
+            token.append((char) c);
+            position++;
+        }
+        return token.toString();
+    }
+
+    private static boolean isEnd(int c, char end, char otherEnd, boolean whitespaceEnds) {
+        return c == end || c == otherEnd || (whitespaceEnds && isWhitespace(c));
+    }
+
+    /** Reads up to the first occurrence of a terminator, returning the characters before it. */
+    String readPast(String terminator, String message) throws IOException {
+        token.setLength(0);
+        int length = terminator.length();
+        char last = terminator.charAt(length - 1);
+        int c;
+        while ((c = read()) >= 0) {
+            token.append((char) c);
+            if (c == last && token.length() >= length && endsWith(token, terminator)) {
+                return token.substring(0, token.length() - length);
+            }
+        }
+        throw error(message);
+    }
+
+    private static boolean endsWith(StringBuilder sb, String suffix) {
+        int start = sb.length() - suffix.length();
+        for (int i = 0; i < suffix.length(); i++) {
+            if (sb.charAt(start + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Skips past the given terminator, such as {@code -->}, without keeping the characters
+     * before it.
+     */
+    void skipPast(String terminator, String message) throws IOException {
+        int matched = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == terminator.charAt(matched)) {
+                if (++matched == terminator.length()) {
+                    return;
+                }
+            } else if (c != terminator.charAt(0)) {
+                matched = 0;
+            } else if (terminator.charAt(matched - 1) != c) {
+                matched = 1;
+            }
+            // Otherwise a run such as "--->" still ends with a partial match
+        }
+        throw error(message);
+    }
+
+    /** Skips the given characters if they come next, or as many of them as match. */
+    boolean skipLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (peek() != literal.charAt(i)) {
+                return false;
+            }
+            position++;
+        }
+        return true;
+    }
+
+    /** Skips the rest of a DOCTYPE declaration, including its internal subset. */
+    void skipDoctype() throws IOException {
+        int brackets = 0;
+        int quote = 0;
+        int c;
+        while ((c = read()) >= 0) {
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '[') {
+                brackets++;
+            } else if (c == ']') {
+                brackets--;
+            } else if (c == '>' && brackets == 0) {
+                return;
+            }
+        }
+        throw error("Unclosed DOCTYPE declaration");
+    }
+
+    /**
+     * Advances past the next occurrence of a character.
+     *
+     * @return false if the input ended first
+     */
+    boolean skipTo(char target) throws IOException {
+        while (true) {
+            while (position < limit) {
+                if (buffer[position++] == target) {
+                    return true;
+                }
+            }
+            if (!fill()) {
+                return false;
+            }
+        }
+    }
+
+    void skipWhitespace() throws IOException {
+        while (isWhitespace(peek())) {
+            position++;
+        }
+    }
+
+    int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    /**
+     * Replaces the buffer content with the next characters of the input.
+     *
+     * @return false if the input ended
+     */
+    boolean fill() throws IOException {
+        offset += limit;
+        position = 0;
+        limit = 0;
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    /** Returns an exception for a syntax error at the current position. */
+    DomTripException error(String message) {
+        return new DomTripException(message, (int) Math.min(Integer.MAX_VALUE, offset + position), null);
+    }
+}
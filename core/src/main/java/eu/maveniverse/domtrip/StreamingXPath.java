@@ -0,0 +1,893 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import eu.maveniverse.domtrip.XPathExpression.Axis;
+import eu.maveniverse.domtrip.XPathExpression.Predicate;
+import eu.maveniverse.domtrip.XPathExpression.Step;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Extracts the elements selected by XPath expressions while reading XML, without building a
+ * {@link Document}.
+ *
+ * <p>Inventory-style jobs that only need a few values from a large number of files spend most
+ * of their time building trees that are discarded right away. A {@code StreamingXPath} reads
+ * the XML once and reports each selected element to a callback when its end tag is read,
+ * together with its attributes and text. Subtrees in which no expression can match are skipped
+ * without looking at names or attributes, and memory use is bounded by the depth of the
+ * document plus the content of the selected elements.</p>
+ *
+ * <p>Streaming supports the subset of {@link XPathExpression} that can be decided from the
+ * start tag of an element: child ({@code a/b}), descendant ({@code //b}) and self
+ * ({@code .}) steps, with name tests and attribute predicates ({@code [@id]},
+ * {@code [@id='x']}). As with {@link Editor#select(String)}, relative expressions are
+ * evaluated against the root element, and their results are the same as those of
+ * {@link XPathExpression#select(Element)}. Expressions starting with a single {@code /} are
+ * anchored at the document instead, so that their first step must match the root element, as
+ * in {@code /project/dependencies/dependency/artifactId}. Each element is reported at most once
+ * per expression, in the order the elements end, so that nested matches precede their
+ * ancestors.</p>
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * StreamingXPath artifactIds = StreamingXPath.compile("dependencies/dependency/artifactId");
+ * for (Path pom : poms) {
+ *     artifactIds.select(pom, match -> System.out.println(match.textTrimmed()));
+ * }
+ * }</pre>
+ *
+ * <p>The input is checked for well-formedness only as far as it is inspected: a skipped
+ * subtree only needs balanced start and end tags, and reading stops at the end of the root
+ * element.</p>
+ *
+ * @implNote A {@code StreamingXPath} is immutable and thread-safe, and can read several
+ *           inputs concurrently.
+ *
+ * @see XPathExpression
+ * @see MultiQuery
+ * @since 1.5.0
+ */
+public final class StreamingXPath {
+
+    /** Number of bytes read ahead to detect the encoding of an input stream */
+    private static final int ENCODING_PREFIX_LENGTH = 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final List<XPathExpression> expressions;
+    /** The steps of all expressions, one after the other */
+    private final Step[] steps;
+    /** For each step, the index of its expression */
+    private final int[] stepExpression;
+    /** For each expression, the index of its first step, followed by the total number of steps */
+    private final int[] expressionStart;
+
+    private StreamingXPath(List<XPathExpression> expressions) {
+        this.expressions = expressions;
+        this.expressionStart = new int[expressions.size() + 1];
+        List<Step> allSteps = new ArrayList<>();
+        for (int i = 0; i < expressions.size(); i++) {
+            XPathExpression expression = expressions.get(i);
+            expressionStart[i] = allSteps.size();
+            for (Step step : expression.steps()) {
+                if (!isStreamable(step)) {
+                    throw new DomTripException("Expression cannot be evaluated while streaming, only child, descendant"
+                            + " and self steps with attribute predicates are supported: " + expression.expression());
+                }
+                allSteps.add(step);
+            }
+        }
+        expressionStart[expressions.size()] = allSteps.size();
+        this.steps = allSteps.toArray(new Step[0]);
+        this.stepExpression = new int[steps.length];
+        for (int i = 0; i < expressions.size(); i++) {
+            Arrays.fill(stepExpression, expressionStart[i], expressionStart[i + 1], i);
+        }
+    }
+
+    /**
+     * Creates a streaming evaluator for the given expressions.
+     *
+     * @param expressions the expressions to evaluate
+     * @return a new StreamingXPath
+     * @throws IllegalArgumentException if expressions is null or contains null
+     * @throws DomTripException if an expression uses steps or predicates that need more than
+     *         the start tag of an element
+     */
+    public static StreamingXPath of(XPathExpression... expressions) {
+        if (expressions == null) {
+            throw new IllegalArgumentException("Expressions cannot be null");
+        }
+        return of(Arrays.asList(expressions));
+    }
+
+    /**
+     * Creates a streaming evaluator for the given expressions. An expression contained more
+     * than once is evaluated once.
+     *
+     * @param expressions the expressions to evaluate
+     * @return a new StreamingXPath
+     * @throws IllegalArgumentException if expressions is null or contains null
+     * @throws DomTripException if an expression uses steps or predicates that need more than
+     *         the start tag of an element
+     */
+    public static StreamingXPath of(Collection<XPathExpression> expressions) {
+        if (expressions == null) {
+            throw new IllegalArgumentException("Expressions cannot be null");
+        }
+        List<XPathExpression> distinct = new ArrayList<>(expressions.size());
+        for (XPathExpression expression : expressions) {
+            if (expression == null) {
+                throw new IllegalArgumentException("Expressions cannot contain null");
+            }
+            if (!distinct.contains(expression)) {
+                distinct.add(expression);
+            }
+        }
+        return new StreamingXPath(Collections.unmodifiableList(distinct));
+    }
+
+    /**
+     * Creates a streaming evaluator for the given expression strings, compiling them through
+     * the shared {@linkplain XPathExpression#cache() expression cache}.
+     *
+     * @param expressions the expressions to compile and evaluate
+     * @return a new StreamingXPath
+     * @throws IllegalArgumentException if expressions is null
+     * @throws DomTripException if an expression is invalid or cannot be evaluated while streaming
+     */
+    public static StreamingXPath compile(String... expressions) {
+        if (expressions == null) {
+            throw new IllegalArgumentException("Expressions cannot be null");
+        }
+        List<XPathExpression> compiled = new ArrayList<>(expressions.length);
+        for (String expression : expressions) {
+            compiled.add(XPathExpression.cache().get(expression));
+        }
+        return of(compiled);
+    }
+
+    /**
+     * Checks whether an expression can be evaluated while streaming, that is whether every
+     * step selects elements from their start tag alone.
+     *
+     * @param expression the expression to check
+     * @return true if the expression can be evaluated by a StreamingXPath
+     */
+    public static boolean isStreamable(XPathExpression expression) {
+        for (Step step : expression.steps()) {
+            if (!isStreamable(step)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStreamable(Step step) {
+        if (step.axis == Axis.PARENT) {
+            return false;
+        }
+        for (Predicate predicate : step.predicates) {
+            if (predicate.type != Predicate.Type.ATTRIBUTE_PRESENCE
+                    && predicate.type != Predicate.Type.ATTRIBUTE_VALUE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the expressions of this evaluator, in the order they were given.
+     *
+     * @return an unmodifiable list of the expressions
+     */
+    public List<XPathExpression> expressions() {
+        return expressions;
+    }
+
+    /**
+     * Reads an XML string and reports the selected elements.
+     *
+     * @param xml the XML to read
+     * @param handler receives each selected element when its end tag is read
+     * @throws DomTripException if the XML is malformed
+     */
+    public void select(String xml, Consumer<Match> handler) throws DomTripException {
+        if (xml == null) {
+            throw new DomTripException("XML content cannot be null");
+        }
+        select(new StringReader(xml), handler);
+    }
+
+    /**
+     * Reads a file and reports the selected elements, detecting its encoding like
+     * {@link Document#of(Path)}.
+     *
+     * @param path the file to read
+     * @param handler receives each selected element when its end tag is read
+     * @throws DomTripException if the file cannot be read or the XML is malformed
+     */
+    public void select(Path path, Consumer<Match> handler) throws DomTripException {
+        if (path == null) {
+            throw new DomTripException("Path cannot be null");
+        }
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            select(inputStream, handler);
+        } catch (IOException e) {
+            throw new DomTripException("Failed to read file: " + path, e);
+        }
+    }
+
+    /**
+     * Reads XML from an input stream and reports the selected elements. The encoding is
+     * detected from a byte order mark or the XML declaration, falling back to UTF-8.
+     * The stream is not closed.
+     *
+     * @param inputStream the stream to read
+     * @param handler receives each selected element when its end tag is read
+     * @throws DomTripException if the stream cannot be read or the XML is malformed
+     */
+    public void select(InputStream inputStream, Consumer<Match> handler) throws DomTripException {
+        if (inputStream == null) {
+            throw new DomTripException("InputStream cannot be null");
+        }
+        try {
+            InputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+            buffered.mark(ENCODING_PREFIX_LENGTH);
+            byte[] prefix = new byte[ENCODING_PREFIX_LENGTH];
+            int length = 0;
+            int read;
+            while (length < prefix.length && (read = buffered.read(prefix, length, prefix.length - length)) > 0) {
+                length += read;
+            }
+            buffered.reset();
+            Charset charset = Parser.detectEncoding(Arrays.copyOf(prefix, length), StandardCharsets.UTF_8);
+            select(new InputStreamReader(buffered, charset), handler);
+        } catch (IOException e) {
+            throw new DomTripException("Failed to read from InputStream: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads XML from a reader and reports the selected elements. The reader is not closed.
+     *
+     * @param reader the reader to read from
+     * @param handler receives each selected element when its end tag is read
+     * @throws DomTripException if the reader fails or the XML is malformed
+     */
+    public void select(Reader reader, Consumer<Match> handler) throws DomTripException {
+        if (reader == null) {
+            throw new DomTripException("Reader cannot be null");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("Handler cannot be null");
+        }
+        try {
+            new Scan(reader, handler).run();
+        } catch (IOException e) {
+            throw new DomTripException("Failed to read XML: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingXPath{" + expressions.size() + " expressions}";
+    }
+
+    /**
+     * An element selected by one of the expressions, reported when its end tag is read.
+     */
+    public static final class Match {
+        private final XPathExpression expression;
+        private final String name;
+        private final Map<String, String> attributes;
+        private final String text;
+
+        Match(XPathExpression expression, String name, Map<String, String> attributes, String text) {
+            this.expression = expression;
+            this.name = name;
+            this.attributes = attributes;
+            this.text = text;
+        }
+
+        /**
+         * Returns the expression that selected the element.
+         *
+         * @return the selecting expression
+         */
+        public XPathExpression expression() {
+            return expression;
+        }
+
+        /**
+         * Returns the qualified name of the element.
+         *
+         * @return the element name, including its prefix if any
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * Returns the local name of the element, without its prefix.
+         *
+         * @return the local name
+         */
+        public String localName() {
+            return name.substring(XPathExpression.localNameStart(name));
+        }
+
+        /**
+         * Returns the decoded value of an attribute.
+         *
+         * @param attributeName the qualified attribute name
+         * @return the attribute value, or null if the element has no such attribute
+         */
+        public String attribute(String attributeName) {
+            return attributes.get(attributeName);
+        }
+
+        /**
+         * Returns the decoded attributes of the element, in document order.
+         *
+         * @return an unmodifiable map from attribute name to value
+         */
+        public Map<String, String> attributes() {
+            return attributes;
+        }
+
+        /**
+         * Returns the text of the element, which concatenates its text and CDATA children
+         * like {@link Element#textContent()}.
+         *
+         * @return the text content, empty if none
+         */
+        public String text() {
+            return text;
+        }
+
+        /**
+         * Returns the text of the element with leading and trailing whitespace removed,
+         * like {@link Element#textContentTrimmed()}.
+         *
+         * @return the trimmed text content
+         */
+        public String textTrimmed() {
+            return text.trim();
+        }
+
+        @Override
+        public String toString() {
+            return "Match{" + expression.expression() + " -> <" + name + ">}";
+        }
+    }
+
+    /**
+     * The steps to test against the children of an open element, and the expressions that
+     * selected it.
+     */
+    private static final class Frame {
+        String name;
+        int[] childTests = new int[8];
+        int childCount;
+        int[] matches = new int[4];
+        int matchCount;
+        /** Number of active descendant steps before this element was reached */
+        int descendantMark;
+
+        Map<String, String> attributes;
+        final StringBuilder text = new StringBuilder();
+
+        void reset(String name, int descendantMark) {
+            this.name = name;
+            this.descendantMark = descendantMark;
+            this.childCount = 0;
+            this.matchCount = 0;
+            this.attributes = null;
+            this.text.setLength(0);
+        }
+
+        void addChildTest(int step) {
+            if (childCount == childTests.length) {
+                childTests = Arrays.copyOf(childTests, childCount * 2);
+            }
+            childTests[childCount++] = step;
+        }
+
+        void addMatch(int expression) {
+            for (int i = 0; i < matchCount; i++) {
+                if (matches[i] == expression) {
+                    return;
+                }
+            }
+            if (matchCount == matches.length) {
+                matches = Arrays.copyOf(matches, matchCount * 2);
+            }
+            matches[matchCount++] = expression;
+        }
+    }
+
+    /**
+     * The state of reading one input: a buffered tokenizer, the open elements that may match,
+     * and the active descendant steps.
+     */
+    private final class Scan extends StreamingTokenizer {
+        private final Consumer<Match> handler;
+
+        private Frame[] frames = new Frame[16];
+        private int depth;
+        /** Descendant steps that apply to the next element, activated by its open ancestors */
+        private int[] descendantTests = new int[8];
+
+        private int descendantCount;
+        private final boolean[] active = new boolean[steps.length];
+
+        /** The start tag being examined */
+        private String tagName;
+
+        private int localStart;
+        private String[] attributeNames = new String[8];
+        private String[] attributeValues = new String[8];
+        private int attributeCount;
+
+        Scan(Reader reader, Consumer<Match> handler) {
+            super(reader);
+            this.handler = handler;
+        }
+
+        void run() throws IOException {
+            skipByteOrderMark();
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    break;
+                }
+                if (c != '<') {
+                    if (depth > 0 && frames[depth - 1].matchCount > 0) {
+                        appendText(c, frames[depth - 1].text);
+                    } else if (skipTo('<')) {
+                        position--;
+                    }
+                    continue;
+                }
+                c = read();
+                if (c == '/') {
+                    closeTag();
+                    if (depth == 0) {
+                        return;
+                    }
+                } else if (c == '!') {
+                    markup(depth > 0 && frames[depth - 1].matchCount > 0 ? frames[depth - 1].text : null);
+                } else if (c == '?') {
+                    skipPast("?>", "Unclosed processing instruction");
+                } else if (c < 0) {
+                    throw error("Unexpected end of XML: truncated '<' character");
+                } else if (!startTag(c) && depth == 0) {
+                    // Reading stops at the end of the root element
+                    return;
+                }
+            }
+            if (depth > 0) {
+                throw new DomTripException("Unclosed element '<" + frames[depth - 1].name + ">'");
+            }
+        }
+
+        /**
+         * Reads a start tag and decides which expressions select the element and which steps
+         * apply below it. Subtrees in which nothing can match are skipped.
+         *
+         * @return whether the element is still open
+         */
+        private boolean startTag(int first) throws IOException {
+            boolean selfClosing = readStartTag(first);
+            int mark = descendantCount;
+            Frame frame = frame(tagName, mark);
+            if (depth == 0) {
+                // The root element is the context of relative expressions, and the only element
+                // child of the document for absolute ones
+                for (int i = 0; i < expressions.size(); i++) {
+                    if (expressions.get(i).absolute()) {
+                        reachFromDocument(i, expressionStart[i], frame);
+                    } else {
+                        reach(i, expressionStart[i], frame);
+                    }
+                }
+            } else {
+                Frame parent = frames[depth - 1];
+                for (int i = 0; i < parent.childCount; i++) {
+                    int test = parent.childTests[i];
+                    if (matchesTag(steps[test])) {
+                        reach(stepExpression[test], test + 1, frame);
+                    }
+                }
+                for (int i = 0; i < mark; i++) {
+                    int test = descendantTests[i];
+                    if (matchesTag(steps[test])) {
+                        reach(stepExpression[test], test + 1, frame);
+                    }
+                }
+            }
+            if (frame.matchCount > 0) {
+                frame.attributes = decodedAttributes();
+            }
+            if (selfClosing) {
+                close(frame);
+                return false;
+            }
+            if (frame.matchCount == 0 && frame.childCount == 0 && descendantCount == 0) {
+                skipSubtree();
+                return false;
+            }
+            depth++;
+            return true;
+        }
+
+        /**
+         * Records that the element matched the first steps of an expression, up to the given one.
+         */
+        private void reach(int expression, int next, Frame frame) {
+            if (next == expressionStart[expression + 1]) {
+                frame.addMatch(expression);
+                return;
+            }
+            Step step = steps[next];
+            switch (step.axis) {
+                case SELF:
+                    if (matchesTag(step)) {
+                        reach(expression, next + 1, frame);
+                    }
+                    break;
+                case DESCENDANT:
+                    // The descendants of this element are a subset of those of the ancestor
+                    // which activated the same step
+                    if (!active[next]) {
+                        active[next] = true;
+                        if (descendantCount == descendantTests.length) {
+                            descendantTests = Arrays.copyOf(descendantTests, descendantCount * 2);
+                        }
+                        descendantTests[descendantCount++] = next;
+                    }
+                    break;
+                default: // CHILD
+                    frame.addChildTest(next);
+                    break;
+            }
+        }
+
+        /**
+         * Records the steps of an absolute expression that the root element reaches from the
+         * document. The document is not an element and is never selected, so a self step on it
+         * only passes on to the next step when it tests neither a name nor attributes.
+         */
+        private void reachFromDocument(int expression, int next, Frame frame) {
+            if (next == expressionStart[expression + 1]) {
+                return;
+            }
+            Step step = steps[next];
+            switch (step.axis) {
+                case SELF:
+                    if (step.nameTest == null && step.predicates.isEmpty()) {
+                        reachFromDocument(expression, next + 1, frame);
+                    }
+                    break;
+                case DESCENDANT:
+                    // The root element and, through the activated step, all elements below it
+                    reach(expression, next, frame);
+                    if (matchesTag(step)) {
+                        reach(expression, next + 1, frame);
+                    }
+                    break;
+                default: // CHILD
+                    if (matchesTag(step)) {
+                        reach(expression, next + 1, frame);
+                    }
+                    break;
+            }
+        }
+
+        private boolean matchesTag(Step step) {
+            if (step.nameTest != null && !XPathExpression.nameMatches(tagName, localStart, step.nameTest)) {
+                return false;
+            }
+            for (Predicate predicate : step.predicates) {
+                String raw = rawAttribute(predicate.name);
+                if (raw == null
+                        || (predicate.type == Predicate.Type.ATTRIBUTE_VALUE
+                                && !predicate.value.equals(XmlEscaper.unescape(raw)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String rawAttribute(String name) {
+            for (int i = attributeCount - 1; i >= 0; i--) {
+                if (attributeNames[i].equals(name)) {
+                    return attributeValues[i];
+                }
+            }
+            return null;
+        }
+
+        private Map<String, String> decodedAttributes() {
+            if (attributeCount == 0) {
+                return Collections.emptyMap();
+            }
+            Map<String, String> attributes = new LinkedHashMap<>();
+            for (int i = 0; i < attributeCount; i++) {
+                attributes.put(attributeNames[i], XmlEscaper.unescape(attributeValues[i]));
+            }
+            return Collections.unmodifiableMap(attributes);
+        }
+
+        private void closeTag() throws IOException {
+            skipWhitespace();
+            if (depth > 0 && skipName(frames[depth - 1].name)) {
+                depth--;
+                close(frames[depth]);
+                return;
+            }
+            String closingName = readUntil(read(), '>', '>', true);
+            int c = read();
+            while (isWhitespace(c)) {
+                c = read();
+            }
+            if (c != '>') {
+                throw error("Unclosed closing tag '</" + closingName + ">'");
+            }
+            if (depth == 0) {
+                throw error("Unexpected closing tag '</" + closingName + ">'");
+            }
+            Frame frame = frames[depth - 1];
+            if (!frame.name.equals(closingName)) {
+                throw error(
+                        "Mismatched closing tag: expected '</" + frame.name + ">' but found '</" + closingName + ">'");
+            }
+            depth--;
+            close(frame);
+        }
+
+        /**
+         * Reports the expressions that selected a closed element and deactivates the descendant
+         * steps it activated.
+         */
+        private void close(Frame frame) {
+            if (frame.matchCount > 0) {
+                String text = frame.text.toString();
+                for (int i = 0; i < frame.matchCount; i++) {
+                    handler.accept(new Match(expressions.get(frame.matches[i]), frame.name, frame.attributes, text));
+                }
+            }
+            while (descendantCount > frame.descendantMark) {
+                active[descendantTests[--descendantCount]] = false;
+            }
+        }
+
+        private Frame frame(String name, int descendantMark) {
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = new Frame();
+                frames[depth] = frame;
+            }
+            frame.reset(name, descendantMark);
+            return frame;
+        }
+
+        // ========== TOKENIZER ==========
+
+        /**
+         * Reads the name and attributes of a start tag, whose first name character was read.
+         *
+         * @return whether the tag is self-closing
+         */
+        private boolean readStartTag(int first) throws IOException {
+            tagName = readUntil(first, '/', '>', true);
+            int c = read();
+            localStart = XPathExpression.localNameStart(tagName);
+            attributeCount = 0;
+            while (true) {
+                while (isWhitespace(c)) {
+                    c = read();
+                }
+                if (c == '>') {
+                    return false;
+                }
+                if (c == '/' && peek() == '>') {
+                    position++;
+                    return true;
+                }
+                if (c < 0) {
+                    throw error("Unclosed opening tag '" + tagName + "'");
+                }
+                c = readAttribute(c);
+            }
+        }
+
+        /**
+         * Reads an attribute whose first name character was read, and returns the next character.
+         * As in the parser, a name that is not followed by a value is ignored.
+         */
+        private int readAttribute(int first) throws IOException {
+            String name = readUntil(first, '=', '=', true);
+            int c = read();
+            while (isWhitespace(c)) {
+                c = read();
+            }
+            if (c != '=') {
+                return c;
+            }
+            c = read();
+            while (isWhitespace(c)) {
+                c = read();
+            }
+            if (c != '"' && c != '\'') {
+                throw error("Missing attribute value quote");
+            }
+            char quote = (char) c;
+            String value = readUntil(read(), quote, quote, false);
+            if (read() != quote) {
+                throw error("Unclosed attribute value");
+            }
+            if (attributeCount == attributeNames.length) {
+                attributeNames = Arrays.copyOf(attributeNames, attributeCount * 2);
+                attributeValues = Arrays.copyOf(attributeValues, attributeCount * 2);
+            }
+            attributeNames[attributeCount] = name;
+            attributeValues[attributeCount++] = value;
+            return read();
+        }
+
+        /**
+         * Skips the rest of an end tag if it closes the element with the given name and is
+         * entirely in the buffer.
+         */
+        private boolean skipName(String name) {
+            int end = position + name.length();
+            if (end >= limit) {
+                return false;
+            }
+            for (int i = 0; i < name.length(); i++) {
+                if (buffer[position + i] != name.charAt(i)) {
+                    return false;
+                }
+            }
+            while (end < limit && isWhitespace(buffer[end])) {
+                end++;
+            }
+            if (end == limit || buffer[end] != '>') {
+                return false;
+            }
+            position = end + 1;
+            return true;
+        }
+
+        /**
+         * Reads a text chunk up to the next tag and appends it, decoded, to the text of the
+         * current element. As in the parser, whitespace between tags is not text.
+         */
+        private void appendText(int first, StringBuilder text) throws IOException {
+            if (!readText(first)) {
+                XmlEscaper.unescape(token.toString(), text);
+            }
+        }
+
+        /**
+         * Handles a declaration starting with {@code <!}: a comment, a CDATA section whose
+         * content is appended to the given text if it is not null, or a DOCTYPE.
+         */
+        private void markup(StringBuilder text) throws IOException {
+            int c = read();
+            if (c == '-') {
+                if (read() != '-') {
+                    throw error("Unclosed declaration");
+                }
+                skipPast("-->", "Unclosed comment");
+            } else if (c == '[') {
+                for (int i = 0; i < 6; i++) {
+                    if (read() != "CDATA[".charAt(i)) {
+                        throw error("Unclosed declaration");
+                    }
+                }
+                readCData(text);
+            } else if (c == 'D') {
+                skipDoctype();
+            } else if (!skipTo('>')) {
+                throw error("Unclosed declaration");
+            }
+        }
+
+        private void readCData(StringBuilder text) throws IOException {
+            int brackets = 0;
+            int c;
+            while ((c = read()) >= 0) {
+                if (c == '>' && brackets >= 2) {
+                    if (text != null) {
+                        text.setLength(text.length() - 2);
+                    }
+                    return;
+                }
+                brackets = c == ']' ? brackets + 1 : 0;
+                if (text != null) {
+                    text.append((char) c);
+                }
+            }
+            throw error("Unclosed CDATA section");
+        }
+
+        /**
+         * Skips the content and end tag of an element whose start tag was read, only tracking
+         * the nesting of tags.
+         */
+        private void skipSubtree() throws IOException {
+            int nesting = 1;
+            while (nesting > 0) {
+                if (!skipTo('<')) {
+                    throw new DomTripException("Unclosed element '<" + tagName + ">'");
+                }
+                int c = read();
+                if (c == '/') {
+                    if (!skipTo('>')) {
+                        throw error("Unclosed closing tag");
+                    }
+                    nesting--;
+                } else if (c == '!') {
+                    markup(null);
+                } else if (c == '?') {
+                    skipPast("?>", "Unclosed processing instruction");
+                } else if (!skipStartTag()) {
+                    nesting++;
+                }
+            }
+        }
+
+        /**
+         * Skips the rest of a start tag, honoring quoted attribute values.
+         *
+         * @return whether the tag is self-closing
+         */
+        private boolean skipStartTag() throws IOException {
+            int previous = 0;
+            int quote = 0;
+            int c;
+            while ((c = read()) >= 0) {
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = c;
+                } else if (c == '>') {
+                    return previous == '/';
+                }
+                previous = c;
+            }
+            throw error("Unclosed opening tag");
+        }
+    }
+}
@@ -0,0 +1,758 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Compares two XML inputs while reading them, without building either {@link Document}.
+ *
+ * <p>{@link XmlDiff} needs both documents in memory, which does not work for exports of
+ * hundreds of megabytes. A {@code StreamingXmlDiff} reads both inputs in lockstep and reports
+ * the same changes as {@link XmlDiff#diff(Document, Document, DiffConfig)} to a listener.
+ * Matched elements that appear in the same order on both sides are compared as they are read,
+ * and discarded once compared. Only the following siblings are kept until their parent ends:</p>
+ * <ul>
+ *   <li>elements with {@linkplain DiffConfig.Builder#matchBy(String, String...) match keys},
+ *       as any of them may match any other of the same name;</li>
+ *   <li>elements whose positional counterpart on the other side has not been read yet, such
+ *       as siblings of different names in a different order, or added and removed
+ *       elements.</li>
+ * </ul>
+ * <p>Memory use is therefore bounded by the depth of the documents times their widest group of
+ * such siblings, plus the changes that are not reported yet.</p>
+ *
+ * <h3>Usage Example:</h3>
+ * <pre>{@code
+ * DiffConfig config = DiffConfig.builder()
+ *     .matchBy("dependency", "groupId", "artifactId")
+ *     .build();
+ *
+ * StreamingXmlDiff.diff(beforePath, afterPath, config, change -> {
+ *     System.out.println(change);
+ *     return true;
+ * });
+ * }</pre>
+ *
+ * <p>Changes are reported in a different order than by {@link XmlDiff}. Since the text,
+ * comments and processing instructions of an element are only known at its end, the changes
+ * of an element follow those of its children. A change is also held back until its
+ * {@linkplain XmlChange#path() path} is known: an element is given a positional index when it
+ * has siblings of the same name, which may only be known once its parent ends. Changes under
+ * an element that is the only one of its name among its siblings are thus reported when the
+ * parent of that element ends.</p>
+ *
+ * <p>The nodes of the reported changes are detached: they hold their attributes, text,
+ * comments and processing instructions, but not their child elements, unless they were kept
+ * as siblings listed above. Content before and after the root element is not compared, like
+ * with {@link XmlDiff}, and reading stops at the end of the root elements.</p>
+ *
+ * @see XmlDiff
+ * @see DiffConfig
+ * @since 1.5.0
+ */
+public final class StreamingXmlDiff {
+
+    /** Number of bytes read ahead to detect the encoding of an input stream */
+    private static final int ENCODING_PREFIX_LENGTH = 1024;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private StreamingXmlDiff() {}
+
+    /**
+     * Compares two XML strings, passing each change to a listener until it returns
+     * {@code false}.
+     *
+     * @param before the original XML
+     * @param after the modified XML
+     * @param config the diff configuration controlling element matching
+     * @param listener receives the changes, returning whether to continue the comparison
+     * @return {@code true} if the comparison completed, {@code false} if the listener stopped it
+     * @throws DomTripException if either XML is malformed
+     */
+    public static boolean diff(String before, String after, DiffConfig config, Predicate<? super XmlChange> listener)
+            throws DomTripException {
+        if (before == null || after == null) {
+            throw new DomTripException("XML content cannot be null");
+        }
+        return diff(new StringReader(before), new StringReader(after), config, listener);
+    }
+
+    /**
+     * Compares two files, detecting their encodings like {@link Document#of(Path)}, and passes
+     * each change to a listener until it returns {@code false}.
+     *
+     * @param before the original file
+     * @param after the modified file
+     * @param config the diff configuration controlling element matching
+     * @param listener receives the changes, returning whether to continue the comparison
+     * @return {@code true} if the comparison completed, {@code false} if the listener stopped it
+     * @throws DomTripException if a file cannot be read or is malformed
+     */
+    public static boolean diff(Path before, Path after, DiffConfig config, Predicate<? super XmlChange> listener)
+            throws DomTripException {
+        if (before == null || after == null) {
+            throw new DomTripException("Path cannot be null");
+        }
+        try (InputStream beforeStream = Files.newInputStream(before)) {
+            try (InputStream afterStream = Files.newInputStream(after)) {
+                return diff(beforeStream, afterStream, config, listener);
+            } catch (IOException e) {
+                throw new DomTripException("Failed to read file: " + after, e);
+            }
+        } catch (IOException e) {
+            throw new DomTripException("Failed to read file: " + before, e);
+        }
+    }
+
+    /**
+     * Compares XML read from two input streams, passing each change to a listener until it
+     * returns {@code false}. The encodings are detected from a byte order mark or the XML
+     * declaration, falling back to UTF-8. The streams are not closed.
+     *
+     * @param before the stream of the original XML
+     * @param after the stream of the modified XML
+     * @param config the diff configuration controlling element matching
+     * @param listener receives the changes, returning whether to continue the comparison
+     * @return {@code true} if the comparison completed, {@code false} if the listener stopped it
+     * @throws DomTripException if a stream cannot be read or the XML is malformed
+     */
+    public static boolean diff(
+            InputStream before, InputStream after, DiffConfig config, Predicate<? super XmlChange> listener)
+            throws DomTripException {
+        if (before == null || after == null) {
+            throw new DomTripException("InputStream cannot be null");
+        }
+        try {
+            return diff(reader(before), reader(after), config, listener);
+        } catch (IOException e) {
+            throw new DomTripException("Failed to read from InputStream: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compares XML read from two readers, passing each change to a listener until it returns
+     * {@code false}. The readers are not closed.
+     *
+     * @param before the reader of the original XML
+     * @param after the reader of the modified XML
+     * @param config the diff configuration controlling element matching
+     * @param listener receives the changes, returning whether to continue the comparison
+     * @return {@code true} if the comparison completed, {@code false} if the listener stopped it
+     * @throws DomTripException if a reader fails or the XML is malformed
+     */
+    public static boolean diff(Reader before, Reader after, DiffConfig config, Predicate<? super XmlChange> listener)
+            throws DomTripException {
+        if (before == null || after == null) {
+            throw new DomTripException("Reader cannot be null");
+        }
+        Objects.requireNonNull(config, "config");
+        Objects.requireNonNull(listener, "listener");
+        try {
+            return new Comparison(new Source(before), new Source(after), config, listener).run();
+        } catch (IOException e) {
+            throw new DomTripException("Failed to read XML: " + e.getMessage(), e);
+        }
+    }
+
+    private static Reader reader(InputStream inputStream) throws IOException {
+        InputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE);
+        buffered.mark(ENCODING_PREFIX_LENGTH);
+        byte[] prefix = new byte[ENCODING_PREFIX_LENGTH];
+        int length = 0;
+        int read;
+        while (length < prefix.length && (read = buffered.read(prefix, length, prefix.length - length)) > 0) {
+            length += read;
+        }
+        buffered.reset();
+        Charset charset = Parser.detectEncoding(Arrays.copyOf(prefix, length), StandardCharsets.UTF_8);
+        return new InputStreamReader(buffered, charset);
+    }
+
+    /**
+     * A matched pair of elements whose children are read in lockstep, and the counts of their
+     * children by name, which decide the positional indexes in the paths of the children.
+     *
+     * <p>Changes are first built with the provisional path of their frame, in which every
+     * element has a positional index, and get their final path once it is known.</p>
+     */
+    private static final class Frame {
+        private final Frame parent;
+        private final String name;
+        /** The 1-based position among the same-name siblings in the before document */
+        private final int position;
+        private final XmlDiff.Path path;
+        private final Map<String, int[]> beforeCounts = new HashMap<>();
+        private final Map<String, int[]> afterCounts = new HashMap<>();
+        /** Whether all children were read, so that their counts are final */
+        private boolean childrenRead;
+
+        private String finalPath;
+
+        Frame(Frame parent, String name, int position) {
+            this.parent = parent;
+            this.name = name;
+            this.position = position;
+            this.path = new XmlDiff.Path(parent != null ? parent.path : null, name, position);
+        }
+
+        /** Counts a child read on one side and returns its 1-based position among same-name siblings. */
+        int count(String childName, boolean before) {
+            return ++(before ? beforeCounts : afterCounts).computeIfAbsent(childName, k -> new int[1])[0];
+        }
+
+        int beforeCount(String childName) {
+            int[] count = beforeCounts.get(childName);
+            return count != null ? count[0] : 0;
+        }
+
+        int afterCount(String childName) {
+            int[] count = afterCounts.get(childName);
+            return count != null ? count[0] : 0;
+        }
+
+        /** Returns the final path, or null while the positional index of this or an ancestor is unknown. */
+        String finalPath() {
+            if (finalPath == null) {
+                if (parent == null) {
+                    finalPath = path.toString();
+                } else {
+                    String parentPath = parent.finalPath();
+                    int siblings = parent.beforeCount(name);
+                    if (parentPath != null && siblings > 1) {
+                        finalPath = parentPath + "/" + name + "[" + position + "]";
+                    } else if (parentPath != null && parent.childrenRead) {
+                        finalPath = parentPath + "/" + name;
+                    }
+                }
+            }
+            return finalPath;
+        }
+    }
+
+    /**
+     * An element read ahead on one side, waiting for its counterpart or the end of its parent.
+     */
+    private static final class Pending {
+        private final Element element;
+        private final int position;
+
+        Pending(Element element, int position) {
+            this.element = element;
+            this.position = position;
+        }
+    }
+
+    /** A change held back until the final path of its frame is known. */
+    private static final class HeldChange {
+        private final XmlChange change;
+        private final Frame frame;
+
+        HeldChange(XmlChange change, Frame frame) {
+            this.change = change;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * The comparison of two inputs, passing changes to the listener in the order they were
+     * found once their paths are known.
+     */
+    private static final class Comparison extends XmlDiff.ChangeSink {
+        private final Source before;
+        private final Source after;
+        private final DiffConfig config;
+        private final Predicate<? super XmlChange> listener;
+        private final Deque<HeldChange> held = new ArrayDeque<>();
+        /** The frame of the changes being found */
+        private Frame frame;
+
+        private boolean stopped;
+
+        Comparison(Source before, Source after, DiffConfig config, Predicate<? super XmlChange> listener) {
+            this.before = before;
+            this.after = after;
+            this.config = config;
+            this.listener = listener;
+        }
+
+        boolean run() throws IOException {
+            Element beforeRoot = before.root();
+            Element afterRoot = after.root();
+            if (beforeRoot == null && afterRoot == null) {
+                return true;
+            }
+            if (beforeRoot == null || afterRoot == null || !beforeRoot.name().equals(afterRoot.name())) {
+                if (beforeRoot != null) {
+                    before.skip(beforeRoot);
+                    frame = new Frame(null, beforeRoot.name(), 0);
+                    XmlDiff.addElementRemoved(this, frame.path, beforeRoot);
+                }
+                if (afterRoot != null && !stopped) {
+                    after.skip(afterRoot);
+                    frame = new Frame(null, afterRoot.name(), 0);
+                    XmlDiff.addElementAdded(this, frame.path, afterRoot);
+                }
+                return !stopped;
+            }
+            compare(new Frame(null, beforeRoot.name(), 0), beforeRoot, afterRoot);
+            flush();
+            return !stopped;
+        }
+
+        /**
+         * Compares two matched elements whose start tags were read, reading both up to their
+         * end tags.
+         */
+        private void compare(Frame current, Element beforeElement, Element afterElement) throws IOException {
+            Map<String, Deque<Pending>> pendingBefore = new LinkedHashMap<>();
+            Map<String, Deque<Pending>> pendingAfter = new LinkedHashMap<>();
+            List<Element> keyedBefore = new ArrayList<>();
+            List<Element> keyedAfter = new ArrayList<>();
+            boolean beforeChildElements = false;
+            boolean afterChildElements = false;
+
+            Element b = next(current, beforeElement, before, true);
+            Element a = next(current, afterElement, after, false);
+            while ((b != null || a != null) && !stopped) {
+                if (b != null) {
+                    beforeChildElements = true;
+                }
+                if (a != null) {
+                    afterChildElements = true;
+                }
+                if (b != null && isKeyed(b)) {
+                    before.read(b);
+                    keyedBefore.add(b);
+                    b = next(current, beforeElement, before, true);
+                } else if (a != null && isKeyed(a)) {
+                    after.read(a);
+                    keyedAfter.add(a);
+                    a = next(current, afterElement, after, false);
+                } else if (b != null && counterpart(pendingAfter, b, current.beforeCount(b.name())) != null) {
+                    int position = current.beforeCount(b.name());
+                    Pending other = pendingAfter.get(b.name()).poll();
+                    before.read(b);
+                    compareRead(new Frame(current, b.name(), position), b, other.element);
+                    b = next(current, beforeElement, before, true);
+                } else if (a != null && counterpart(pendingBefore, a, current.afterCount(a.name())) != null) {
+                    Pending other = pendingBefore.get(a.name()).poll();
+                    after.read(a);
+                    compareRead(new Frame(current, a.name(), other.position), other.element, a);
+                    a = next(current, afterElement, after, false);
+                } else if (b != null
+                        && a != null
+                        && b.name().equals(a.name())
+                        && current.beforeCount(b.name()) == current.afterCount(a.name())) {
+                    compare(new Frame(current, b.name(), current.beforeCount(b.name())), b, a);
+                    detachLast(beforeElement);
+                    detachLast(afterElement);
+                    b = next(current, beforeElement, before, true);
+                    a = next(current, afterElement, after, false);
+                } else if (b != null) {
+                    before.read(b);
+                    pendingBefore
+                            .computeIfAbsent(b.name(), k -> new ArrayDeque<>())
+                            .add(new Pending(b, current.beforeCount(b.name())));
+                    b = next(current, beforeElement, before, true);
+                } else {
+                    after.read(a);
+                    pendingAfter
+                            .computeIfAbsent(a.name(), k -> new ArrayDeque<>())
+                            .add(new Pending(a, current.afterCount(a.name())));
+                    a = next(current, afterElement, after, false);
+                }
+            }
+            if (stopped) {
+                return;
+            }
+            current.childrenRead = true;
+
+            // Siblings without a positional counterpart, then groups matched by keys
+            frame = current;
+            for (Deque<Pending> removed : pendingBefore.values()) {
+                for (Pending pending : removed) {
+                    String name = pending.element.name();
+                    int position = current.beforeCount(name) > 1 ? pending.position : 0;
+                    XmlDiff.addElementRemoved(this, new XmlDiff.Path(current.path, name, position), pending.element);
+                }
+            }
+            for (Deque<Pending> added : pendingAfter.values()) {
+                for (Pending pending : added) {
+                    String name = pending.element.name();
+                    int position = current.afterCount(name) > 1 ? pending.position : 0;
+                    XmlDiff.addElementAdded(this, new XmlDiff.Path(current.path, name, position), pending.element);
+                }
+            }
+            if (!keyedBefore.isEmpty() || !keyedAfter.isEmpty()) {
+                XmlDiff.compareChildElements(keyedBefore, keyedAfter, current.path, config, this);
+            }
+
+            beforeElement.children.removeIf(Element.class::isInstance);
+            afterElement.children.removeIf(Element.class::isInstance);
+            frame = current;
+            XmlDiff.compareElementContent(
+                    beforeElement,
+                    afterElement,
+                    !beforeChildElements && beforeElement.isEmpty(),
+                    !afterChildElements && afterElement.isEmpty(),
+                    current.path,
+                    this);
+            flush();
+        }
+
+        /** Compares two matched elements that were read entirely, then detaches them. */
+        private void compareRead(Frame pair, Element beforeElement, Element afterElement) {
+            frame = pair;
+            pair.childrenRead = true;
+            XmlDiff.compareElements(beforeElement, afterElement, pair.path, config, this);
+            beforeElement.parent().children.remove(beforeElement);
+            afterElement.parent().children.remove(afterElement);
+            flush();
+        }
+
+        /** Reads the next child element of an element, counting it, or returns null at its end. */
+        private Element next(Frame current, Element parent, Source source, boolean beforeSide) throws IOException {
+            Element child = parent.selfClosing() ? null : source.next(parent);
+            if (child != null) {
+                current.count(child.name(), beforeSide);
+                flush();
+            }
+            return child;
+        }
+
+        private boolean isKeyed(Element element) {
+            return !config.matchKeysFor(element.name()).isEmpty();
+        }
+
+        /** Returns the pending element on the other side at the same position, if any. */
+        private static Pending counterpart(Map<String, Deque<Pending>> pending, Element element, int position) {
+            Deque<Pending> sameName = pending.get(element.name());
+            Pending first = sameName != null ? sameName.peek() : null;
+            return first != null && first.position == position ? first : null;
+        }
+
+        private static void detachLast(Element parent) {
+            parent.children.remove(parent.children.size() - 1);
+        }
+
+        // --- Change sink ---
+
+        @Override
+        boolean found(ChangeType type) {
+            return !stopped;
+        }
+
+        @Override
+        void add(XmlChange change) {
+            held.add(new HeldChange(change, frame));
+            flush();
+        }
+
+        @Override
+        boolean done() {
+            return stopped;
+        }
+
+        /** Passes the held changes whose paths are known to the listener, in order. */
+        private void flush() {
+            while (!stopped && !held.isEmpty()) {
+                HeldChange first = held.peek();
+                String finalPath = first.frame.finalPath();
+                if (finalPath == null) {
+                    return;
+                }
+                held.poll();
+                XmlChange change = first.change;
+                String provisionalPath = first.frame.path.toString();
+                if (!finalPath.equals(provisionalPath)) {
+                    change = new XmlChange(
+                            change.type(),
+                            finalPath + change.path().substring(provisionalPath.length()),
+                            change.beforeValue(),
+                            change.afterValue(),
+                            change.beforeNode(),
+                            change.afterNode());
+                }
+                stopped = !listener.test(change);
+            }
+        }
+    }
+
+    /**
+     * Reads the nodes of one input, building them like the {@link Parser} does. Elements are
+     * attached to their parents, so that their namespaces can be resolved.
+     */
+    private static final class Source extends StreamingTokenizer {
+        /** Whitespace to apply to the next node, or to the end of the current element */
+        private final StringBuilder whitespace = new StringBuilder();
+
+        Source(Reader reader) {
+            super(reader);
+        }
+
+        /** Reads up to the start tag of the root element, or returns null if there is none. */
+        Element root() throws IOException {
+            skipByteOrderMark();
+            // Nodes before the root element are kept as they give the root its preceding whitespace
+            Document document = new Document();
+            int c;
+            while ((c = read()) >= 0) {
+                if (c != '<') {
+                    text(c, document);
+                    continue;
+                }
+                c = read();
+                if (c == '?') {
+                    processingInstruction(document);
+                } else if (c == '!') {
+                    markup(document);
+                } else if (c == '/') {
+                    throw error("Unexpected closing tag");
+                } else if (c < 0) {
+                    throw error("Unexpected end of XML: truncated '<' character");
+                } else {
+                    Element root = startTag(c);
+                    attach(root, document);
+                    document.rootInternal(root);
+                    return root;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reads the content of an open element up to its next child element, whose start tag
+         * is read, or up to its end tag.
+         *
+         * @return the child element, attached to its parent, or null at the end of the parent
+         */
+        Element next(Element parent) throws IOException {
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    throw new DomTripException("Unclosed element '<" + parent.name() + ">'");
+                }
+                if (c != '<') {
+                    text(c, parent);
+                    continue;
+                }
+                c = read();
+                if (c == '/') {
+                    endTag(parent);
+                    return null;
+                } else if (c == '!') {
+                    markup(parent);
+                } else if (c == '?') {
+                    processingInstruction(parent);
+                } else if (c < 0) {
+                    throw error("Unexpected end of XML: truncated '<' character");
+                } else {
+                    Element child = startTag(c);
+                    attach(child, parent);
+                    return child;
+                }
+            }
+        }
+
+        /** Reads the rest of an element whose start tag was read, building its subtree. */
+        void read(Element element) throws IOException {
+            if (element.selfClosing()) {
+                return;
+            }
+            Element child;
+            while ((child = next(element)) != null) {
+                read(child);
+            }
+        }
+
+        /** Reads the rest of an element whose start tag was read, discarding its child elements. */
+        void skip(Element element) throws IOException {
+            if (element.selfClosing()) {
+                return;
+            }
+            Element child;
+            while ((child = next(element)) != null) {
+                skip(child);
+                element.children.remove(element.children.size() - 1);
+            }
+        }
+
+        private void attach(Node node, ContainerNode parent) {
+            if (whitespace.length() > 0) {
+                node.precedingWhitespaceInternal(whitespace.toString());
+                whitespace.setLength(0);
+            }
+            parent.addChildInternal(node);
+        }
+
+        /**
+         * Reads a text chunk up to the next tag. As in the parser, whitespace between tags is
+         * kept for the next node rather than as text.
+         */
+        private void text(int first, ContainerNode parent) throws IOException {
+            if (readText(first)) {
+                whitespace.append(token);
+            } else {
+                String raw = token.toString();
+                attach(new Text(XmlEscaper.unescape(raw), raw), parent);
+            }
+        }
+
+        /**
+         * Reads a processing instruction after its {@code <?}, attaching it unless it is the XML
+         * declaration.
+         */
+        private void processingInstruction(ContainerNode parent) throws IOException {
+            String pi = "<?" + readPast("?>", "Unclosed processing instruction") + "?>";
+            if (!pi.startsWith("<?xml ") || !pi.contains("version=")) {
+                attach(new ProcessingInstruction(pi), parent);
+            }
+        }
+
+        /**
+         * Handles a declaration starting with {@code <!}: a comment or CDATA section, which is
+         * attached, or a DOCTYPE or other declaration, which is skipped.
+         */
+        private void markup(ContainerNode parent) throws IOException {
+            int c = read();
+            if (c == '-' && peek() == '-') {
+                position++;
+                attach(new Comment(readPast("-->", "Unclosed comment")), parent);
+                return;
+            }
+            if (c == '[' && skipLiteral("CDATA[")) {
+                attach(new Text(readPast("]]>", "Unclosed CDATA section"), true), parent);
+                return;
+            }
+            if (c == 'D' && skipLiteral("OCTYPE")) {
+                // As in the parser, the DOCTYPE takes the whitespace preceding it
+                whitespace.setLength(0);
+                skipDoctype();
+                return;
+            }
+            while (c != '>') {
+                if (c < 0) {
+                    throw error("Unclosed declaration");
+                }
+                c = read();
+            }
+        }
+
+        /**
+         * Reads a start tag whose first name character was read, keeping its attributes and
+         * whitespace like the parser.
+         */
+        private Element startTag(int first) throws IOException {
+            if (isWhitespace(first) || first == '>' || first == '/') {
+                throw error("Empty element name");
+            }
+            String name = readUntil(first, '>', '/', true);
+            Element element = new Element(name);
+            StringBuilder tagWhitespace = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    throw error("Unclosed opening tag '" + name + "'");
+                }
+                if (c == '>') {
+                    break;
+                }
+                if (c == '/' && peek() == '>') {
+                    position++;
+                    element.selfClosingInternal(true);
+                    break;
+                }
+                if (isWhitespace(c)) {
+                    tagWhitespace.append((char) c);
+                } else {
+                    attribute(c, element, tagWhitespace.toString());
+                    tagWhitespace.setLength(0);
+                }
+            }
+            if (tagWhitespace.length() > 0) {
+                element.openTagWhitespaceInternal(tagWhitespace.toString());
+            }
+            return element;
+        }
+
+        /**
+         * Reads an attribute whose first name character was read. As in the parser, a name that
+         * is not followed by a value is ignored.
+         */
+        private void attribute(int first, Element element, String precedingWhitespace) throws IOException {
+            String name = readUntil(first, '=', '>', true);
+            skipWhitespace();
+            if (peek() != '=') {
+                return;
+            }
+            position++;
+            skipWhitespace();
+            int c = read();
+            if (c != '"' && c != '\'') {
+                throw error("Missing attribute value quote");
+            }
+            char quote = (char) c;
+            String rawValue = readUntil(read(), quote, quote, false);
+            if (read() != quote) {
+                throw error("Unclosed attribute value");
+            }
+            element.attributeInternal(
+                    name,
+                    XmlEscaper.unescape(rawValue),
+                    quote,
+                    precedingWhitespace.isEmpty() ? " " : precedingWhitespace,
+                    rawValue);
+        }
+
+        /** Reads the end tag of an element, after its {@code </}. */
+        private void endTag(Element element) throws IOException {
+            token.setLength(0);
+            while (isWhitespace(peek())) {
+                token.append((char) read());
+            }
+            String closeTagWhitespace = token.toString();
+            String closingName = readUntil(read(), '>', '>', true);
+            skipWhitespace();
+            if (read() != '>') {
+                throw error("Unclosed closing tag '</" + closingName + ">'");
+            }
+            if (!element.name().equals(closingName)) {
+                throw error("Mismatched closing tag: expected '</" + element.name() + ">' but found '</"
+                        + closingName + ">'");
+            }
+            if (whitespace.length() > 0) {
+                element.innerPrecedingWhitespaceInternal(whitespace.toString());
+                whitespace.setLength(0);
+            }
+            if (!closeTagWhitespace.isEmpty()) {
+                element.closeTagWhitespaceInternal(closeTagWhitespace);
+            }
+        }
+    }
+}
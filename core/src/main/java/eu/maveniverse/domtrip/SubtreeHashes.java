@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of the structural hashes of the elements of a document, computed
+ * bottom-up in one pass.
+ *
+ * <p>Every element has two 64-bit hashes, following the split of {@link ChangeType} between
+ * semantic and formatting-only changes. The semantic hash covers the name, namespace URI and
+ * attribute values of the element, its decoded text, comments and processing instructions,
+ * and the semantic hashes of its child elements in order. The formatting hash covers the
+ * whitespace of its tags, its empty element style, the order, quotes, raw values and
+ * whitespace of its attributes, the raw form of its text, and the formatting hashes of its
+ * child elements in order. Two elements whose hashes are both equal have no differences that
+ * {@link XmlDiff} would report, barring hash collisions, so their subtrees need not be
+ * compared.</p>
+ *
+ * <p>The snapshot also records the number of elements of every subtree, with which
+ * {@link XmlDiff} sizes its parallel tasks.</p>
+ *
+ * <p>Like {@link IdIndex}, the snapshot is valid for a given {@linkplain Node#generation()
+ * generation} of the document, and is rebuilt by {@link Document#subtreeHashes()} once the
+ * document has changed.</p>
+ */
+final class SubtreeHashes {
+
+    private static final long SEED = 0x243F6A8885A308D3L;
+    private static final long MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private final long generation;
+    /** The semantic hash, formatting hash and subtree size of each element, by identity */
+    private final Map<Element, long[]> hashes;
+
+    private SubtreeHashes(long generation, Map<Element, long[]> hashes) {
+        this.generation = generation;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Hashes the elements of the root element subtree of a document.
+     */
+    static SubtreeHashes build(Document document) {
+        Map<Element, long[]> hashes = new IdentityHashMap<>();
+        Element root = document.root();
+        if (root != null) {
+            hash(root, hashes);
+        }
+        return new SubtreeHashes(document.generation(), hashes);
+    }
+
+    /**
+     * Checks whether this snapshot still describes the given document.
+     */
+    boolean isCurrent(Document document) {
+        return generation == document.generation();
+    }
+
+    /**
+     * Checks whether an element of this snapshot and an element of another one have equal
+     * semantic and formatting hashes.
+     */
+    boolean sameSubtree(Element element, SubtreeHashes other, Element otherElement) {
+        long[] a = hashes.get(element);
+        long[] b = other.hashes.get(otherElement);
+        return a != null && b != null && a[0] == b[0] && a[1] == b[1];
+    }
+
+    /**
+     * Checks whether an element of this snapshot and an element of another one have equal
+     * semantic hashes.
+     */
+    boolean sameSemantics(Element element, SubtreeHashes other, Element otherElement) {
+        long[] a = hashes.get(element);
+        long[] b = other.hashes.get(otherElement);
+        return a != null && b != null && a[0] == b[0];
+    }
+
+    /**
+     * Returns the semantic hash of an element of the snapshot.
+     */
+    long semantic(Element element) {
+        return hashes.get(element)[0];
+    }
+
+    /**
+     * Returns the formatting hash of an element of the snapshot.
+     */
+    long formatting(Element element) {
+        return hashes.get(element)[1];
+    }
+
+    /**
+     * Returns the number of elements of the subtree of an element of the snapshot, including
+     * the element itself.
+     */
+    int size(Element element) {
+        return (int) hashes.get(element)[2];
+    }
+
+    /**
+     * Hashes an element after its child elements, mirroring the comparisons of {@link XmlDiff}.
+     */
+    private static long[] hash(Element element, Map<Element, long[]> hashes) {
+        long semantic = string(SEED, element.name());
+        semantic = string(semantic, nullToEmpty(element.namespaceURI()));
+
+        long formatting = string(SEED, nullToEmpty(element.precedingWhitespace()));
+        formatting = string(formatting, nullToEmpty(element.openTagWhitespace()));
+        formatting = string(formatting, nullToEmpty(element.innerPrecedingWhitespace()));
+        formatting = string(formatting, nullToEmpty(element.closeTagWhitespace()));
+        formatting = add(formatting, element.isEmpty() && element.selfClosing() ? 1 : 0);
+
+        // Attribute values are compared by name, their order is a formatting matter
+        long attributes = 0;
+        int attributeCount = 0;
+        for (Attribute attribute : element.attributeValues()) {
+            attributes += fmix(nullable(string(SEED, attribute.name()), attribute.value()));
+            attributeCount++;
+            formatting = string(formatting, attribute.name());
+            formatting = add(formatting, attribute.quoteStyle().ordinal());
+            formatting = nullable(formatting, attribute.rawValue());
+            formatting = string(formatting, nullToEmpty(attribute.precedingWhitespace()));
+        }
+        semantic = add(add(semantic, attributes), attributeCount);
+
+        // Text is compared joined, comments, processing instructions and elements each in order
+        long text = SEED;
+        long rawText = SEED;
+        int textLength = 0;
+        int rawTextLength = 0;
+        long comments = SEED;
+        long instructions = SEED;
+        long children = SEED;
+        long childFormatting = SEED;
+        long size = 1;
+        for (Node child : element.children) {
+            if (child instanceof Text) {
+                Text t = (Text) child;
+                String raw = t.rawContent() != null ? t.rawContent() : t.content();
+                text = chars(text, t.content());
+                textLength += t.content().length();
+                rawText = chars(rawText, raw);
+                rawTextLength += raw.length();
+            } else if (child instanceof Comment) {
+                comments = nullable(comments, ((Comment) child).content());
+            } else if (child instanceof ProcessingInstruction) {
+                ProcessingInstruction pi = (ProcessingInstruction) child;
+                instructions = nullable(instructions, pi.target());
+                instructions = string(instructions, nullToEmpty(pi.data()));
+            } else if (child instanceof Element) {
+                long[] childHashes = hash((Element) child, hashes);
+                children = add(children, childHashes[0]);
+                childFormatting = add(childFormatting, childHashes[1]);
+                size += childHashes[2];
+            }
+        }
+        semantic = add(add(semantic, text), textLength);
+        semantic = add(add(add(semantic, comments), instructions), children);
+        formatting = add(add(formatting, rawText), rawTextLength);
+        formatting = add(formatting, childFormatting);
+
+        long[] result = {fmix(semantic), fmix(formatting), size};
+        hashes.put(element, result);
+        return result;
+    }
+
+    private static String nullToEmpty(String s) {
+        return s != null ? s : "";
+    }
+
+    /**
+     * Combines a value into a hash. Mixing rotation, exclusive or and multiplication avoids
+     * the systematic collisions of purely polynomial hashes modulo 2<sup>64</sup>.
+     */
+    private static long add(long hash, long value) {
+        return (Long.rotateLeft(hash, 31) ^ value) * MULTIPLIER;
+    }
+
+    private static long chars(long hash, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            hash = add(hash, s.charAt(i));
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes a string followed by its length, offset beyond the range of characters, so that
+     * consecutive strings are delimited.
+     */
+    private static long string(long hash, String s) {
+        return add(chars(hash, s), 0x10000L + s.length());
+    }
+
+    /** Hashes a string that may be null, which differs from every string. */
+    private static long nullable(long hash, String s) {
+        return s != null ? string(hash, s) : add(hash, -1);
+    }
+
+    /** The finalization step of MurmurHash3, spreading every input bit over the result. */
+    private static long fmix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE53B87CDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -149,6 +149,7 @@ public class Text extends Node {
     public Text precedingWhitespace(String whitespace) {
         this.precedingWhitespace = whitespace != null ? whitespace : "";
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -156,6 +157,7 @@ public class Text extends Node {
         this.content = content != null ? content : "";
         this.rawContent = null; // Clear raw content when content is modified
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -165,6 +167,8 @@ public class Text extends Node {
 
     public Text rawContent(String rawContent) {
         this.rawContent = rawContent;
+        advanceGeneration();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -175,6 +179,7 @@ public class Text extends Node {
     public Text cdata(boolean cData) {
         this.isCData = cData;
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -187,6 +192,16 @@ public class Text extends Node {
         return this;
     }
 
+    /**
+     * Sets the whole value without marking as modified (for replaying a {@link ChangeJournal})
+     */
+    void valueInternal(String content, String rawContent, boolean cdata, boolean preserveWhitespace) {
+        this.content = content != null ? content : "";
+        this.rawContent = rawContent;
+        this.isCData = cdata;
+        this.preserveWhitespace = preserveWhitespace;
+    }
+
     /**
      * {@inheritDoc}
      * @since 1.3.0
@@ -203,7 +218,13 @@ public class Text extends Node {
      * Returns true if this text node contains only whitespace
      */
     public boolean isWhitespaceOnly() {
-        return content.trim().isEmpty();
+        // Same as content.trim().isEmpty(), without allocating a trimmed copy
+        for (int i = 0, len = content.length(); i < len; i++) {
+            if (content.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -307,6 +328,7 @@ public class Text extends Node {
         this.content = leading + newContent + trailing;
         this.rawContent = null; // Clear raw content when content is modified
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 
@@ -353,11 +375,22 @@ public class Text extends Node {
             if (rawContent != null && !isModified()) {
                 sb.append(rawContent);
             } else {
-                sb.append(escapeTextContent(content));
+                escapeTextContent(content, sb);
             }
         }
     }
 
+    /**
+     * Escape XML special characters in the given text and append the result to the provided
+     * StringBuilder, copying runs without special characters in bulk.
+     *
+     * @param text the input text to escape; may be {@code null} (treated as an empty string)
+     * @param sb the StringBuilder to append the escaped text to
+     */
+    static void escapeTextContent(String text, StringBuilder sb) {
+        XmlEscaper.escapeText(text, sb);
+    }
+
     /**
      * Escape XML special characters in the given text for safe inclusion in element content.
      *
@@ -365,40 +398,7 @@ public class Text extends Node {
      * @return the input with `&`, `<`, and `>` replaced by `&amp;`, `&lt;`, and `&gt;` respectively; empty string when input is {@code null}
      */
     static String escapeTextContent(String text) {
-        if (text == null) return "";
-
-        // Fast path: scan for any character that needs escaping
-        int len = text.length();
-        int firstSpecial = -1;
-        for (int i = 0; i < len; i++) {
-            char c = text.charAt(i);
-            if (c == '&' || c == '<' || c == '>') {
-                firstSpecial = i;
-                break;
-            }
-        }
-        if (firstSpecial < 0) {
-            return text; // No escaping needed — common case
-        }
-
-        // Single-pass escape from the first special character
-        StringBuilder sb = new StringBuilder(len + 16);
-        if (firstSpecial > 0) {
-            sb.append(text, 0, firstSpecial);
-        }
-        for (int i = firstSpecial; i < len; i++) {
-            char c = text.charAt(i);
-            if (c == '&') {
-                sb.append("&amp;");
-            } else if (c == '<') {
-                sb.append("&lt;");
-            } else if (c == '>') {
-                sb.append("&gt;");
-            } else {
-                sb.append(c);
-            }
-        }
-        return sb.toString();
+        return XmlEscaper.escapeText(text);
     }
 
     /**
@@ -407,119 +407,8 @@ public class Text extends Node {
      * @param text the text possibly containing XML entities or numeric references
      * @return the text with entities and numeric references decoded; empty string when {@code text} is {@code null}
      */
-    @SuppressWarnings({"java:S135", "java:S3776"}) // Single-pass entity scanner has inherent branching complexity
     public static String unescapeTextContent(String text) {
-        if (text == null) return "";
-
-        // Fast path: if no '&' exists, no unescaping is needed.
-        // This is the common case for most element text content.
-        int ampIdx = text.indexOf('&');
-        if (ampIdx < 0) {
-            return text;
-        }
-
-        // Single-pass scanner: resolve numeric references and named entities in one pass
-        // to avoid re-decoding (e.g., &#38;lt; must yield "&lt;", not "<")
-        StringBuilder result = new StringBuilder(text.length());
-        // Bulk-copy everything before the first '&'
-        if (ampIdx > 0) {
-            result.append(text, 0, ampIdx);
-        }
-        int i = ampIdx;
-        while (i < text.length()) {
-            if (text.charAt(i) == '&') {
-                // Try numeric reference first
-                if (i + 2 < text.length() && text.charAt(i + 1) == '#') {
-                    int consumed = tryResolveNumericReference(text, i, result);
-                    if (consumed > 0) {
-                        i += consumed;
-                        continue;
-                    }
-                }
-                // Try named entities
-                int consumed = tryResolveNamedEntity(text, i, result);
-                if (consumed > 0) {
-                    i += consumed;
-                    continue;
-                }
-            }
-            result.append(text.charAt(i));
-            i++;
-        }
-        return result.toString();
-    }
-
-    /**
-     * Tries to resolve a named XML entity (&amp;lt;, &amp;gt;, &amp;quot;, &amp;apos;, &amp;amp;) at the given position.
-     * Returns the number of characters consumed, or 0 if no entity matched.
-     */
-    private static int tryResolveNamedEntity(String text, int start, StringBuilder result) {
-        if (text.startsWith("&lt;", start)) {
-            result.append('<');
-            return 4;
-        }
-        if (text.startsWith("&gt;", start)) {
-            result.append('>');
-            return 4;
-        }
-        if (text.startsWith("&quot;", start)) {
-            result.append('"');
-            return 6;
-        }
-        if (text.startsWith("&apos;", start)) {
-            result.append('\'');
-            return 6;
-        }
-        if (text.startsWith("&amp;", start)) {
-            result.append('&');
-            return 5;
-        }
-        return 0;
-    }
-
-    /**
-     * Tries to resolve a single numeric character reference starting at the given position.
-     * Returns the number of characters consumed, or 0 if it was not a valid reference.
-     */
-    private static int tryResolveNumericReference(String text, int start, StringBuilder result) {
-        int end = text.indexOf(';', start + 2);
-        if (end == -1) {
-            return 0;
-        }
-        String numericPart = text.substring(start + 2, end);
-        try {
-            int codePoint = parseNumericReference(numericPart);
-            if (isValidXmlChar(codePoint)) {
-                result.appendCodePoint(codePoint);
-                return end - start + 1;
-            }
-        } catch (NumberFormatException e) {
-            // Not a valid numeric reference, treat as regular text
-        }
-        return 0;
-    }
-
-    /**
-     * Parses a numeric character reference value (decimal or hexadecimal).
-     */
-    private static int parseNumericReference(String numericPart) {
-        if (!numericPart.isEmpty() && (numericPart.charAt(0) == 'x' || numericPart.charAt(0) == 'X')) {
-            return Integer.parseInt(numericPart.substring(1), 16);
-        }
-        return Integer.parseInt(numericPart, 10);
-    }
-
-    /**
-     * Checks whether a code point is a valid XML character per the XML 1.0 spec:
-     * #x9 | #xA | #xD | [#x20-#xD7FF] | [#xE000-#xFFFD] | [#x10000-#x10FFFF]
-     */
-    private static boolean isValidXmlChar(int cp) {
-        return cp == 0x9
-                || cp == 0xA
-                || cp == 0xD
-                || (cp >= 0x20 && cp <= 0xD7FF)
-                || (cp >= 0xE000 && cp <= 0xFFFD)
-                || (cp >= 0x10000 && cp <= 0x10FFFF);
+        return XmlEscaper.unescape(text);
     }
 
     /**
@@ -529,6 +418,7 @@ public class Text extends Node {
         if (!preserveWhitespace) {
             content = content.trim();
             markModified();
+            ChangeJournal.valueChanged(this);
         }
     }
 
@@ -539,6 +429,7 @@ public class Text extends Node {
         if (!preserveWhitespace) {
             content = content.replaceAll("\\s+", " ").trim();
             markModified();
+            ChangeJournal.valueChanged(this);
         }
     }
 
@@ -640,6 +531,7 @@ public class Text extends Node {
     public Text asCData() {
         this.isCData = true;
         markModified();
+        ChangeJournal.valueChanged(this);
         return this;
     }
 }
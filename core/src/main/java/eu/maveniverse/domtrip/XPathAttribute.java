@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+/**
+ * An attribute node selected by a {@link CompiledXPath}.
+ *
+ * <p>DomTrip stores attributes as values of their element rather than as nodes, so XPath
+ * results wrap each selected attribute together with its owner element. Two wrappers are
+ * equal when they refer to the same attribute name of the same element.</p>
+ *
+ * @see CompiledXPath#selectNodes(Object)
+ * @since 1.5.0
+ */
+public final class XPathAttribute {
+
+    private final Element element;
+    private final Attribute attribute;
+
+    XPathAttribute(Element element, Attribute attribute) {
+        this.element = element;
+        this.attribute = attribute;
+    }
+
+    /**
+     * Returns the element that owns this attribute.
+     *
+     * @return the owner element
+     */
+    public Element element() {
+        return element;
+    }
+
+    /**
+     * Returns the attribute as stored by the element.
+     *
+     * @return the attribute
+     */
+    public Attribute attribute() {
+        return attribute;
+    }
+
+    /**
+     * Returns the qualified name of the attribute, as written.
+     *
+     * @return the attribute name
+     */
+    public String name() {
+        return attribute.name();
+    }
+
+    /**
+     * Returns the local part of the attribute name.
+     *
+     * @return the local name
+     */
+    public String localName() {
+        String name = attribute.name();
+        return name.substring(XPathExpression.localNameStart(name));
+    }
+
+    /**
+     * Returns the namespace URI of the attribute. Unprefixed attributes are in no namespace.
+     *
+     * @return the namespace URI, or an empty string if the attribute is in no namespace
+     */
+    public String namespaceURI() {
+        String name = attribute.name();
+        int colon = name.indexOf(':');
+        if (colon < 0) {
+            return "";
+        }
+        String uri = NamespaceResolver.resolveNamespaceURI(element, name.substring(0, colon));
+        return uri != null ? uri : "";
+    }
+
+    /**
+     * Returns the value of the attribute.
+     *
+     * @return the attribute value
+     */
+    public String value() {
+        return attribute.value();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof XPathAttribute)) {
+            return false;
+        }
+        XPathAttribute other = (XPathAttribute) obj;
+        return element == other.element && name().equals(other.name());
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(element) + name().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "XPathAttribute{" + name() + "=\"" + value() + "\"}";
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.Map;
+
+/**
+ * The evaluation context of a {@link CompiledXPath} expression: the context node, position
+ * and size, and the variable bindings.
+ *
+ * <p>Predicates evaluate their expression once per candidate node. Rather than allocating a
+ * context per candidate, they create one context and move it along with {@link #set}, so
+ * expressions must not keep a reference to the context they are given.</p>
+ */
+final class XPathContext {
+
+    Object node;
+    int position;
+    int size;
+    final Map<String, Object> variables;
+
+    XPathContext(Object node, int position, int size, Map<String, Object> variables) {
+        this.node = node;
+        this.position = position;
+        this.size = size;
+        this.variables = variables;
+    }
+
+    /**
+     * Returns a new context with the same variables, for an inner evaluation.
+     */
+    XPathContext derive(Object node, int position, int size) {
+        return new XPathContext(node, position, size, variables);
+    }
+
+    XPathContext set(Object node, int position, int size) {
+        this.node = node;
+        this.position = position;
+        this.size = size;
+        return this;
+    }
+}
@@ -0,0 +1,994 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A compiled XPath 1.0 expression node, as produced by {@link XPathParser}.
+ *
+ * <p>Each operator, function and path is compiled into its own final class with its operands
+ * held in fields, so that evaluating an expression is a chain of monomorphic calls the JIT can
+ * inline. Every node has a static result type and evaluates directly to it through
+ * {@link #nodeSet}, {@link #string}, {@link #number} or {@link #bool}, converting only where
+ * XPath requires it. Comparisons are specialized at compile time for the types of their
+ * operands.</p>
+ *
+ * <p>Node-sets are lists in document order without duplicates.</p>
+ */
+abstract class XPathExpr {
+
+    static final int NODESET = 0;
+    static final int STRING = 1;
+    static final int NUMBER = 2;
+    static final int BOOLEAN = 3;
+    /** A variable whose type is only known when it is evaluated */
+    static final int ANY = 4;
+
+    static final int EQ = 0;
+    static final int NE = 1;
+    static final int LT = 2;
+    static final int LE = 3;
+    static final int GT = 4;
+    static final int GE = 5;
+
+    /**
+     * Returns the type of the values of this expression.
+     */
+    abstract int type();
+
+    /**
+     * Evaluates this expression to a {@code List<Object>} node-set, a {@link String}, a
+     * {@link Double} or a {@link Boolean}.
+     */
+    abstract Object evaluate(XPathContext context);
+
+    List<Object> nodeSet(XPathContext context) {
+        Object value = evaluate(context);
+        if (value instanceof List) {
+            @SuppressWarnings("unchecked")
+            List<Object> nodes = (List<Object>) value;
+            return nodes;
+        }
+        throw new DomTripException("XPath expression does not evaluate to a node-set: " + this);
+    }
+
+    String string(XPathContext context) {
+        return toString(evaluate(context));
+    }
+
+    double number(XPathContext context) {
+        return toNumber(evaluate(context));
+    }
+
+    boolean bool(XPathContext context) {
+        return toBoolean(evaluate(context));
+    }
+
+    /**
+     * Returns whether the value depends on the context position or size, through
+     * {@code position()} or {@code last()} outside of a nested predicate.
+     */
+    boolean dependsOnPosition() {
+        return false;
+    }
+
+    // ========== CONVERSIONS ==========
+
+    static String toString(Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        }
+        if (value instanceof List) {
+            List<?> nodes = (List<?>) value;
+            return nodes.isEmpty() ? "" : XPathNodes.stringValue(nodes.get(0));
+        }
+        if (value instanceof Double) {
+            return toString((double) (Double) value);
+        }
+        return value.toString();
+    }
+
+    static double toNumber(Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return toNumber(toString(value));
+    }
+
+    static boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof List) {
+            return !((List<?>) value).isEmpty();
+        }
+        if (value instanceof Double) {
+            double number = (Double) value;
+            return number != 0 && !Double.isNaN(number);
+        }
+        return !((String) value).isEmpty();
+    }
+
+    /**
+     * Formats a number as XPath does: integers without a fraction, other numbers in plain
+     * decimal notation, never with an exponent.
+     */
+    static String toString(double number) {
+        if (Double.isNaN(number)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(number)) {
+            return number > 0 ? "Infinity" : "-Infinity";
+        }
+        if (number == 0) {
+            return "0";
+        }
+        long integer = (long) number;
+        if (integer == number && integer != Long.MIN_VALUE && integer != Long.MAX_VALUE) {
+            return Long.toString(integer);
+        }
+        return BigDecimal.valueOf(number).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Parses a string as an XPath number: optional whitespace, an optional minus sign and
+     * digits with an optional fraction. Anything else is NaN.
+     */
+    static double toNumber(String string) {
+        int start = 0;
+        int end = string.length();
+        while (start < end && isWhitespace(string.charAt(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(string.charAt(end - 1))) {
+            end--;
+        }
+        int i = start;
+        if (i < end && string.charAt(i) == '-') {
+            i++;
+        }
+        boolean digits = false;
+        boolean dot = false;
+        for (; i < end; i++) {
+            char c = string.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        return digits ? Double.parseDouble(string.substring(start, end)) : Double.NaN;
+    }
+
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    // ========== PRIMARY EXPRESSIONS ==========
+
+    static final class StringLiteral extends XPathExpr {
+        final String value;
+
+        StringLiteral(String value) {
+            this.value = value;
+        }
+
+        @Override
+        int type() {
+            return STRING;
+        }
+
+        @Override
+        Object evaluate(XPathContext context) {
+            return value;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            return value;
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return toNumber(value);
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return !value.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            return value.indexOf('\'') < 0 ? "'" + value + "'" : "\"" + value + "\"";
+        }
+    }
+
+    static final class NumberLiteral extends XPathExpr {
+        final double value;
+
+        NumberLiteral(double value) {
+            this.value = value;
+        }
+
+        @Override
+        int type() {
+            return NUMBER;
+        }
+
+        @Override
+        Object evaluate(XPathContext context) {
+            return value;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            return toString(value);
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return value;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return value != 0 && !Double.isNaN(value);
+        }
+
+        @Override
+        public String toString() {
+            return toString(value);
+        }
+    }
+
+    static final class Variable extends XPathExpr {
+        final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+
+        @Override
+        int type() {
+            return ANY;
+        }
+
+        @Override
+        Object evaluate(XPathContext context) {
+            Object value = context.variables.get(name);
+            if (value == null) {
+                throw new DomTripException("Undefined XPath variable: $" + name);
+            }
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "$" + name;
+        }
+    }
+
+    // ========== ARITHMETIC ==========
+
+    /**
+     * A binary operator on numbers.
+     */
+    abstract static class Arithmetic extends XPathExpr {
+        final XPathExpr left;
+        final XPathExpr right;
+
+        Arithmetic(XPathExpr left, XPathExpr right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        final int type() {
+            return NUMBER;
+        }
+
+        @Override
+        final Object evaluate(XPathContext context) {
+            return number(context);
+        }
+
+        @Override
+        final boolean bool(XPathContext context) {
+            double value = number(context);
+            return value != 0 && !Double.isNaN(value);
+        }
+
+        @Override
+        final String string(XPathContext context) {
+            return toString(number(context));
+        }
+
+        @Override
+        final boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        abstract String operator();
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operator() + " " + right + ")";
+        }
+    }
+
+    static final class Add extends Arithmetic {
+        Add(XPathExpr left, XPathExpr right) {
+            super(left, right);
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return left.number(context) + right.number(context);
+        }
+
+        @Override
+        String operator() {
+            return "+";
+        }
+    }
+
+    static final class Subtract extends Arithmetic {
+        Subtract(XPathExpr left, XPathExpr right) {
+            super(left, right);
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return left.number(context) - right.number(context);
+        }
+
+        @Override
+        String operator() {
+            return "-";
+        }
+    }
+
+    static final class Multiply extends Arithmetic {
+        Multiply(XPathExpr left, XPathExpr right) {
+            super(left, right);
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return left.number(context) * right.number(context);
+        }
+
+        @Override
+        String operator() {
+            return "*";
+        }
+    }
+
+    static final class Divide extends Arithmetic {
+        Divide(XPathExpr left, XPathExpr right) {
+            super(left, right);
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return left.number(context) / right.number(context);
+        }
+
+        @Override
+        String operator() {
+            return "div";
+        }
+    }
+
+    static final class Modulo extends Arithmetic {
+        Modulo(XPathExpr left, XPathExpr right) {
+            super(left, right);
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return left.number(context) % right.number(context);
+        }
+
+        @Override
+        String operator() {
+            return "mod";
+        }
+    }
+
+    static final class Negate extends XPathExpr {
+        final XPathExpr operand;
+
+        Negate(XPathExpr operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        int type() {
+            return NUMBER;
+        }
+
+        @Override
+        Object evaluate(XPathContext context) {
+            return number(context);
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return -operand.number(context);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return operand.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "-" + operand;
+        }
+    }
+
+    // ========== LOGIC ==========
+
+    /**
+     * A boolean-valued expression.
+     */
+    abstract static class BooleanExpr extends XPathExpr {
+
+        @Override
+        final int type() {
+            return BOOLEAN;
+        }
+
+        @Override
+        final Object evaluate(XPathContext context) {
+            return bool(context);
+        }
+
+        @Override
+        final String string(XPathContext context) {
+            return bool(context) ? "true" : "false";
+        }
+
+        @Override
+        final double number(XPathContext context) {
+            return bool(context) ? 1 : 0;
+        }
+
+        @Override
+        abstract boolean bool(XPathContext context);
+    }
+
+    static final class Or extends BooleanExpr {
+        final XPathExpr left;
+        final XPathExpr right;
+
+        Or(XPathExpr left, XPathExpr right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return left.bool(context) || right.bool(context);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " or " + right + ")";
+        }
+    }
+
+    static final class And extends BooleanExpr {
+        final XPathExpr left;
+        final XPathExpr right;
+
+        And(XPathExpr left, XPathExpr right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return left.bool(context) && right.bool(context);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " and " + right + ")";
+        }
+    }
+
+    // ========== COMPARISONS ==========
+
+    /**
+     * Compiles a comparison, choosing the implementation from the static types of the
+     * operands as XPath 1.0 section 3.4 prescribes for their values.
+     */
+    static XPathExpr compare(int operator, XPathExpr left, XPathExpr right) {
+        int leftType = left.type();
+        int rightType = right.type();
+        if (leftType == ANY || rightType == ANY || (leftType == NODESET && rightType == NODESET)) {
+            return new GeneralComparison(operator, left, right);
+        }
+        if (leftType == NODESET || rightType == NODESET) {
+            XPathExpr nodes = leftType == NODESET ? left : right;
+            XPathExpr other = leftType == NODESET ? right : left;
+            int op = leftType == NODESET ? operator : flip(operator);
+            if (other.type() == BOOLEAN) {
+                return new BooleanComparison(operator, left, right);
+            }
+            if (other.type() == STRING && (op == EQ || op == NE)) {
+                return new NodeSetStringComparison(op == NE, nodes, other);
+            }
+            return new NodeSetNumberComparison(op, nodes, other);
+        }
+        if (operator == EQ || operator == NE) {
+            if (leftType == BOOLEAN || rightType == BOOLEAN) {
+                return new BooleanComparison(operator, left, right);
+            }
+            if (leftType == NUMBER || rightType == NUMBER) {
+                return new NumberComparison(operator, left, right);
+            }
+            return new StringComparison(operator == NE, left, right);
+        }
+        return new NumberComparison(operator, left, right);
+    }
+
+    /**
+     * Returns the operator that compares the operands the other way round.
+     */
+    static int flip(int operator) {
+        switch (operator) {
+            case LT:
+                return GT;
+            case LE:
+                return GE;
+            case GT:
+                return LT;
+            case GE:
+                return LE;
+            default:
+                return operator;
+        }
+    }
+
+    static boolean compare(int operator, double left, double right) {
+        switch (operator) {
+            case EQ:
+                return left == right;
+            case NE:
+                return left != right;
+            case LT:
+                return left < right;
+            case LE:
+                return left <= right;
+            case GT:
+                return left > right;
+            default:
+                return left >= right;
+        }
+    }
+
+    static String operatorString(int operator) {
+        switch (operator) {
+            case EQ:
+                return "=";
+            case NE:
+                return "!=";
+            case LT:
+                return "<";
+            case LE:
+                return "<=";
+            case GT:
+                return ">";
+            default:
+                return ">=";
+        }
+    }
+
+    /**
+     * Compares two values of any type at run time, for operands whose types are not known
+     * statically or are both node-sets.
+     */
+    static boolean compareValues(int operator, Object left, Object right) {
+        boolean leftNodes = left instanceof List;
+        boolean rightNodes = right instanceof List;
+        if (leftNodes && rightNodes) {
+            return compareNodeSets(operator, (List<?>) left, (List<?>) right);
+        }
+        if (leftNodes || rightNodes) {
+            List<?> nodes = (List<?>) (leftNodes ? left : right);
+            Object other = leftNodes ? right : left;
+            int op = leftNodes ? operator : flip(operator);
+            if (other instanceof Boolean) {
+                boolean value = !nodes.isEmpty();
+                return leftNodes
+                        ? compareBooleans(operator, value, (Boolean) other)
+                        : compareBooleans(operator, (Boolean) other, value);
+            }
+            if (other instanceof String && (op == EQ || op == NE)) {
+                for (Object node : nodes) {
+                    if (XPathNodes.stringValue(node).equals(other) != (op == NE)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            double number = toNumber(other);
+            for (Object node : nodes) {
+                if (compare(op, toNumber(XPathNodes.stringValue(node)), number)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (operator == EQ || operator == NE) {
+            if (left instanceof Boolean || right instanceof Boolean) {
+                return compareBooleans(operator, toBoolean(left), toBoolean(right));
+            }
+            if (left instanceof Double || right instanceof Double) {
+                return compare(operator, toNumber(left), toNumber(right));
+            }
+            return toString(left).equals(toString(right)) == (operator == EQ);
+        }
+        return compare(operator, toNumber(left), toNumber(right));
+    }
+
+    private static boolean compareBooleans(int operator, boolean left, boolean right) {
+        if (operator == EQ) {
+            return left == right;
+        }
+        if (operator == NE) {
+            return left != right;
+        }
+        return compare(operator, left ? 1 : 0, right ? 1 : 0);
+    }
+
+    private static boolean compareNodeSets(int operator, List<?> left, List<?> right) {
+        if (left.isEmpty() || right.isEmpty()) {
+            return false;
+        }
+        if (operator == EQ || operator == NE) {
+            Set<String> values = new HashSet<>();
+            for (Object node : right) {
+                values.add(XPathNodes.stringValue(node));
+            }
+            for (Object node : left) {
+                String value = XPathNodes.stringValue(node);
+                if (operator == EQ ? values.contains(value) : values.size() > 1 || !values.contains(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        // Some pair compares true exactly when the extreme values do
+        double[] leftRange = range(left);
+        double[] rightRange = range(right);
+        if (leftRange == null || rightRange == null) {
+            return false;
+        }
+        switch (operator) {
+            case LT:
+                return leftRange[0] < rightRange[1];
+            case LE:
+                return leftRange[0] <= rightRange[1];
+            case GT:
+                return leftRange[1] > rightRange[0];
+            default:
+                return leftRange[1] >= rightRange[0];
+        }
+    }
+
+    /**
+     * Returns the minimum and maximum numeric values of the nodes, ignoring NaN, or null if
+     * there are none.
+     */
+    private static double[] range(List<?> nodes) {
+        double min = Double.NaN;
+        double max = Double.NaN;
+        for (Object node : nodes) {
+            double value = toNumber(XPathNodes.stringValue(node));
+            if (!Double.isNaN(value)) {
+                min = Double.isNaN(min) ? value : Math.min(min, value);
+                max = Double.isNaN(max) ? value : Math.max(max, value);
+            }
+        }
+        return Double.isNaN(min) ? null : new double[] {min, max};
+    }
+
+    static final class GeneralComparison extends BooleanExpr {
+        final int operator;
+        final XPathExpr left;
+        final XPathExpr right;
+
+        GeneralComparison(int operator, XPathExpr left, XPathExpr right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return compareValues(operator, left.evaluate(context), right.evaluate(context));
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operatorString(operator) + " " + right + ")";
+        }
+    }
+
+    /**
+     * Compares a node-set with a string for (in)equality: true if some node's string value
+     * is (not) equal to the string.
+     */
+    static final class NodeSetStringComparison extends BooleanExpr {
+        final boolean negate;
+        final XPathExpr nodes;
+        final XPathExpr value;
+
+        NodeSetStringComparison(boolean negate, XPathExpr nodes, XPathExpr value) {
+            this.negate = negate;
+            this.nodes = nodes;
+            this.value = value;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            List<Object> candidates = nodes.nodeSet(context);
+            if (candidates.isEmpty()) {
+                return false;
+            }
+            String expected = value.string(context);
+            for (int i = 0, size = candidates.size(); i < size; i++) {
+                if (XPathNodes.stringValue(candidates.get(i)).equals(expected) != negate) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return nodes.dependsOnPosition() || value.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + nodes + (negate ? " != " : " = ") + value + ")";
+        }
+    }
+
+    /**
+     * Compares a node-set with a number, or with a string in a relational comparison: true if
+     * some node's string value, converted to a number, compares true.
+     */
+    static final class NodeSetNumberComparison extends BooleanExpr {
+        final int operator;
+        final XPathExpr nodes;
+        final XPathExpr value;
+
+        NodeSetNumberComparison(int operator, XPathExpr nodes, XPathExpr value) {
+            this.operator = operator;
+            this.nodes = nodes;
+            this.value = value;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            List<Object> candidates = nodes.nodeSet(context);
+            if (candidates.isEmpty()) {
+                return false;
+            }
+            double expected = value.number(context);
+            for (int i = 0, size = candidates.size(); i < size; i++) {
+                if (compare(operator, toNumber(XPathNodes.stringValue(candidates.get(i))), expected)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return nodes.dependsOnPosition() || value.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + nodes + " " + operatorString(operator) + " " + value + ")";
+        }
+    }
+
+    /**
+     * Compares operands as booleans for (in)equality, or as the numbers of their boolean
+     * values otherwise.
+     */
+    static final class BooleanComparison extends BooleanExpr {
+        final int operator;
+        final XPathExpr left;
+        final XPathExpr right;
+
+        BooleanComparison(int operator, XPathExpr left, XPathExpr right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return compareBooleans(operator, left.bool(context), right.bool(context));
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operatorString(operator) + " " + right + ")";
+        }
+    }
+
+    static final class NumberComparison extends BooleanExpr {
+        final int operator;
+        final XPathExpr left;
+        final XPathExpr right;
+
+        NumberComparison(int operator, XPathExpr left, XPathExpr right) {
+            this.operator = operator;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return compare(operator, left.number(context), right.number(context));
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + " " + operatorString(operator) + " " + right + ")";
+        }
+    }
+
+    static final class StringComparison extends BooleanExpr {
+        final boolean negate;
+        final XPathExpr left;
+        final XPathExpr right;
+
+        StringComparison(boolean negate, XPathExpr left, XPathExpr right) {
+            this.negate = negate;
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return left.string(context).equals(right.string(context)) != negate;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "(" + left + (negate ? " != " : " = ") + right + ")";
+        }
+    }
+
+    // ========== NODE-SETS ==========
+
+    /**
+     * A node-set valued expression.
+     */
+    abstract static class NodeSetExpr extends XPathExpr {
+
+        @Override
+        final int type() {
+            return NODESET;
+        }
+
+        @Override
+        final Object evaluate(XPathContext context) {
+            return nodeSet(context);
+        }
+
+        @Override
+        abstract List<Object> nodeSet(XPathContext context);
+
+        @Override
+        String string(XPathContext context) {
+            List<Object> nodes = nodeSet(context);
+            return nodes.isEmpty() ? "" : XPathNodes.stringValue(nodes.get(0));
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return toNumber(string(context));
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return !nodeSet(context).isEmpty();
+        }
+    }
+
+    static final class Union extends NodeSetExpr {
+        final XPathExpr left;
+        final XPathExpr right;
+
+        Union(XPathExpr left, XPathExpr right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        List<Object> nodeSet(XPathContext context) {
+            List<Object> leftNodes = left.nodeSet(context);
+            List<Object> rightNodes = right.nodeSet(context);
+            if (leftNodes.isEmpty()) {
+                return rightNodes;
+            }
+            if (rightNodes.isEmpty()) {
+                return leftNodes;
+            }
+            List<Object> nodes = new ArrayList<>(leftNodes.size() + rightNodes.size());
+            nodes.addAll(leftNodes);
+            nodes.addAll(rightNodes);
+            XPathNodes.sortDistinct(nodes);
+            return nodes;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return left.dependsOnPosition() || right.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return left + " | " + right;
+        }
+    }
+}
@@ -8,11 +8,15 @@
 package eu.maveniverse.domtrip;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
 
 /**
  * Mini-XPath expression support for string-based element queries.
@@ -22,6 +26,10 @@ import java.util.stream.Stream;
  * This provides a convenient string-based alternative to the programmatic
  * {@link ElementQuery} API.</p>
  *
+ * <p>As with XPath node-sets, results are in document order and contain each element once,
+ * even when steps such as {@code //a//b} or {@code ..} reach an element through several
+ * context elements.</p>
+ *
  * <h3>Supported Expressions:</h3>
  * <table>
  *   <caption>Path navigation</caption>
@@ -66,6 +74,9 @@ import java.util.stream.Stream;
  *   <li>Union operator ({@code |})</li>
  * </ul>
  *
+ * <p>{@link CompiledXPath} implements the complete XPath 1.0 language, including all of the
+ * above.</p>
+ *
  * @see Element#select(String)
  * @see Element#selectFirst(String)
  * @see Editor#select(String)
@@ -78,6 +89,9 @@ import java.util.stream.Stream;
  */
 public class XPathExpression {
 
+    private static final ExpressionCache<XPathExpression> CACHE =
+            new ExpressionCache<>(ExpressionCache.DEFAULT_MAXIMUM_SIZE, XPathExpression::compile);
+
     private final String expression;
     private final List<Step> steps;
 
@@ -107,6 +121,17 @@ public class XPathExpression {
         return new XPathExpression(expression, steps);
     }
 
+    /**
+     * Returns the shared cache of compiled expressions used by the string-based convenience
+     * methods such as {@link Element#select(String)} and {@link Editor#select(String)}.
+     *
+     * @return the shared expression cache
+     * @since 1.5.0
+     */
+    public static ExpressionCache<XPathExpression> cache() {
+        return CACHE;
+    }
+
     /**
      * Evaluates this expression against the given context element and returns all matching elements.
      *
@@ -117,14 +142,12 @@ public class XPathExpression {
         if (context == null) {
             return Collections.emptyList();
         }
-        List<Element> current = Collections.singletonList(context);
-        for (Step step : steps) {
-            current = step.evaluate(current);
-            if (current.isEmpty()) {
-                return current;
-            }
+        ElementIterator results = evaluate(context);
+        List<Element> elements = new ArrayList<>();
+        for (Element element = results.advance(); element != null; element = results.advance()) {
+            elements.add(element);
         }
-        return current;
+        return elements;
     }
 
     /**
@@ -134,8 +157,50 @@ public class XPathExpression {
      * @return an Optional containing the first matching element, or empty if none found
      */
     public Optional<Element> selectFirst(Element context) {
-        List<Element> results = select(context);
-        return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
+        if (context == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(evaluate(context).advance());
+    }
+
+    /**
+     * Checks whether this expression matches at least one element when evaluated against the
+     * given context element. Evaluation stops at the first match.
+     *
+     * @param context the element to evaluate the expression against
+     * @return true if at least one element matches
+     * @since 1.5.0
+     */
+    public boolean exists(Element context) {
+        return selectFirst(context).isPresent();
+    }
+
+    /**
+     * Chains the steps into a pipeline that pulls one element at a time, so that callers
+     * needing only the first match do not evaluate the remaining ones.
+     */
+    private ElementIterator evaluate(Element context) {
+        ElementIterator current = ElementIterator.of(context);
+        for (Step step : steps) {
+            current = step.evaluate(current);
+        }
+        return current;
+    }
+
+    /**
+     * Returns the compiled steps, for evaluators that process several expressions together.
+     */
+    List<Step> steps() {
+        return steps;
+    }
+
+    /**
+     * Returns whether the expression starts with a single {@code /}, which {@link #select(Element)}
+     * ignores but evaluators without a context element anchor at the document.
+     */
+    boolean absolute() {
+        String trimmed = expression.trim();
+        return trimmed.startsWith("/") && !trimmed.startsWith("//");
     }
 
     /**
@@ -163,9 +228,57 @@ public class XPathExpression {
         for (RawStep raw : rawSteps) {
             steps.add(parseStep(raw));
         }
+        planOrdering(steps);
         return steps;
     }
 
+    /** Step results are a single element, or none */
+    private static final int SINGLE = 0;
+    /** Step results are unique, in document order, and none is an ancestor of another */
+    private static final int DISJOINT = 1;
+    /** Step results are unique and in document order */
+    private static final int ORDERED = 2;
+    /** Step results may contain duplicates or be out of document order */
+    private static final int UNORDERED = 3;
+
+    /**
+     * Decides, for every step, whether it can skip context elements nested in an already scanned
+     * one, and whether its results must be sorted into document order without duplicates. Results
+     * are only sorted where the order of the contexts and the axis do not already guarantee it.
+     */
+    private static void planOrdering(List<Step> steps) {
+        int ordering = SINGLE;
+        for (Step step : steps) {
+            boolean positional = step.isPositional();
+            switch (step.axis) {
+                case SELF:
+                    break;
+                case PARENT:
+                    // Siblings share their parent, and parents of ordered elements may be out of order
+                    ordering = ordering == SINGLE ? SINGLE : UNORDERED;
+                    break;
+                case DESCENDANT:
+                    if (ordering == ORDERED) {
+                        // The descendants of a nested context are a subset of those of its ancestor,
+                        // unless positions are relative to each context
+                        step.skipNestedContexts = !positional;
+                        ordering = positional ? UNORDERED : ORDERED;
+                    } else {
+                        ordering = ORDERED;
+                    }
+                    break;
+                default: // CHILD
+                    // Children of nested contexts interleave in document order
+                    ordering = ordering == ORDERED ? UNORDERED : DISJOINT;
+                    break;
+            }
+            if (ordering == UNORDERED) {
+                step.sortResults = true;
+                ordering = ORDERED;
+            }
+        }
+    }
+
     /**
      * Splits the expression string into raw step tokens, tracking the axis for each.
      */
@@ -459,55 +572,130 @@ public class XPathExpression {
         final Axis axis;
         final String nameTest; // null = wildcard (matches any element)
         final List<Predicate> predicates;
+        /** Index of the first positional predicate, predicates before it filter elements one by one */
+        final int firstPositional;
+        /** Whether contexts nested in the previously scanned context are skipped, set by planning */
+        boolean skipNestedContexts;
+        /** Whether results are sorted into document order without duplicates, set by planning */
+        boolean sortResults;
 
         Step(Axis axis, String nameTest, List<Predicate> predicates) {
             this.axis = axis;
             this.nameTest = nameTest;
             this.predicates = predicates;
+            int index = 0;
+            while (index < predicates.size() && !predicates.get(index).isPositional()) {
+                index++;
+            }
+            this.firstPositional = index;
         }
 
         /**
-         * Evaluates this step against the given context nodes, returning all matching elements.
+         * Returns a lazy iterator over the elements selected by this step for each of the
+         * given context elements in turn.
          */
-        List<Element> evaluate(List<Element> contextNodes) {
-            List<Element> result = new ArrayList<>();
-            for (Element context : contextNodes) {
-                Stream<Element> candidates;
-                switch (axis) {
-                    case SELF:
-                        candidates = Stream.of(context);
-                        break;
-                    case PARENT:
-                        if (context.parent() instanceof Element) {
-                            candidates = Stream.of((Element) context.parent());
-                        } else {
-                            candidates = Stream.empty();
-                        }
-                        break;
-                    case DESCENDANT:
-                        candidates = context.descendants();
-                        break;
-                    default: // CHILD
-                        candidates = context.childElements();
-                        break;
-                }
+        ElementIterator evaluate(ElementIterator contexts) {
+            ElementIterator results = new StepIterator(this, contexts);
+            return sortResults ? new DocumentOrderIterator(results) : results;
+        }
 
-                // Apply name test
-                if (nameTest != null) {
-                    candidates = candidates.filter(e -> nameMatches(e, nameTest));
-                }
+        /**
+         * Returns a lazy iterator over the candidates of the given context element that pass
+         * the name test and the predicates before the first positional one.
+         */
+        ElementIterator candidates(Element context) {
+            ElementIterator axisIterator;
+            switch (axis) {
+                case SELF:
+                    axisIterator = ElementIterator.of(context);
+                    break;
+                case PARENT:
+                    axisIterator =
+                            ElementIterator.of(context.parent() instanceof Element ? (Element) context.parent() : null);
+                    break;
+                case DESCENDANT:
+                    axisIterator = new DescendantIterator(context);
+                    break;
+                default: // CHILD
+                    axisIterator = new ChildIterator(context);
+                    break;
+            }
+            if (nameTest == null && firstPositional == 0) {
+                return axisIterator;
+            }
+            return new FilterIterator(this, axisIterator);
+        }
 
-                // Collect before applying predicates (positional predicates need the full list)
-                List<Element> candidateList = candidates.collect(Collectors.toList());
+        /**
+         * Returns whether this step has the same axis, name test and predicates as another one,
+         * so that both select the same elements from the same context.
+         */
+        boolean sameTest(Step other) {
+            return axis == other.axis
+                    && Objects.equals(nameTest, other.nameTest)
+                    && predicates.equals(other.predicates);
+        }
+
+        /**
+         * Returns whether this step has positional predicates.
+         */
+        boolean isPositional() {
+            return firstPositional < predicates.size();
+        }
 
-                // Apply each predicate in order
-                for (Predicate predicate : predicates) {
-                    candidateList = predicate.apply(candidateList);
+        /**
+         * Checks the name test and the predicates before the first positional one.
+         */
+        boolean matches(Element element) {
+            return matches(element, localNameStart(element.name()));
+        }
+
+        /**
+         * Checks the name test and the predicates before the first positional one, given the
+         * start of the local name in the element name, for callers testing several steps.
+         */
+        boolean matches(Element element, int localStart) {
+            if (nameTest != null && !nameMatches(element.name(), localStart, nameTest)) {
+                return false;
+            }
+            for (int i = 0; i < firstPositional; i++) {
+                if (!predicates.get(i).test(element)) {
+                    return false;
                 }
+            }
+            return true;
+        }
 
-                result.addAll(candidateList);
+        /**
+         * Selects the single element chosen by the positional predicates of this step from the
+         * given candidates, pulling no more candidates than the first positional predicate needs.
+         * Predicates after it apply to a list of at most one element.
+         *
+         * @return the selected element, or null if none
+         */
+        Element selectPositional(ElementIterator candidates) {
+            Predicate positional = predicates.get(firstPositional);
+            Element selected = null;
+            if (positional.type == Predicate.Type.LAST) {
+                for (Element candidate = candidates.advance(); candidate != null; candidate = candidates.advance()) {
+                    selected = candidate;
+                }
+            } else {
+                int position = 0;
+                for (Element candidate = candidates.advance(); candidate != null; candidate = candidates.advance()) {
+                    if (++position == positional.position) {
+                        selected = candidate;
+                        break;
+                    }
+                }
             }
-            return result;
+            for (int i = firstPositional + 1; selected != null && i < predicates.size(); i++) {
+                Predicate predicate = predicates.get(i);
+                if (predicate.type == Predicate.Type.POSITION ? predicate.position != 1 : !predicate.test(selected)) {
+                    selected = null;
+                }
+            }
+            return selected;
         }
     }
 
@@ -517,7 +705,26 @@ public class XPathExpression {
      * enabling both prefixed ({@code soap:Envelope}) and unprefixed ({@code dependency}) matching.
      */
     static boolean nameMatches(Element element, String name) {
-        return name.equals(element.name()) || name.equals(element.localName());
+        String qualifiedName = element.name();
+        return nameMatches(qualifiedName, localNameStart(qualifiedName), name);
+    }
+
+    /**
+     * Checks whether a qualified name, whose local name starts at the given index, matches a
+     * name test. The local name is compared in place rather than by splitting the qualified name.
+     */
+    static boolean nameMatches(String qualifiedName, int localStart, String name) {
+        return name.equals(qualifiedName)
+                || (localStart > 0
+                        && qualifiedName.length() - localStart == name.length()
+                        && qualifiedName.startsWith(name, localStart));
+    }
+
+    /**
+     * Returns the index at which the local name starts in a qualified name, 0 if it has no prefix.
+     */
+    static int localNameStart(String qualifiedName) {
+        return qualifiedName.indexOf(':') + 1;
     }
 
     /**
@@ -578,32 +785,45 @@ public class XPathExpression {
         }
 
         /**
-         * Applies this predicate to filter or select from the given element list.
+         * Returns whether this predicate selects by position rather than testing each element.
          */
-        List<Element> apply(List<Element> elements) {
-            if (elements.isEmpty()) {
-                return elements;
+        boolean isPositional() {
+            return type == Type.POSITION || type == Type.LAST;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
             }
+            if (!(obj instanceof Predicate)) {
+                return false;
+            }
+            Predicate other = (Predicate) obj;
+            return type == other.type
+                    && position == other.position
+                    && Objects.equals(name, other.name)
+                    && Objects.equals(value, other.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, name, value, position);
+        }
+
+        /**
+         * Tests a single element against this non-positional predicate.
+         */
+        boolean test(Element element) {
             switch (type) {
                 case ATTRIBUTE_PRESENCE:
-                    return elements.stream().filter(e -> e.hasAttribute(name)).collect(Collectors.toList());
+                    return element.hasAttribute(name);
                 case ATTRIBUTE_VALUE:
-                    return elements.stream()
-                            .filter(e -> value.equals(e.attribute(name)))
-                            .collect(Collectors.toList());
+                    return value.equals(element.attribute(name));
                 case CHILD_TEXT:
-                    return elements.stream()
-                            .filter(e -> childTextMatches(e, name, value))
-                            .collect(Collectors.toList());
-                case POSITION:
-                    if (position >= 1 && position <= elements.size()) {
-                        return Collections.singletonList(elements.get(position - 1));
-                    }
-                    return Collections.emptyList();
-                case LAST:
-                    return Collections.singletonList(elements.get(elements.size() - 1));
+                    return childTextMatches(element, name, value);
                 default:
-                    return elements;
+                    return true;
             }
         }
 
@@ -612,12 +832,316 @@ public class XPathExpression {
          * text content equals the expected value.
          */
         private static boolean childTextMatches(Element parent, String childName, String expectedText) {
-            // Search children matching by qualified name or local name
-            return parent.childElements()
-                    .filter(child -> nameMatches(child, childName))
-                    .findFirst()
-                    .map(child -> expectedText.equals(child.textContentTrimmed()))
-                    .orElse(false);
+            // Only the first child matching by qualified name or local name is compared
+            for (Node child : parent.children) {
+                if (child instanceof Element && nameMatches((Element) child, childName)) {
+                    return expectedText.equals(((Element) child).textContentTrimmed());
+                }
+            }
+            return false;
+        }
+    }
+
+    // ========== EVALUATION ==========
+
+    /**
+     * A pull-based iterator over elements. Evaluation pipelines chain these through
+     * {@link #advance()}, which avoids the separate {@code hasNext} bookkeeping of
+     * {@link Iterator} between steps.
+     */
+    abstract static class ElementIterator {
+        private static final ElementIterator EMPTY = of(null);
+
+        /**
+         * Returns the next element, or null when the iterator is exhausted.
+         */
+        abstract Element advance();
+
+        /** Returns an iterator over the given element, or an empty iterator if it is null. */
+        static ElementIterator of(Element element) {
+            return new ElementIterator() {
+                private Element next = element;
+
+                @Override
+                Element advance() {
+                    Element result = next;
+                    next = null;
+                    return result;
+                }
+            };
+        }
+
+        /** Returns an iterator without elements. */
+        static ElementIterator empty() {
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Iterates over the child elements of an element.
+     */
+    private static final class ChildIterator extends ElementIterator {
+        private final List<Node> children;
+        private int index;
+
+        ChildIterator(Element parent) {
+            this.children = parent.children;
+        }
+
+        @Override
+        Element advance() {
+            while (index < children.size()) {
+                Node child = children.get(index++);
+                if (child instanceof Element) {
+                    return (Element) child;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Iterates over the descendant elements of an element in document order, matching
+     * {@link Element#descendants()} without creating a stream per element.
+     */
+    private static final class DescendantIterator extends ElementIterator {
+        private List<?>[] levels = new List<?>[8];
+        private int[] indexes = new int[8];
+        private int depth;
+
+        DescendantIterator(Element root) {
+            levels[0] = root.children;
+        }
+
+        @Override
+        Element advance() {
+            while (depth >= 0) {
+                List<?> children = levels[depth];
+                int index = indexes[depth];
+                if (index >= children.size()) {
+                    levels[depth--] = null;
+                    continue;
+                }
+                indexes[depth] = index + 1;
+                Object child = children.get(index);
+                if (child instanceof Element) {
+                    Element element = (Element) child;
+                    if (!element.children.isEmpty()) {
+                        push(element.children);
+                    }
+                    return element;
+                }
+            }
+            return null;
+        }
+
+        private void push(List<Node> children) {
+            if (++depth == levels.length) {
+                levels = Arrays.copyOf(levels, depth * 2);
+                indexes = Arrays.copyOf(indexes, depth * 2);
+            }
+            levels[depth] = children;
+            indexes[depth] = 0;
+        }
+    }
+
+    /**
+     * Filters axis candidates by the name test and the non-positional leading predicates of a step.
+     */
+    private static final class FilterIterator extends ElementIterator {
+        private final Step step;
+        private final ElementIterator source;
+
+        FilterIterator(Step step, ElementIterator source) {
+            this.step = step;
+            this.source = source;
+        }
+
+        @Override
+        Element advance() {
+            for (Element element = source.advance(); element != null; element = source.advance()) {
+                if (step.matches(element)) {
+                    return element;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Evaluates a step against each context element pulled from the previous step, concatenating
+     * the selected elements in context order.
+     */
+    private static final class StepIterator extends ElementIterator {
+        private final Step step;
+        private final ElementIterator contexts;
+        private ElementIterator current = ElementIterator.empty();
+        /** The last context whose descendants were scanned, and contexts known to be nested in it */
+        private Element scanned;
+
+        private Set<Node> nested;
+
+        StepIterator(Step step, ElementIterator contexts) {
+            this.step = step;
+            this.contexts = contexts;
+        }
+
+        @Override
+        Element advance() {
+            while (true) {
+                Element next = current.advance();
+                if (next != null) {
+                    return next;
+                }
+                Element context = contexts.advance();
+                if (context == null) {
+                    return null;
+                }
+                if (step.skipNestedContexts) {
+                    // Contexts arrive in document order, so a nested context follows its ancestor
+                    if (isNestedInScanned(context)) {
+                        continue;
+                    }
+                    scanned = context;
+                    nested = null;
+                }
+                current = step.candidates(context);
+                if (step.isPositional()) {
+                    // Positional predicates select at most one element per context
+                    current = ElementIterator.of(step.selectPositional(current));
+                }
+            }
+        }
+
+        /**
+         * Checks whether the context is a descendant of the scanned context. Nested contexts are
+         * remembered, so that a context nested in one of them is recognized without walking up
+         * to the scanned context again, keeping deep recursive structures linear.
+         */
+        private boolean isNestedInScanned(Element context) {
+            if (scanned == null) {
+                return false;
+            }
+            ContainerNode parent = context.parent();
+            while (parent != null && parent != scanned && (nested == null || !nested.contains(parent))) {
+                parent = parent.parent();
+            }
+            if (parent == null) {
+                return false;
+            }
+            if (nested == null) {
+                nested = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+            for (Node node = context; node != parent; node = node.parent()) {
+                nested.add(node);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Drains another iterator on first use and returns its elements in document order, keeping
+     * only the first occurrence of each element.
+     *
+     * <p>Instead of comparing positions, the selected elements and their ancestors are marked,
+     * and the marked part of the tree is walked in document order. This takes time linear in the
+     * number of marked nodes and their children, however deep the selected elements are.</p>
+     */
+    private static final class DocumentOrderIterator extends ElementIterator {
+        private static final Integer SELECTED = 1;
+        private static final Integer ANCESTOR = 2;
+        private static final Integer SELECTED_ANCESTOR = 3;
+
+        private ElementIterator source;
+        private Element[] elements;
+        private int index;
+
+        DocumentOrderIterator(ElementIterator source) {
+            this.source = source;
+        }
+
+        @Override
+        Element advance() {
+            if (elements == null) {
+                elements = inDocumentOrder(source);
+                source = null;
+            }
+            return index < elements.length ? elements[index++] : null;
+        }
+
+        private static Element[] inDocumentOrder(ElementIterator source) {
+            Map<Node, Integer> marks = new IdentityHashMap<>();
+            List<Node> roots = new ArrayList<>(1);
+            int count = 0;
+            for (Element element = source.advance(); element != null; element = source.advance()) {
+                Integer mark = marks.get(element);
+                if (mark == SELECTED || mark == SELECTED_ANCESTOR) {
+                    continue;
+                }
+                marks.put(element, mark == null ? SELECTED : SELECTED_ANCESTOR);
+                count++;
+                if (mark == null) {
+                    markAncestors(element, marks, roots);
+                }
+            }
+
+            Element[] result = new Element[count];
+            int size = 0;
+            for (Node root : roots) {
+                if (marks.get(root) != ANCESTOR) {
+                    result[size++] = (Element) root;
+                }
+                List<?>[] levels = new List<?>[8];
+                int[] indexes = new int[8];
+                int depth = 0;
+                levels[0] = ((ContainerNode) root).children;
+                while (depth >= 0) {
+                    List<?> children = levels[depth];
+                    if (indexes[depth] >= children.size()) {
+                        levels[depth--] = null;
+                        continue;
+                    }
+                    Object child = children.get(indexes[depth]++);
+                    Integer mark = marks.get(child);
+                    if (mark == null) {
+                        continue;
+                    }
+                    if (mark != ANCESTOR) {
+                        result[size++] = (Element) child;
+                    }
+                    if (mark != SELECTED) {
+                        if (++depth == levels.length) {
+                            levels = Arrays.copyOf(levels, depth * 2);
+                            indexes = Arrays.copyOf(indexes, depth * 2);
+                        }
+                        levels[depth] = ((ContainerNode) child).children;
+                        indexes[depth] = 0;
+                    }
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Marks the ancestors of a newly selected element up to the first already marked one,
+         * recording the top of the tree if it is reached.
+         */
+        private static void markAncestors(Node node, Map<Node, Integer> marks, List<Node> roots) {
+            for (ContainerNode parent = node.parent(); ; parent = node.parent()) {
+                if (parent == null) {
+                    roots.add(node);
+                    return;
+                }
+                Integer mark = marks.get(parent);
+                if (mark != null) {
+                    if (mark == SELECTED) {
+                        marks.put(parent, SELECTED_ANCESTOR);
+                    }
+                    return;
+                }
+                marks.put(parent, ANCESTOR);
+                node = parent;
+            }
         }
     }
 }
@@ -0,0 +1,916 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The XPath 1.0 core function library, one compiled class per function.
+ */
+final class XPathFunctions {
+
+    private XPathFunctions() {}
+
+    /**
+     * Compiles a call to a core function, checking the number and types of its arguments.
+     *
+     * @throws DomTripException if the function is unknown or called with the wrong arguments
+     */
+    static XPathExpr call(String name, List<XPathExpr> args) {
+        switch (name) {
+            // Node-set functions
+            case "last":
+                arity(name, args, 0, 0);
+                return new Last();
+            case "position":
+                arity(name, args, 0, 0);
+                return new Position();
+            case "count":
+                arity(name, args, 1, 1);
+                return new Count(nodeSetArgument(name, args.get(0)));
+            case "id":
+                arity(name, args, 1, 1);
+                return new Id(args.get(0));
+            case "local-name":
+            case "namespace-uri":
+            case "name":
+                arity(name, args, 0, 1);
+                return new NodeName(name, args.isEmpty() ? null : nodeSetArgument(name, args.get(0)));
+            // String functions
+            case "string":
+                arity(name, args, 0, 1);
+                return new StringFunction(args.isEmpty() ? null : args.get(0));
+            case "concat":
+                arity(name, args, 2, Integer.MAX_VALUE);
+                return new Concat(args);
+            case "starts-with":
+                arity(name, args, 2, 2);
+                return new StartsWith(args.get(0), args.get(1));
+            case "contains":
+                arity(name, args, 2, 2);
+                return new Contains(args.get(0), args.get(1));
+            case "substring-before":
+                arity(name, args, 2, 2);
+                return new SubstringBefore(args.get(0), args.get(1));
+            case "substring-after":
+                arity(name, args, 2, 2);
+                return new SubstringAfter(args.get(0), args.get(1));
+            case "substring":
+                arity(name, args, 2, 3);
+                return new Substring(args.get(0), args.get(1), args.size() == 3 ? args.get(2) : null);
+            case "string-length":
+                arity(name, args, 0, 1);
+                return new StringLength(args.isEmpty() ? null : args.get(0));
+            case "normalize-space":
+                arity(name, args, 0, 1);
+                return new NormalizeSpace(args.isEmpty() ? null : args.get(0));
+            case "translate":
+                arity(name, args, 3, 3);
+                return new Translate(args.get(0), args.get(1), args.get(2));
+            // Boolean functions
+            case "boolean":
+                arity(name, args, 1, 1);
+                return new BooleanFunction(args.get(0));
+            case "not":
+                arity(name, args, 1, 1);
+                return new Not(args.get(0));
+            case "true":
+                arity(name, args, 0, 0);
+                return new BooleanConstant(true);
+            case "false":
+                arity(name, args, 0, 0);
+                return new BooleanConstant(false);
+            case "lang":
+                arity(name, args, 1, 1);
+                return new Lang(args.get(0));
+            // Number functions
+            case "number":
+                arity(name, args, 0, 1);
+                return new NumberFunction(args.isEmpty() ? null : args.get(0));
+            case "sum":
+                arity(name, args, 1, 1);
+                return new Sum(nodeSetArgument(name, args.get(0)));
+            case "floor":
+                arity(name, args, 1, 1);
+                return new Rounding(name, args.get(0));
+            case "ceiling":
+                arity(name, args, 1, 1);
+                return new Rounding(name, args.get(0));
+            case "round":
+                arity(name, args, 1, 1);
+                return new Rounding(name, args.get(0));
+            default:
+                throw new DomTripException("Unknown XPath function: " + name + "()");
+        }
+    }
+
+    private static void arity(String name, List<XPathExpr> args, int min, int max) {
+        if (args.size() < min || args.size() > max) {
+            String expected = min == max
+                    ? String.valueOf(min)
+                    : max == Integer.MAX_VALUE ? "at least " + min : min + " to " + max;
+            throw new DomTripException("XPath function " + name + "() takes " + expected + " argument"
+                    + (min == 1 && max == 1 ? "" : "s") + ", got " + args.size());
+        }
+    }
+
+    private static XPathExpr nodeSetArgument(String name, XPathExpr arg) {
+        if (arg.type() != XPathExpr.NODESET && arg.type() != XPathExpr.ANY) {
+            throw new DomTripException("XPath function " + name + "() requires a node-set argument: " + arg);
+        }
+        return arg;
+    }
+
+    /**
+     * Formats a call for {@code toString()}.
+     */
+    private static String call(String name, XPathExpr... args) {
+        StringBuilder sb = new StringBuilder(name).append('(');
+        for (int i = 0; i < args.length; i++) {
+            if (args[i] == null) {
+                continue;
+            }
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(args[i]);
+        }
+        return sb.append(')').toString();
+    }
+
+    private static boolean anyDependsOnPosition(XPathExpr... args) {
+        for (XPathExpr arg : args) {
+            if (arg != null && arg.dependsOnPosition()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the string value of an optional argument, defaulting to the context node.
+     */
+    private static String stringArgument(XPathExpr arg, XPathContext context) {
+        return arg != null ? arg.string(context) : XPathNodes.stringValue(context.node);
+    }
+
+    // ========== STRING-VALUED FUNCTIONS ==========
+
+    /**
+     * A string-valued function.
+     */
+    abstract static class StringExpr extends XPathExpr {
+
+        @Override
+        final int type() {
+            return STRING;
+        }
+
+        @Override
+        final Object evaluate(XPathContext context) {
+            return string(context);
+        }
+
+        @Override
+        abstract String string(XPathContext context);
+
+        @Override
+        final double number(XPathContext context) {
+            return toNumber(string(context));
+        }
+
+        @Override
+        final boolean bool(XPathContext context) {
+            return !string(context).isEmpty();
+        }
+    }
+
+    /**
+     * A number-valued function.
+     */
+    abstract static class NumberExpr extends XPathExpr {
+
+        @Override
+        final int type() {
+            return NUMBER;
+        }
+
+        @Override
+        final Object evaluate(XPathContext context) {
+            return number(context);
+        }
+
+        @Override
+        abstract double number(XPathContext context);
+
+        @Override
+        final String string(XPathContext context) {
+            return toString(number(context));
+        }
+
+        @Override
+        final boolean bool(XPathContext context) {
+            double value = number(context);
+            return value != 0 && !Double.isNaN(value);
+        }
+    }
+
+    static final class StringFunction extends StringExpr {
+        private final XPathExpr arg;
+
+        StringFunction(XPathExpr arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            return stringArgument(arg, context);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(arg);
+        }
+
+        @Override
+        public String toString() {
+            return call("string", arg);
+        }
+    }
+
+    static final class Concat extends StringExpr {
+        private final XPathExpr[] args;
+
+        Concat(List<XPathExpr> args) {
+            this.args = args.toArray(new XPathExpr[0]);
+        }
+
+        @Override
+        String string(XPathContext context) {
+            StringBuilder sb = new StringBuilder();
+            for (XPathExpr arg : args) {
+                sb.append(arg.string(context));
+            }
+            return sb.toString();
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(args);
+        }
+
+        @Override
+        public String toString() {
+            return call("concat", args);
+        }
+    }
+
+    static final class SubstringBefore extends StringExpr {
+        private final XPathExpr string;
+        private final XPathExpr separator;
+
+        SubstringBefore(XPathExpr string, XPathExpr separator) {
+            this.string = string;
+            this.separator = separator;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            String value = string.string(context);
+            int index = value.indexOf(separator.string(context));
+            return index < 0 ? "" : value.substring(0, index);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(string, separator);
+        }
+
+        @Override
+        public String toString() {
+            return call("substring-before", string, separator);
+        }
+    }
+
+    static final class SubstringAfter extends StringExpr {
+        private final XPathExpr string;
+        private final XPathExpr separator;
+
+        SubstringAfter(XPathExpr string, XPathExpr separator) {
+            this.string = string;
+            this.separator = separator;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            String value = string.string(context);
+            String after = separator.string(context);
+            int index = value.indexOf(after);
+            return index < 0 ? "" : value.substring(index + after.length());
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(string, separator);
+        }
+
+        @Override
+        public String toString() {
+            return call("substring-after", string, separator);
+        }
+    }
+
+    /**
+     * {@code substring()}, counting characters as XPath does: by code point, from 1, with
+     * rounded start and length.
+     */
+    static final class Substring extends StringExpr {
+        private final XPathExpr string;
+        private final XPathExpr start;
+        private final XPathExpr length;
+
+        Substring(XPathExpr string, XPathExpr start, XPathExpr length) {
+            this.string = string;
+            this.start = start;
+            this.length = length;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            String value = string.string(context);
+            double first = Rounding.round(start.number(context));
+            double end = length != null ? first + Rounding.round(length.number(context)) : Double.POSITIVE_INFINITY;
+            // Characters at positions p with first <= p < end are kept; NaN keeps none
+            int count = value.codePointCount(0, value.length());
+            double from = Math.max(first, 1);
+            double to = Math.min(end, count + 1.0);
+            if (!(from < to)) {
+                return "";
+            }
+            int beginIndex = value.offsetByCodePoints(0, (int) from - 1);
+            int endIndex = value.offsetByCodePoints(beginIndex, (int) to - (int) from);
+            return value.substring(beginIndex, endIndex);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(string, start, length);
+        }
+
+        @Override
+        public String toString() {
+            return call("substring", string, start, length);
+        }
+    }
+
+    static final class NormalizeSpace extends StringExpr {
+        private final XPathExpr arg;
+
+        NormalizeSpace(XPathExpr arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            String value = stringArgument(arg, context);
+            StringBuilder sb = new StringBuilder(value.length());
+            boolean space = false;
+            for (int i = 0, length = value.length(); i < length; i++) {
+                char c = value.charAt(i);
+                if (isWhitespace(c)) {
+                    space = sb.length() > 0;
+                } else {
+                    if (space) {
+                        sb.append(' ');
+                        space = false;
+                    }
+                    sb.append(c);
+                }
+            }
+            return sb.length() == value.length() ? value : sb.toString();
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(arg);
+        }
+
+        @Override
+        public String toString() {
+            return call("normalize-space", arg);
+        }
+    }
+
+    static final class Translate extends StringExpr {
+        private final XPathExpr string;
+        private final XPathExpr from;
+        private final XPathExpr to;
+
+        Translate(XPathExpr string, XPathExpr from, XPathExpr to) {
+            this.string = string;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            String value = string.string(context);
+            int[] fromChars = from.string(context).codePoints().toArray();
+            int[] toChars = to.string(context).codePoints().toArray();
+            StringBuilder sb = new StringBuilder(value.length());
+            value.codePoints().forEach(c -> {
+                int index = indexOf(fromChars, c);
+                if (index < 0) {
+                    sb.appendCodePoint(c);
+                } else if (index < toChars.length) {
+                    sb.appendCodePoint(toChars[index]);
+                }
+            });
+            return sb.toString();
+        }
+
+        private static int indexOf(int[] chars, int c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(string, from, to);
+        }
+
+        @Override
+        public String toString() {
+            return call("translate", string, from, to);
+        }
+    }
+
+    /**
+     * {@code local-name()}, {@code namespace-uri()} and {@code name()} of the first node of
+     * the argument, or of the context node.
+     */
+    static final class NodeName extends StringExpr {
+        private static final int LOCAL_NAME = 0;
+        private static final int NAMESPACE_URI = 1;
+        private static final int NAME = 2;
+
+        private final String function;
+        private final int kind;
+        private final XPathExpr arg;
+
+        NodeName(String function, XPathExpr arg) {
+            this.function = function;
+            this.kind = "local-name".equals(function)
+                    ? LOCAL_NAME
+                    : "namespace-uri".equals(function) ? NAMESPACE_URI : NAME;
+            this.arg = arg;
+        }
+
+        @Override
+        String string(XPathContext context) {
+            Object node;
+            if (arg == null) {
+                node = context.node;
+            } else {
+                List<Object> nodes = arg.nodeSet(context);
+                if (nodes.isEmpty()) {
+                    return "";
+                }
+                node = nodes.get(0);
+            }
+            switch (kind) {
+                case LOCAL_NAME:
+                    return XPathNodes.localName(node);
+                case NAMESPACE_URI:
+                    return XPathNodes.namespaceURI(node);
+                default:
+                    return XPathNodes.name(node);
+            }
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(arg);
+        }
+
+        @Override
+        public String toString() {
+            return call(function, arg);
+        }
+    }
+
+    // ========== NUMBER-VALUED FUNCTIONS ==========
+
+    static final class Last extends NumberExpr {
+        @Override
+        double number(XPathContext context) {
+            return context.size;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "last()";
+        }
+    }
+
+    static final class Position extends NumberExpr {
+        @Override
+        double number(XPathContext context) {
+            return context.position;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "position()";
+        }
+    }
+
+    static final class Count extends NumberExpr {
+        private final XPathExpr nodes;
+
+        Count(XPathExpr nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return nodes.nodeSet(context).size();
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return nodes.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return call("count", nodes);
+        }
+    }
+
+    static final class Sum extends NumberExpr {
+        private final XPathExpr nodes;
+
+        Sum(XPathExpr nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        double number(XPathContext context) {
+            double sum = 0;
+            for (Object node : nodes.nodeSet(context)) {
+                sum += toNumber(XPathNodes.stringValue(node));
+            }
+            return sum;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return nodes.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return call("sum", nodes);
+        }
+    }
+
+    static final class StringLength extends NumberExpr {
+        private final XPathExpr arg;
+
+        StringLength(XPathExpr arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        double number(XPathContext context) {
+            String value = stringArgument(arg, context);
+            return value.codePointCount(0, value.length());
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(arg);
+        }
+
+        @Override
+        public String toString() {
+            return call("string-length", arg);
+        }
+    }
+
+    static final class NumberFunction extends NumberExpr {
+        private final XPathExpr arg;
+
+        NumberFunction(XPathExpr arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        double number(XPathContext context) {
+            return arg != null ? arg.number(context) : toNumber(XPathNodes.stringValue(context.node));
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(arg);
+        }
+
+        @Override
+        public String toString() {
+            return call("number", arg);
+        }
+    }
+
+    /**
+     * {@code floor()}, {@code ceiling()} and {@code round()}.
+     */
+    static final class Rounding extends NumberExpr {
+        private static final int FLOOR = 0;
+        private static final int CEILING = 1;
+        private static final int ROUND = 2;
+
+        private final String function;
+        private final int kind;
+        private final XPathExpr arg;
+
+        Rounding(String function, XPathExpr arg) {
+            this.function = function;
+            this.kind = "floor".equals(function) ? FLOOR : "ceiling".equals(function) ? CEILING : ROUND;
+            this.arg = arg;
+        }
+
+        @Override
+        double number(XPathContext context) {
+            double value = arg.number(context);
+            switch (kind) {
+                case FLOOR:
+                    return Math.floor(value);
+                case CEILING:
+                    return Math.ceil(value);
+                default:
+                    return round(value);
+            }
+        }
+
+        /**
+         * Rounds to the closest integer, halves towards positive infinity, keeping NaN, the
+         * infinities and negative zero.
+         */
+        static double round(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                return value;
+            }
+            if (value < 0 && value >= -0.5) {
+                return -0.0;
+            }
+            return Math.floor(value + 0.5);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return arg.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return call(function, arg);
+        }
+    }
+
+    // ========== BOOLEAN-VALUED FUNCTIONS ==========
+
+    static final class StartsWith extends XPathExpr.BooleanExpr {
+        private final XPathExpr string;
+        private final XPathExpr prefix;
+
+        StartsWith(XPathExpr string, XPathExpr prefix) {
+            this.string = string;
+            this.prefix = prefix;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return string.string(context).startsWith(prefix.string(context));
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(string, prefix);
+        }
+
+        @Override
+        public String toString() {
+            return call("starts-with", string, prefix);
+        }
+    }
+
+    static final class Contains extends XPathExpr.BooleanExpr {
+        private final XPathExpr string;
+        private final XPathExpr part;
+
+        Contains(XPathExpr string, XPathExpr part) {
+            this.string = string;
+            this.part = part;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return string.string(context).contains(part.string(context));
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return anyDependsOnPosition(string, part);
+        }
+
+        @Override
+        public String toString() {
+            return call("contains", string, part);
+        }
+    }
+
+    static final class BooleanFunction extends XPathExpr.BooleanExpr {
+        private final XPathExpr arg;
+
+        BooleanFunction(XPathExpr arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return arg.bool(context);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return arg.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return call("boolean", arg);
+        }
+    }
+
+    static final class Not extends XPathExpr.BooleanExpr {
+        private final XPathExpr arg;
+
+        Not(XPathExpr arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return !arg.bool(context);
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return arg.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return call("not", arg);
+        }
+    }
+
+    static final class BooleanConstant extends XPathExpr.BooleanExpr {
+        private final boolean value;
+
+        BooleanConstant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return value + "()";
+        }
+    }
+
+    /**
+     * {@code lang()}: whether the {@code xml:lang} in scope for the context node is the given
+     * language or one of its sublanguages, ignoring case.
+     */
+    static final class Lang extends XPathExpr.BooleanExpr {
+        private final XPathExpr language;
+
+        Lang(XPathExpr language) {
+            this.language = language;
+        }
+
+        @Override
+        boolean bool(XPathContext context) {
+            String lang = null;
+            for (Object node = context.node; node != null && lang == null; node = XPathNodes.parent(node)) {
+                if (node instanceof Element && ((Element) node).hasAttributes()) {
+                    lang = ((Element) node).attribute("xml:lang");
+                }
+            }
+            if (lang == null) {
+                return false;
+            }
+            String expected = language.string(context).toLowerCase(Locale.ROOT);
+            lang = lang.toLowerCase(Locale.ROOT);
+            return lang.equals(expected) || (lang.startsWith(expected) && lang.charAt(expected.length()) == '-');
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return language.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return call("lang", language);
+        }
+    }
+
+    // ========== NODE-SET FUNCTIONS ==========
+
+    /**
+     * {@code id()}: the elements whose ID is one of the whitespace-separated tokens of the
+     * argument, looked up through {@link Document#elementById(String)}.
+     */
+    static final class Id extends XPathExpr.NodeSetExpr {
+        private final XPathExpr arg;
+
+        Id(XPathExpr arg) {
+            this.arg = arg;
+        }
+
+        @Override
+        List<Object> nodeSet(XPathContext context) {
+            Node root = XPathNodes.root(context.node);
+            List<Object> result = new ArrayList<>();
+            if (!(root instanceof Document)) {
+                return result;
+            }
+            Document document = (Document) root;
+            Object value = arg.evaluate(context);
+            if (value instanceof List) {
+                for (Object node : (List<?>) value) {
+                    addElements(document, XPathNodes.stringValue(node), result);
+                }
+            } else {
+                addElements(document, toString(value), result);
+            }
+            XPathNodes.sortDistinct(result);
+            return result;
+        }
+
+        private static void addElements(Document document, String ids, List<Object> result) {
+            int length = ids.length();
+            int i = 0;
+            while (i < length) {
+                while (i < length && isWhitespace(ids.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < length && !isWhitespace(ids.charAt(i))) {
+                    i++;
+                }
+                if (i > start) {
+                    document.elementById(ids.substring(start, i)).ifPresent(result::add);
+                }
+            }
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return arg.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return call("id", arg);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+/**
+ * A namespace node selected by a {@link CompiledXPath} through the {@code namespace::} axis.
+ *
+ * <p>Each element has one namespace node per namespace in scope, including the implicit
+ * {@code xml} namespace. Two namespace nodes are equal when they belong to the same element
+ * and bind the same prefix.</p>
+ *
+ * @see CompiledXPath#selectNodes(Object)
+ * @since 1.5.0
+ */
+public final class XPathNamespace {
+
+    private final Element element;
+    private final String prefix;
+    private final String namespaceURI;
+
+    XPathNamespace(Element element, String prefix, String namespaceURI) {
+        this.element = element;
+        this.prefix = prefix;
+        this.namespaceURI = namespaceURI;
+    }
+
+    /**
+     * Returns the element this namespace node belongs to.
+     *
+     * @return the element
+     */
+    public Element element() {
+        return element;
+    }
+
+    /**
+     * Returns the prefix bound by this namespace node.
+     *
+     * @return the prefix, or an empty string for the default namespace
+     */
+    public String prefix() {
+        return prefix;
+    }
+
+    /**
+     * Returns the namespace URI bound to the prefix.
+     *
+     * @return the namespace URI
+     */
+    public String namespaceURI() {
+        return namespaceURI;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof XPathNamespace)) {
+            return false;
+        }
+        XPathNamespace other = (XPathNamespace) obj;
+        return element == other.element && prefix.equals(other.prefix);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(element) + prefix.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "XPathNamespace{" + (prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix) + "=\"" + namespaceURI + "\"}";
+    }
+}
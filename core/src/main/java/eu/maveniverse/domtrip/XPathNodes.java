@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The XPath data model over DomTrip nodes, as used by {@link CompiledXPath}.
+ *
+ * <p>XPath nodes are DomTrip {@link Node}s plus {@link XPathAttribute} and
+ * {@link XPathNamespace} wrappers. This class derives their string values, names and parents,
+ * and sorts node-sets into document order.</p>
+ */
+final class XPathNodes {
+
+    private static final Integer SELECTED = 1;
+    private static final Integer ANCESTOR = 2;
+    private static final Integer SELECTED_ANCESTOR = 3;
+
+    /** Orders the attribute and namespace nodes of one element: namespaces first */
+    private static final Comparator<Object> OWNED_ORDER = XPathNodes::compareOwned;
+
+    private XPathNodes() {}
+
+    /**
+     * Returns the XPath string value of a node.
+     */
+    static String stringValue(Object node) {
+        if (node instanceof ContainerNode) {
+            List<Node> children = ((ContainerNode) node).children;
+            if (children.isEmpty()) {
+                return "";
+            }
+            if (children.size() == 1 && children.get(0) instanceof Text) {
+                return ((Text) children.get(0)).content();
+            }
+            StringBuilder sb = new StringBuilder();
+            appendText(children, sb);
+            return sb.toString();
+        }
+        if (node instanceof Text) {
+            return ((Text) node).content();
+        }
+        if (node instanceof XPathAttribute) {
+            return ((XPathAttribute) node).value();
+        }
+        if (node instanceof Comment) {
+            return ((Comment) node).content();
+        }
+        if (node instanceof ProcessingInstruction) {
+            return ((ProcessingInstruction) node).data();
+        }
+        if (node instanceof XPathNamespace) {
+            return ((XPathNamespace) node).namespaceURI();
+        }
+        return "";
+    }
+
+    private static void appendText(List<Node> children, StringBuilder sb) {
+        for (int i = 0, size = children.size(); i < size; i++) {
+            Node child = children.get(i);
+            if (child instanceof Text) {
+                sb.append(((Text) child).content());
+            } else if (child instanceof Element) {
+                appendText(((Element) child).children, sb);
+            }
+        }
+    }
+
+    /**
+     * Returns the parent of a node in the XPath sense: the owner element of an attribute or
+     * namespace node, or null for the root.
+     */
+    static Object parent(Object node) {
+        if (node instanceof Node) {
+            return ((Node) node).parent();
+        }
+        return owner(node);
+    }
+
+    /**
+     * Returns the top of the tree containing a node: its document, or the topmost ancestor of
+     * a detached element.
+     */
+    static Node root(Object node) {
+        Node current = node instanceof Node ? (Node) node : owner(node);
+        while (current.parent() != null) {
+            current = current.parent();
+        }
+        return current;
+    }
+
+    /**
+     * Returns the index of a node among the children of its parent. Nodes are compared by
+     * identity, since equal comments or processing instructions can be siblings.
+     */
+    static int indexInParent(Node node) {
+        List<Node> siblings = node.parent().children;
+        for (int i = 0, size = siblings.size(); i < size; i++) {
+            if (siblings.get(i) == node) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the element owning an attribute or namespace node, or null for other nodes.
+     */
+    static Element owner(Object node) {
+        if (node instanceof XPathAttribute) {
+            return ((XPathAttribute) node).element();
+        }
+        if (node instanceof XPathNamespace) {
+            return ((XPathNamespace) node).element();
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether an object is a node that XPath can navigate from.
+     */
+    static boolean isNode(Object object) {
+        return object instanceof Node || object instanceof XPathAttribute || object instanceof XPathNamespace;
+    }
+
+    /**
+     * Returns the local name of a node, or an empty string if it has no name.
+     */
+    static String localName(Object node) {
+        if (node instanceof Element) {
+            String name = ((Element) node).name();
+            return name.substring(XPathExpression.localNameStart(name));
+        }
+        if (node instanceof XPathAttribute) {
+            return ((XPathAttribute) node).localName();
+        }
+        if (node instanceof ProcessingInstruction) {
+            return ((ProcessingInstruction) node).target();
+        }
+        if (node instanceof XPathNamespace) {
+            return ((XPathNamespace) node).prefix();
+        }
+        return "";
+    }
+
+    /**
+     * Returns the qualified name of a node, or an empty string if it has no name.
+     */
+    static String name(Object node) {
+        if (node instanceof Element) {
+            return ((Element) node).name();
+        }
+        if (node instanceof XPathAttribute) {
+            return ((XPathAttribute) node).name();
+        }
+        return localName(node);
+    }
+
+    /**
+     * Returns the namespace URI of a node, or an empty string if it has none.
+     */
+    static String namespaceURI(Object node) {
+        if (node instanceof Element) {
+            return elementNamespaceURI((Element) node);
+        }
+        if (node instanceof XPathAttribute) {
+            return ((XPathAttribute) node).namespaceURI();
+        }
+        return "";
+    }
+
+    /**
+     * Resolves the namespace URI of an element by looking up the declaration of its prefix on
+     * the element and its ancestors, without copying their attributes.
+     */
+    static String elementNamespaceURI(Element element) {
+        String name = element.name();
+        int colon = name.indexOf(':');
+        String declaration;
+        if (colon < 0) {
+            declaration = Element.XMLNS;
+        } else {
+            String prefix = name.substring(0, colon);
+            if ("xml".equals(prefix)) {
+                return NamespaceResolver.XML_NAMESPACE_URI;
+            }
+            declaration = Element.XMLNS_PREFIX + prefix;
+        }
+        for (Node current = element; current instanceof Element; current = current.parent()) {
+            Element ancestor = (Element) current;
+            if (ancestor.hasAttributes()) {
+                String uri = ancestor.attribute(declaration);
+                if (uri != null) {
+                    return uri;
+                }
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Returns the namespace nodes of an element: the xml namespace, then the default namespace
+     * and the prefixed namespaces in scope.
+     */
+    static List<XPathNamespace> namespaces(Element element) {
+        NamespaceContext context = element.namespaceContext();
+        List<XPathNamespace> namespaces = new ArrayList<>();
+        namespaces.add(new XPathNamespace(element, "xml", NamespaceResolver.XML_NAMESPACE_URI));
+        String defaultURI = context.defaultNamespaceURI();
+        if (defaultURI != null && !defaultURI.isEmpty()) {
+            namespaces.add(new XPathNamespace(element, "", defaultURI));
+        }
+        for (String prefix : context.declaredPrefixes()) {
+            String uri = context.namespaceURI(prefix);
+            if (uri != null && !uri.isEmpty() && !"xml".equals(prefix)) {
+                namespaces.add(new XPathNamespace(element, prefix, uri));
+            }
+        }
+        return namespaces;
+    }
+
+    /**
+     * Sorts nodes into document order and removes duplicates.
+     *
+     * <p>Instead of comparing positions pairwise, the nodes and their ancestors are marked and
+     * the marked part of the tree is walked once. Attribute and namespace nodes are attached to
+     * their owner element and emitted right after it.</p>
+     */
+    static void sortDistinct(List<Object> nodes) {
+        int count = nodes.size();
+        if (count < 2) {
+            return;
+        }
+        Map<Node, Integer> marks = new IdentityHashMap<>();
+        Map<Element, List<Object>> owned = null;
+        List<Node> roots = new ArrayList<>(1);
+        for (int i = 0; i < count; i++) {
+            Object object = nodes.get(i);
+            Node node;
+            Integer select;
+            if (object instanceof Node) {
+                node = (Node) object;
+                select = SELECTED;
+            } else {
+                node = owner(object);
+                select = ANCESTOR;
+                if (owned == null) {
+                    owned = new IdentityHashMap<>();
+                }
+                owned.computeIfAbsent((Element) node, e -> new ArrayList<>(2)).add(object);
+            }
+            Integer mark = marks.get(node);
+            if (mark == null) {
+                marks.put(node, select);
+                markAncestors(node, marks, roots);
+            } else if (select == SELECTED && mark == ANCESTOR) {
+                marks.put(node, SELECTED_ANCESTOR);
+            }
+        }
+
+        nodes.clear();
+        for (Node root : roots) {
+            emit(root, marks.get(root), owned, nodes);
+            if (!(root instanceof ContainerNode)) {
+                continue;
+            }
+            List<?>[] levels = new List<?>[8];
+            int[] indexes = new int[8];
+            int depth = 0;
+            levels[0] = ((ContainerNode) root).children;
+            while (depth >= 0) {
+                List<?> children = levels[depth];
+                if (indexes[depth] >= children.size()) {
+                    levels[depth--] = null;
+                    continue;
+                }
+                Object child = children.get(indexes[depth]++);
+                Integer mark = marks.get(child);
+                if (mark == null) {
+                    continue;
+                }
+                emit((Node) child, mark, owned, nodes);
+                if (mark != SELECTED && child instanceof ContainerNode) {
+                    if (++depth == levels.length) {
+                        levels = Arrays.copyOf(levels, depth * 2);
+                        indexes = Arrays.copyOf(indexes, depth * 2);
+                    }
+                    levels[depth] = ((ContainerNode) child).children;
+                    indexes[depth] = 0;
+                }
+            }
+        }
+    }
+
+    private static void emit(Node node, Integer mark, Map<Element, List<Object>> owned, List<Object> out) {
+        if (mark != ANCESTOR) {
+            out.add(node);
+        }
+        List<Object> attached = owned != null ? owned.get(node) : null;
+        if (attached != null) {
+            attached.sort(OWNED_ORDER);
+            Object previous = null;
+            for (Object object : attached) {
+                if (!object.equals(previous)) {
+                    out.add(object);
+                }
+                previous = object;
+            }
+        }
+    }
+
+    /**
+     * Marks the ancestors of a newly marked node up to the first already marked one,
+     * recording the top of the tree if it is reached.
+     */
+    private static void markAncestors(Node node, Map<Node, Integer> marks, List<Node> roots) {
+        for (ContainerNode parent = node.parent(); ; parent = node.parent()) {
+            if (parent == null) {
+                roots.add(node);
+                return;
+            }
+            Integer mark = marks.get(parent);
+            if (mark != null) {
+                if (mark == SELECTED) {
+                    marks.put(parent, SELECTED_ANCESTOR);
+                }
+                return;
+            }
+            marks.put(parent, ANCESTOR);
+            node = parent;
+        }
+    }
+
+    private static int compareOwned(Object a, Object b) {
+        if (a instanceof XPathNamespace) {
+            return b instanceof XPathNamespace
+                    ? ((XPathNamespace) a).prefix().compareTo(((XPathNamespace) b).prefix())
+                    : -1;
+        }
+        if (b instanceof XPathNamespace) {
+            return 1;
+        }
+        return Integer.compare(attributeIndex((XPathAttribute) a), attributeIndex((XPathAttribute) b));
+    }
+
+    private static int attributeIndex(XPathAttribute attribute) {
+        int index = 0;
+        for (Attribute candidate : attribute.element().attributeValues()) {
+            if (candidate.name().equals(attribute.name())) {
+                return index;
+            }
+            index++;
+        }
+        return index;
+    }
+}
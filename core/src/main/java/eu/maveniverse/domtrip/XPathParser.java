@@ -0,0 +1,707 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parses an XPath 1.0 expression and compiles it into a tree of {@link XPathExpr} nodes.
+ *
+ * <p>The lexer applies the disambiguation rules of XPath 1.0 section 3.7, so that {@code *}
+ * and names such as {@code div} are read as operators or name tests depending on the preceding
+ * token. The parser is a recursive descent over the grammar of section 3, which compiles each
+ * production as soon as it is recognized. Paths are simplified on the way: {@code self::node()}
+ * steps are dropped and {@code //name} becomes a single descendant step unless its predicates
+ * depend on positions.</p>
+ */
+final class XPathParser {
+
+    // Token kinds
+    private static final int END = 0;
+    private static final int LITERAL = 1;
+    private static final int NUMBER = 2;
+    private static final int VARIABLE = 3;
+    private static final int NAME_TEST = 4;
+    private static final int FUNCTION_NAME = 5;
+    private static final int NODE_TYPE = 6;
+    private static final int AXIS_NAME = 7;
+    private static final int SLASH = 8;
+    private static final int DOUBLE_SLASH = 9;
+    private static final int PIPE = 10;
+    private static final int PLUS = 11;
+    private static final int MINUS = 12;
+    private static final int EQ = 13;
+    private static final int NE = 14;
+    private static final int LT = 15;
+    private static final int LE = 16;
+    private static final int GT = 17;
+    private static final int GE = 18;
+    private static final int MULTIPLY = 19;
+    private static final int AND = 20;
+    private static final int OR = 21;
+    private static final int DIV = 22;
+    private static final int MOD = 23;
+    private static final int LPAREN = 24;
+    private static final int RPAREN = 25;
+    private static final int LBRACKET = 26;
+    private static final int RBRACKET = 27;
+    private static final int DOT = 28;
+    private static final int DOUBLE_DOT = 29;
+    private static final int AT = 30;
+    private static final int COMMA = 31;
+    private static final int DOUBLE_COLON = 32;
+
+    private final String expression;
+    private final Map<String, String> namespaces;
+    private final List<Token> tokens;
+    private int index;
+
+    private XPathParser(String expression, Map<String, String> namespaces) {
+        this.expression = expression;
+        this.namespaces = namespaces;
+        this.tokens = tokenize(expression);
+    }
+
+    /**
+     * Compiles an expression, resolving name test prefixes with the given namespaces.
+     *
+     * @throws DomTripException if the expression is invalid
+     */
+    static XPathExpr parse(String expression, Map<String, String> namespaces) {
+        XPathParser parser = new XPathParser(expression, namespaces);
+        XPathExpr result = parser.parseExpr();
+        if (parser.peek().kind != END) {
+            throw parser.error("Unexpected '" + parser.peek().text + "'");
+        }
+        return result;
+    }
+
+    // ========== LEXER ==========
+
+    private static final class Token {
+        final int kind;
+        final String text;
+        final int position;
+
+        Token(int kind, String text, int position) {
+            this.kind = kind;
+            this.text = text;
+            this.position = position;
+        }
+    }
+
+    private List<Token> tokenize(String input) {
+        List<Token> result = new ArrayList<>();
+        int length = input.length();
+        int i = 0;
+        while (true) {
+            while (i < length && XPathExpr.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                result.add(new Token(END, "end of expression", i));
+                return result;
+            }
+            int start = i;
+            char c = input.charAt(i);
+            boolean operand = isOperandEnd(result);
+            switch (c) {
+                case '(':
+                    result.add(new Token(LPAREN, "(", i++));
+                    continue;
+                case ')':
+                    result.add(new Token(RPAREN, ")", i++));
+                    continue;
+                case '[':
+                    result.add(new Token(LBRACKET, "[", i++));
+                    continue;
+                case ']':
+                    result.add(new Token(RBRACKET, "]", i++));
+                    continue;
+                case ',':
+                    result.add(new Token(COMMA, ",", i++));
+                    continue;
+                case '@':
+                    result.add(new Token(AT, "@", i++));
+                    continue;
+                case '|':
+                    result.add(new Token(PIPE, "|", i++));
+                    continue;
+                case '+':
+                    result.add(new Token(PLUS, "+", i++));
+                    continue;
+                case '-':
+                    result.add(new Token(MINUS, "-", i++));
+                    continue;
+                case '=':
+                    result.add(new Token(EQ, "=", i++));
+                    continue;
+                case '/':
+                    if (i + 1 < length && input.charAt(i + 1) == '/') {
+                        result.add(new Token(DOUBLE_SLASH, "//", i));
+                        i += 2;
+                    } else {
+                        result.add(new Token(SLASH, "/", i++));
+                    }
+                    continue;
+                case '!':
+                    if (i + 1 < length && input.charAt(i + 1) == '=') {
+                        result.add(new Token(NE, "!=", i));
+                        i += 2;
+                        continue;
+                    }
+                    throw error("Unexpected '!'", i);
+                case '<':
+                case '>':
+                    boolean equals = i + 1 < length && input.charAt(i + 1) == '=';
+                    int kind = c == '<' ? (equals ? LE : LT) : (equals ? GE : GT);
+                    result.add(new Token(kind, input.substring(i, equals ? i + 2 : i + 1), i));
+                    i += equals ? 2 : 1;
+                    continue;
+                case ':':
+                    if (i + 1 < length && input.charAt(i + 1) == ':') {
+                        result.add(new Token(DOUBLE_COLON, "::", i));
+                        i += 2;
+                        continue;
+                    }
+                    throw error("Unexpected ':'", i);
+                case '"':
+                case '\'':
+                    int close = input.indexOf(c, i + 1);
+                    if (close < 0) {
+                        throw error("Unterminated string literal", i);
+                    }
+                    result.add(new Token(LITERAL, input.substring(i + 1, close), i));
+                    i = close + 1;
+                    continue;
+                case '$':
+                    i = scanQName(input, i + 1);
+                    if (i == start + 1) {
+                        throw error("Expected a variable name after '$'", start);
+                    }
+                    result.add(new Token(VARIABLE, input.substring(start + 1, i), start));
+                    continue;
+                case '*':
+                    result.add(new Token(operand ? MULTIPLY : NAME_TEST, "*", i++));
+                    continue;
+                case '.':
+                    if (i + 1 < length && input.charAt(i + 1) == '.') {
+                        result.add(new Token(DOUBLE_DOT, "..", i));
+                        i += 2;
+                        continue;
+                    }
+                    if (i + 1 >= length || !isDigit(input.charAt(i + 1))) {
+                        result.add(new Token(DOT, ".", i++));
+                        continue;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (isDigit(c) || c == '.') {
+                while (i < length && isDigit(input.charAt(i))) {
+                    i++;
+                }
+                if (i < length && input.charAt(i) == '.') {
+                    i++;
+                    while (i < length && isDigit(input.charAt(i))) {
+                        i++;
+                    }
+                }
+                result.add(new Token(NUMBER, input.substring(start, i), start));
+                continue;
+            }
+            if (!isNameStart(c)) {
+                throw error("Unexpected '" + c + "'", i);
+            }
+            i = scanNCName(input, i);
+            String name = input.substring(start, i);
+            if (operand) {
+                // After an operand, a name can only be an operator
+                int operator = operatorName(name);
+                if (operator < 0) {
+                    throw error("Expected an operator but found '" + name + "'", start);
+                }
+                result.add(new Token(operator, name, start));
+                continue;
+            }
+            boolean prefixed = false;
+            if (i + 1 < length && input.charAt(i) == ':' && input.charAt(i + 1) != ':') {
+                if (input.charAt(i + 1) == '*') {
+                    result.add(new Token(NAME_TEST, input.substring(start, i + 2), start));
+                    i += 2;
+                    continue;
+                }
+                if (isNameStart(input.charAt(i + 1))) {
+                    i = scanNCName(input, i + 1);
+                    prefixed = true;
+                }
+            }
+            String qname = input.substring(start, i);
+            int next = i;
+            while (next < length && XPathExpr.isWhitespace(input.charAt(next))) {
+                next++;
+            }
+            if (next < length && input.charAt(next) == '(') {
+                boolean nodeType = !prefixed
+                        && ("node".equals(qname)
+                                || "text".equals(qname)
+                                || "comment".equals(qname)
+                                || "processing-instruction".equals(qname));
+                result.add(new Token(nodeType ? NODE_TYPE : FUNCTION_NAME, qname, start));
+            } else if (!prefixed && input.startsWith("::", next)) {
+                result.add(new Token(AXIS_NAME, qname, start));
+            } else {
+                result.add(new Token(NAME_TEST, qname, start));
+            }
+        }
+    }
+
+    /**
+     * Returns whether the last token ends an operand, in which case {@code *} is a multiplication
+     * and a name is an operator.
+     */
+    private static boolean isOperandEnd(List<Token> tokens) {
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        int kind = tokens.get(tokens.size() - 1).kind;
+        switch (kind) {
+            case AT:
+            case DOUBLE_COLON:
+            case LPAREN:
+            case LBRACKET:
+            case COMMA:
+                return false;
+            default:
+                return kind < SLASH || kind > MOD;
+        }
+    }
+
+    private static int operatorName(String name) {
+        switch (name) {
+            case "and":
+                return AND;
+            case "or":
+                return OR;
+            case "div":
+                return DIV;
+            case "mod":
+                return MOD;
+            default:
+                return -1;
+        }
+    }
+
+    private static int scanQName(String input, int i) {
+        if (i >= input.length() || !isNameStart(input.charAt(i))) {
+            return i;
+        }
+        i = scanNCName(input, i);
+        if (i + 1 < input.length() && input.charAt(i) == ':' && isNameStart(input.charAt(i + 1))) {
+            i = scanNCName(input, i + 1);
+        }
+        return i;
+    }
+
+    private static int scanNCName(String input, int i) {
+        i++;
+        while (i < input.length() && isNameChar(input.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNameStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c)
+                || c == '.'
+                || c == '-'
+                || c == '_'
+                || c == '·'
+                || Character.getType(c) == Character.NON_SPACING_MARK
+                || Character.getType(c) == Character.COMBINING_SPACING_MARK;
+    }
+
+    // ========== PARSER ==========
+
+    private Token peek() {
+        return tokens.get(index);
+    }
+
+    private Token next() {
+        return tokens.get(index++);
+    }
+
+    private boolean accept(int kind) {
+        if (peek().kind == kind) {
+            index++;
+            return true;
+        }
+        return false;
+    }
+
+    private Token expect(int kind, String what) {
+        if (peek().kind != kind) {
+            throw error("Expected " + what + " but found '" + peek().text + "'");
+        }
+        return next();
+    }
+
+    private XPathExpr parseExpr() {
+        XPathExpr left = parseAnd();
+        while (accept(OR)) {
+            left = new XPathExpr.Or(left, parseAnd());
+        }
+        return left;
+    }
+
+    private XPathExpr parseAnd() {
+        XPathExpr left = parseEquality();
+        while (accept(AND)) {
+            left = new XPathExpr.And(left, parseEquality());
+        }
+        return left;
+    }
+
+    private XPathExpr parseEquality() {
+        XPathExpr left = parseRelational();
+        while (true) {
+            if (accept(EQ)) {
+                left = XPathExpr.compare(XPathExpr.EQ, left, parseRelational());
+            } else if (accept(NE)) {
+                left = XPathExpr.compare(XPathExpr.NE, left, parseRelational());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private XPathExpr parseRelational() {
+        XPathExpr left = parseAdditive();
+        while (true) {
+            int operator;
+            switch (peek().kind) {
+                case LT:
+                    operator = XPathExpr.LT;
+                    break;
+                case LE:
+                    operator = XPathExpr.LE;
+                    break;
+                case GT:
+                    operator = XPathExpr.GT;
+                    break;
+                case GE:
+                    operator = XPathExpr.GE;
+                    break;
+                default:
+                    return left;
+            }
+            index++;
+            left = XPathExpr.compare(operator, left, parseAdditive());
+        }
+    }
+
+    private XPathExpr parseAdditive() {
+        XPathExpr left = parseMultiplicative();
+        while (true) {
+            if (accept(PLUS)) {
+                left = new XPathExpr.Add(left, parseMultiplicative());
+            } else if (accept(MINUS)) {
+                left = new XPathExpr.Subtract(left, parseMultiplicative());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private XPathExpr parseMultiplicative() {
+        XPathExpr left = parseUnary();
+        while (true) {
+            if (accept(MULTIPLY)) {
+                left = new XPathExpr.Multiply(left, parseUnary());
+            } else if (accept(DIV)) {
+                left = new XPathExpr.Divide(left, parseUnary());
+            } else if (accept(MOD)) {
+                left = new XPathExpr.Modulo(left, parseUnary());
+            } else {
+                return left;
+            }
+        }
+    }
+
+    private XPathExpr parseUnary() {
+        if (accept(MINUS)) {
+            return new XPathExpr.Negate(parseUnary());
+        }
+        return parseUnion();
+    }
+
+    private XPathExpr parseUnion() {
+        XPathExpr left = parsePath();
+        while (peek().kind == PIPE) {
+            Token pipe = next();
+            XPathExpr right = parsePath();
+            if (!isNodeSet(left) || !isNodeSet(right)) {
+                throw error("Operands of '|' must be node-sets", pipe.position);
+            }
+            left = new XPathExpr.Union(left, right);
+        }
+        return left;
+    }
+
+    private XPathExpr parsePath() {
+        switch (peek().kind) {
+            case LITERAL:
+            case NUMBER:
+            case VARIABLE:
+            case LPAREN:
+            case FUNCTION_NAME:
+                break;
+            default:
+                return parseLocationPath();
+        }
+        Token start = peek();
+        XPathExpr primary = parsePrimary();
+        List<XPathPath.Predicate> predicates = parsePredicates();
+        if (!predicates.isEmpty()) {
+            if (!isNodeSet(primary)) {
+                throw error("Predicates can only filter node-sets", start.position);
+            }
+            primary = new XPathPath.Filter(primary, predicates);
+        }
+        int kind = peek().kind;
+        if (kind != SLASH && kind != DOUBLE_SLASH) {
+            return primary;
+        }
+        if (!isNodeSet(primary)) {
+            throw error("Only node-sets can be followed by a path", start.position);
+        }
+        List<XPathPath.Step> steps = new ArrayList<>();
+        parseRelativeLocationPath(steps, true);
+        return new XPathPath(primary, false, simplify(steps));
+    }
+
+    private XPathExpr parseLocationPath() {
+        List<XPathPath.Step> steps = new ArrayList<>();
+        boolean absolute = false;
+        if (accept(SLASH)) {
+            absolute = true;
+            if (!startsStep(peek().kind)) {
+                return new XPathPath(null, true, steps);
+            }
+        } else if (peek().kind == DOUBLE_SLASH) {
+            absolute = true;
+            parseRelativeLocationPath(steps, true);
+            return new XPathPath(null, true, simplify(steps));
+        } else if (!startsStep(peek().kind)) {
+            throw error("Expected an expression but found '" + peek().text + "'");
+        }
+        parseRelativeLocationPath(steps, false);
+        return new XPathPath(null, absolute, simplify(steps));
+    }
+
+    /**
+     * Parses steps separated by {@code /} and {@code //}, starting with a separator if
+     * {@code separated} is set.
+     */
+    private void parseRelativeLocationPath(List<XPathPath.Step> steps, boolean separated) {
+        if (!separated) {
+            steps.add(parseStep());
+        }
+        while (true) {
+            if (accept(DOUBLE_SLASH)) {
+                steps.add(new XPathPath.Step(
+                        XPathPath.Axis.of("descendant-or-self"), new XPathPath.AnyNodeTest(), Collections.emptyList()));
+            } else if (!accept(SLASH)) {
+                return;
+            }
+            if (!startsStep(peek().kind)) {
+                throw error("Expected a location step but found '" + peek().text + "'");
+            }
+            steps.add(parseStep());
+        }
+    }
+
+    private static boolean startsStep(int kind) {
+        return kind == DOT
+                || kind == DOUBLE_DOT
+                || kind == AT
+                || kind == AXIS_NAME
+                || kind == NAME_TEST
+                || kind == NODE_TYPE;
+    }
+
+    private XPathPath.Step parseStep() {
+        if (accept(DOT)) {
+            return new XPathPath.Step(XPathPath.Axis.of("self"), new XPathPath.AnyNodeTest(), Collections.emptyList());
+        }
+        if (accept(DOUBLE_DOT)) {
+            return new XPathPath.Step(
+                    XPathPath.Axis.of("parent"), new XPathPath.AnyNodeTest(), Collections.emptyList());
+        }
+        XPathPath.Axis axis;
+        if (accept(AT)) {
+            axis = XPathPath.Axis.of("attribute");
+        } else if (peek().kind == AXIS_NAME) {
+            Token name = next();
+            axis = XPathPath.Axis.of(name.text);
+            if (axis == null) {
+                throw error("Unknown axis '" + name.text + "'", name.position);
+            }
+            expect(DOUBLE_COLON, "'::'");
+        } else {
+            axis = XPathPath.Axis.of("child");
+        }
+        XPathPath.NodeTest test = parseNodeTest();
+        return new XPathPath.Step(axis, test, parsePredicates());
+    }
+
+    private XPathPath.NodeTest parseNodeTest() {
+        Token token = next();
+        if (token.kind == NODE_TYPE) {
+            expect(LPAREN, "'('");
+            XPathPath.NodeTest test;
+            switch (token.text) {
+                case "node":
+                    test = new XPathPath.AnyNodeTest();
+                    break;
+                case "text":
+                    test = new XPathPath.TextTest();
+                    break;
+                case "comment":
+                    test = new XPathPath.CommentTest();
+                    break;
+                default:
+                    String target = peek().kind == LITERAL ? next().text : null;
+                    test = new XPathPath.ProcessingInstructionTest(target);
+                    break;
+            }
+            expect(RPAREN, "')'");
+            return test;
+        }
+        if (token.kind != NAME_TEST) {
+            throw error("Expected a node test but found '" + token.text + "'", token.position);
+        }
+        String name = token.text;
+        if ("*".equals(name)) {
+            return new XPathPath.AnyNameTest();
+        }
+        int colon = name.indexOf(':');
+        if (colon < 0) {
+            return new XPathPath.NameTest(name, "", name);
+        }
+        String uri = namespaceURI(name.substring(0, colon), token);
+        String local = name.substring(colon + 1);
+        return "*".equals(local) ? new XPathPath.NamespaceTest(uri, name) : new XPathPath.NameTest(local, uri, name);
+    }
+
+    private String namespaceURI(String prefix, Token token) {
+        String uri = namespaces.get(prefix);
+        if (uri == null && "xml".equals(prefix)) {
+            uri = NamespaceResolver.XML_NAMESPACE_URI;
+        }
+        if (uri == null) {
+            throw error("Unbound namespace prefix '" + prefix + "'", token.position);
+        }
+        return uri;
+    }
+
+    private List<XPathPath.Predicate> parsePredicates() {
+        List<XPathPath.Predicate> predicates = new ArrayList<>();
+        while (accept(LBRACKET)) {
+            predicates.add(XPathPath.Predicate.of(parseExpr()));
+            expect(RBRACKET, "']'");
+        }
+        return predicates;
+    }
+
+    private XPathExpr parsePrimary() {
+        Token token = next();
+        switch (token.kind) {
+            case VARIABLE:
+                return new XPathExpr.Variable(token.text);
+            case LITERAL:
+                return new XPathExpr.StringLiteral(token.text);
+            case NUMBER:
+                return new XPathExpr.NumberLiteral(Double.parseDouble(token.text));
+            case LPAREN:
+                XPathExpr inner = parseExpr();
+                expect(RPAREN, "')'");
+                return inner;
+            default:
+                expect(LPAREN, "'('");
+                List<XPathExpr> args = new ArrayList<>();
+                if (!accept(RPAREN)) {
+                    do {
+                        args.add(parseExpr());
+                    } while (accept(COMMA));
+                    expect(RPAREN, "')'");
+                }
+                try {
+                    return XPathFunctions.call(token.text, args);
+                } catch (DomTripException e) {
+                    throw error(e.getMessage(), token.position);
+                }
+        }
+    }
+
+    /**
+     * Drops {@code self::node()} steps and merges {@code //} with a following child or
+     * descendant step whose predicates do not depend on positions, so that {@code //name} is
+     * evaluated as one walk over the descendants.
+     */
+    private static List<XPathPath.Step> simplify(List<XPathPath.Step> steps) {
+        List<XPathPath.Step> result = new ArrayList<>(steps.size());
+        for (XPathPath.Step step : steps) {
+            if (steps.size() > 1 && isAnyNode(step, "self")) {
+                continue;
+            }
+            int last = result.size() - 1;
+            if (last >= 0
+                    && isAnyNode(result.get(last), "descendant-or-self")
+                    && ("child".equals(step.axis.name) || "descendant".equals(step.axis.name))
+                    && !step.isPositional()) {
+                result.set(last, step.onAxis(XPathPath.Axis.of("descendant")));
+                continue;
+            }
+            result.add(step);
+        }
+        if (result.isEmpty()) {
+            // Only self::node() steps, which select the context node
+            result.add(steps.get(0));
+        }
+        return result;
+    }
+
+    private static boolean isAnyNode(XPathPath.Step step, String axis) {
+        return axis.equals(step.axis.name) && step.test instanceof XPathPath.AnyNodeTest && !step.hasPredicates();
+    }
+
+    private static boolean isNodeSet(XPathExpr expr) {
+        return expr.type() == XPathExpr.NODESET || expr.type() == XPathExpr.ANY;
+    }
+
+    private DomTripException error(String message) {
+        return error(message, peek().position);
+    }
+
+    private DomTripException error(String message, int position) {
+        return new DomTripException("Invalid XPath expression '" + expression + "': " + message, position, expression);
+    }
+}
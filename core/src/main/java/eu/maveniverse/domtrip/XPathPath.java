@@ -0,0 +1,925 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compiled XPath 1.0 path: location paths, and filter expressions with predicates or
+ * following steps.
+ *
+ * <p>Each step applies its axis to every context node, collecting candidates that pass the
+ * node test in axis order, filters them by its predicates, and appends them in document order.
+ * Results are only sorted when more than one context node could produce overlapping or
+ * out-of-order results: forward axes that stay inside the subtree of their context node
+ * preserve the order of contexts that are not nested in one another, and the self, attribute
+ * and namespace axes preserve the order of any contexts.</p>
+ */
+final class XPathPath extends XPathExpr.NodeSetExpr {
+
+    /** The expression the path starts from, or null for a location path */
+    private final XPathExpr filter;
+
+    private final boolean absolute;
+    private final Step[] steps;
+
+    XPathPath(XPathExpr filter, boolean absolute, List<Step> steps) {
+        this.filter = filter;
+        this.absolute = absolute;
+        this.steps = steps.toArray(new Step[0]);
+    }
+
+    @Override
+    List<Object> nodeSet(XPathContext context) {
+        List<Object> nodes;
+        if (filter != null) {
+            nodes = filter.nodeSet(context);
+        } else if (absolute) {
+            nodes = Collections.singletonList(XPathNodes.root(context.node));
+        } else {
+            nodes = Collections.singletonList(context.node);
+        }
+        // Whether no node of the set is an ancestor of another
+        boolean disjoint = nodes.size() <= 1;
+        for (Step step : steps) {
+            if (nodes.isEmpty()) {
+                return nodes;
+            }
+            List<Object> result = step.apply(nodes, disjoint, context);
+            disjoint = step.axis.siblings && (nodes.size() == 1 || (disjoint && step.axis.subtree));
+            nodes = result;
+        }
+        return nodes;
+    }
+
+    @Override
+    boolean dependsOnPosition() {
+        // Steps evaluate their predicates in their own context
+        return filter != null && filter.dependsOnPosition();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (filter != null) {
+            sb.append(filter);
+        }
+        for (int i = 0; i < steps.length; i++) {
+            if (i > 0 || absolute || filter != null) {
+                sb.append('/');
+            }
+            sb.append(steps[i]);
+        }
+        return absolute && steps.length == 0 ? "/" : sb.toString();
+    }
+
+    /**
+     * A filter expression: a primary expression whose node-set is filtered by predicates,
+     * with positions in document order.
+     */
+    static final class Filter extends XPathExpr.NodeSetExpr {
+        private final XPathExpr primary;
+        private final Predicate[] predicates;
+
+        Filter(XPathExpr primary, List<Predicate> predicates) {
+            this.primary = primary;
+            this.predicates = predicates.toArray(new Predicate[0]);
+        }
+
+        @Override
+        List<Object> nodeSet(XPathContext context) {
+            List<Object> nodes = new ArrayList<>(primary.nodeSet(context));
+            for (Predicate predicate : predicates) {
+                predicate.filter(nodes, 0, context);
+            }
+            return nodes;
+        }
+
+        @Override
+        boolean dependsOnPosition() {
+            return primary.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("(").append(primary).append(')');
+            for (Predicate predicate : predicates) {
+                sb.append(predicate);
+            }
+            return sb.toString();
+        }
+    }
+
+    // ========== STEPS ==========
+
+    static final class Step {
+        final Axis axis;
+        final NodeTest test;
+        final Predicate[] predicates;
+        /** Number of candidates worth collecting per context node, from a leading [n] */
+        private final int limit;
+
+        Step(Axis axis, NodeTest test, List<Predicate> predicates) {
+            this.axis = axis;
+            this.test = test;
+            this.predicates = predicates.toArray(new Predicate[0]);
+            this.limit = this.predicates.length > 0 && this.predicates[0] instanceof PositionPredicate
+                    ? ((PositionPredicate) this.predicates[0]).position
+                    : Integer.MAX_VALUE;
+        }
+
+        List<Object> apply(List<Object> contexts, boolean disjoint, XPathContext context) {
+            List<Object> result = new ArrayList<>();
+            for (int i = 0, size = contexts.size(); i < size; i++) {
+                int start = result.size();
+                axis.collect(contexts.get(i), test, result, limit);
+                for (Predicate predicate : predicates) {
+                    if (result.size() == start) {
+                        break;
+                    }
+                    predicate.filter(result, start, context);
+                }
+                if (axis.reverse) {
+                    Collections.reverse(result.subList(start, result.size()));
+                }
+            }
+            if (contexts.size() > 1 && !axis.local && !(disjoint && axis.subtree)) {
+                XPathNodes.sortDistinct(result);
+            }
+            return result;
+        }
+
+        boolean hasPredicates() {
+            return predicates.length > 0;
+        }
+
+        /**
+         * Returns whether any predicate depends on the position of the candidates in the axis,
+         * which rules out merging this step with a preceding {@code //}.
+         */
+        boolean isPositional() {
+            for (Predicate predicate : predicates) {
+                if (predicate.isPositional()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Returns this step on another axis, for rewriting {@code //name} into a descendant step.
+         */
+        Step onAxis(Axis other) {
+            return new Step(other, test, Arrays.asList(predicates));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(axis.name).append("::").append(test);
+            for (Predicate predicate : predicates) {
+                sb.append(predicate);
+            }
+            return sb.toString();
+        }
+    }
+
+    // ========== PREDICATES ==========
+
+    /**
+     * Filters the candidates of a step, or the nodes of a filter expression, in place.
+     */
+    abstract static class Predicate {
+        final XPathExpr expression;
+
+        Predicate(XPathExpr expression) {
+            this.expression = expression;
+        }
+
+        /**
+         * Compiles a predicate expression, choosing positional handling for numeric ones.
+         */
+        static Predicate of(XPathExpr expression) {
+            if (expression instanceof XPathExpr.NumberLiteral) {
+                double value = ((XPathExpr.NumberLiteral) expression).value;
+                if (value >= 1 && value == Math.floor(value) && value <= Integer.MAX_VALUE) {
+                    return new PositionPredicate(expression, (int) value);
+                }
+            }
+            if (expression instanceof XPathFunctions.Last) {
+                return new LastPredicate(expression);
+            }
+            switch (expression.type()) {
+                case XPathExpr.NUMBER:
+                    return new NumberPredicate(expression);
+                case XPathExpr.ANY:
+                    return new AnyPredicate(expression);
+                default:
+                    return new BooleanPredicate(expression);
+            }
+        }
+
+        /**
+         * Keeps the nodes from {@code start} on that satisfy the predicate, with positions
+         * counted from {@code start}.
+         */
+        abstract void filter(List<Object> nodes, int start, XPathContext context);
+
+        boolean isPositional() {
+            return expression.type() == XPathExpr.NUMBER
+                    || expression.type() == XPathExpr.ANY
+                    || expression.dependsOnPosition();
+        }
+
+        @Override
+        public String toString() {
+            return "[" + expression + "]";
+        }
+    }
+
+    static final class PositionPredicate extends Predicate {
+        final int position;
+
+        PositionPredicate(XPathExpr expression, int position) {
+            super(expression);
+            this.position = position;
+        }
+
+        @Override
+        void filter(List<Object> nodes, int start, XPathContext context) {
+            int end = nodes.size();
+            if (end - start < position) {
+                nodes.subList(start, end).clear();
+            } else {
+                Object node = nodes.get(start + position - 1);
+                nodes.subList(start + 1, end).clear();
+                nodes.set(start, node);
+            }
+        }
+    }
+
+    static final class LastPredicate extends Predicate {
+
+        LastPredicate(XPathExpr expression) {
+            super(expression);
+        }
+
+        @Override
+        void filter(List<Object> nodes, int start, XPathContext context) {
+            int end = nodes.size();
+            if (end - start > 1) {
+                Object node = nodes.get(end - 1);
+                nodes.subList(start + 1, end).clear();
+                nodes.set(start, node);
+            }
+        }
+    }
+
+    /**
+     * A predicate evaluated for each candidate in turn, with its position among the candidates.
+     */
+    abstract static class EachPredicate extends Predicate {
+
+        EachPredicate(XPathExpr expression) {
+            super(expression);
+        }
+
+        /**
+         * Tests each candidate with its position, compacting the kept ones.
+         */
+        @Override
+        final void filter(List<Object> nodes, int start, XPathContext context) {
+            int end = nodes.size();
+            int size = end - start;
+            XPathContext inner = context.derive(null, 0, size);
+            int kept = start;
+            for (int i = start; i < end; i++) {
+                Object node = nodes.get(i);
+                if (test(inner.set(node, i - start + 1, size))) {
+                    nodes.set(kept++, node);
+                }
+            }
+            nodes.subList(kept, end).clear();
+        }
+
+        /**
+         * Tests a candidate, the context holding the node, its position and the number of
+         * candidates.
+         */
+        abstract boolean test(XPathContext context);
+    }
+
+    static final class NumberPredicate extends EachPredicate {
+
+        NumberPredicate(XPathExpr expression) {
+            super(expression);
+        }
+
+        @Override
+        boolean test(XPathContext context) {
+            return expression.number(context) == context.position;
+        }
+    }
+
+    static final class BooleanPredicate extends EachPredicate {
+
+        BooleanPredicate(XPathExpr expression) {
+            super(expression);
+        }
+
+        @Override
+        boolean test(XPathContext context) {
+            return expression.bool(context);
+        }
+    }
+
+    static final class AnyPredicate extends EachPredicate {
+
+        AnyPredicate(XPathExpr expression) {
+            super(expression);
+        }
+
+        @Override
+        boolean test(XPathContext context) {
+            Object value = expression.evaluate(context);
+            if (value instanceof Double) {
+                return (Double) value == context.position;
+            }
+            return XPathExpr.toBoolean(value);
+        }
+    }
+
+    // ========== NODE TESTS ==========
+
+    /**
+     * Tests candidates of an axis. The principal node type of the attribute and namespace axes
+     * is tested through {@link #matchesAttribute} and {@link #matchesNamespace}, so that
+     * wrappers are only created for matching attributes.
+     */
+    abstract static class NodeTest {
+
+        /**
+         * Tests a node of an axis whose principal node type is element.
+         */
+        abstract boolean matches(Object node);
+
+        boolean matchesAttribute(Element owner, Attribute attribute) {
+            return false;
+        }
+
+        boolean matchesNamespace(String prefix) {
+            return false;
+        }
+    }
+
+    /** {@code node()} */
+    static final class AnyNodeTest extends NodeTest {
+        @Override
+        boolean matches(Object node) {
+            return true;
+        }
+
+        @Override
+        boolean matchesAttribute(Element owner, Attribute attribute) {
+            return true;
+        }
+
+        @Override
+        boolean matchesNamespace(String prefix) {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "node()";
+        }
+    }
+
+    /** {@code *} */
+    static final class AnyNameTest extends NodeTest {
+        @Override
+        boolean matches(Object node) {
+            return node instanceof Element;
+        }
+
+        @Override
+        boolean matchesAttribute(Element owner, Attribute attribute) {
+            return true;
+        }
+
+        @Override
+        boolean matchesNamespace(String prefix) {
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return "*";
+        }
+    }
+
+    /** {@code name} or {@code prefix:name}; unprefixed names are in no namespace */
+    static final class NameTest extends NodeTest {
+        final String localName;
+        final String namespaceURI;
+        private final String text;
+
+        NameTest(String localName, String namespaceURI, String text) {
+            this.localName = localName;
+            this.namespaceURI = namespaceURI;
+            this.text = text;
+        }
+
+        @Override
+        boolean matches(Object node) {
+            if (!(node instanceof Element)) {
+                return false;
+            }
+            Element element = (Element) node;
+            String name = element.name();
+            // The local name is checked in place; only matching elements resolve their namespace
+            if (!XPathExpression.nameMatches(name, XPathExpression.localNameStart(name), localName)) {
+                return false;
+            }
+            return namespaceURI.equals(XPathNodes.elementNamespaceURI(element));
+        }
+
+        @Override
+        boolean matchesAttribute(Element owner, Attribute attribute) {
+            String name = attribute.name();
+            int localStart = XPathExpression.localNameStart(name);
+            if (!XPathExpression.nameMatches(name, localStart, localName)) {
+                return false;
+            }
+            if (localStart == 0) {
+                return namespaceURI.isEmpty();
+            }
+            String uri = NamespaceResolver.resolveNamespaceURI(owner, name.substring(0, localStart - 1));
+            return namespaceURI.equals(uri != null ? uri : "");
+        }
+
+        @Override
+        boolean matchesNamespace(String prefix) {
+            return namespaceURI.isEmpty() && localName.equals(prefix);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /** {@code prefix:*} */
+    static final class NamespaceTest extends NodeTest {
+        final String namespaceURI;
+        private final String text;
+
+        NamespaceTest(String namespaceURI, String text) {
+            this.namespaceURI = namespaceURI;
+            this.text = text;
+        }
+
+        @Override
+        boolean matches(Object node) {
+            return node instanceof Element && namespaceURI.equals(XPathNodes.elementNamespaceURI((Element) node));
+        }
+
+        @Override
+        boolean matchesAttribute(Element owner, Attribute attribute) {
+            String name = attribute.name();
+            int colon = name.indexOf(':');
+            if (colon < 0) {
+                return false;
+            }
+            return namespaceURI.equals(NamespaceResolver.resolveNamespaceURI(owner, name.substring(0, colon)));
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /** {@code text()} */
+    static final class TextTest extends NodeTest {
+        @Override
+        boolean matches(Object node) {
+            return node instanceof Text;
+        }
+
+        @Override
+        public String toString() {
+            return "text()";
+        }
+    }
+
+    /** {@code comment()} */
+    static final class CommentTest extends NodeTest {
+        @Override
+        boolean matches(Object node) {
+            return node instanceof Comment;
+        }
+
+        @Override
+        public String toString() {
+            return "comment()";
+        }
+    }
+
+    /** {@code processing-instruction()} or {@code processing-instruction('target')} */
+    static final class ProcessingInstructionTest extends NodeTest {
+        final String target;
+
+        ProcessingInstructionTest(String target) {
+            this.target = target;
+        }
+
+        @Override
+        boolean matches(Object node) {
+            return node instanceof ProcessingInstruction
+                    && (target == null || target.equals(((ProcessingInstruction) node).target()));
+        }
+
+        @Override
+        public String toString() {
+            return target == null ? "processing-instruction()" : "processing-instruction('" + target + "')";
+        }
+    }
+
+    // ========== AXES ==========
+
+    /**
+     * Collects the nodes of an axis that pass a node test, in axis order: document order for
+     * forward axes and reverse document order for reverse axes.
+     */
+    abstract static class Axis {
+        final String name;
+        /** Whether positions count backwards from the context node */
+        final boolean reverse;
+        /** Whether all nodes lie in the subtree of the context node, in document order */
+        final boolean subtree;
+        /** Whether the nodes of one context node are never ancestors of one another */
+        final boolean siblings;
+        /**
+         * Whether the nodes are the context node itself or belong to it, so that contexts in
+         * document order yield nodes in document order
+         */
+        final boolean local;
+
+        Axis(String name, boolean reverse, boolean subtree, boolean siblings) {
+            this(name, reverse, subtree, siblings, false);
+        }
+
+        Axis(String name, boolean reverse, boolean subtree, boolean siblings, boolean local) {
+            this.name = name;
+            this.reverse = reverse;
+            this.subtree = subtree;
+            this.siblings = siblings;
+            this.local = local;
+        }
+
+        /**
+         * Adds the matching nodes of the axis of {@code node} to {@code out}, stopping after
+         * {@code limit} nodes.
+         */
+        abstract void collect(Object node, NodeTest test, List<Object> out, int limit);
+
+        static Axis of(String name) {
+            switch (name) {
+                case "child":
+                    return new ChildAxis();
+                case "descendant":
+                    return new DescendantAxis(false);
+                case "descendant-or-self":
+                    return new DescendantAxis(true);
+                case "parent":
+                    return new ParentAxis();
+                case "ancestor":
+                    return new AncestorAxis(false);
+                case "ancestor-or-self":
+                    return new AncestorAxis(true);
+                case "following-sibling":
+                    return new FollowingSiblingAxis();
+                case "preceding-sibling":
+                    return new PrecedingSiblingAxis();
+                case "following":
+                    return new FollowingAxis();
+                case "preceding":
+                    return new PrecedingAxis();
+                case "attribute":
+                    return new AttributeAxis();
+                case "namespace":
+                    return new NamespaceAxis();
+                case "self":
+                    return new SelfAxis();
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * Adds the matching descendants of a container in document order, returning the number
+         * of nodes still wanted.
+         */
+        static int collectDescendants(ContainerNode container, NodeTest test, List<Object> out, int limit) {
+            if (container.children.isEmpty()) {
+                return limit;
+            }
+            List<?>[] levels = new List<?>[16];
+            int[] indexes = new int[16];
+            int depth = 0;
+            levels[0] = container.children;
+            while (depth >= 0) {
+                List<?> children = levels[depth];
+                int index = indexes[depth];
+                if (index == children.size()) {
+                    levels[depth--] = null;
+                    continue;
+                }
+                indexes[depth] = index + 1;
+                Object child = children.get(index);
+                if (test.matches(child)) {
+                    out.add(child);
+                    if (--limit == 0) {
+                        return 0;
+                    }
+                }
+                if (child instanceof Element && !((Element) child).children.isEmpty()) {
+                    if (++depth == levels.length) {
+                        levels = Arrays.copyOf(levels, depth * 2);
+                        indexes = Arrays.copyOf(indexes, depth * 2);
+                    }
+                    levels[depth] = ((Element) child).children;
+                    indexes[depth] = 0;
+                }
+            }
+            return limit;
+        }
+
+        /**
+         * Adds the matching nodes of a subtree in reverse document order, returning the number
+         * of nodes still wanted.
+         */
+        static int collectReverse(Node node, NodeTest test, List<Object> out, int limit) {
+            if (node instanceof Element) {
+                List<Node> children = ((Element) node).children;
+                for (int i = children.size() - 1; i >= 0 && limit > 0; i--) {
+                    limit = collectReverse(children.get(i), test, out, limit);
+                }
+            }
+            if (limit > 0 && test.matches(node)) {
+                out.add(node);
+                limit--;
+            }
+            return limit;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static final class ChildAxis extends Axis {
+        ChildAxis() {
+            super("child", false, true, true);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            if (node instanceof ContainerNode) {
+                List<Node> children = ((ContainerNode) node).children;
+                for (int i = 0, size = children.size(); i < size; i++) {
+                    Node child = children.get(i);
+                    if (test.matches(child)) {
+                        out.add(child);
+                        if (--limit == 0) {
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    static final class DescendantAxis extends Axis {
+        private final boolean self;
+
+        DescendantAxis(boolean self) {
+            super(self ? "descendant-or-self" : "descendant", false, true, false);
+            this.self = self;
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            if (self && test.matches(node)) {
+                out.add(node);
+                limit--;
+            }
+            if (limit > 0 && node instanceof ContainerNode) {
+                collectDescendants((ContainerNode) node, test, out, limit);
+            }
+        }
+    }
+
+    static final class ParentAxis extends Axis {
+        ParentAxis() {
+            super("parent", false, false, true);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            Object parent = XPathNodes.parent(node);
+            if (parent != null && test.matches(parent)) {
+                out.add(parent);
+            }
+        }
+    }
+
+    static final class AncestorAxis extends Axis {
+        private final boolean self;
+
+        AncestorAxis(boolean self) {
+            super(self ? "ancestor-or-self" : "ancestor", true, false, false);
+            this.self = self;
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            Object current = self ? node : XPathNodes.parent(node);
+            while (current != null) {
+                if (test.matches(current)) {
+                    out.add(current);
+                    if (--limit == 0) {
+                        return;
+                    }
+                }
+                current = XPathNodes.parent(current);
+            }
+        }
+    }
+
+    static final class FollowingSiblingAxis extends Axis {
+        FollowingSiblingAxis() {
+            super("following-sibling", false, false, true);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            if (!(node instanceof Node) || ((Node) node).parent() == null) {
+                return;
+            }
+            List<Node> siblings = ((Node) node).parent().children;
+            for (int i = XPathNodes.indexInParent((Node) node) + 1, size = siblings.size(); i < size; i++) {
+                Node sibling = siblings.get(i);
+                if (test.matches(sibling)) {
+                    out.add(sibling);
+                    if (--limit == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    static final class PrecedingSiblingAxis extends Axis {
+        PrecedingSiblingAxis() {
+            super("preceding-sibling", true, false, true);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            if (!(node instanceof Node) || ((Node) node).parent() == null) {
+                return;
+            }
+            List<Node> siblings = ((Node) node).parent().children;
+            for (int i = XPathNodes.indexInParent((Node) node) - 1; i >= 0; i--) {
+                Node sibling = siblings.get(i);
+                if (test.matches(sibling)) {
+                    out.add(sibling);
+                    if (--limit == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    static final class FollowingAxis extends Axis {
+        FollowingAxis() {
+            super("following", false, false, false);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            Node current;
+            if (node instanceof Node) {
+                current = (Node) node;
+            } else {
+                // The children of an attribute's owner follow the attribute
+                current = XPathNodes.owner(node);
+                limit = collectDescendants((Element) current, test, out, limit);
+            }
+            for (; limit > 0 && current.parent() != null; current = current.parent()) {
+                List<Node> siblings = current.parent().children;
+                for (int i = XPathNodes.indexInParent(current) + 1, size = siblings.size();
+                        i < size && limit > 0;
+                        i++) {
+                    Node sibling = siblings.get(i);
+                    if (test.matches(sibling)) {
+                        out.add(sibling);
+                        limit--;
+                    }
+                    if (limit > 0 && sibling instanceof ContainerNode) {
+                        limit = collectDescendants((ContainerNode) sibling, test, out, limit);
+                    }
+                }
+            }
+        }
+    }
+
+    static final class PrecedingAxis extends Axis {
+        PrecedingAxis() {
+            super("preceding", true, false, false);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            Node current = node instanceof Node ? (Node) node : XPathNodes.owner(node);
+            for (; limit > 0 && current.parent() != null; current = current.parent()) {
+                List<Node> siblings = current.parent().children;
+                for (int i = XPathNodes.indexInParent(current) - 1; i >= 0 && limit > 0; i--) {
+                    limit = collectReverse(siblings.get(i), test, out, limit);
+                }
+            }
+        }
+    }
+
+    static final class AttributeAxis extends Axis {
+        AttributeAxis() {
+            super("attribute", false, true, true, true);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            if (!(node instanceof Element) || !((Element) node).hasAttributes()) {
+                return;
+            }
+            Element element = (Element) node;
+            for (Attribute attribute : element.attributeValues()) {
+                String name = attribute.name();
+                if (name.startsWith(Element.XMLNS)
+                        && (name.length() == Element.XMLNS.length() || name.charAt(Element.XMLNS.length()) == ':')) {
+                    continue;
+                }
+                if (test.matchesAttribute(element, attribute)) {
+                    out.add(new XPathAttribute(element, attribute));
+                    if (--limit == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    static final class NamespaceAxis extends Axis {
+        NamespaceAxis() {
+            super("namespace", false, true, true, true);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+            for (XPathNamespace namespace : XPathNodes.namespaces((Element) node)) {
+                if (test.matchesNamespace(namespace.prefix())) {
+                    out.add(namespace);
+                    if (--limit == 0) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    static final class SelfAxis extends Axis {
+        SelfAxis() {
+            super("self", false, true, true, true);
+        }
+
+        @Override
+        void collect(Object node, NodeTest test, List<Object> out, int limit) {
+            if (test.matches(node)) {
+                out.add(node);
+            }
+        }
+    }
+}
@@ -7,15 +7,22 @@
  */
 package eu.maveniverse.domtrip;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -51,6 +58,25 @@ import java.util.stream.Collectors;
  * DiffResult diff = XmlDiff.diff(before, after, config);
  * }</pre>
  *
+ * <p>Matched elements whose subtrees are identical, as told by structural hashes of both
+ * documents, are not compared further. The hashes are computed in one pass per document and
+ * cached until the document is modified, so diffing a large document against a copy with a
+ * single edit costs that pass plus the comparison of the path leading to the edit. See
+ * {@link DiffConfig.Builder#subtreeHashing(boolean)}.</p>
+ *
+ * <h3>Early exit:</h3>
+ * <pre>{@code
+ * if (!XmlDiff.isEquivalent(before, after, config)) {
+ *     // at least one semantic change
+ * }
+ *
+ * DiffResult firstTen = XmlDiff.diff(before, after, config, 10);
+ * }</pre>
+ *
+ * <p>{@link #isEquivalent(Document, Document, DiffConfig)} skips formatting entirely and stops
+ * at the first semantic change, and the bounded variants of {@code diff} stop once enough
+ * changes were reported. Paths and element summaries are only built for reported changes.</p>
+ *
  * @see DiffResult
  * @see DiffConfig
  * @see XmlChange
@@ -59,6 +85,11 @@ import java.util.stream.Collectors;
  */
 public final class XmlDiff {
 
+    /** Minimum number of elements in the differing matched subtrees of an element to compare them in parallel */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /** Minimum number of elements in the differing matched subtrees compared by a single parallel task */
+    private static final int PARALLEL_TASK_SIZE = 1024;
+
     private XmlDiff() {}
 
     /**
@@ -81,61 +112,221 @@ public final class XmlDiff {
      * @return the diff result containing all detected changes
      */
     public static DiffResult diff(Document before, Document after, DiffConfig config) {
+        ChangeList changes = new ChangeList(Integer.MAX_VALUE);
+        diff(before, after, config, changes);
+        return new DiffResult(changes.list, config, true);
+    }
+
+    /**
+     * Compares two documents, stopping once the given number of changes has been found.
+     *
+     * <p>The result holds the first {@code limit} changes that
+     * {@link #diff(Document, Document, DiffConfig)} would report, in the same order. The
+     * comparison is always sequential. A result holding {@code limit} changes is not
+     * {@linkplain DiffResult#isComplete() complete}, since more changes may have been left
+     * out.</p>
+     *
+     * @param before the original document
+     * @param after the modified document
+     * @param config the diff configuration controlling element matching
+     * @param limit the maximum number of changes to report
+     * @return the diff result containing at most {@code limit} changes
+     * @throws IllegalArgumentException if the limit is negative
+     * @since 1.5.0
+     */
+    public static DiffResult diff(Document before, Document after, DiffConfig config, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
+        }
+        ChangeList changes = new ChangeList(limit);
+        if (limit > 0) {
+            diff(before, after, config, changes);
+        }
+        // Reaching the limit may have hidden further changes
+        return new DiffResult(changes.list, config, changes.list.size() < limit);
+    }
+
+    /**
+     * Compares two documents, passing each change to a listener as soon as it is found, in
+     * the order of {@link #diff(Document, Document, DiffConfig)}, until the listener returns
+     * {@code false}.
+     *
+     * <p>The comparison is always sequential, and ends as soon as the listener stops it.</p>
+     *
+     * @param before the original document
+     * @param after the modified document
+     * @param config the diff configuration controlling element matching
+     * @param listener receives the changes, returning whether to continue the comparison
+     * @return {@code true} if the comparison completed, {@code false} if the listener stopped it
+     * @since 1.5.0
+     */
+    public static boolean diff(
+            Document before, Document after, DiffConfig config, Predicate<? super XmlChange> listener) {
+        Objects.requireNonNull(listener, "listener");
+        ChangeListener changes = new ChangeListener(listener);
+        diff(before, after, config, changes);
+        return !changes.done();
+    }
+
+    /**
+     * Checks whether two documents are semantically equivalent using default configuration.
+     *
+     * @param before the original document
+     * @param after the modified document
+     * @return {@code true} if the documents have no semantic changes
+     * @see #isEquivalent(Document, Document, DiffConfig)
+     * @since 1.5.0
+     */
+    public static boolean isEquivalent(Document before, Document after) {
+        return isEquivalent(before, after, DiffConfig.defaults());
+    }
+
+    /**
+     * Checks whether two documents are semantically equivalent, that is whether
+     * {@link #diff(Document, Document, DiffConfig)} would report no semantic changes.
+     *
+     * <p>Formatting is not compared, and the comparison stops at the first semantic change,
+     * without building it. With subtree hashing, subtrees with equal semantic hashes are
+     * skipped even if their formatting differs, so that equivalent documents whose hashes are
+     * cached are compared in constant time. The comparison is always sequential.</p>
+     *
+     * @param before the original document
+     * @param after the modified document
+     * @param config the diff configuration controlling element matching
+     * @return {@code true} if the documents have no semantic changes
+     * @since 1.5.0
+     */
+    public static boolean isEquivalent(Document before, Document after, DiffConfig config) {
+        SemanticCheck changes = new SemanticCheck();
+        diff(before, after, config, changes);
+        return !changes.done();
+    }
+
+    /**
+     * Applies the changes of a diff to a document equal to its before side, such as a copy of
+     * it, so that comparing the patched document to the after side with the same configuration
+     * reports no changes.
+     *
+     * <p>Only the nodes the changes are about are modified: added elements, comments and
+     * processing instructions are inserted as copies of their after counterparts, removed ones
+     * are detached, moved elements are swapped with their same-name siblings, and attributes,
+     * text and whitespace of changed elements are copied from the after side. Every other node
+     * keeps its modification flag and its original formatting, so the patched document
+     * serializes like the target except around the changes. An element left without children
+     * takes the empty element style of its after counterpart, which is only known when a
+     * change within it refers to the after side, as the style change of an element losing all
+     * its children does. Otherwise it keeps its own style.</p>
+     *
+     * <p>The text of changed elements is placed between their other children like on the
+     * after side, so that the serialized document parses to the same content. The diff does
+     * not report the order of differently named siblings though, which therefore stays that
+     * of the target, and text next to such siblings may then be split differently between
+     * text nodes and whitespace when the patched document is parsed again.</p>
+     *
+     * <p>The changes are resolved against the target before any of them is applied. The diff
+     * must be {@linkplain DiffResult#isComplete() complete}, as returned by
+     * {@link #diff(Document, Document, DiffConfig)}, and its after document must not have been
+     * modified since.</p>
+     *
+     * <pre>{@code
+     * DiffResult diff = XmlDiff.diff(base, edited, config);
+     * XmlDiff.apply(diff, checkout);
+     * }</pre>
+     *
+     * @param diff the changes to apply
+     * @param target the document to patch, equal to the before side of the diff
+     * @throws DomTripException if the diff is not complete or a change does not match the target
+     * @since 1.5.0
+     */
+    public static void apply(DiffResult diff, Document target) {
+        Objects.requireNonNull(diff, "diff");
+        Objects.requireNonNull(target, "target");
+        DiffPatch.apply(diff, target);
+    }
+
+    private static void diff(Document before, Document after, DiffConfig config, ChangeSink changes) {
         Objects.requireNonNull(before, "before");
         Objects.requireNonNull(after, "after");
         Objects.requireNonNull(config, "config");
 
-        List<XmlChange> changes = new ArrayList<>();
         Element beforeRoot = before.root();
         Element afterRoot = after.root();
 
         if (beforeRoot == null && afterRoot == null) {
-            return new DiffResult(changes);
+            return;
         }
         if (beforeRoot == null) {
-            addElementAdded(changes, "/" + afterRoot.name(), afterRoot);
-            return new DiffResult(changes);
+            addElementAdded(changes, new Path(null, afterRoot.name(), 0), afterRoot);
+            return;
         }
         if (afterRoot == null) {
-            addElementRemoved(changes, "/" + beforeRoot.name(), beforeRoot);
-            return new DiffResult(changes);
+            addElementRemoved(changes, new Path(null, beforeRoot.name(), 0), beforeRoot);
+            return;
         }
 
         if (!beforeRoot.name().equals(afterRoot.name())) {
-            addElementRemoved(changes, "/" + beforeRoot.name(), beforeRoot);
-            addElementAdded(changes, "/" + afterRoot.name(), afterRoot);
+            addElementRemoved(changes, new Path(null, beforeRoot.name(), 0), beforeRoot);
+            addElementAdded(changes, new Path(null, afterRoot.name(), 0), afterRoot);
         } else {
-            compareElements(beforeRoot, afterRoot, "/" + beforeRoot.name(), config, changes);
+            boolean parallel = config.isParallel() && changes.complete();
+            Hashes hashes = config.isSubtreeHashing() || parallel
+                    ? new Hashes(before, after, config.isSubtreeHashing(), !changes.formatting())
+                    : null;
+            compareElements(beforeRoot, afterRoot, new Path(null, beforeRoot.name(), 0), config, hashes, changes);
         }
-
-        return new DiffResult(changes);
     }
 
     // --- Element comparison ---
 
+    static void compareElements(Element before, Element after, Path path, DiffConfig config, ChangeSink changes) {
+        compareElements(before, after, path, config, null, changes);
+    }
+
     private static void compareElements(
-            Element before, Element after, String path, DiffConfig config, List<XmlChange> changes) {
-        compareElementFormatting(before, after, path, changes);
+            Element before, Element after, Path path, DiffConfig config, Hashes hashes, ChangeSink changes) {
+        if (hashes != null && hashes.identical(before, after)) {
+            return;
+        }
+        compareElementContent(before, after, before.isEmpty(), after.isEmpty(), path, changes);
+        if (!changes.done()) {
+            compareChildElements(before, after, path, config, hashes, changes);
+        }
+    }
+
+    /**
+     * Compares everything but the child elements of two matched elements, given whether each
+     * has no children at all.
+     */
+    static void compareElementContent(
+            Element before, Element after, boolean beforeEmpty, boolean afterEmpty, Path path, ChangeSink changes) {
+        if (changes.formatting()) {
+            compareElementFormatting(before, after, beforeEmpty, afterEmpty, path, changes);
+        }
         compareNamespace(before, after, path, changes);
         compareAttributes(before, after, path, changes);
         compareTextContent(before, after, path, changes);
         compareComments(before, after, path, changes);
         compareProcessingInstructions(before, after, path, changes);
-        compareChildElements(before, after, path, config, changes);
     }
 
-    private static void compareElementFormatting(Element before, Element after, String path, List<XmlChange> changes) {
-        if (!safeEquals(before.precedingWhitespace(), after.precedingWhitespace())
-                || !safeEquals(before.openTagWhitespace(), after.openTagWhitespace())
-                || !safeEquals(before.innerPrecedingWhitespace(), after.innerPrecedingWhitespace())
-                || !safeEquals(before.closeTagWhitespace(), after.closeTagWhitespace())) {
-            changes.add(new XmlChange(ChangeType.WHITESPACE_CHANGED, path, null, null, before, after));
+    private static void compareElementFormatting(
+            Element before, Element after, boolean beforeEmpty, boolean afterEmpty, Path path, ChangeSink changes) {
+        if ((!safeEquals(before.precedingWhitespace(), after.precedingWhitespace())
+                        || !safeEquals(before.openTagWhitespace(), after.openTagWhitespace())
+                        || !safeEquals(before.innerPrecedingWhitespace(), after.innerPrecedingWhitespace())
+                        || !safeEquals(before.closeTagWhitespace(), after.closeTagWhitespace()))
+                && changes.found(ChangeType.WHITESPACE_CHANGED)) {
+            changes.add(new XmlChange(ChangeType.WHITESPACE_CHANGED, path.toString(), null, null, before, after));
         }
 
-        if (before.selfClosing() != after.selfClosing() && before.isEmpty() && after.isEmpty()) {
+        // An element losing all its children may become self-closing as well
+        if (before.selfClosing() != after.selfClosing()
+                && (beforeEmpty || after.selfClosing())
+                && afterEmpty
+                && changes.found(ChangeType.EMPTY_ELEMENT_STYLE_CHANGED)) {
             changes.add(new XmlChange(
                     ChangeType.EMPTY_ELEMENT_STYLE_CHANGED,
-                    path,
+                    path.toString(),
                     before.selfClosing() ? "self-closing" : "expanded",
                     after.selfClosing() ? "self-closing" : "expanded",
                     before,
@@ -143,42 +334,44 @@ public final class XmlDiff {
         }
     }
 
-    private static void compareNamespace(Element before, Element after, String path, List<XmlChange> changes) {
+    private static void compareNamespace(Element before, Element after, Path path, ChangeSink changes) {
         String beforeNs = before.namespaceURI();
         String afterNs = after.namespaceURI();
-        if (!safeEquals(beforeNs, afterNs)) {
-            changes.add(new XmlChange(ChangeType.NAMESPACE_CHANGED, path, beforeNs, afterNs, before, after));
+        if (!safeEquals(beforeNs, afterNs) && changes.found(ChangeType.NAMESPACE_CHANGED)) {
+            changes.add(new XmlChange(ChangeType.NAMESPACE_CHANGED, path.toString(), beforeNs, afterNs, before, after));
         }
     }
 
     // --- Attribute comparison ---
 
-    private static void compareAttributes(Element before, Element after, String path, List<XmlChange> changes) {
-        Map<String, Attribute> beforeAttrs = before.attributeObjects();
-        Map<String, Attribute> afterAttrs = after.attributeObjects();
-
-        for (Map.Entry<String, Attribute> entry : beforeAttrs.entrySet()) {
-            String name = entry.getKey();
-            Attribute beforeAttr = entry.getValue();
-            Attribute afterAttr = afterAttrs.get(name);
-            String attrPath = path + "/@" + name;
+    private static void compareAttributes(Element before, Element after, Path path, ChangeSink changes) {
+        Collection<Attribute> beforeAttrs = before.attributeValues();
+        Collection<Attribute> afterAttrs = after.attributeValues();
 
+        for (Attribute beforeAttr : beforeAttrs) {
+            Attribute afterAttr = after.attributeObject(beforeAttr.name());
             if (afterAttr == null) {
-                changes.add(
-                        new XmlChange(ChangeType.ATTRIBUTE_REMOVED, attrPath, beforeAttr.value(), null, before, after));
+                if (changes.found(ChangeType.ATTRIBUTE_REMOVED)) {
+                    changes.add(new XmlChange(
+                            ChangeType.ATTRIBUTE_REMOVED,
+                            path.attribute(beforeAttr.name()),
+                            beforeAttr.value(),
+                            null,
+                            before,
+                            after));
+                }
             } else {
-                compareAttributeValues(beforeAttr, afterAttr, attrPath, before, after, changes);
+                compareAttributeValues(beforeAttr, afterAttr, path, before, after, changes);
             }
         }
 
-        for (Map.Entry<String, Attribute> entry : afterAttrs.entrySet()) {
-            if (!beforeAttrs.containsKey(entry.getKey())) {
-                String attrPath = path + "/@" + entry.getKey();
+        for (Attribute afterAttr : afterAttrs) {
+            if (before.attributeObject(afterAttr.name()) == null && changes.found(ChangeType.ATTRIBUTE_ADDED)) {
                 changes.add(new XmlChange(
                         ChangeType.ATTRIBUTE_ADDED,
-                        attrPath,
+                        path.attribute(afterAttr.name()),
                         null,
-                        entry.getValue().value(),
+                        afterAttr.value(),
                         before,
                         after));
             }
@@ -186,27 +379,16 @@ public final class XmlDiff {
 
         // Attribute reordering: if the same set of attributes with the same values
         // exists in both elements, detect changes in their relative order.
-        detectAttributeOrderChanges(beforeAttrs, afterAttrs, path, before, after, changes);
+        if (changes.formatting()) {
+            detectAttributeOrderChanges(before, after, path, changes);
+        }
     }
 
-    private static void detectAttributeOrderChanges(
-            Map<String, Attribute> beforeAttrs,
-            Map<String, Attribute> afterAttrs,
-            String path,
-            Element before,
-            Element after,
-            List<XmlChange> changes) {
+    private static void detectAttributeOrderChanges(Element before, Element after, Path path, ChangeSink changes) {
         // We might have different length of lists and / or different attributes, to not double-detect these as order
-        // changes we first filter both
-        // for the same keys.
-        Set<String> commonKeys = new LinkedHashSet<>(beforeAttrs.keySet());
-        commonKeys.retainAll(afterAttrs.keySet());
-
-        // Build ordered lists (keySet of LinkedHashMap is ordered) of common attributes
-        List<String> beforeCommonKeys =
-                beforeAttrs.keySet().stream().filter(commonKeys::contains).collect(Collectors.toList());
-        List<String> afterCommonKeys =
-                afterAttrs.keySet().stream().filter(commonKeys::contains).collect(Collectors.toList());
+        // changes we first filter both for the same keys, keeping their order.
+        List<String> beforeCommonKeys = commonAttributeNames(before, after);
+        List<String> afterCommonKeys = commonAttributeNames(after, before);
 
         if (beforeCommonKeys.equals(afterCommonKeys)) {
             return; // No reordering
@@ -216,11 +398,10 @@ public final class XmlDiff {
         for (String name : beforeCommonKeys) {
             int beforeIndex = beforeCommonKeys.indexOf(name);
             int afterIndex = afterCommonKeys.indexOf(name);
-            if (beforeIndex != afterIndex) {
-                String attrPath = path + "/@" + name;
+            if (beforeIndex != afterIndex && changes.found(ChangeType.ATTRIBUTE_MOVED)) {
                 changes.add(new XmlChange(
                         ChangeType.ATTRIBUTE_MOVED,
-                        attrPath,
+                        path.attribute(name),
                         Integer.toString(beforeIndex),
                         Integer.toString(afterIndex),
                         before,
@@ -229,25 +410,46 @@ public final class XmlDiff {
         }
     }
 
+    /** Lists the names of the attributes of an element that the other element also has, in order. */
+    private static List<String> commonAttributeNames(Element element, Element other) {
+        List<String> names = new ArrayList<>();
+        for (Attribute attribute : element.attributeValues()) {
+            if (other.attributeObject(attribute.name()) != null) {
+                names.add(attribute.name());
+            }
+        }
+        return names;
+    }
+
     private static void compareAttributeValues(
             Attribute before,
             Attribute after,
-            String attrPath,
+            Path path,
             Element beforeParent,
             Element afterParent,
-            List<XmlChange> changes) {
+            ChangeSink changes) {
         // Semantic: compare decoded values
         if (!Objects.equals(before.value(), after.value())) {
-            changes.add(new XmlChange(
-                    ChangeType.ATTRIBUTE_CHANGED, attrPath, before.value(), after.value(), beforeParent, afterParent));
+            if (changes.found(ChangeType.ATTRIBUTE_CHANGED)) {
+                changes.add(new XmlChange(
+                        ChangeType.ATTRIBUTE_CHANGED,
+                        path.attribute(before.name()),
+                        before.value(),
+                        after.value(),
+                        beforeParent,
+                        afterParent));
+            }
+            return;
+        }
+        if (!changes.formatting()) {
             return;
         }
 
         // Formatting: compare quote style
-        if (before.quoteStyle() != after.quoteStyle()) {
+        if (before.quoteStyle() != after.quoteStyle() && changes.found(ChangeType.QUOTE_STYLE_CHANGED)) {
             changes.add(new XmlChange(
                     ChangeType.QUOTE_STYLE_CHANGED,
-                    attrPath,
+                    path.attribute(before.name()),
                     before.quoteStyle().name(),
                     after.quoteStyle().name(),
                     beforeParent,
@@ -255,10 +457,13 @@ public final class XmlDiff {
         }
 
         // Formatting: compare raw value (entity encoding form)
-        if (before.rawValue() != null && after.rawValue() != null && !safeEquals(before.rawValue(), after.rawValue())) {
+        if (before.rawValue() != null
+                && after.rawValue() != null
+                && !safeEquals(before.rawValue(), after.rawValue())
+                && changes.found(ChangeType.ENTITY_FORM_CHANGED)) {
             changes.add(new XmlChange(
                     ChangeType.ENTITY_FORM_CHANGED,
-                    attrPath,
+                    path.attribute(before.name()),
                     before.rawValue(),
                     after.rawValue(),
                     beforeParent,
@@ -266,10 +471,11 @@ public final class XmlDiff {
         }
 
         // Formatting: compare attribute whitespace
-        if (!safeEquals(before.precedingWhitespace(), after.precedingWhitespace())) {
+        if (!safeEquals(before.precedingWhitespace(), after.precedingWhitespace())
+                && changes.found(ChangeType.WHITESPACE_CHANGED)) {
             changes.add(new XmlChange(
                     ChangeType.WHITESPACE_CHANGED,
-                    attrPath,
+                    path.attribute(before.name()),
                     before.precedingWhitespace(),
                     after.precedingWhitespace(),
                     beforeParent,
@@ -279,7 +485,7 @@ public final class XmlDiff {
 
     // --- Text comparison ---
 
-    private static void compareTextContent(Element before, Element after, String path, List<XmlChange> changes) {
+    private static void compareTextContent(Element before, Element after, Path path, ChangeSink changes) {
         List<Text> beforeTexts = getTextNodes(before);
         List<Text> afterTexts = getTextNodes(after);
 
@@ -287,20 +493,24 @@ public final class XmlDiff {
         String afterContent = joinTextContent(afterTexts);
 
         if (!beforeContent.equals(afterContent)) {
-            changes.add(new XmlChange(ChangeType.TEXT_CHANGED, path, beforeContent, afterContent, before, after));
-        } else if (!beforeContent.isEmpty()) {
+            if (changes.found(ChangeType.TEXT_CHANGED)) {
+                changes.add(new XmlChange(
+                        ChangeType.TEXT_CHANGED, path.toString(), beforeContent, afterContent, before, after));
+            }
+        } else if (!beforeContent.isEmpty() && changes.formatting()) {
             // Same decoded content — check raw formatting (entity encoding)
             String beforeRaw = joinRawContent(beforeTexts);
             String afterRaw = joinRawContent(afterTexts);
-            if (!beforeRaw.equals(afterRaw)) {
-                changes.add(new XmlChange(ChangeType.ENTITY_FORM_CHANGED, path, beforeRaw, afterRaw, before, after));
+            if (!beforeRaw.equals(afterRaw) && changes.found(ChangeType.ENTITY_FORM_CHANGED)) {
+                changes.add(new XmlChange(
+                        ChangeType.ENTITY_FORM_CHANGED, path.toString(), beforeRaw, afterRaw, before, after));
             }
         }
     }
 
     // --- Comment comparison ---
 
-    private static void compareComments(Element before, Element after, String path, List<XmlChange> changes) {
+    private static void compareComments(Element before, Element after, Path path, ChangeSink changes) {
         List<Comment> beforeComments = getComments(before);
         List<Comment> afterComments = getComments(after);
 
@@ -310,7 +520,7 @@ public final class XmlDiff {
         for (int i = 0; i < matchCount; i++) {
             Comment bc = beforeComments.get(i);
             Comment ac = afterComments.get(i);
-            if (!Objects.equals(bc.content(), ac.content())) {
+            if (!Objects.equals(bc.content(), ac.content()) && changes.found(ChangeType.COMMENT_CHANGED)) {
                 changes.add(new XmlChange(
                         ChangeType.COMMENT_CHANGED,
                         commentPath(path, i, needsIndex),
@@ -321,7 +531,7 @@ public final class XmlDiff {
             }
         }
 
-        for (int i = matchCount; i < beforeComments.size(); i++) {
+        for (int i = matchCount; i < beforeComments.size() && changes.found(ChangeType.COMMENT_REMOVED); i++) {
             changes.add(new XmlChange(
                     ChangeType.COMMENT_REMOVED,
                     commentPath(path, i, needsIndex),
@@ -331,7 +541,7 @@ public final class XmlDiff {
                     null));
         }
 
-        for (int i = matchCount; i < afterComments.size(); i++) {
+        for (int i = matchCount; i < afterComments.size() && changes.found(ChangeType.COMMENT_ADDED); i++) {
             changes.add(new XmlChange(
                     ChangeType.COMMENT_ADDED,
                     commentPath(path, i, needsIndex),
@@ -343,14 +553,13 @@ public final class XmlDiff {
     }
 
     /** Builds an XPath-like comment path, adding a positional index when multiple comments exist. */
-    private static String commentPath(String path, int index, boolean needsIndex) {
+    private static String commentPath(Path path, int index, boolean needsIndex) {
         return needsIndex ? path + "/comment()[" + (index + 1) + "]" : path + "/comment()";
     }
 
     // --- Processing instruction comparison ---
 
-    private static void compareProcessingInstructions(
-            Element before, Element after, String path, List<XmlChange> changes) {
+    private static void compareProcessingInstructions(Element before, Element after, Path path, ChangeSink changes) {
         List<ProcessingInstruction> beforePIs = getProcessingInstructions(before);
         List<ProcessingInstruction> afterPIs = getProcessingInstructions(after);
 
@@ -362,7 +571,8 @@ public final class XmlDiff {
             ProcessingInstruction ap = afterPIs.get(i);
             String beforeData = normalizeData(bp.data());
             String afterData = normalizeData(ap.data());
-            if (!Objects.equals(bp.target(), ap.target()) || !beforeData.equals(afterData)) {
+            if ((!Objects.equals(bp.target(), ap.target()) || !beforeData.equals(afterData))
+                    && changes.found(ChangeType.PI_CHANGED)) {
                 changes.add(new XmlChange(
                         ChangeType.PI_CHANGED,
                         piPath(path, i, needsIndex),
@@ -373,7 +583,7 @@ public final class XmlDiff {
             }
         }
 
-        for (int i = matchCount; i < beforePIs.size(); i++) {
+        for (int i = matchCount; i < beforePIs.size() && changes.found(ChangeType.PI_REMOVED); i++) {
             changes.add(new XmlChange(
                     ChangeType.PI_REMOVED,
                     piPath(path, i, needsIndex),
@@ -383,7 +593,7 @@ public final class XmlDiff {
                     null));
         }
 
-        for (int i = matchCount; i < afterPIs.size(); i++) {
+        for (int i = matchCount; i < afterPIs.size() && changes.found(ChangeType.PI_ADDED); i++) {
             changes.add(new XmlChange(
                     ChangeType.PI_ADDED,
                     piPath(path, i, needsIndex),
@@ -404,7 +614,7 @@ public final class XmlDiff {
     }
 
     /** Builds an XPath-like processing-instruction path, adding a positional index when multiple PIs exist. */
-    private static String piPath(String path, int index, boolean needsIndex) {
+    private static String piPath(Path path, int index, boolean needsIndex) {
         return needsIndex
                 ? path + "/processing-instruction()[" + (index + 1) + "]"
                 : path + "/processing-instruction()";
@@ -413,146 +623,203 @@ public final class XmlDiff {
     // --- Child element comparison ---
 
     private static void compareChildElements(
-            Element before, Element after, String path, DiffConfig config, List<XmlChange> changes) {
-        List<Element> beforeChildren = before.childElements().collect(Collectors.toList());
-        List<Element> afterChildren = after.childElements().collect(Collectors.toList());
+            Element before, Element after, Path path, DiffConfig config, Hashes hashes, ChangeSink changes) {
+        compareChildElements(
+                before.childElements().collect(Collectors.toList()),
+                after.childElements().collect(Collectors.toList()),
+                path,
+                config,
+                hashes,
+                changes);
+    }
 
+    /** Matches and compares two lists of sibling elements, holding every element of their names. */
+    static void compareChildElements(
+            List<Element> beforeChildren,
+            List<Element> afterChildren,
+            Path path,
+            DiffConfig config,
+            ChangeSink changes) {
+        compareChildElements(beforeChildren, afterChildren, path, config, null, changes);
+    }
+
+    private static void compareChildElements(
+            List<Element> beforeChildren,
+            List<Element> afterChildren,
+            Path path,
+            DiffConfig config,
+            Hashes hashes,
+            ChangeSink changes) {
         if (beforeChildren.isEmpty() && afterChildren.isEmpty()) {
             return;
         }
 
-        MatchResult match = matchChildren(beforeChildren, afterChildren, config);
+        Siblings beforeSiblings = new Siblings(beforeChildren);
+        Siblings afterSiblings = new Siblings(afterChildren);
+        MatchResult match = matchChildren(beforeSiblings, afterSiblings, config);
 
         // Report removed elements
-        for (int idx : match.removed) {
-            Element elem = beforeChildren.get(idx);
-            String childPath = computeChildPath(path, elem.name(), beforeChildren, idx);
-            addElementRemoved(changes, childPath, elem);
+        for (int i = 0; i < match.removed.size() && !changes.done(); i++) {
+            int idx = match.removed.get(i);
+            addElementRemoved(changes, beforeSiblings.path(path, idx), beforeChildren.get(idx));
         }
 
         // Report added elements
-        for (int idx : match.added) {
-            Element elem = afterChildren.get(idx);
-            String childPath = computeChildPath(path, elem.name(), afterChildren, idx);
-            addElementAdded(changes, childPath, elem);
+        for (int i = 0; i < match.added.size() && !changes.done(); i++) {
+            int idx = match.added.get(i);
+            addElementAdded(changes, afterSiblings.path(path, idx), afterChildren.get(idx));
         }
 
         // Process matched elements — detect moves and recurse
-        for (int[] pair : match.matched) {
-            Element beforeChild = beforeChildren.get(pair[0]);
-            Element afterChild = afterChildren.get(pair[1]);
-            String childPath = computeChildPath(path, beforeChild.name(), beforeChildren, pair[0]);
-
-            // Detect moves (only for key-matched elements where position changed)
-            if (pair[2] == 1) {
-                int beforePos = sameNamePosition(beforeChildren, pair[0], match.matchedBeforeSet);
-                int afterPos = sameNamePosition(afterChildren, pair[1], match.matchedAfterSet);
-                if (beforePos != afterPos) {
-                    changes.add(new XmlChange(
-                            ChangeType.ELEMENT_MOVED,
-                            childPath,
-                            String.valueOf(beforePos + 1),
-                            String.valueOf(afterPos + 1),
-                            beforeChild,
-                            afterChild));
-                }
-            }
+        MatchedPairs pairs = new MatchedPairs(path, beforeSiblings, afterSiblings, match, config, hashes);
+        int[] ranges = config.isParallel() && changes.complete() ? pairs.parallelRanges() : null;
+        if (ranges != null) {
+            compareInParallel(pairs, ranges, config.pool(), changes);
+        } else {
+            pairs.compare(0, match.matched.size(), changes);
+        }
+    }
 
-            compareElements(beforeChild, afterChild, childPath, config, changes);
+    /**
+     * Compares consecutive ranges of matched pairs into separate change lists on the
+     * fork/join pool, then appends the lists in order.
+     */
+    private static void compareInParallel(MatchedPairs pairs, int[] ranges, ForkJoinPool pool, ChangeSink changes) {
+        List<ChangeList> rangeChanges = new ArrayList<>(Collections.nCopies(ranges.length - 1, null));
+        MatchedRangeTask task = new MatchedRangeTask(pairs, ranges, rangeChanges, 0, ranges.length - 1);
+        if (ForkJoinTask.getPool() == pool) {
+            task.invoke();
+        } else {
+            pool.invoke(task);
+        }
+        for (ChangeList list : rangeChanges) {
+            for (XmlChange change : list.list) {
+                changes.add(change);
+            }
         }
     }
 
     // --- Child matching algorithm ---
 
+    /**
+     * Matches two lists of sibling elements like {@link #diff(Document, Document, DiffConfig)}
+     * does, returning for each element of the first list the index of its match in the second,
+     * or -1 if it has none. Unless {@code byPosition} is set, elements with identity keys are
+     * only matched by key, and elements lacking them only with elements lacking them too.
+     */
+    static int[] matchElements(List<Element> before, List<Element> after, DiffConfig config, boolean byPosition) {
+        MatchResult match = matchChildren(new Siblings(before), new Siblings(after), config);
+        int[] matches = new int[before.size()];
+        Arrays.fill(matches, -1);
+        for (int[] pair : match.matched) {
+            if (byPosition
+                    || pair[2] == 1
+                    || !hasKey(before.get(pair[0]), config) && !hasKey(after.get(pair[1]), config)) {
+                matches[pair[0]] = pair[1];
+            }
+        }
+        return matches;
+    }
+
+    private static boolean hasKey(Element element, DiffConfig config) {
+        List<String> keys = config.matchKeysFor(element.name());
+        return !keys.isEmpty() && computeKeySignature(element, keys) != null;
+    }
+
     /**
      * Two-phase child matching: first by configured identity keys, then positionally by name.
      * Each matched entry is {@code int[]{beforeIdx, afterIdx, matchType}} where matchType
      * 1 = key-matched, 0 = positional.
      */
-    private static MatchResult matchChildren(
-            List<Element> beforeChildren, List<Element> afterChildren, DiffConfig config) {
-        Set<Integer> matchedBefore = new LinkedHashSet<>();
-        Set<Integer> matchedAfter = new LinkedHashSet<>();
+    private static MatchResult matchChildren(Siblings beforeSiblings, Siblings afterSiblings, DiffConfig config) {
+        boolean[] matchedBefore = new boolean[beforeSiblings.size()];
+        boolean[] matchedAfter = new boolean[afterSiblings.size()];
         List<int[]> matched = new ArrayList<>();
 
-        matchByKeys(beforeChildren, afterChildren, config, matchedBefore, matchedAfter, matched);
-        matchByPosition(beforeChildren, afterChildren, matchedBefore, matchedAfter, matched);
+        boolean keyMatched = matchByKeys(beforeSiblings, afterSiblings, config, matchedBefore, matchedAfter, matched);
+        matchByPosition(beforeSiblings, afterSiblings, matchedBefore, matchedAfter, matched);
 
-        List<Integer> removed = collectUnmatched(beforeChildren.size(), matchedBefore);
-        List<Integer> added = collectUnmatched(afterChildren.size(), matchedAfter);
+        List<Integer> removed = collectUnmatched(matchedBefore);
+        List<Integer> added = collectUnmatched(matchedAfter);
 
-        return new MatchResult(matched, removed, added, matchedBefore, matchedAfter);
+        return new MatchResult(matched, removed, added, matchedBefore, matchedAfter, keyMatched);
     }
 
-    /** Phase 1: matches children by configured identity keys (e.g., groupId+artifactId for dependencies). */
-    private static void matchByKeys(
-            List<Element> beforeChildren,
-            List<Element> afterChildren,
+    /**
+     * Phase 1: matches children by configured identity keys (e.g., groupId+artifactId for dependencies).
+     *
+     * <p>The key signatures of the after-children are computed once and indexed by name and
+     * signature, each entry holding the after-indices in document order, so that every
+     * before-child is matched to the first unmatched after-child with the same identity
+     * in constant time.</p>
+     *
+     * @return whether any children were matched
+     */
+    private static boolean matchByKeys(
+            Siblings beforeSiblings,
+            Siblings afterSiblings,
             DiffConfig config,
-            Set<Integer> matchedBefore,
-            Set<Integer> matchedAfter,
+            boolean[] matchedBefore,
+            boolean[] matchedAfter,
             List<int[]> matched) {
-        for (int i = 0; i < beforeChildren.size(); i++) {
-            if (matchedBefore.contains(i)) {
-                // already matched — skip
-            } else {
-                tryKeyMatch(beforeChildren.get(i), i, afterChildren, config, matchedBefore, matchedAfter, matched);
+        Map<String, Deque<Integer>> afterByKey = null;
+        boolean any = false;
+        for (int i = 0; i < beforeSiblings.size(); i++) {
+            String name = beforeSiblings.name(i);
+            List<String> keys = config.matchKeysFor(name);
+            if (keys.isEmpty()) {
+                continue;
+            }
+            String keySignature = computeKeySignature(beforeSiblings.element(i), keys);
+            if (keySignature == null) {
+                continue;
+            }
+            if (afterByKey == null) {
+                afterByKey = indexByKey(afterSiblings, config);
+            }
+            Deque<Integer> candidates = afterByKey.get(keyOf(name, keySignature));
+            Integer match = candidates != null ? candidates.poll() : null;
+            if (match != null) {
+                matched.add(new int[] {i, match, 1}); // 1 = key-matched
+                matchedBefore[i] = true;
+                matchedAfter[match] = true;
+                any = true;
             }
         }
+        return any;
     }
 
-    /** Attempts to find a key-based match for a single before-child in the after-children list. */
-    private static void tryKeyMatch(
-            Element bc,
-            int beforeIndex,
-            List<Element> afterChildren,
-            DiffConfig config,
-            Set<Integer> matchedBefore,
-            Set<Integer> matchedAfter,
-            List<int[]> matched) {
-        List<String> keys = config.matchKeysFor(bc.name());
-        if (keys.isEmpty()) {
-            return;
-        }
-        String keySignature = computeKeySignature(bc, keys);
-        if (keySignature == null) {
-            return;
-        }
-        int match = findKeyMatch(afterChildren, bc.name(), keySignature, keys, matchedAfter);
-        if (match >= 0) {
-            matched.add(new int[] {beforeIndex, match, 1}); // 1 = key-matched
-            matchedBefore.add(beforeIndex);
-            matchedAfter.add(match);
-        }
-    }
-
-    /** Returns the index of the first unmatched after-child with the same name and key signature, or -1. */
-    private static int findKeyMatch(
-            List<Element> afterChildren,
-            String name,
-            String keySignature,
-            List<String> keys,
-            Set<Integer> matchedAfter) {
-        for (int j = 0; j < afterChildren.size(); j++) {
-            if (!matchedAfter.contains(j) && name.equals(afterChildren.get(j).name())) {
-                String afterSig = computeKeySignature(afterChildren.get(j), keys);
-                if (keySignature.equals(afterSig)) {
-                    return j;
+    /** Indexes the children having a key signature by name and signature, in document order. */
+    private static Map<String, Deque<Integer>> indexByKey(Siblings siblings, DiffConfig config) {
+        Map<String, Deque<Integer>> index = new HashMap<>();
+        for (int j = 0; j < siblings.size(); j++) {
+            String name = siblings.name(j);
+            List<String> keys = config.matchKeysFor(name);
+            if (!keys.isEmpty()) {
+                String keySignature = computeKeySignature(siblings.element(j), keys);
+                if (keySignature != null) {
+                    index.computeIfAbsent(keyOf(name, keySignature), k -> new ArrayDeque<>())
+                            .add(j);
                 }
             }
         }
-        return -1;
+        return index;
+    }
+
+    /** Combines an element name and a key signature; names cannot contain the NUL separator. */
+    private static String keyOf(String name, String keySignature) {
+        return name + '\0' + keySignature;
     }
 
     /** Phase 2: matches remaining unmatched children positionally among same-name siblings. */
     private static void matchByPosition(
-            List<Element> beforeChildren,
-            List<Element> afterChildren,
-            Set<Integer> matchedBefore,
-            Set<Integer> matchedAfter,
+            Siblings beforeSiblings,
+            Siblings afterSiblings,
+            boolean[] matchedBefore,
+            boolean[] matchedAfter,
             List<int[]> matched) {
-        Map<String, List<Integer>> remainingBefore = groupByName(beforeChildren, matchedBefore);
-        Map<String, List<Integer>> remainingAfter = groupByName(afterChildren, matchedAfter);
+        Map<String, List<Integer>> remainingBefore = groupByName(beforeSiblings, matchedBefore);
+        Map<String, List<Integer>> remainingAfter = groupByName(afterSiblings, matchedAfter);
 
         for (Map.Entry<String, List<Integer>> entry : remainingBefore.entrySet()) {
             List<Integer> beforeIndices = entry.getValue();
@@ -561,16 +828,16 @@ public final class XmlDiff {
             int matchCount = Math.min(beforeIndices.size(), afterIndices.size());
             for (int k = 0; k < matchCount; k++) {
                 matched.add(new int[] {beforeIndices.get(k), afterIndices.get(k), 0}); // 0 = positional
-                matchedBefore.add(beforeIndices.get(k));
-                matchedAfter.add(afterIndices.get(k));
+                matchedBefore[beforeIndices.get(k)] = true;
+                matchedAfter[afterIndices.get(k)] = true;
             }
         }
     }
 
-    private static List<Integer> collectUnmatched(int size, Set<Integer> matched) {
+    private static List<Integer> collectUnmatched(boolean[] matched) {
         List<Integer> unmatched = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            if (!matched.contains(i)) {
+        for (int i = 0; i < matched.length; i++) {
+            if (!matched[i]) {
                 unmatched.add(i);
             }
         }
@@ -598,49 +865,17 @@ public final class XmlDiff {
         return sb.toString();
     }
 
-    private static Map<String, List<Integer>> groupByName(List<Element> elements, Set<Integer> excluded) {
+    private static Map<String, List<Integer>> groupByName(Siblings siblings, boolean[] excluded) {
         Map<String, List<Integer>> grouped = new LinkedHashMap<>();
-        for (int i = 0; i < elements.size(); i++) {
-            if (excluded.contains(i)) {
+        for (int i = 0; i < siblings.size(); i++) {
+            if (excluded[i]) {
                 continue;
             }
-            grouped.computeIfAbsent(elements.get(i).name(), k -> new ArrayList<>())
-                    .add(i);
+            grouped.computeIfAbsent(siblings.name(i), k -> new ArrayList<>()).add(i);
         }
         return grouped;
     }
 
-    /**
-     * Computes the 0-based position of an element among matched same-name siblings.
-     */
-    private static int sameNamePosition(List<Element> children, int index, Set<Integer> matchedIndices) {
-        String name = children.get(index).name();
-        int pos = 0;
-        for (int i = 0; i < index; i++) {
-            if (matchedIndices.contains(i) && children.get(i).name().equals(name)) {
-                pos++;
-            }
-        }
-        return pos;
-    }
-
-    // --- Path helpers ---
-
-    private static String computeChildPath(String parentPath, String name, List<Element> siblings, int index) {
-        long sameNameCount =
-                siblings.stream().filter(e -> e.name().equals(name)).count();
-        if (sameNameCount > 1) {
-            int pos = 1;
-            for (int i = 0; i < index; i++) {
-                if (siblings.get(i).name().equals(name)) {
-                    pos++;
-                }
-            }
-            return parentPath + "/" + name + "[" + pos + "]";
-        }
-        return parentPath + "/" + name;
-    }
-
     // --- Node collection helpers ---
 
     private static List<Text> getTextNodes(Element element) {
@@ -682,15 +917,21 @@ public final class XmlDiff {
 
     // --- Change creation helpers ---
 
-    private static void addElementAdded(List<XmlChange> changes, String path, Element element) {
-        changes.add(new XmlChange(ChangeType.ELEMENT_ADDED, path, null, elementSummary(element), null, element));
+    static void addElementAdded(ChangeSink changes, Path path, Element element) {
+        if (changes.found(ChangeType.ELEMENT_ADDED)) {
+            changes.add(new XmlChange(
+                    ChangeType.ELEMENT_ADDED, path.toString(), null, elementSummary(element), null, element));
+        }
     }
 
-    private static void addElementRemoved(List<XmlChange> changes, String path, Element element) {
-        changes.add(new XmlChange(ChangeType.ELEMENT_REMOVED, path, elementSummary(element), null, element, null));
+    static void addElementRemoved(ChangeSink changes, Path path, Element element) {
+        if (changes.found(ChangeType.ELEMENT_REMOVED)) {
+            changes.add(new XmlChange(
+                    ChangeType.ELEMENT_REMOVED, path.toString(), elementSummary(element), null, element, null));
+        }
     }
 
-    private static String elementSummary(Element element) {
+    static String elementSummary(Element element) {
         String text = element.textContent();
         if (text != null && !text.trim().isEmpty()) {
             return text.trim();
@@ -706,6 +947,404 @@ public final class XmlDiff {
         return sa.equals(sb);
     }
 
+    /**
+     * The structural hashes of both documents, used to skip identical subtrees and to size
+     * parallel tasks. When only semantic changes are looked for, subtrees are identical as
+     * soon as their semantic hashes are.
+     */
+    private static final class Hashes {
+        private final SubtreeHashes before;
+        private final SubtreeHashes after;
+        private final boolean skipIdentical;
+        private final boolean semanticOnly;
+
+        Hashes(Document before, Document after, boolean skipIdentical, boolean semanticOnly) {
+            this.before = before.subtreeHashes();
+            this.after = after.subtreeHashes();
+            this.skipIdentical = skipIdentical;
+            this.semanticOnly = semanticOnly;
+        }
+
+        boolean identical(Element beforeElement, Element afterElement) {
+            if (!skipIdentical) {
+                return false;
+            }
+            return semanticOnly
+                    ? before.sameSemantics(beforeElement, after, afterElement)
+                    : before.sameSubtree(beforeElement, after, afterElement);
+        }
+
+        /** Returns the number of elements to compare for a matched pair, none if it is skipped. */
+        int cost(Element beforeElement, Element afterElement) {
+            return identical(beforeElement, afterElement) ? 0 : before.size(beforeElement) + after.size(afterElement);
+        }
+    }
+
+    /**
+     * The matched children of a pair of elements, compared one by one: each pair may yield
+     * a move, followed by the changes within the pair.
+     */
+    private static final class MatchedPairs {
+        private final Path path;
+        private final Siblings beforeSiblings;
+        private final Siblings afterSiblings;
+        private final List<int[]> matched;
+        private final DiffConfig config;
+        private final Hashes hashes;
+        // Positions among matched same-name siblings, only needed to detect moves of key-matched elements
+        private final int[] beforePositions;
+        private final int[] afterPositions;
+
+        MatchedPairs(
+                Path path,
+                Siblings beforeSiblings,
+                Siblings afterSiblings,
+                MatchResult match,
+                DiffConfig config,
+                Hashes hashes) {
+            this.path = path;
+            this.beforeSiblings = beforeSiblings;
+            this.afterSiblings = afterSiblings;
+            this.matched = match.matched;
+            this.config = config;
+            this.hashes = hashes;
+            this.beforePositions = match.keyMatched ? beforeSiblings.positionsAmong(match.matchedBefore) : null;
+            this.afterPositions = match.keyMatched ? afterSiblings.positionsAmong(match.matchedAfter) : null;
+        }
+
+        /**
+         * Splits the pairs into consecutive ranges holding at least {@link #PARALLEL_TASK_SIZE}
+         * elements to compare each, returning the range boundaries, or null if there are too
+         * few elements to compare for a parallel comparison to pay off.
+         */
+        int[] parallelRanges() {
+            List<Integer> boundaries = new ArrayList<>();
+            boundaries.add(0);
+            int total = 0;
+            int current = 0;
+            for (int i = 0; i < matched.size(); i++) {
+                int[] pair = matched.get(i);
+                int cost = hashes.cost(beforeSiblings.element(pair[0]), afterSiblings.element(pair[1]));
+                total += cost;
+                current += cost;
+                if (current >= PARALLEL_TASK_SIZE && i + 1 < matched.size()) {
+                    boundaries.add(i + 1);
+                    current = 0;
+                }
+            }
+            if (total < PARALLEL_THRESHOLD || boundaries.size() < 2) {
+                return null;
+            }
+            boundaries.add(matched.size());
+            int[] ranges = new int[boundaries.size()];
+            for (int i = 0; i < ranges.length; i++) {
+                ranges[i] = boundaries.get(i);
+            }
+            return ranges;
+        }
+
+        /** Compares the pairs {@code [from, to)}, unless the sink is done first. */
+        void compare(int from, int to, ChangeSink changes) {
+            for (int i = from; i < to && !changes.done(); i++) {
+                int[] pair = matched.get(i);
+                Element beforeChild = beforeSiblings.element(pair[0]);
+                Element afterChild = afterSiblings.element(pair[1]);
+                Path childPath = beforeSiblings.path(path, pair[0]);
+
+                // Detect moves (only for key-matched elements where position changed)
+                if (pair[2] == 1) {
+                    int beforePos = beforePositions[pair[0]];
+                    int afterPos = afterPositions[pair[1]];
+                    if (beforePos != afterPos && changes.found(ChangeType.ELEMENT_MOVED)) {
+                        changes.add(new XmlChange(
+                                ChangeType.ELEMENT_MOVED,
+                                childPath.toString(),
+                                String.valueOf(beforePos + 1),
+                                String.valueOf(afterPos + 1),
+                                beforeChild,
+                                afterChild));
+                    }
+                }
+
+                compareElements(beforeChild, afterChild, childPath, config, hashes, changes);
+            }
+        }
+    }
+
+    /**
+     * Compares the matched pairs of the ranges {@code [from, to)} into their change lists,
+     * splitting the ranges in halves until a single range remains.
+     */
+    @SuppressWarnings("serial")
+    private static final class MatchedRangeTask extends RecursiveAction {
+        private final MatchedPairs pairs;
+        private final int[] ranges;
+        private final List<ChangeList> rangeChanges;
+        private final int from;
+        private final int to;
+
+        MatchedRangeTask(MatchedPairs pairs, int[] ranges, List<ChangeList> rangeChanges, int from, int to) {
+            this.pairs = pairs;
+            this.ranges = ranges;
+            this.rangeChanges = rangeChanges;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new MatchedRangeTask(pairs, ranges, rangeChanges, from, middle),
+                        new MatchedRangeTask(pairs, ranges, rangeChanges, middle, to));
+                return;
+            }
+            ChangeList changes = new ChangeList(Integer.MAX_VALUE);
+            pairs.compare(ranges[from], ranges[from + 1], changes);
+            rangeChanges.set(from, changes);
+        }
+    }
+
+    /**
+     * The child elements of one side of a comparison, with their names and their 1-based
+     * positions among same-name siblings computed in a single pass.
+     */
+    static final class Siblings {
+        private final List<Element> elements;
+        private final String[] names;
+        private final int[] sameNamePositions;
+        private final Map<String, int[]> nameCounts = new HashMap<>();
+
+        Siblings(List<Element> elements) {
+            this.elements = elements;
+            this.names = new String[elements.size()];
+            this.sameNamePositions = new int[elements.size()];
+            for (int i = 0; i < names.length; i++) {
+                String name = elements.get(i).name();
+                names[i] = name;
+                sameNamePositions[i] = ++nameCounts.computeIfAbsent(name, k -> new int[1])[0];
+            }
+        }
+
+        int size() {
+            return names.length;
+        }
+
+        Element element(int index) {
+            return elements.get(index);
+        }
+
+        String name(int index) {
+            return names[index];
+        }
+
+        /** Returns the path of a child, with a positional index when it has same-name siblings. */
+        Path path(Path parentPath, int index) {
+            String name = names[index];
+            return new Path(parentPath, name, nameCounts.get(name)[0] > 1 ? sameNamePositions[index] : 0);
+        }
+
+        /**
+         * Computes the 0-based position of each element among the included same-name siblings
+         * preceding it.
+         */
+        int[] positionsAmong(boolean[] included) {
+            int[] positions = new int[names.length];
+            Map<String, int[]> counts = new HashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                int[] count = counts.computeIfAbsent(names[i], k -> new int[1]);
+                positions[i] = count[0];
+                if (included[i]) {
+                    count[0]++;
+                }
+            }
+            return positions;
+        }
+    }
+
+    /**
+     * The path of a compared element, turned into a string only once a change under it is
+     * reported.
+     */
+    static final class Path {
+        private final Path parent;
+        private final String name;
+        /** The 1-based position among same-name siblings, or 0 if the element has none */
+        private final int position;
+        // May be computed concurrently by parallel tasks, which build equal strings
+        private String string;
+
+        Path(Path parent, String name, int position) {
+            this.parent = parent;
+            this.name = name;
+            this.position = position;
+        }
+
+        String attribute(String attributeName) {
+            return toString() + "/@" + attributeName;
+        }
+
+        @Override
+        public String toString() {
+            String s = string;
+            if (s == null) {
+                StringBuilder sb = new StringBuilder();
+                if (parent != null) {
+                    sb.append(parent);
+                }
+                sb.append('/').append(name);
+                if (position > 0) {
+                    sb.append('[').append(position).append(']');
+                }
+                s = sb.toString();
+                string = s;
+            }
+            return s;
+        }
+    }
+
+    /**
+     * Receives the changes found by a comparison. A change is only built once the sink has
+     * accepted its type, and the comparison stops once the sink is done.
+     */
+    abstract static class ChangeSink {
+
+        /** Records that a change of the given type was found, returning whether to build and add it. */
+        abstract boolean found(ChangeType type);
+
+        abstract void add(XmlChange change);
+
+        /** Returns whether no more changes are wanted. */
+        abstract boolean done();
+
+        /** Returns whether formatting-only changes are looked for. */
+        boolean formatting() {
+            return true;
+        }
+
+        /** Returns whether every change is wanted, so that the comparison may be split into parallel tasks. */
+        boolean complete() {
+            return false;
+        }
+    }
+
+    /** Collects changes into a list, up to a limit. */
+    private static final class ChangeList extends ChangeSink {
+        private final List<XmlChange> list = new ArrayList<>();
+        private final int limit;
+
+        ChangeList(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        boolean found(ChangeType type) {
+            return list.size() < limit;
+        }
+
+        @Override
+        void add(XmlChange change) {
+            list.add(change);
+        }
+
+        @Override
+        boolean done() {
+            return list.size() >= limit;
+        }
+
+        @Override
+        boolean complete() {
+            return limit == Integer.MAX_VALUE;
+        }
+    }
+
+    /** Passes changes to a listener until it returns false. */
+    private static final class ChangeListener extends ChangeSink {
+        private final Predicate<? super XmlChange> listener;
+        private boolean stopped;
+
+        ChangeListener(Predicate<? super XmlChange> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        boolean found(ChangeType type) {
+            return !stopped;
+        }
+
+        @Override
+        void add(XmlChange change) {
+            stopped = !listener.test(change);
+        }
+
+        @Override
+        boolean done() {
+            return stopped;
+        }
+    }
+
+    /**
+     * Returns the first semantic change between two matched elements and their subtrees, or
+     * null if they are equivalent.
+     */
+    static XmlChange firstSemanticChange(Element before, Element after, Path path, DiffConfig config) {
+        FirstSemanticChange changes = new FirstSemanticChange();
+        compareElements(before, after, path, config, changes);
+        return changes.change;
+    }
+
+    /** Keeps the first semantic change. */
+    private static final class FirstSemanticChange extends ChangeSink {
+        private XmlChange change;
+
+        @Override
+        boolean found(ChangeType type) {
+            return change == null && type.isSemantic();
+        }
+
+        @Override
+        void add(XmlChange change) {
+            this.change = change;
+        }
+
+        @Override
+        boolean done() {
+            return change != null;
+        }
+
+        @Override
+        boolean formatting() {
+            return false;
+        }
+    }
+
+    /** Looks for a single semantic change, without building it. */
+    private static final class SemanticCheck extends ChangeSink {
+        private boolean semanticChange;
+
+        @Override
+        boolean found(ChangeType type) {
+            semanticChange |= type.isSemantic();
+            return false;
+        }
+
+        @Override
+        void add(XmlChange change) {
+            throw new IllegalStateException("No changes are built");
+        }
+
+        @Override
+        boolean done() {
+            return semanticChange;
+        }
+
+        @Override
+        boolean formatting() {
+            return false;
+        }
+    }
+
     /**
      * Internal result of the child matching algorithm.
      */
@@ -713,20 +1352,23 @@ public final class XmlDiff {
         private final List<int[]> matched; // Each entry: [beforeIdx, afterIdx, keyMatched (1=key, 0=positional)]
         private final List<Integer> removed;
         private final List<Integer> added;
-        private final Set<Integer> matchedBeforeSet;
-        private final Set<Integer> matchedAfterSet;
+        private final boolean[] matchedBefore;
+        private final boolean[] matchedAfter;
+        private final boolean keyMatched;
 
         MatchResult(
                 List<int[]> matched,
                 List<Integer> removed,
                 List<Integer> added,
-                Set<Integer> matchedBeforeSet,
-                Set<Integer> matchedAfterSet) {
-            this.matched = Collections.unmodifiableList(new ArrayList<>(matched));
-            this.removed = Collections.unmodifiableList(new ArrayList<>(removed));
-            this.added = Collections.unmodifiableList(new ArrayList<>(added));
-            this.matchedBeforeSet = Collections.unmodifiableSet(new LinkedHashSet<>(matchedBeforeSet));
-            this.matchedAfterSet = Collections.unmodifiableSet(new LinkedHashSet<>(matchedAfterSet));
+                boolean[] matchedBefore,
+                boolean[] matchedAfter,
+                boolean keyMatched) {
+            this.matched = matched;
+            this.removed = removed;
+            this.added = added;
+            this.matchedBefore = matchedBefore;
+            this.matchedAfter = matchedAfter;
+            this.keyMatched = keyMatched;
         }
     }
 }
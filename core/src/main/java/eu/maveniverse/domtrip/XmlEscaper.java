@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+/**
+ * Shared escaping and unescaping of XML character data and attribute values.
+ *
+ * <p>Escaping scans the input against a precomputed table of the characters that need
+ * an entity in the given context and copies the runs between them in bulk. Every
+ * operation has a variant appending to a {@link StringBuilder}, which allocates nothing
+ * beyond the growth of the builder, and a {@link String} variant that returns its input
+ * unchanged when there is nothing to escape or unescape.</p>
+ *
+ * <p>Escaping replaces {@code &}, {@code <} and {@code >} in text content, plus the
+ * delimiting quote character in attribute values. Unescaping decodes the five predefined
+ * entities and decimal or hexadecimal character references to valid XML characters in
+ * a single pass, so that an escaped reference such as {@code &#38;lt;} yields
+ * {@code &lt;}. Anything else, including unknown entities, is kept verbatim.</p>
+ */
+final class XmlEscaper {
+
+    /** Escape context for element text content */
+    private static final int TEXT = 1;
+    /** Escape context for attribute values delimited by double quotes */
+    private static final int DOUBLE_QUOTED = 2;
+    /** Escape context for attribute values delimited by single quotes */
+    private static final int SINGLE_QUOTED = 4;
+
+    /** Bit set of the escape contexts in which each ASCII character must be escaped */
+    private static final byte[] SPECIAL = new byte[128];
+    /** Entity replacing each special ASCII character */
+    private static final String[] ENTITIES = new String[128];
+
+    static {
+        SPECIAL['&'] = TEXT | DOUBLE_QUOTED | SINGLE_QUOTED;
+        SPECIAL['<'] = TEXT | DOUBLE_QUOTED | SINGLE_QUOTED;
+        SPECIAL['>'] = TEXT | DOUBLE_QUOTED | SINGLE_QUOTED;
+        SPECIAL['"'] = DOUBLE_QUOTED;
+        SPECIAL['\''] = SINGLE_QUOTED;
+        ENTITIES['&'] = "&amp;";
+        ENTITIES['<'] = "&lt;";
+        ENTITIES['>'] = "&gt;";
+        ENTITIES['"'] = "&quot;";
+        ENTITIES['\''] = "&apos;";
+    }
+
+    private XmlEscaper() {}
+
+    /**
+     * Escapes text content.
+     *
+     * @param text the text to escape, null is treated as empty
+     * @return the escaped text, or the input itself if nothing needed escaping
+     */
+    static String escapeText(String text) {
+        return escape(text, TEXT);
+    }
+
+    /**
+     * Escapes text content, appending the result to the given builder.
+     *
+     * @param text the text to escape, null is treated as empty
+     * @param sb the builder to append to
+     */
+    static void escapeText(String text, StringBuilder sb) {
+        escape(text, TEXT, sb);
+    }
+
+    /**
+     * Escapes an attribute value delimited by the given quote character.
+     *
+     * @param value the value to escape, null is treated as empty
+     * @param quoteChar the delimiting quote character, only this quote is escaped
+     * @return the escaped value, or the input itself if nothing needed escaping
+     */
+    static String escapeAttribute(String value, char quoteChar) {
+        return escape(value, attributeContext(quoteChar));
+    }
+
+    /**
+     * Escapes an attribute value delimited by the given quote character, appending the
+     * result to the given builder.
+     *
+     * @param value the value to escape, null is treated as empty
+     * @param quoteChar the delimiting quote character, only this quote is escaped
+     * @param sb the builder to append to
+     */
+    static void escapeAttribute(String value, char quoteChar, StringBuilder sb) {
+        escape(value, attributeContext(quoteChar), sb);
+    }
+
+    private static int attributeContext(char quoteChar) {
+        return quoteChar == '\'' ? SINGLE_QUOTED : DOUBLE_QUOTED;
+    }
+
+    private static String escape(String text, int context) {
+        if (text == null) {
+            return "";
+        }
+        int first = indexOfSpecial(text, 0, context);
+        if (first < 0) {
+            return text; // No escaping needed — common case
+        }
+        StringBuilder sb = new StringBuilder(text.length() + 16);
+        escapeFrom(text, first, context, sb);
+        return sb.toString();
+    }
+
+    private static void escape(String text, int context, StringBuilder sb) {
+        if (text == null) {
+            return;
+        }
+        int first = indexOfSpecial(text, 0, context);
+        if (first < 0) {
+            sb.append(text);
+        } else {
+            escapeFrom(text, first, context, sb);
+        }
+    }
+
+    /**
+     * Appends the text, escaping the special character at {@code special} and every later one.
+     */
+    private static void escapeFrom(String text, int special, int context, StringBuilder sb) {
+        int runStart = 0;
+        while (special >= 0) {
+            sb.append(text, runStart, special).append(ENTITIES[text.charAt(special)]);
+            runStart = special + 1;
+            special = indexOfSpecial(text, runStart, context);
+        }
+        sb.append(text, runStart, text.length());
+    }
+
+    private static int indexOfSpecial(String text, int from, int context) {
+        for (int i = from, len = text.length(); i < len; i++) {
+            char c = text.charAt(i);
+            if (c < 128 && (SPECIAL[c] & context) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes predefined entities and character references.
+     *
+     * @param text the text to unescape, null is treated as empty
+     * @return the decoded text, or the input itself if it contains no {@code &}
+     */
+    static String unescape(String text) {
+        if (text == null) {
+            return "";
+        }
+        // Fast path: if no '&' exists, no unescaping is needed.
+        // This is the common case for most element text content.
+        int first = text.indexOf('&');
+        if (first < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        sb.append(text, 0, first);
+        unescapeFrom(text, first, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Decodes predefined entities and character references, appending the result to the given builder.
+     *
+     * @param text the text to unescape, null is treated as empty
+     * @param sb the builder to append to
+     */
+    static void unescape(String text, StringBuilder sb) {
+        if (text == null) {
+            return;
+        }
+        int first = text.indexOf('&');
+        if (first < 0) {
+            sb.append(text);
+            return;
+        }
+        sb.append(text, 0, first);
+        unescapeFrom(text, first, sb);
+    }
+
+    /**
+     * Single-pass scanner resolving references starting at {@code amp}, which holds an {@code &}.
+     * Numeric references and named entities are resolved in the same pass to avoid re-decoding.
+     */
+    private static void unescapeFrom(String text, int amp, StringBuilder sb) {
+        int runStart = amp;
+        int i = amp;
+        while (i >= 0) {
+            int consumed = resolveReference(text, i, sb, runStart);
+            if (consumed > 0) {
+                i += consumed;
+                runStart = i;
+            } else {
+                i++;
+            }
+            i = text.indexOf('&', i);
+        }
+        sb.append(text, runStart, text.length());
+    }
+
+    /**
+     * Resolves the reference starting at the {@code &} at {@code start}. If it is a known entity or
+     * a valid character reference, appends the pending literal run and the decoded character.
+     *
+     * @return the number of characters consumed, or 0 if no reference was resolved
+     */
+    private static int resolveReference(String text, int start, StringBuilder sb, int runStart) {
+        if (start + 2 < text.length() && text.charAt(start + 1) == '#') {
+            int consumed = resolveNumericReference(text, start, sb, runStart);
+            if (consumed > 0) {
+                return consumed;
+            }
+        }
+        char decoded;
+        int length;
+        if (text.startsWith("&lt;", start)) {
+            decoded = '<';
+            length = 4;
+        } else if (text.startsWith("&gt;", start)) {
+            decoded = '>';
+            length = 4;
+        } else if (text.startsWith("&quot;", start)) {
+            decoded = '"';
+            length = 6;
+        } else if (text.startsWith("&apos;", start)) {
+            decoded = '\'';
+            length = 6;
+        } else if (text.startsWith("&amp;", start)) {
+            decoded = '&';
+            length = 5;
+        } else {
+            return 0;
+        }
+        sb.append(text, runStart, start).append(decoded);
+        return length;
+    }
+
+    /**
+     * Resolves a decimal ({@code &#65;}) or hexadecimal ({@code &#x41;}) character reference,
+     * accepting the same digits and optional sign as {@link Integer#parseInt(String, int)}.
+     */
+    private static int resolveNumericReference(String text, int start, StringBuilder sb, int runStart) {
+        int semicolon = text.indexOf(';', start + 2);
+        if (semicolon < 0) {
+            return 0;
+        }
+        int i = start + 2;
+        int radix = 10;
+        if (text.charAt(i) == 'x' || text.charAt(i) == 'X') {
+            radix = 16;
+            i++;
+        }
+        boolean negative = false;
+        if (i < semicolon && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        if (i == semicolon) {
+            return 0;
+        }
+        int codePoint = 0;
+        for (; i < semicolon; i++) {
+            int digit = Character.digit(text.charAt(i), radix);
+            if (digit < 0) {
+                return 0;
+            }
+            codePoint = codePoint * radix + digit;
+            if (codePoint > Character.MAX_CODE_POINT) {
+                return 0; // Out of range, either not a valid XML character or not a number at all
+            }
+        }
+        if (negative || !isValidXmlChar(codePoint)) {
+            return 0;
+        }
+        sb.append(text, runStart, start).appendCodePoint(codePoint);
+        return semicolon - start + 1;
+    }
+
+    /**
+     * Checks whether a code point is a valid XML character per the XML 1.0 spec:
+     * #x9 | #xA | #xD | [#x20-#xD7FF] | [#xE000-#xFFFD] | [#x10000-#x10FFFF]
+     */
+    private static boolean isValidXmlChar(int cp) {
+        return cp == 0x9
+                || cp == 0xA
+                || cp == 0xD
+                || (cp >= 0x20 && cp <= 0xD7FF)
+                || (cp >= 0xE000 && cp <= 0xFFFD)
+                || (cp >= 0x10000 && cp <= 0x10FFFF);
+    }
+}
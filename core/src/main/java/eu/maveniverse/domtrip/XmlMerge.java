@@ -0,0 +1,607 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Three-way merge of XML documents: combines the changes two sides made to a common base.
+ *
+ * <p>Elements are matched between the base and each side like {@link XmlDiff} matches them,
+ * by the identity keys of the {@link DiffConfig} and then by position among same-name
+ * siblings. The merged document starts as a copy of our side, so it keeps our formatting,
+ * and receives every change of their side that our side did not make:</p>
+ * <ul>
+ *   <li>attributes they added, changed or removed</li>
+ *   <li>text content they changed</li>
+ *   <li>comments and processing instructions they added, changed or removed within an
+ *       element</li>
+ *   <li>elements they added, inserted as copies after the element preceding them on their
+ *       side, and elements they removed</li>
+ *   <li>the order they gave to the elements both sides kept</li>
+ * </ul>
+ *
+ * <p>Nodes taken from their side keep their own formatting, and nodes merged into keep ours.
+ * Formatting-only changes of their side are not merged.</p>
+ *
+ * <p>A conflict is reported when both sides changed the same attribute, text content, list
+ * of comments or processing instructions, or order of elements in different ways, when one
+ * side modified an element the other removed, or when both added matching elements with
+ * different content. The merged
+ * document keeps our side of every conflict. Since elements without identity keys are
+ * matched by position, both sides adding an element of the same name in the same place
+ * conflict unless the additions are equivalent; configuring keys for list elements, such as
+ * dependencies, lets both additions be merged.</p>
+ *
+ * <h3>Usage:</h3>
+ * <pre>{@code
+ * DiffConfig config = DiffConfig.builder()
+ *     .matchBy("dependency", "groupId", "artifactId")
+ *     .build();
+ *
+ * MergeResult result = XmlMerge.merge(base, ours, theirs, config);
+ * for (MergeConflict conflict : result.conflicts()) {
+ *     System.out.println(conflict);
+ * }
+ * String merged = result.document().toXml();
+ * }</pre>
+ *
+ * <p>Subtrees their side left semantically unchanged are skipped using the structural hashes
+ * of {@link XmlDiff}, so merging a few edits into a large document mostly costs copying our
+ * side. The input documents are not modified.</p>
+ *
+ * @see MergeResult
+ * @see MergeConflict
+ * @see XmlDiff
+ * @since 1.5.0
+ */
+public final class XmlMerge {
+
+    private XmlMerge() {}
+
+    /**
+     * Merges two documents derived from a common base using default configuration
+     * (positional matching).
+     *
+     * @param base the common base document
+     * @param ours our side, whose formatting the merged document keeps
+     * @param theirs their side, whose changes are merged into ours
+     * @return the merged document and its conflicts
+     */
+    public static MergeResult merge(Document base, Document ours, Document theirs) {
+        return merge(base, ours, theirs, DiffConfig.defaults());
+    }
+
+    /**
+     * Merges two documents derived from a common base.
+     *
+     * @param base the common base document
+     * @param ours our side, whose formatting the merged document keeps
+     * @param theirs their side, whose changes are merged into ours
+     * @param config the diff configuration controlling element matching
+     * @return the merged document and its conflicts
+     */
+    public static MergeResult merge(Document base, Document ours, Document theirs, DiffConfig config) {
+        Objects.requireNonNull(base, "base");
+        Objects.requireNonNull(ours, "ours");
+        Objects.requireNonNull(theirs, "theirs");
+        Objects.requireNonNull(config, "config");
+
+        Merger merger = new Merger(base, ours, theirs, config);
+        Document merged = ours.copy();
+        merger.mergeRoots(merged);
+        return new MergeResult(merged, merger.conflicts);
+    }
+
+    /** Merges the changes of their side into a copy of ours, collecting the conflicts. */
+    private static final class Merger {
+        private final Document base;
+        private final Document ours;
+        private final Document theirs;
+        private final DiffConfig config;
+        private final SubtreeHashes baseHashes;
+        private final SubtreeHashes theirsHashes;
+        private final List<MergeConflict> conflicts = new ArrayList<>();
+
+        Merger(Document base, Document ours, Document theirs, DiffConfig config) {
+            this.base = base;
+            this.ours = ours;
+            this.theirs = theirs;
+            this.config = config;
+            this.baseHashes = config.isSubtreeHashing() ? base.subtreeHashes() : null;
+            this.theirsHashes = config.isSubtreeHashing() ? theirs.subtreeHashes() : null;
+        }
+
+        void mergeRoots(Document merged) {
+            Element baseRoot = base.root();
+            Element mergedRoot = merged.root();
+            Element theirRoot = theirs.root();
+            if (baseRoot != null
+                    && mergedRoot != null
+                    && theirRoot != null
+                    && baseRoot.name().equals(mergedRoot.name())
+                    && baseRoot.name().equals(theirRoot.name())) {
+                mergeElements(baseRoot, mergedRoot, theirRoot, new XmlDiff.Path(null, baseRoot.name(), 0));
+                return;
+            }
+            XmlChange theirChange = firstChange(base, theirs);
+            if (theirChange == null) {
+                return;
+            }
+            XmlChange ourChange = firstChange(base, ours);
+            if (ourChange == null) {
+                Element replacement = theirRoot != null ? theirRoot.copy() : null;
+                if (mergedRoot != null && merged.children.contains(mergedRoot)) {
+                    if (replacement != null) {
+                        merged.replaceChild(mergedRoot, replacement);
+                    } else {
+                        merged.removeChild(mergedRoot);
+                    }
+                }
+                merged.root(replacement);
+            } else if (firstChange(ours, theirs) != null) {
+                conflicts.add(new MergeConflict(theirChange.path(), ourChange, theirChange));
+            }
+        }
+
+        /** Merges the changes of their element into the merged element, both matching the base element. */
+        private void mergeElements(Element base, Element merged, Element theirs, XmlDiff.Path path) {
+            if (baseHashes != null && baseHashes.sameSemantics(base, theirsHashes, theirs)) {
+                return;
+            }
+            mergeAttributes(base, merged, theirs, path);
+            mergeText(base, merged, theirs, path);
+            Map<Element, Element> counterparts = mergeChildElements(base, merged, theirs, path);
+            mergeNodes(base, merged, theirs, path, Comment.class, Comment::content, counterparts);
+            mergeNodes(base, merged, theirs, path, ProcessingInstruction.class, Merger::describe, counterparts);
+        }
+
+        private void mergeAttributes(Element base, Element merged, Element theirs, XmlDiff.Path path) {
+            Set<String> names = new LinkedHashSet<>(base.attributes().keySet());
+            names.addAll(theirs.attributes().keySet());
+            for (String name : names) {
+                String baseValue = base.attribute(name);
+                String theirValue = theirs.attribute(name);
+                if (Objects.equals(baseValue, theirValue)) {
+                    continue;
+                }
+                String ourValue = merged.attribute(name);
+                if (Objects.equals(ourValue, baseValue)) {
+                    if (theirValue == null) {
+                        merged.removeAttribute(name);
+                    } else if (ourValue != null) {
+                        merged.attribute(name, theirValue);
+                    } else {
+                        merged.attributeObject(name, theirs.attributeObject(name).copy());
+                    }
+                } else if (!Objects.equals(ourValue, theirValue)) {
+                    String attributePath = path.attribute(name);
+                    conflicts.add(new MergeConflict(
+                            attributePath,
+                            attributeChange(attributePath, baseValue, ourValue, base, merged),
+                            attributeChange(attributePath, baseValue, theirValue, base, theirs)));
+                }
+            }
+        }
+
+        private static XmlChange attributeChange(
+                String path, String before, String after, Element beforeElement, Element afterElement) {
+            ChangeType type = before == null
+                    ? ChangeType.ATTRIBUTE_ADDED
+                    : after == null ? ChangeType.ATTRIBUTE_REMOVED : ChangeType.ATTRIBUTE_CHANGED;
+            return new XmlChange(type, path, before, after, beforeElement, afterElement);
+        }
+
+        private void mergeText(Element base, Element merged, Element theirs, XmlDiff.Path path) {
+            List<Text> baseTexts = nodes(base, Text.class);
+            List<Text> theirTexts = nodes(theirs, Text.class);
+            String baseContent = join(baseTexts);
+            String theirContent = join(theirTexts);
+            if (baseContent.equals(theirContent)) {
+                return;
+            }
+            List<Text> ourTexts = nodes(merged, Text.class);
+            String ourContent = join(ourTexts);
+            if (ourContent.equals(baseContent)) {
+                replaceTexts(merged, ourTexts, theirTexts, theirContent);
+            } else if (!ourContent.equals(theirContent)) {
+                String textPath = path.toString();
+                conflicts.add(new MergeConflict(
+                        textPath,
+                        new XmlChange(ChangeType.TEXT_CHANGED, textPath, baseContent, ourContent, base, merged),
+                        new XmlChange(ChangeType.TEXT_CHANGED, textPath, baseContent, theirContent, base, theirs)));
+            }
+        }
+
+        /**
+         * Replaces the text of the merged element with theirs, text node by text node when both
+         * have as many, keeping the positions of ours and the formatting of theirs.
+         */
+        private static void replaceTexts(Element merged, List<Text> ourTexts, List<Text> theirTexts, String content) {
+            if (ourTexts.size() == theirTexts.size()) {
+                for (int i = 0; i < ourTexts.size(); i++) {
+                    if (!ourTexts.get(i).content().equals(theirTexts.get(i).content())) {
+                        merged.replaceChild(ourTexts.get(i), theirTexts.get(i).copy());
+                    }
+                }
+                return;
+            }
+            boolean mixed = merged.childElements().findAny().isPresent();
+            int index = ourTexts.isEmpty() ? merged.childCount() : merged.children.indexOf(ourTexts.get(0));
+            for (Text text : ourTexts) {
+                merged.removeChild(text);
+            }
+            if (mixed) {
+                if (!content.isEmpty()) {
+                    merged.insertChild(index, new Text(content));
+                }
+            } else {
+                for (Text text : theirTexts) {
+                    merged.addChild(text.copy());
+                }
+            }
+        }
+
+        /**
+         * Merges the child elements, returning the merged counterparts of the child elements
+         * of their side.
+         */
+        private Map<Element, Element> mergeChildElements(
+                Element base, Element merged, Element theirs, XmlDiff.Path path) {
+            List<Element> baseChildren = base.childElements().collect(Collectors.toList());
+            List<Element> ourChildren = merged.childElements().collect(Collectors.toList());
+            List<Element> theirChildren = theirs.childElements().collect(Collectors.toList());
+            Map<Element, Element> counterparts = new IdentityHashMap<>();
+            if (baseChildren.isEmpty() && theirChildren.isEmpty()) {
+                return counterparts;
+            }
+            int[] ourMatches = XmlDiff.matchElements(baseChildren, ourChildren, config, true);
+            int[] theirMatches = XmlDiff.matchElements(baseChildren, theirChildren, config, true);
+            XmlDiff.Siblings baseSiblings = new XmlDiff.Siblings(baseChildren);
+            boolean[] ourMatched = new boolean[ourChildren.size()];
+            boolean[] theirMatched = new boolean[theirChildren.size()];
+
+            for (int i = 0; i < baseChildren.size(); i++) {
+                Element baseChild = baseChildren.get(i);
+                Element ourChild = ourMatches[i] >= 0 ? ourChildren.get(ourMatches[i]) : null;
+                Element theirChild = theirMatches[i] >= 0 ? theirChildren.get(theirMatches[i]) : null;
+                XmlDiff.Path childPath = baseSiblings.path(path, i);
+                if (ourChild != null) {
+                    ourMatched[ourMatches[i]] = true;
+                }
+                if (theirChild != null) {
+                    theirMatched[theirMatches[i]] = true;
+                }
+                if (ourChild != null && theirChild != null) {
+                    counterparts.put(theirChild, ourChild);
+                    mergeElements(baseChild, ourChild, theirChild, childPath);
+                } else if (ourChild != null) {
+                    XmlChange ourChange = XmlDiff.firstSemanticChange(baseChild, ourChild, childPath, config);
+                    if (ourChange == null) {
+                        merged.removeChild(ourChild);
+                    } else {
+                        conflicts.add(
+                                new MergeConflict(childPath.toString(), ourChange, removal(childPath, baseChild)));
+                    }
+                } else if (theirChild != null) {
+                    XmlChange theirChange = XmlDiff.firstSemanticChange(baseChild, theirChild, childPath, config);
+                    if (theirChange != null) {
+                        conflicts.add(
+                                new MergeConflict(childPath.toString(), removal(childPath, baseChild), theirChange));
+                    }
+                }
+            }
+
+            mergeOrder(merged, path, baseSiblings, ourChildren, ourMatches, theirChildren, theirMatches);
+
+            List<Element> ourAdded = unmatched(ourChildren, ourMatched);
+            List<Element> theirAdded = unmatched(theirChildren, theirMatched);
+            if (theirAdded.isEmpty()) {
+                return counterparts;
+            }
+            int[] addedMatches = XmlDiff.matchElements(theirAdded, ourAdded, config, false);
+            XmlDiff.Siblings theirSiblings = new XmlDiff.Siblings(theirChildren);
+            Map<Node, Node> unchanged = new IdentityHashMap<>();
+            pairUnchanged(merged, theirs, Comment.class, Comment::content, unchanged);
+            pairUnchanged(merged, theirs, ProcessingInstruction.class, Merger::describe, unchanged);
+            boolean empty = merged.isEmpty();
+            for (int i = 0; i < theirAdded.size(); i++) {
+                Element theirChild = theirAdded.get(i);
+                if (addedMatches[i] >= 0) {
+                    Element ourChild = ourAdded.get(addedMatches[i]);
+                    XmlDiff.Path childPath = theirSiblings.path(path, theirChildren.indexOf(theirChild));
+                    XmlChange difference = XmlDiff.firstSemanticChange(ourChild, theirChild, childPath, config);
+                    if (difference != null) {
+                        conflicts.add(new MergeConflict(
+                                childPath.toString(), addition(childPath, ourChild), addition(childPath, theirChild)));
+                    }
+                    counterparts.put(theirChild, ourChild);
+                    continue;
+                }
+                Element copy = theirChild.copy();
+                // After both the elements and the unchanged nodes preceding it on their side
+                int index = 0;
+                for (int j = theirs.children.indexOf(theirChild) - 1; j >= 0; j--) {
+                    Node node = theirs.children.get(j);
+                    Node anchor = node instanceof Element ? counterparts.get(node) : unchanged.get(node);
+                    if (anchor != null) {
+                        index = Math.max(index, merged.indexOfChild(anchor) + 1);
+                        if (anchor instanceof Element) {
+                            break;
+                        }
+                    }
+                }
+                merged.insertChild(index, copy);
+                counterparts.put(theirChild, copy);
+            }
+            if (empty && !merged.isEmpty()) {
+                merged.innerPrecedingWhitespace(theirs.innerPrecedingWhitespace());
+            }
+            return counterparts;
+        }
+
+        /**
+         * Reorders the child elements kept by both sides like their side, when only their side
+         * changed their relative order.
+         */
+        private void mergeOrder(
+                Element merged,
+                XmlDiff.Path path,
+                XmlDiff.Siblings baseSiblings,
+                List<Element> ourChildren,
+                int[] ourMatches,
+                List<Element> theirChildren,
+                int[] theirMatches) {
+            List<Integer> common = new ArrayList<>();
+            for (int i = 0; i < ourMatches.length; i++) {
+                if (ourMatches[i] >= 0 && theirMatches[i] >= 0) {
+                    common.add(i);
+                }
+            }
+            List<Integer> theirOrder = new ArrayList<>(common);
+            theirOrder.sort(Comparator.comparingInt(i -> theirMatches[i]));
+            if (theirOrder.equals(common)) {
+                return;
+            }
+            List<Integer> ourOrder = new ArrayList<>(common);
+            ourOrder.sort(Comparator.comparingInt(i -> ourMatches[i]));
+            if (ourOrder.equals(common)) {
+                int[] slots = new int[common.size()];
+                for (int k = 0, index = 0; k < slots.length; k++) {
+                    Element child = ourChildren.get(ourMatches[common.get(k)]);
+                    while (merged.children.get(index) != child) {
+                        index++;
+                    }
+                    slots[k] = index;
+                }
+                for (int k = 0; k < slots.length; k++) {
+                    Element child = ourChildren.get(ourMatches[theirOrder.get(k)]);
+                    if (merged.children.get(slots[k]) != child) {
+                        merged.setChildInternal(slots[k], child);
+                    }
+                }
+                merged.markModified();
+            } else if (!ourOrder.equals(theirOrder)) {
+                int k = 0;
+                while (ourOrder.get(k).equals(theirOrder.get(k))) {
+                    k++;
+                }
+                int i = common.indexOf(theirOrder.get(k)) != k ? theirOrder.get(k) : ourOrder.get(k);
+                XmlDiff.Path childPath = baseSiblings.path(path, i);
+                Element baseChild = baseSiblings.element(i);
+                String position = String.valueOf(common.indexOf(i) + 1);
+                conflicts.add(new MergeConflict(
+                        childPath.toString(),
+                        new XmlChange(
+                                ChangeType.ELEMENT_MOVED,
+                                childPath.toString(),
+                                position,
+                                String.valueOf(ourOrder.indexOf(i) + 1),
+                                baseChild,
+                                ourChildren.get(ourMatches[i])),
+                        new XmlChange(
+                                ChangeType.ELEMENT_MOVED,
+                                childPath.toString(),
+                                position,
+                                String.valueOf(theirOrder.indexOf(i) + 1),
+                                baseChild,
+                                theirChildren.get(theirMatches[i]))));
+            }
+        }
+
+        private static List<Element> unmatched(List<Element> elements, boolean[] matched) {
+            List<Element> unmatched = new ArrayList<>();
+            for (int i = 0; i < matched.length; i++) {
+                if (!matched[i]) {
+                    unmatched.add(elements.get(i));
+                }
+            }
+            return unmatched;
+        }
+
+        private static XmlChange removal(XmlDiff.Path path, Element element) {
+            return new XmlChange(
+                    ChangeType.ELEMENT_REMOVED, path.toString(), XmlDiff.elementSummary(element), null, element, null);
+        }
+
+        private static XmlChange addition(XmlDiff.Path path, Element element) {
+            return new XmlChange(
+                    ChangeType.ELEMENT_ADDED, path.toString(), null, XmlDiff.elementSummary(element), null, element);
+        }
+
+        /**
+         * Merges the comments or processing instructions of an element as a list, compared by
+         * position like {@link XmlDiff} does. When only their side changed the list, the merged
+         * list is made equal to theirs: nodes are replaced in place, extra ones removed and
+         * missing ones inserted after the merged counterpart of the node preceding them on
+         * their side, but never before the node of the list preceding them.
+         */
+        private <T extends Node> void mergeNodes(
+                Element base,
+                Element merged,
+                Element theirs,
+                XmlDiff.Path path,
+                Class<T> type,
+                Function<T, String> value,
+                Map<Element, Element> counterparts) {
+            List<String> baseValues = values(nodes(base, type), value);
+            List<T> theirNodes = nodes(theirs, type);
+            List<String> theirValues = values(theirNodes, value);
+            if (baseValues.equals(theirValues)) {
+                return;
+            }
+            List<T> ourNodes = nodes(merged, type);
+            List<String> ourValues = values(ourNodes, value);
+            if (ourValues.equals(baseValues)) {
+                int common = Math.min(ourNodes.size(), theirNodes.size());
+                Map<Node, Node> kept = new IdentityHashMap<>(counterparts);
+                for (int i = 0; i < common; i++) {
+                    Node node = ourNodes.get(i);
+                    if (!ourValues.get(i).equals(theirValues.get(i))) {
+                        node = theirNodes.get(i).copy();
+                        merged.replaceChildAt(merged.indexOfChild(ourNodes.get(i)), node);
+                    }
+                    kept.put(theirNodes.get(i), node);
+                }
+                for (int i = common; i < ourNodes.size(); i++) {
+                    merged.removeChildAt(merged.indexOfChild(ourNodes.get(i)));
+                }
+                Node previous = common > 0 ? kept.get(theirNodes.get(common - 1)) : null;
+                for (int i = common; i < theirNodes.size(); i++) {
+                    Node node = theirNodes.get(i);
+                    Node copy = node.copy();
+                    Node anchor = anchor(node, kept);
+                    if (previous != null
+                            && (anchor == null || merged.indexOfChild(previous) > merged.indexOfChild(anchor))) {
+                        anchor = previous;
+                    }
+                    merged.insertChild(anchor != null ? merged.indexOfChild(anchor) + 1 : 0, copy);
+                    previous = copy;
+                }
+            } else if (!ourValues.equals(theirValues)) {
+                int index = 0;
+                while (index < baseValues.size()
+                        && index < ourValues.size()
+                        && index < theirValues.size()
+                        && baseValues.get(index).equals(ourValues.get(index))
+                        && baseValues.get(index).equals(theirValues.get(index))) {
+                    index++;
+                }
+                boolean comment = type == Comment.class;
+                boolean needsIndex = baseValues.size() > 1 || ourValues.size() > 1 || theirValues.size() > 1;
+                String nodePath = path + (comment ? "/comment()" : "/processing-instruction()")
+                        + (needsIndex ? "[" + (index + 1) + "]" : "");
+                conflicts.add(new MergeConflict(
+                        nodePath,
+                        nodeChange(nodePath, comment, index, baseValues, ourValues),
+                        nodeChange(nodePath, comment, index, baseValues, theirValues)));
+            }
+        }
+
+        /** Finds the merged counterpart of the closest element preceding a node of their side. */
+        private static Node anchor(Node node, Map<? extends Node, ? extends Node> counterparts) {
+            List<Node> siblings = node.parent().children;
+            for (int i = node.parent().indexOfChild(node) - 1; i >= 0; i--) {
+                Node counterpart = counterparts.get(siblings.get(i));
+                if (counterpart != null) {
+                    return counterpart;
+                }
+            }
+            return null;
+        }
+
+        private static XmlChange nodeChange(
+                String path, boolean comment, int index, List<String> beforeValues, List<String> afterValues) {
+            String before = index < beforeValues.size() ? beforeValues.get(index) : null;
+            String after = index < afterValues.size() ? afterValues.get(index) : null;
+            ChangeType type;
+            if (before == null) {
+                type = comment ? ChangeType.COMMENT_ADDED : ChangeType.PI_ADDED;
+            } else if (after == null) {
+                type = comment ? ChangeType.COMMENT_REMOVED : ChangeType.PI_REMOVED;
+            } else {
+                type = comment ? ChangeType.COMMENT_CHANGED : ChangeType.PI_CHANGED;
+            }
+            return new XmlChange(type, path, before, after, null, null);
+        }
+
+        private static String describe(ProcessingInstruction pi) {
+            String data = pi.data() != null ? pi.data() : "";
+            return data.isEmpty() ? pi.target() : pi.target() + " " + data;
+        }
+
+        /**
+         * Pairs the comments or processing instructions of their side with ours having the same
+         * value at the same position, to anchor the elements added after them.
+         */
+        private static <T extends Node> void pairUnchanged(
+                Element merged, Element theirs, Class<T> type, Function<T, String> value, Map<Node, Node> pairs) {
+            List<T> ourNodes = nodes(merged, type);
+            List<T> theirNodes = nodes(theirs, type);
+            for (int i = 0; i < ourNodes.size() && i < theirNodes.size(); i++) {
+                if (value.apply(ourNodes.get(i)).equals(value.apply(theirNodes.get(i)))) {
+                    pairs.put(theirNodes.get(i), ourNodes.get(i));
+                }
+            }
+        }
+
+        private static <T extends Node> List<T> nodes(Element element, Class<T> type) {
+            List<T> nodes = Collections.emptyList();
+            for (Node child : element.children) {
+                if (type.isInstance(child)) {
+                    if (nodes.isEmpty()) {
+                        nodes = new ArrayList<>();
+                    }
+                    nodes.add(type.cast(child));
+                }
+            }
+            return nodes;
+        }
+
+        private static <T extends Node> List<String> values(List<T> nodes, Function<T, String> value) {
+            List<String> values = new ArrayList<>(nodes.size());
+            for (T node : nodes) {
+                values.add(value.apply(node));
+            }
+            return values;
+        }
+
+        private static String join(List<Text> texts) {
+            if (texts.size() == 1) {
+                return texts.get(0).content();
+            }
+            StringBuilder sb = new StringBuilder();
+            for (Text text : texts) {
+                sb.append(text.content());
+            }
+            return sb.toString();
+        }
+
+        /** Returns the first semantic change between two documents, or null if they are equivalent. */
+        private XmlChange firstChange(Document before, Document after) {
+            XmlChange[] first = new XmlChange[1];
+            XmlDiff.diff(before, after, config, change -> {
+                if (change.isSemantic()) {
+                    first[0] = change;
+                }
+                return first[0] == null;
+            });
+            return first[0];
+        }
+    }
+}
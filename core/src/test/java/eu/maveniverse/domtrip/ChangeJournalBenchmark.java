@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link ChangeJournal} on a POM whose dependency versions are bumped one by
+ * one, measuring the cost of recording, encoding and replaying the changes.
+ *
+ * <p>{@code edit} makes the changes without a journal and {@code record} makes them while
+ * recording, so that their difference is the recording overhead. {@code replay} applies the
+ * encoded journal to a fresh copy of the POM, prepared before each invocation, like
+ * {@code edit} and {@code record} use.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main ChangeJournalBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class ChangeJournalBenchmark {
+
+    @Param({"100", "10000"})
+    private int edits;
+
+    private Document base;
+    private ChangeJournal journal;
+    private byte[] encoded;
+    private Document target;
+
+    /**
+     * Generates the POM and records a journal of the edits.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i = 0; i < edits; i++) {
+            sb.append("    <dependency>\n");
+            sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <version>1.").append(i).append("</version>\n");
+            sb.append("    </dependency>\n");
+        }
+        base = Document.of(sb.append("  </dependencies>\n</project>\n").toString());
+        Document document = base.copy();
+        journal = document.startJournal();
+        bumpVersions(document);
+        document.stopJournal();
+        encoded = journal.toByteArray();
+    }
+
+    /**
+     * Copies the original document for the next invocation.
+     */
+    @Setup(Level.Invocation)
+    public void copyBase() {
+        target = base.copy();
+    }
+
+    /**
+     * Bumps the versions without recording.
+     *
+     * @return the edited document
+     */
+    @Benchmark
+    public Document edit() {
+        bumpVersions(target);
+        return target;
+    }
+
+    /**
+     * Bumps the versions while recording, and encodes the journal.
+     *
+     * @return the encoded journal
+     */
+    @Benchmark
+    public byte[] record() {
+        ChangeJournal recording = target.startJournal();
+        bumpVersions(target);
+        target.stopJournal();
+        return recording.toByteArray();
+    }
+
+    /**
+     * Encodes the recorded journal.
+     *
+     * @return the encoded journal
+     */
+    @Benchmark
+    public byte[] encode() {
+        return journal.toByteArray();
+    }
+
+    /**
+     * Replays the encoded journal on a copy of the original document.
+     *
+     * @return the replayed document
+     */
+    @Benchmark
+    public Document replay() {
+        ChangeJournal.replay(encoded, target);
+        return target;
+    }
+
+    private static void bumpVersions(Document document) {
+        document.root()
+                .childElement("dependencies")
+                .orElseThrow()
+                .childElements("dependency")
+                .forEach(dependency -> dependency
+                        .childElement("version")
+                        .orElseThrow()
+                        .textContent("2.0"));
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ChangeJournalBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by ChangeJournalBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ChangeJournalBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ChangeJournal}, checking that replaying the journal of a document on a copy
+ * taken before the changes yields the same XML.
+ */
+class ChangeJournalTest {
+
+    private static final String POM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+            + "  <modelVersion>4.0.0</modelVersion>\n"
+            + "  <groupId>com.example</groupId>\n"
+            + "  <artifactId>app</artifactId>\n"
+            + "  <version>1.0-SNAPSHOT</version>\n"
+            + "  <!-- dependencies -->\n"
+            + "  <dependencies>\n"
+            + "    <dependency>\n"
+            + "      <groupId>junit</groupId>\n"
+            + "      <artifactId>junit</artifactId>\n"
+            + "      <version>4.13</version>\n"
+            + "      <scope>test</scope>\n"
+            + "    </dependency>\n"
+            + "  </dependencies>\n"
+            + "</project>\n";
+
+    private static final String[] NAMES = {"a", "b", "c", "dep", "p:x"};
+
+    @Test
+    void replaysEditorChanges() {
+        Document document = Document.of(POM);
+        Document replica = document.copy();
+        ChangeJournal journal = document.startJournal();
+
+        Editor editor = new Editor(document);
+        Element root = document.root();
+        editor.setTextContent(root.childElement("version").orElseThrow(), "1.1");
+        Element dependencies = root.childElement("dependencies").orElseThrow();
+        Element dependency = editor.addElement(dependencies, "dependency");
+        editor.addElement(dependency, "groupId", "org.example");
+        editor.addElement(dependency, "artifactId", "lib");
+        editor.setAttribute(root, "child.project.url.inherit.append.path", "false");
+        editor.commentOutElement(root.childElement("modelVersion").orElseThrow());
+        editor.removeElement(dependencies.childElement("dependency").orElseThrow());
+        editor.addComment(root, "end");
+
+        assertSame(journal, document.stopJournal());
+        ChangeJournal.replay(journal.toByteArray(), replica);
+
+        assertEquals(document.toXml(), replica.toXml());
+        assertTrue(replica.root().isModified());
+        assertFalse(replica.root().childElement("groupId").orElseThrow().isModified());
+    }
+
+    @Test
+    void replaysNodeAndFormattingChanges() {
+        Document document = Document.of("<a x='1'>\n  <b>t</b><?pi d?><!--c--><c/>\n</a>");
+        Document replica = document.copy();
+        ChangeJournal journal = document.startJournal();
+
+        Element a = document.root();
+        Element b = a.childElement("b").orElseThrow();
+        Element c = a.childElement("c").orElseThrow();
+        a.attribute("y", "2", QuoteStyle.SINGLE);
+        a.attributeWhitespace("x", "\n   ");
+        a.removeAttribute("x");
+        b.name("bb").closeTagWhitespace(" ");
+        ((Text) b.child(0)).asCData();
+        ((ProcessingInstruction) a.child(1)).data("e");
+        ((Comment) a.child(2)).content("d");
+        c.selfClosing(false);
+        c.textContent("x");
+        c.textContent(null);
+        a.insertChildBefore(b, new Element("first"));
+        a.replaceChild(c, new Text("tail"));
+        a.innerPrecedingWhitespace("\n\n");
+
+        ChangeJournal.replay(journal.toByteArray(), replica);
+
+        assertEquals(document.toXml(), replica.toXml());
+        assertEquals(15, journal.size());
+    }
+
+    @Test
+    void replaysRootReplacement() {
+        Document document = Document.of("<?xml version=\"1.0\"?>\n<a>1</a>");
+        Document replica = document.copy();
+        ChangeJournal journal = document.startJournal();
+
+        document.root(new Element("b").attribute("k", "v"));
+
+        ChangeJournal.replay(journal.toByteArray(), replica);
+
+        assertEquals(document.toXml(), replica.toXml());
+    }
+
+    @Test
+    void replaysAppliedMoves() {
+        String slf4j = "    <dependency>\n      <groupId>org.slf4j</groupId>\n"
+                + "      <artifactId>slf4j-api</artifactId>\n    </dependency>\n";
+        String xml = POM.replace("  </dependencies>", slf4j + "  </dependencies>");
+        Document before = Document.of(xml);
+        Document after = Document.of(
+                POM.replace("    <dependency>\n      <groupId>junit", slf4j + "    <dependency>\n      <groupId>junit"));
+        DiffConfig config = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+        DiffResult diff = XmlDiff.diff(before, after, config);
+        assertTrue(diff.changes().stream().anyMatch(c -> c.type() == ChangeType.ELEMENT_MOVED), diff.toString());
+
+        Document target = Document.of(xml);
+        Document replica = target.copy();
+        ChangeJournal journal = target.startJournal();
+        XmlDiff.apply(diff, target);
+        target.stopJournal();
+        ChangeJournal.replay(journal.toByteArray(), replica);
+
+        assertEquals(target.toXml(), replica.toXml());
+        assertFalse(XmlDiff.diff(replica, after, config).hasChanges());
+    }
+
+    @Test
+    void replaysRandomEdits() {
+        for (int seed = 0; seed < 500; seed++) {
+            Random random = new Random(seed);
+            StringBuilder sb = new StringBuilder();
+            generate(random, sb, 0, "");
+            Document document = Document.of(sb.toString());
+            Document replica = document.copy();
+            ChangeJournal journal = document.startJournal();
+
+            mutate(random, document);
+
+            document.stopJournal();
+            ChangeJournal.replay(journal.toByteArray(), replica);
+            assertEquals(document.toXml(), replica.toXml(), "seed " + seed + "\n" + sb);
+            assertEquals(modified(document), modified(replica), "seed " + seed);
+        }
+    }
+
+    @Test
+    void encodesRepeatedNamesOnce() {
+        Document document = Document.of(POM);
+        ChangeJournal journal = document.startJournal();
+        Element root = document.root();
+        for (int i = 0; i < 1000; i++) {
+            root.attribute("attribute", "value");
+        }
+        document.stopJournal();
+
+        assertEquals(1000, journal.size());
+        assertTrue(journal.toByteArray().length < 10 * 1000, "" + journal.toByteArray().length);
+    }
+
+    @Test
+    void recordsNothingWhenStopped() {
+        Document document = Document.of(POM);
+        ChangeJournal journal = document.startJournal();
+        assertSame(journal, document.startJournal());
+        document.stopJournal();
+
+        document.root().attribute("a", "b");
+
+        assertNull(document.journal());
+        assertEquals(0, journal.size());
+        assertEquals(4, journal.toByteArray().length);
+    }
+
+    @Test
+    void doesNotRecordDetachedNodes() {
+        Document document = Document.of(POM);
+        ChangeJournal journal = document.startJournal();
+
+        Element detached = new Element("dependency");
+        detached.attribute("a", "b");
+        detached.addChild(new Element("groupId"));
+
+        assertEquals(0, journal.size());
+    }
+
+    @Test
+    void rejectsMalformedJournals() {
+        Document document = Document.of("<a><b/></a>");
+        ChangeJournal journal = document.startJournal();
+        document.root().child(0).precedingWhitespace(" ");
+        byte[] bytes = journal.toByteArray();
+
+        assertThrows(DomTripException.class, () -> ChangeJournal.replay(new byte[] {1, 2, 3, 4}, document.copy()));
+        assertThrows(
+                DomTripException.class,
+                () -> ChangeJournal.replay(Arrays.copyOf(bytes, bytes.length - 1), document.copy()));
+        DomTripException e = assertThrows(
+                DomTripException.class, () -> ChangeJournal.replay(bytes, Document.of("<a></a>")));
+        assertTrue(e.getMessage().contains("index 0"), e.getMessage());
+    }
+
+    /** Generates an element with random attributes, text, comments, PIs, CDATA and children. */
+    private static void generate(Random random, StringBuilder sb, int depth, String indent) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        sb.append(indent).append('<').append(name);
+        if (name.equals("p:x")) {
+            sb.append(" xmlns:p=\"urn:p\"");
+        }
+        int attributes = random.nextInt(3);
+        for (int i = 0; i < attributes; i++) {
+            char quote = random.nextBoolean() ? '"' : '\'';
+            sb.append(random.nextBoolean() ? " " : "\n  ").append('k').append(i);
+            sb.append('=').append(quote).append(random.nextInt(3));
+            sb.append(random.nextInt(8) == 0 ? "&amp;" : "").append(quote);
+        }
+        if (depth > 3 || random.nextInt(5) == 0) {
+            sb.append(random.nextBoolean() ? "/>\n" : " />\n");
+            return;
+        }
+        sb.append('>');
+        int children = random.nextInt(depth == 0 ? 10 : 5);
+        for (int i = 0; i < children; i++) {
+            switch (random.nextInt(8)) {
+                case 0:
+                    sb.append('t').append(random.nextInt(3)).append(random.nextInt(6) == 0 ? "&lt;" : "");
+                    break;
+                case 1:
+                    sb.append("<!--c").append(random.nextInt(3)).append("-->");
+                    break;
+                case 2:
+                    sb.append("<?pi d").append(random.nextInt(2)).append("?>");
+                    break;
+                case 3:
+                    sb.append("<![CDATA[x").append(random.nextInt(2)).append("]]>");
+                    break;
+                default:
+                    sb.append('\n');
+                    generate(random, sb, depth + 1, indent + "  ");
+                    break;
+            }
+        }
+        sb.append(indent).append("</").append(name).append('>');
+    }
+
+    /** Applies a few random changes through the node API. */
+    private static void mutate(Random random, Document document) {
+        List<Element> elements = document.root().descendants().collect(Collectors.toList());
+        elements.add(document.root());
+        int edits = 1 + random.nextInt(8);
+        for (int i = 0; i < edits; i++) {
+            Element element = elements.get(random.nextInt(elements.size()));
+            Element parent = element.parentElement();
+            switch (random.nextInt(14)) {
+                case 0:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        elements.removeAll(element.descendants().collect(Collectors.toList()));
+                        elements.remove(element);
+                    }
+                    break;
+                case 1:
+                    element.attribute("k" + random.nextInt(3), String.valueOf(random.nextInt(3)));
+                    break;
+                case 2:
+                    element.removeAttribute("k" + random.nextInt(3));
+                    break;
+                case 3:
+                    element.textContent("t" + random.nextInt(3));
+                    break;
+                case 4:
+                    Element child = new Element(NAMES[random.nextInt(4)]).attribute("n", "1");
+                    child.addChild(new Text("x"));
+                    element.insertChild(random.nextInt(element.childCount() + 1), child);
+                    elements.add(child);
+                    break;
+                case 5:
+                    element.addChild(new Comment("m"));
+                    break;
+                case 6:
+                    element.children()
+                            .filter(node -> !(node instanceof Element))
+                            .findFirst()
+                            .ifPresent(element::removeChild);
+                    break;
+                case 7:
+                    element.addChild(new ProcessingInstruction("pi", "e"));
+                    break;
+                case 8:
+                    element.precedingWhitespace(random.nextBoolean() ? "\n    " : "");
+                    break;
+                case 9:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        parent.addChild(element);
+                    }
+                    break;
+                case 10:
+                    element.children()
+                            .filter(Text.class::isInstance)
+                            .map(Text.class::cast)
+                            .findFirst()
+                            .ifPresent(text -> text.content(text.content() + "!"));
+                    break;
+                case 11:
+                    element.selfClosing(!element.selfClosing() && element.childCount() == 0);
+                    break;
+                case 12:
+                    Element target = elements.get(random.nextInt(elements.size()));
+                    if (parent != null && !contains(element, target)) {
+                        target.addChild(element);
+                    }
+                    break;
+                default:
+                    element.openTagWhitespace(random.nextBoolean() ? " " : "");
+                    break;
+            }
+        }
+    }
+
+    private static List<Boolean> modified(Document document) {
+        return document.root().descendants().map(Node::isModified).collect(Collectors.toList());
+    }
+
+    private static boolean contains(Element ancestor, Node node) {
+        for (Node current = node; current != null; current = current.parent()) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
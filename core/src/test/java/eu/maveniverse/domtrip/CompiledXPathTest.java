@@ -0,0 +1,553 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+class CompiledXPathTest {
+
+    private Document doc;
+    private Element root;
+
+    @BeforeEach
+    void setUp() {
+        String xml = """
+                <?xml version="1.0"?>
+                <!-- header -->
+                <project>
+                  <version>1.0.0</version>
+                  <dependencies>
+                    <dependency id="d1" scope="test">
+                      <groupId>org.junit</groupId>
+                      <artifactId>junit</artifactId>
+                      <version>5.9.2</version>
+                    </dependency>
+                    <!-- runtime -->
+                    <dependency id="d2">
+                      <groupId>org.example</groupId>
+                      <artifactId>example-lib</artifactId>
+                      <version>1.0.0</version>
+                    </dependency>
+                    <dependency id="d3" scope="test">
+                      <groupId>org.junit</groupId>
+                      <artifactId>junit-api</artifactId>
+                      <version>5.9.2</version>
+                    </dependency>
+                  </dependencies>
+                  <?marker start?>
+                  <properties>
+                    <count>3</count>
+                    <ratio>2.5</ratio>
+                    <name xml:lang="en-US">Example</name>
+                  </properties>
+                </project>""";
+        doc = Document.of(xml);
+        root = doc.root();
+    }
+
+    private List<Element> select(String expression) {
+        return CompiledXPath.compile(expression).select(doc);
+    }
+
+    private List<String> textOf(String expression) {
+        return select(expression).stream().map(Element::textContent).collect(Collectors.toList());
+    }
+
+    private String string(String expression) {
+        return CompiledXPath.compile(expression).evaluateString(doc);
+    }
+
+    private double number(String expression) {
+        return CompiledXPath.compile(expression).evaluateNumber(doc);
+    }
+
+    private boolean bool(String expression) {
+        return CompiledXPath.compile(expression).evaluateBoolean(doc);
+    }
+
+    // ========== AXES ==========
+
+    @Nested
+    class AxisTests {
+
+        @Test
+        void childAndDescendant() {
+            assertEquals(3, select("/project/dependencies/dependency").size());
+            assertEquals(3, select("//dependency").size());
+            assertEquals(3, select("/descendant::dependency").size());
+            assertEquals(List.of("1.0.0", "5.9.2", "1.0.0", "5.9.2"), textOf("//version"));
+        }
+
+        @Test
+        void descendantWithPositionalPredicate() {
+            // //version[1] is the first version child of each parent, not the first version overall
+            assertEquals(List.of("1.0.0", "5.9.2", "1.0.0", "5.9.2"), textOf("//version[1]"));
+            assertEquals(List.of("1.0.0"), textOf("(//version)[1]"));
+            assertEquals(List.of("5.9.2"), textOf("(//version)[last()]"));
+        }
+
+        @Test
+        void parentAndAncestor() {
+            assertEquals(List.of("dependencies"), names("//dependency[1]/.."));
+            assertEquals(List.of("project", "dependencies", "dependency"), names("(//groupId)[1]/ancestor::*"));
+            assertEquals(List.of("dependency"), names("(//groupId)[1]/ancestor::*[1]"));
+            assertEquals(
+                    2,
+                    select("(//version)[2]/ancestor-or-self::*[position() <= 2]")
+                            .size());
+        }
+
+        @Test
+        void siblings() {
+            assertEquals(List.of("d2", "d3"), ids("//dependency[@id='d1']/following-sibling::dependency"));
+            assertEquals(List.of("d2"), ids("//dependency[@id='d3']/preceding-sibling::dependency[1]"));
+            assertEquals(List.of("d1", "d2"), ids("//dependency[@id='d3']/preceding-sibling::dependency"));
+        }
+
+        @Test
+        void followingAndPreceding() {
+            assertEquals(List.of("count", "ratio", "name"), names("//dependencies/following::*[parent::properties]"));
+            assertEquals(List.of("version"), names("//dependency[@id='d2']/preceding::*[1]"));
+            assertEquals(3.0, number("count(//properties/preceding::dependency)"));
+        }
+
+        @Test
+        void selfAndDescendantOrSelf() {
+            assertEquals(List.of("d1", "d3"), ids("//*[self::dependency and @scope]"));
+            assertEquals(4, select("//dependency[1]/descendant-or-self::*").size());
+        }
+
+        @Test
+        void attributeAxis() {
+            List<Object> nodes = CompiledXPath.compile("//dependency/@id").selectNodes(doc);
+            assertEquals(3, nodes.size());
+            XPathAttribute first = (XPathAttribute) nodes.get(0);
+            assertEquals("id", first.name());
+            assertEquals("d1", first.value());
+            assertEquals("d1", first.element().attribute("id"));
+            assertEquals(6, CompiledXPath.compile("//@*").selectNodes(doc).size());
+        }
+
+        @Test
+        void attributesOrderedAfterOwnerBeforeChildren() {
+            List<Object> nodes = CompiledXPath.compile("//dependency[1] | //dependency[1]/@* | //dependency[1]/groupId")
+                    .selectNodes(doc);
+            assertEquals(4, nodes.size());
+            assertInstanceOf(Element.class, nodes.get(0));
+            assertEquals("id", ((XPathAttribute) nodes.get(1)).name());
+            assertEquals("scope", ((XPathAttribute) nodes.get(2)).name());
+            assertEquals("groupId", ((Element) nodes.get(3)).name());
+        }
+
+        @Test
+        void nodeTypeTests() {
+            assertEquals(2.0, number("count(//comment())"));
+            assertEquals(" runtime ", string("//dependencies/comment()"));
+            assertEquals(1.0, number("count(//processing-instruction('marker'))"));
+            assertEquals(0.0, number("count(//processing-instruction('other'))"));
+            assertEquals("Example", string("//name/text()"));
+            assertEquals(2.0, number("count(/node())"));
+        }
+
+        @Test
+        void selectIgnoresNonElements() {
+            assertEquals(List.of("name"), names("//name | //name/text() | //name/@xml:lang"));
+        }
+
+        @Test
+        void relativeToContextElement() {
+            Element dependency = root.descendant("dependency").orElseThrow();
+            CompiledXPath xpath = CompiledXPath.compile("groupId | ../dependency[last()]/@id");
+            assertEquals(2, xpath.selectNodes(dependency).size());
+            assertEquals("org.junit", CompiledXPath.compile("groupId").evaluateString(dependency));
+            assertEquals(1.0, CompiledXPath.compile("position()").evaluateNumber(dependency));
+        }
+    }
+
+    // ========== FUNCTIONS ==========
+
+    @Nested
+    class FunctionTests {
+
+        @Test
+        void nodeSetFunctions() {
+            assertEquals(3.0, number("count(//dependency)"));
+            assertEquals(5.5, number("sum(//count | //ratio)"));
+            assertEquals("dependency", string("name(//dependency[last()])"));
+            assertEquals("project", string("local-name(/*)"));
+            assertEquals("", string("namespace-uri(/*)"));
+            assertEquals(List.of("d3"), ids("//dependency[position() = last()]"));
+        }
+
+        @Test
+        void stringFunctions() {
+            assertEquals("org.junit:junit", string("concat(//groupId, ':', //artifactId)"));
+            assertEquals("org", string("substring-before(//groupId, '.')"));
+            assertEquals("junit", string("substring-after(//groupId, '.')"));
+            assertEquals("234", string("substring('12345', 1.5, 2.6)"));
+            assertEquals("12", string("substring('12345', 0, 3)"));
+            assertEquals("", string("substring('12345', 0 div 0, 3)"));
+            assertEquals(7.0, number("string-length('Example')"));
+            assertEquals("a b", string("normalize-space('  a \n b  ')"));
+            assertEquals("ABr", string("translate('bar', 'ab', 'BA')"));
+            assertEquals("AAA", string("translate('--aaa--', 'a-', 'A')"));
+            assertTrue(bool("starts-with(//artifactId, 'jun')"));
+            assertTrue(bool("contains(//groupId, 'jun')"));
+        }
+
+        @Test
+        void numberFunctions() {
+            assertEquals(2.0, number("floor(//ratio)"));
+            assertEquals(3.0, number("ceiling(//ratio)"));
+            assertEquals(3.0, number("round(//ratio)"));
+            assertEquals(-2.0, number("round(-2.5)"));
+            assertTrue(Double.isNaN(number("number('abc')")));
+            assertEquals(12.0, number("number('  12  ')"));
+        }
+
+        @Test
+        void booleanFunctions() {
+            assertTrue(bool("boolean(//dependency)"));
+            assertFalse(bool("boolean(//missing)"));
+            assertTrue(bool("not(//missing)"));
+            assertTrue(bool("true() and not(false())"));
+            assertEquals(List.of("name"), names("//*[lang('en')]"));
+            assertEquals(List.of(), names("//*[lang('de')]"));
+        }
+
+        @Test
+        void idFunction() {
+            assertEquals(List.of("d1", "d3"), ids("id('d3 d1 missing')"));
+            assertEquals("junit-api", string("id('d3')/artifactId"));
+        }
+
+        @Test
+        void numberFormatting() {
+            assertEquals("3", string("string(//count)"));
+            assertEquals("0.5", string("1 div 2"));
+            assertEquals("-0.5", string("-1 div 2"));
+            assertEquals("0", string("-0"));
+            assertEquals("Infinity", string("1 div 0"));
+            assertEquals("-Infinity", string("-1 div 0"));
+            assertEquals("NaN", string("0 div 0"));
+            assertEquals("1000000000000000000000", string("1000000000000000000000"));
+            assertEquals("0.0000001", string("0.0000001"));
+        }
+
+        @Test
+        void unicodeCodePoints() {
+            assertEquals(2.0, number("string-length('😀a')"));
+            assertEquals("a", string("substring('😀a', 2)"));
+        }
+    }
+
+    // ========== OPERATORS ==========
+
+    @Nested
+    class OperatorTests {
+
+        @Test
+        void arithmetic() {
+            assertEquals(7.0, number("1 + 2 * 3"));
+            assertEquals(1.5, number("//count div 2"));
+            assertEquals(1.0, number("5 mod 2"));
+            assertEquals(-1.0, number("-5 mod 2"));
+            assertEquals(-3.0, number("-//count"));
+            assertEquals(3.0, number("--3"));
+        }
+
+        @Test
+        void nameOperatorsAndNameTests() {
+            Document names = Document.of("<div><div>6</div><mod>4</mod></div>");
+            assertEquals(1.5, CompiledXPath.compile("div div mod").evaluateNumber(names.root()));
+            assertEquals(24.0, CompiledXPath.compile("div * mod").evaluateNumber(names.root()));
+            assertEquals(2, CompiledXPath.compile("*").select(names.root()).size());
+        }
+
+        @Test
+        void nodeSetComparisons() {
+            assertEquals(List.of("d1", "d3"), ids("//dependency[@scope = 'test']"));
+            assertEquals(List.of("d2"), ids("//dependency[not(@scope = 'test')]"));
+            // Existential semantics: some version differs from some other version
+            assertTrue(bool("//version != //version"));
+            assertTrue(bool("//version = '1.0.0'"));
+            assertFalse(bool("//missing = ''"));
+            assertFalse(bool("//missing != ''"));
+            assertTrue(bool("//count > 2"));
+            assertTrue(bool("//count = 3.0"));
+            assertTrue(bool("2 < //ratio"));
+            assertTrue(bool("//dependency = true()"));
+            assertTrue(bool("//missing = false()"));
+        }
+
+        @Test
+        void valueComparisons() {
+            assertTrue(bool("1 < 2 and 'a' = 'a'"));
+            assertTrue(bool("1 < 2 < 3"));
+            assertFalse(bool("3 > 2 > 1"));
+            assertTrue(bool("true() = 1"));
+            assertTrue(bool("'' = 0 or not(0 div 0 = 0 div 0)"));
+            assertFalse(bool("'2' > '10'"));
+        }
+
+        @Test
+        void andOrShortCircuit() {
+            assertTrue(bool("1 or $undefined"));
+            assertFalse(bool("0 and $undefined"));
+        }
+
+        @Test
+        void union() {
+            assertEquals(
+                    List.of("groupId", "artifactId"), names("//dependency[1]/artifactId | //dependency[1]/groupId"));
+            assertEquals(3, select("//dependency | //dependency[1]").size());
+            assertEquals(List.of("d2"), ids("(//dependency[3] | //dependency[2])[1]"));
+        }
+    }
+
+    // ========== NAMESPACES ==========
+
+    @Nested
+    class NamespaceTests {
+
+        private Document pom;
+
+        @BeforeEach
+        void setUp() {
+            pom = Document.of("""
+                    <project xmlns="http://maven.apache.org/POM/4.0.0" xmlns:x="urn:x">
+                      <dependencies>
+                        <dependency x:scope="test"><artifactId>junit</artifactId></dependency>
+                        <x:extra/>
+                      </dependencies>
+                    </project>""");
+        }
+
+        @Test
+        void unprefixedNamesMatchNoNamespaceOnly() {
+            assertEquals(0, CompiledXPath.compile("//dependency").select(pom).size());
+            assertEquals(
+                    3,
+                    CompiledXPath.compile(
+                                    "//*[local-name() = 'dependency' or local-name() = 'artifactId' or local-name() = 'extra']")
+                            .select(pom)
+                            .size());
+        }
+
+        @Test
+        void prefixedNames() {
+            Map<String, String> namespaces = Map.of("p", "http://maven.apache.org/POM/4.0.0", "y", "urn:x");
+            assertEquals(
+                    "junit",
+                    CompiledXPath.compile("//p:dependency/p:artifactId", namespaces)
+                            .evaluateString(pom));
+            assertEquals(
+                    1, CompiledXPath.compile("//y:*", namespaces).select(pom).size());
+            assertEquals(
+                    1,
+                    CompiledXPath.compile("//p:dependency[@y:scope = 'test']", namespaces)
+                            .select(pom)
+                            .size());
+            assertEquals(
+                    "urn:x",
+                    CompiledXPath.compile("namespace-uri(//y:extra)", namespaces)
+                            .evaluateString(pom));
+        }
+
+        @Test
+        void namespaceAxis() {
+            List<Object> nodes = CompiledXPath.compile("/*/namespace::*").selectNodes(pom);
+            List<String> prefixes =
+                    nodes.stream().map(node -> ((XPathNamespace) node).prefix()).collect(Collectors.toList());
+            assertEquals(List.of("xml", "", "x"), prefixes);
+            assertEquals(
+                    "urn:x",
+                    CompiledXPath.compile("string(//x:extra/namespace::x)", Map.of("x", "urn:x"))
+                            .evaluate(pom));
+        }
+
+        @Test
+        void unboundPrefix() {
+            DomTripException e = assertThrows(DomTripException.class, () -> CompiledXPath.compile("//p:dependency"));
+            assertTrue(e.getMessage().contains("'p'"));
+        }
+    }
+
+    // ========== VARIABLES ==========
+
+    @Nested
+    class VariableTests {
+
+        @Test
+        void stringNumberAndBoolean() {
+            CompiledXPath xpath = CompiledXPath.compile("//dependency[artifactId = $name and $enabled]/version");
+            assertEquals(
+                    "5.9.2",
+                    xpath.withVariable("name", "junit-api")
+                            .withVariable("enabled", true)
+                            .evaluateString(doc));
+            assertEquals(
+                    List.of("d2"),
+                    CompiledXPath.compile("//dependency[$n]/@id").withVariable("n", 2).selectNodes(doc).stream()
+                            .map(node -> ((XPathAttribute) node).value())
+                            .collect(Collectors.toList()));
+        }
+
+        @Test
+        void nodeSets() {
+            List<Element> dependencies = select("//dependency");
+            CompiledXPath xpath = CompiledXPath.compile("count($deps/groupId[. = 'org.junit'])");
+            assertEquals(2.0, xpath.withVariable("deps", dependencies).evaluateNumber(doc));
+            assertEquals(1.0, xpath.withVariable("deps", dependencies.get(2)).evaluateNumber(doc));
+        }
+
+        @Test
+        void withVariableReturnsCopy() {
+            CompiledXPath xpath = CompiledXPath.compile("$x");
+            CompiledXPath bound = xpath.withVariable("x", "value");
+            assertEquals("value", bound.evaluate(doc));
+            assertThrows(DomTripException.class, () -> xpath.evaluate(doc));
+        }
+
+        @Test
+        void unsupportedValue() {
+            CompiledXPath xpath = CompiledXPath.compile("$x");
+            assertThrows(IllegalArgumentException.class, () -> xpath.withVariable("x", new Object()));
+            assertThrows(IllegalArgumentException.class, () -> xpath.withVariable(null, "value"));
+        }
+    }
+
+    // ========== API ==========
+
+    @Nested
+    class ApiTests {
+
+        @Test
+        void evaluateReturnsNaturalType() {
+            assertEquals(3.0, CompiledXPath.compile("count(//dependency)").evaluate(doc));
+            assertEquals("a", CompiledXPath.compile("'a'").evaluate(doc));
+            assertEquals(Boolean.TRUE, CompiledXPath.compile("1 = 1").evaluate(doc));
+            assertInstanceOf(List.class, CompiledXPath.compile("//dependency").evaluate(doc));
+        }
+
+        @Test
+        void selectFirst() {
+            assertEquals(
+                    "d1",
+                    CompiledXPath.compile("//dependency")
+                            .selectFirst(doc)
+                            .orElseThrow()
+                            .attribute("id"));
+            assertTrue(CompiledXPath.compile("//missing").selectFirst(doc).isEmpty());
+        }
+
+        @Test
+        void nullContext() {
+            CompiledXPath xpath = CompiledXPath.compile("//dependency");
+            assertTrue(xpath.select(null).isEmpty());
+            assertTrue(xpath.selectNodes(null).isEmpty());
+            assertTrue(xpath.selectFirst(null).isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> xpath.evaluate(null));
+            assertThrows(IllegalArgumentException.class, () -> xpath.evaluate("not a node"));
+        }
+
+        @Test
+        void resultsAreMutableCopies() {
+            CompiledXPath xpath = CompiledXPath.compile("/");
+            List<Object> nodes = xpath.selectNodes(doc);
+            nodes.clear();
+            assertEquals(List.of(doc), xpath.selectNodes(doc));
+        }
+
+        @Test
+        void selectOnNonNodeSet() {
+            assertThrows(
+                    DomTripException.class, () -> CompiledXPath.compile("1 + 1").select(doc));
+        }
+
+        @Test
+        void followsMutations() {
+            CompiledXPath xpath = CompiledXPath.compile("count(//dependency)");
+            root.descendant("dependencies").orElseThrow().addChild(new Element("dependency"));
+            assertEquals(4.0, xpath.evaluateNumber(doc));
+        }
+
+        @Test
+        void cache() {
+            assertSame(
+                    CompiledXPath.cache().get("//dependency"),
+                    CompiledXPath.cache().get("//dependency"));
+        }
+
+        @Test
+        void expressionAndToString() {
+            CompiledXPath xpath = CompiledXPath.compile("//dependency[1]");
+            assertEquals("//dependency[1]", xpath.expression());
+            assertEquals("CompiledXPath{//dependency[1]}", xpath.toString());
+        }
+    }
+
+    // ========== ERRORS ==========
+
+    @Nested
+    class ErrorTests {
+
+        @Test
+        void syntaxErrors() {
+            for (String expression : List.of(
+                    "a[", "a]", "foo(", "child::", "//", "1 |", "'open", "a/-b", "3 mod2", "@", "$", "!", "a::b")) {
+                assertThrows(
+                        DomTripException.class,
+                        () -> CompiledXPath.compile(expression),
+                        () -> "Expected a syntax error for " + expression);
+            }
+        }
+
+        @Test
+        void emptyExpression() {
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile(null));
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("  "));
+        }
+
+        @Test
+        void errorReportsPosition() {
+            DomTripException e = assertThrows(DomTripException.class, () -> CompiledXPath.compile("//a[@b = ]"));
+            assertEquals(9, e.getPosition());
+        }
+
+        @Test
+        void functionErrors() {
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("unknown()"));
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("count()"));
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("count('a')"));
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("substring('a')"));
+        }
+
+        @Test
+        void typeErrors() {
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("1 | //a"));
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("'a'/b"));
+            assertThrows(DomTripException.class, () -> CompiledXPath.compile("'a'[1]"));
+        }
+    }
+
+    private List<String> names(String expression) {
+        return select(expression).stream().map(Element::name).collect(Collectors.toList());
+    }
+
+    private List<String> ids(String expression) {
+        return select(expression).stream().map(e -> e.attribute("id")).collect(Collectors.toList());
+    }
+}
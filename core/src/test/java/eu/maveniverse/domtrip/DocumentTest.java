@@ -3,7 +3,9 @@ package eu.maveniverse.domtrip;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -11,6 +13,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -443,4 +446,94 @@ class DocumentTest {
         assertEquals(
                 "No declaration", doc.root().childElement("child").orElseThrow().textContent());
     }
+
+    @Test
+    void testElementById() {
+        Document doc = Document.of("""
+                <book>
+                  <chapter xml:id="intro"><section id="s1"/></chapter>
+                  <chapter id="intro"/>
+                </book>
+                """);
+        Element chapter = doc.root().childElement("chapter").orElseThrow();
+
+        assertEquals(chapter, doc.elementById("intro").orElseThrow());
+        assertEquals("section", doc.elementById("s1").orElseThrow().name());
+        assertFalse(doc.elementById("missing").isPresent());
+        assertFalse(doc.elementById(null).isPresent());
+    }
+
+    @Test
+    void testElementByIdFollowsMutations() {
+        Document doc = Document.of("<root><a id=\"x\"/><b/></root>");
+        Element a = doc.root().childElement("a").orElseThrow();
+        Element b = doc.root().childElement("b").orElseThrow();
+        assertEquals(a, doc.elementById("x").orElseThrow());
+
+        a.removeAttribute("id");
+        b.attribute("id", "x");
+        assertEquals(b, doc.elementById("x").orElseThrow());
+
+        doc.root().removeChild(b);
+        assertFalse(doc.elementById("x").isPresent());
+
+        Element c = Element.of("c").attribute("id", "y");
+        a.addChild(c);
+        assertEquals(c, doc.elementById("y").orElseThrow());
+    }
+
+    @Test
+    void testElementByIdFollowsAttributeObjectChanges() {
+        Document doc = Document.of("<root><a id=\"one\"/></root>");
+        Element a = doc.root().childElement("a").orElseThrow();
+        assertEquals(a, doc.elementById("one").orElseThrow());
+
+        a.attributeObject("id").value("two");
+
+        assertEquals(a, doc.elementById("two").orElseThrow());
+        assertFalse(doc.elementById("one").isPresent());
+    }
+
+    @Test
+    void testIdAttributes() {
+        Document doc = Document.of("<root><item key=\"k1\" id=\"i1\"/></root>");
+        assertEquals(List.of("xml:id", "id"), doc.idAttributes());
+        assertTrue(doc.elementById("i1").isPresent());
+
+        doc.idAttributes("key");
+        assertEquals(List.of("key"), doc.idAttributes());
+        assertEquals("item", doc.elementById("k1").orElseThrow().name());
+        assertFalse(doc.elementById("i1").isPresent());
+        assertFalse(doc.isModified());
+        assertEquals(List.of("key"), doc.copy().idAttributes());
+
+        assertThrows(IllegalArgumentException.class, () -> doc.idAttributes(new String[0]));
+        assertThrows(IllegalArgumentException.class, () -> doc.idAttributes("id", null));
+        assertThrows(IllegalArgumentException.class, () -> doc.idAttributes(""));
+    }
+
+    @Test
+    void testCopySerializesRootOnce() {
+        String xml = "<?xml version=\"1.0\"?>\n<!-- header -->\n<root><child/></root>\n";
+        Document doc = Document.of(xml);
+
+        Document copy = doc.copy();
+
+        assertEquals(xml, copy.toXml());
+        assertSame(copy, copy.root().parent());
+        assertNotSame(doc.root(), copy.root());
+        assertTrue(copy.children().anyMatch(node -> node == copy.root()));
+    }
+
+    @Test
+    void testCopyOfModifiedDocument() {
+        Document doc = Document.of("<a x='1'><b>t</b></a>");
+        doc.root().attribute("x", "2");
+        doc.root().childElement("b").orElseThrow().textContent("u");
+
+        Document copy = doc.copy();
+
+        assertEquals("<a x='2'><b>u</b></a>", copy.toXml());
+        assertEquals(doc.toXml(), copy.toXml());
+    }
 }
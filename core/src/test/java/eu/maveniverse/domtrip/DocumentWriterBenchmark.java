@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for writing many modified POMs to a local temporary directory, comparing a
+ * sequential blocking loop with {@link DocumentWriter} using an increasing number of threads.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main DocumentWriterBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class DocumentWriterBenchmark {
+
+    private static final int FILE_COUNT = 500;
+
+    @Param({"1", "4", "8"})
+    private int threads;
+
+    private Path dir;
+    private Map<Path, Document> documents;
+    private DocumentWriter writer;
+    private Serializer serializer;
+
+    /**
+     * Creates the temporary directory and FILE_COUNT modified POM documents, one per module.
+     *
+     * @throws IOException if the temporary directory cannot be created
+     */
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("domtrip-writer-benchmark");
+        String xml = SerializerBenchmark.buildPom(30);
+        documents = new LinkedHashMap<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            Document document = Document.of(xml);
+            document.root().childElement("version").orElseThrow().textContent("2.0.0");
+            documents.put(dir.resolve("pom-" + i + ".xml"), document);
+        }
+        writer = new DocumentWriter(threads);
+        serializer = new Serializer();
+    }
+
+    /**
+     * Shuts down the writer and deletes the temporary directory.
+     *
+     * @throws IOException if the temporary directory cannot be deleted
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        writer.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Writes all documents one after the other with blocking I/O directly to their target files.
+     *
+     * @return the number of written files
+     * @throws IOException if a file cannot be written
+     */
+    @Benchmark
+    public int writeSequentially() throws IOException {
+        for (Map.Entry<Path, Document> entry : documents.entrySet()) {
+            try (OutputStream out = Files.newOutputStream(entry.getKey())) {
+                serializer.serialize(entry.getValue(), out);
+            }
+        }
+        return documents.size();
+    }
+
+    /**
+     * Writes all documents with {@link DocumentWriter}, atomically replacing each file.
+     *
+     * @return the write results
+     */
+    @Benchmark
+    public List<DocumentWriter.Result> writeAll() {
+        return writer.writeAll(documents);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(DocumentWriterBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by DocumentWriterBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(DocumentWriterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
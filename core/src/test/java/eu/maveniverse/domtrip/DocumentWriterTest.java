@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link DocumentWriter}.
+ */
+class DocumentWriterTest {
+
+    private static final String XML = "<?xml version=\"1.0\"?>\n<project>\n  <version>1.0</version>\n</project>\n";
+
+    @TempDir
+    Path dir;
+
+    private Document modified(String version) {
+        Document document = Document.of(XML);
+        document.root().childElement("version").orElseThrow().textContent(version);
+        return document;
+    }
+
+    @Test
+    void writesModifiedAndSkipsUnmodified() throws IOException {
+        Path changed = dir.resolve("changed.xml");
+        Path unchanged = dir.resolve("unchanged.xml");
+        Files.write(changed, XML.getBytes(StandardCharsets.UTF_8));
+        Files.write(unchanged, "original content".getBytes(StandardCharsets.UTF_8));
+
+        Map<Path, Document> documents = new LinkedHashMap<>();
+        documents.put(changed, modified("2.0"));
+        documents.put(unchanged, Document.of(XML));
+
+        List<DocumentWriter.Result> results;
+        try (DocumentWriter writer = new DocumentWriter(2)) {
+            results = writer.writeAll(documents);
+        }
+
+        assertEquals(2, results.size());
+        assertEquals(changed, results.get(0).path());
+        assertEquals(DocumentWriter.Status.WRITTEN, results.get(0).status());
+        assertNull(results.get(0).failure());
+        assertEquals(DocumentWriter.Status.SKIPPED, results.get(1).status());
+
+        assertEquals(
+                XML.replace("1.0</version>", "2.0</version>"),
+                new String(Files.readAllBytes(changed), StandardCharsets.UTF_8));
+        assertEquals("original content", new String(Files.readAllBytes(unchanged), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writesNewFile() throws IOException {
+        Path target = dir.resolve("new.xml");
+        try (DocumentWriter writer = new DocumentWriter(1)) {
+            DocumentWriter.Result result =
+                    writer.writeAsync(modified("3.0"), target).join();
+            assertEquals(DocumentWriter.Status.WRITTEN, result.status());
+        }
+        assertTrue(new String(Files.readAllBytes(target), StandardCharsets.UTF_8).contains("<version>3.0</version>"));
+    }
+
+    @Test
+    void reportsFailuresPerFile() throws IOException {
+        Path missingDir = dir.resolve("missing").resolve("pom.xml");
+        Path good = dir.resolve("good.xml");
+        Path directory = Files.createDirectory(dir.resolve("directory"));
+
+        Map<Path, Document> documents = new LinkedHashMap<>();
+        documents.put(missingDir, modified("1.1"));
+        documents.put(good, modified("1.2"));
+        documents.put(directory, modified("1.3"));
+
+        List<DocumentWriter.Result> results;
+        try (DocumentWriter writer = new DocumentWriter()) {
+            results = writer.writeAll(documents);
+        }
+
+        assertEquals(DocumentWriter.Status.FAILED, results.get(0).status());
+        assertNotNull(results.get(0).failure());
+        assertEquals(DocumentWriter.Status.WRITTEN, results.get(1).status());
+        assertEquals(DocumentWriter.Status.FAILED, results.get(2).status());
+        assertTrue(Files.isDirectory(directory));
+
+        try (Stream<Path> files = Files.list(dir)) {
+            assertTrue(files.noneMatch(p -> p.getFileName().toString().endsWith(".tmp")), "temp files left behind");
+        }
+    }
+
+    @Test
+    void nullArguments() {
+        try (DocumentWriter writer = new DocumentWriter(1)) {
+            assertEquals(
+                    DocumentWriter.Status.FAILED,
+                    writer.write(null, dir.resolve("a.xml")).status());
+            assertEquals(
+                    DocumentWriter.Status.FAILED,
+                    writer.write(modified("1"), null).status());
+        }
+        assertThrows(IllegalArgumentException.class, () -> new DocumentWriter(0));
+    }
+
+    @Test
+    void usesDocumentEncoding() throws IOException {
+        Document document = Document.of("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<root>café</root>");
+        document.root().attribute("changed", "true");
+        Path target = dir.resolve("latin1.xml");
+        try (DocumentWriter writer = new DocumentWriter(1)) {
+            assertEquals(
+                    DocumentWriter.Status.WRITTEN,
+                    writer.write(document, target).status());
+        }
+        assertTrue(new String(Files.readAllBytes(target), StandardCharsets.ISO_8859_1).contains("café"));
+    }
+}
@@ -101,6 +101,16 @@ class ElementAdvancedTest {
         assertFalse(root.hasAttribute("nonexistent"));
     }
 
+    @Test
+    void testHasAttributes() throws DomTripException {
+        Element root = Document.of("<root attr=\"value\"><child/></root>").root();
+
+        assertTrue(root.hasAttributes());
+        assertFalse(root.childElement("child").orElseThrow().hasAttributes());
+        root.removeAttribute("attr");
+        assertFalse(root.hasAttributes());
+    }
+
     @Test
     void testGetAttributeQuote() throws DomTripException {
         String xml = "<root attr1='single' attr2=\"double\"/>";
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link ElementQuery}, one per kind of constraint. Each query is paired
+ * with the equivalent filter over {@link Element#descendants()}, which visits every element
+ * and tests the constraints in the order they are given.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main ElementQueryBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class ElementQueryBenchmark {
+
+    private static final String POM_NAMESPACE = "http://maven.apache.org/POM/4.0.0";
+
+    @Param({"100", "1000"})
+    private int dependencyCount;
+
+    private Element root;
+    private QName artifactId;
+
+    /**
+     * Generates and parses a POM whose dependencies have an {@code id} attribute.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<project xmlns=\"").append(POM_NAMESPACE).append("\">\n");
+        sb.append("  <modelVersion>4.0.0</modelVersion>\n  <artifactId>benchmark</artifactId>\n");
+        sb.append("  <dependencies>\n");
+        for (int i = 0; i < dependencyCount; i++) {
+            sb.append("    <dependency id=\"dep-").append(i).append("\">\n");
+            sb.append("      <groupId>com.example</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <exclusions><exclusion><groupId>org.excluded</groupId></exclusion></exclusions>\n");
+            sb.append("    </dependency>\n");
+        }
+        sb.append("  </dependencies>\n</project>\n");
+        root = Document.of(sb.toString()).root();
+        artifactId = QName.of(POM_NAMESPACE, "artifactId");
+    }
+
+    /**
+     * Counts the elements with a given local name.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withName() {
+        return root.query().withName("artifactId").count();
+    }
+
+    /**
+     * Counts the elements with a given local name by filtering all descendants.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withNameFiltered() {
+        return root.descendants()
+                .filter(element -> "artifactId".equals(element.localName()))
+                .count();
+    }
+
+    /**
+     * Counts the direct children of the root, which needs no traversal below them.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long atDepth() {
+        return root.query().atDepth(0).count();
+    }
+
+    /**
+     * Counts the direct children of the root by filtering all descendants.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long atDepthFiltered() {
+        int rootDepth = root.depth();
+        return root.descendants()
+                .filter(element -> element.depth() - rootDepth == 1)
+                .count();
+    }
+
+    /**
+     * Counts the elements with a given attribute value.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withAttribute() {
+        return root.query().withAttribute("id", "dep-1").count();
+    }
+
+    /**
+     * Counts the elements with a given attribute value by filtering all descendants.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withAttributeFiltered() {
+        return root.descendants()
+                .filter(element -> "dep-1".equals(element.attribute("id")))
+                .count();
+    }
+
+    /**
+     * Counts the elements with a given namespace and local name, resolving the namespace only
+     * for elements with the right local name.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withQName() {
+        return root.query().withQName(artifactId).count();
+    }
+
+    /**
+     * Counts the elements with a given namespace and local name by filtering all descendants.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withQNameFiltered() {
+        return root.descendants()
+                .filter(element -> artifactId.matches(element.namespaceURI(), element.localName()))
+                .count();
+    }
+
+    /**
+     * Counts the elements that have child elements.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withChildren() {
+        return root.query().withChildren().count();
+    }
+
+    /**
+     * Counts the elements that have child elements by filtering all descendants.
+     *
+     * @return the number of matches
+     */
+    @Benchmark
+    public long withChildrenFiltered() {
+        return root.descendants().filter(Element::hasChildElements).count();
+    }
+
+    /**
+     * Finds the first element with a given local name, near the start of the document.
+     *
+     * @return the first match
+     */
+    @Benchmark
+    public Optional<Element> first() {
+        return root.query().withName("groupId").first();
+    }
+
+    /**
+     * Finds the first element with a given local name by filtering the descendants.
+     *
+     * @return the first match
+     */
+    @Benchmark
+    public Optional<Element> firstFiltered() {
+        return root.descendants()
+                .filter(element -> "groupId".equals(element.localName()))
+                .findFirst();
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ElementQueryBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by ElementQueryBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ElementQueryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -11,6 +11,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -347,4 +349,110 @@ class ElementQueryTest {
         List<Element> results = root.query().atDepth(2).withName("groupId").toList();
         assertFalse(results.isEmpty());
     }
+
+    @Test
+    void testQueryCanBeEvaluatedRepeatedly() {
+        ElementQuery query = root.query().withName("dependency");
+        assertEquals(3, query.count());
+        assertEquals(3, query.count());
+        assertEquals(3, query.toList().size());
+        assertTrue(query.exists());
+        assertEquals(3, query.all().count());
+    }
+
+    @Test
+    void testQueryReflectsChangesToTheTree() {
+        ElementQuery query = root.query().withName("plugin");
+        assertEquals(1, query.count());
+        editor.addElement(root.descendant("plugins").orElseThrow(), "plugin");
+        assertEquals(2, query.count());
+    }
+
+    @Test
+    void testContradictoryConstraintsMatchNothing() {
+        assertFalse(root.query().withName("dependency").withName("plugin").exists());
+        assertFalse(root.query().atDepth(0).atDepth(1).exists());
+        assertFalse(root.query().withChildren().withoutChildren().exists());
+        assertEquals(
+                3, root.query().withName("dependency").withName("dependency").count());
+    }
+
+    @Test
+    void testAtDepthDoesNotVisitDeeperElements() {
+        AtomicInteger visited = new AtomicInteger();
+        List<Element> results = root.query()
+                .atDepth(1)
+                .where(element -> visited.incrementAndGet() > 0)
+                .toList();
+        assertEquals(4, results.size());
+        assertEquals(4, visited.get());
+    }
+
+    @Test
+    void testFirstStopsAtFirstMatch() {
+        AtomicInteger visited = new AtomicInteger();
+        Optional<Element> first = root.query()
+                .where(element -> visited.incrementAndGet() > 0)
+                .withName("groupId")
+                .first();
+        assertEquals("org.junit", first.orElseThrow().textContent());
+        assertEquals(1, visited.get());
+        assertTrue(root.query().where(element -> visited.incrementAndGet() > 0).exists());
+        assertEquals(2, visited.get());
+    }
+
+    @Test
+    void testMatchesFilteredDescendants() {
+        String xml = "<p:root xmlns:p=\"urn:p\" xmlns=\"urn:d\"><p:a id=\"1\"><b/><p:b id=\"2\">x</p:b></p:a>"
+                + "<a xmlns=\"\"><b id=\"1\"/></a></p:root>";
+        Element element = Document.of(xml).root();
+        assertMatchesFilter(element.query().withName("b"), element, e -> "b".equals(e.localName()));
+        assertMatchesFilter(
+                element.query().withQName(QName.of("urn:p", "b")),
+                element,
+                e -> "b".equals(e.localName()) && "urn:p".equals(e.namespaceURI()));
+        assertMatchesFilter(element.query().withQName(QName.of("a")), element, e -> QName.of("a")
+                .matches(e.namespaceURI(), e.localName()));
+        assertMatchesFilter(
+                element.query().withNamespace("urn:d").withoutChildren(),
+                element,
+                e -> "urn:d".equals(e.namespaceURI()) && !e.hasChildElements());
+        assertMatchesFilter(
+                element.query().withAttribute("id", "1").atDepth(1),
+                element,
+                e -> "1".equals(e.attribute("id")) && e.depth() == 3);
+        assertMatchesFilter(
+                element.query().withAttribute("id").withTextContent("x"),
+                element,
+                e -> e.hasAttribute("id") && "x".equals(e.textContent()));
+    }
+
+    @Test
+    void testIdAttributeQueryUsesIndexWithinSubtree() {
+        Document doc = Document.of(
+                "<root><a><item id=\"1\"/><item id=\"2\"/></a><b><item id=\"1\"/><c><item id=\"1\"/></c></b></root>");
+        Element a = doc.root().childElement("a").orElseThrow();
+        Element b = doc.root().childElement("b").orElseThrow();
+
+        assertEquals(3, doc.root().query().withAttribute("id", "1").count());
+        assertEquals(1, a.query().withAttribute("id", "1").count());
+        assertEquals(2, b.query().withAttribute("id", "1").count());
+        assertEquals(1, b.query().withAttribute("id", "1").atDepth(0).count());
+        assertEquals(0, b.query().withAttribute("id", "1").withName("other").count());
+        assertMatchesFilter(
+                doc.root().query().withAttribute("id", "1"), doc.root(), e -> "1".equals(e.attribute("id")));
+
+        b.childElement("item").orElseThrow().attribute("id", "3");
+        assertEquals(1, b.query().withAttribute("id", "1").count());
+        assertEquals(1, b.query().withAttribute("id", "3").count());
+
+        Element detached = b.copy();
+        assertEquals(1, detached.query().withAttribute("id", "1").count());
+    }
+
+    private static void assertMatchesFilter(ElementQuery query, Element context, Predicate<Element> filter) {
+        List<Element> expected = context.descendants().filter(filter).collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, query.toList());
+    }
 }
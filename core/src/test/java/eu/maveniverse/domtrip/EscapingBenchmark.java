@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for escaping and unescaping on text-heavy and attribute-heavy documents.
+ * Parsing unescapes every text node and attribute value, serializing the modified document
+ * escapes them again.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main EscapingBenchmark -prof gc}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class EscapingBenchmark {
+
+    private static final int ELEMENT_COUNT = 1000;
+
+    @Param({"text", "attributes"})
+    private String shape;
+
+    private String xml;
+    private Document modifiedDocument;
+    private Serializer serializer;
+
+    /**
+     * Generates the document and a parsed copy in which every text node and attribute value has
+     * been reassigned, so that serializing it escapes all content instead of reusing raw text.
+     */
+    @Setup
+    public void setup() {
+        xml = "text".equals(shape) ? buildTextHeavy() : buildAttributeHeavy();
+        modifiedDocument = Document.of(xml);
+        modifiedDocument.root().descendants().collect(Collectors.toList()).forEach(element -> {
+            if (element.childCount() == 1) {
+                element.textContent(element.textContent());
+            }
+            element.attributes().forEach(element::attribute);
+        });
+        serializer = new Serializer();
+    }
+
+    private static String buildTextHeavy() {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?>\n<document>\n");
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            sb.append("  <paragraph>Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor ")
+                    .append("incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud ")
+                    .append("exercitation ullamco laboris nisi ut aliquip ex ea commodo consequat &amp; ")
+                    .append("if (a &lt; b) { return &quot;x&quot;; } &#169; ")
+                    .append(i)
+                    .append("</paragraph>\n");
+        }
+        return sb.append("</document>\n").toString();
+    }
+
+    private static String buildAttributeHeavy() {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?>\n<items>\n");
+        for (int i = 0; i < ELEMENT_COUNT; i++) {
+            sb.append("  <item id=\"item-")
+                    .append(i)
+                    .append("\" name=\"Item number ")
+                    .append(i)
+                    .append("\" href=\"https://example.com/items?id=")
+                    .append(i)
+                    .append("&amp;view=full\" title=\"&quot;Quoted&quot; &lt;title&gt;\"")
+                    .append(" description='It&apos;s a plain description without special characters'")
+                    .append(" class=\"item primary highlighted\"/>\n");
+        }
+        return sb.append("</items>\n").toString();
+    }
+
+    /**
+     * Parses the document, unescaping all text content and attribute values.
+     *
+     * @return the parsed document
+     */
+    @Benchmark
+    public Document parse() {
+        return Document.of(xml);
+    }
+
+    /**
+     * Serializes the modified document, escaping all text content and attribute values.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String serializeModified() {
+        return serializer.serialize(modifiedDocument);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(EscapingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by EscapingBenchmark with the GC profiler.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(EscapingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
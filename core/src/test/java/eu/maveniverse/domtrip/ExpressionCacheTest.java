@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link ExpressionCache} and the shared cache of compiled XPath expressions.
+ */
+class ExpressionCacheTest {
+
+    private final AtomicInteger compilations = new AtomicInteger();
+
+    private ExpressionCache<XPathExpression> newCache(int maximumSize) {
+        return new ExpressionCache<>(maximumSize, expression -> {
+            compilations.incrementAndGet();
+            return XPathExpression.compile(expression);
+        });
+    }
+
+    @Test
+    void compilesOncePerExpression() {
+        ExpressionCache<XPathExpression> cache = newCache(8);
+        XPathExpression first = cache.get("//dependency");
+        assertSame(first, cache.get("//dependency"));
+        assertSame(first, cache.get("//dependency"));
+        assertNotSame(first, cache.get("dependencies/dependency"));
+
+        assertEquals(2, compilations.get());
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.hitCount());
+        assertEquals(2, cache.missCount());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        ExpressionCache<XPathExpression> cache = newCache(2);
+        XPathExpression a = cache.get("a");
+        cache.get("b");
+        assertSame(a, cache.get("a")); // b is now the least recently used
+        cache.get("c");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertSame(a, cache.get("a"));
+        assertEquals(3, compilations.get());
+        cache.get("b");
+        assertEquals(4, compilations.get());
+    }
+
+    @Test
+    void largeCacheEvictsWithinBounds() {
+        ExpressionCache<XPathExpression> cache = newCache(ExpressionCache.DEFAULT_MAXIMUM_SIZE);
+        XPathExpression hot = cache.get("hot");
+        for (int i = 0; i < 1000; i++) {
+            cache.get("//item" + i);
+            assertSame(hot, cache.get("hot"));
+        }
+
+        assertEquals(ExpressionCache.DEFAULT_MAXIMUM_SIZE, cache.size());
+        assertEquals(1001 - ExpressionCache.DEFAULT_MAXIMUM_SIZE, cache.evictionCount());
+        assertEquals(1001, compilations.get());
+    }
+
+    @Test
+    void invalidExpressionsAreNotCached() {
+        ExpressionCache<XPathExpression> cache = newCache(8);
+        assertThrows(DomTripException.class, () -> cache.get("foo[!!!]"));
+        assertThrows(DomTripException.class, () -> cache.get("foo[!!!]"));
+        assertThrows(DomTripException.class, () -> cache.get(null));
+
+        assertEquals(0, cache.size());
+        assertEquals(3, cache.missCount());
+    }
+
+    @Test
+    void clearResetsEntriesAndCounters() {
+        ExpressionCache<XPathExpression> cache = newCache(1);
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        assertTrue(cache.toString().contains("evictions=1"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.hitCount());
+        assertEquals(0, cache.missCount());
+        assertEquals(0, cache.evictionCount());
+    }
+
+    @Test
+    void staysBoundedUnderConcurrentUse() {
+        ExpressionCache<XPathExpression> cache = newCache(16);
+        List<String> expressions = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            expressions.add("//item" + i);
+        }
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            String expression = expressions.get(i % (i % 3 == 0 ? 64 : 8));
+            assertEquals(expression, cache.get(expression).expression());
+        });
+
+        assertTrue(cache.size() <= 16);
+        assertEquals(10_000, cache.hitCount() + cache.missCount());
+    }
+
+    @Test
+    void rejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpressionCache<>(0, XPathExpression::compile));
+        assertThrows(IllegalArgumentException.class, () -> new ExpressionCache<XPathExpression>(1, null));
+    }
+
+    @Test
+    void selectUsesSharedCache() {
+        Element root = Document.of("<project><dependencies><dependency/><dependency/></dependencies></project>")
+                .root();
+        Editor editor = new Editor(root.document());
+        String expression = "dependencies/dependency[last()]";
+        long hits = XPathExpression.cache().hitCount();
+
+        assertEquals(1, root.select(expression).size());
+        assertTrue(root.selectFirst(expression).isPresent());
+        assertTrue(editor.selectFirst(expression).isPresent());
+        assertEquals(1, editor.select(expression).size());
+
+        assertTrue(XPathExpression.cache().hitCount() >= hits + 2);
+        assertSame(
+                XPathExpression.cache().get(expression), XPathExpression.cache().get(expression));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link Document#fingerprint()} on a large POM, fingerprinted again
+ * after every small edit.
+ *
+ * <p>{@code fingerprintAfterEdit} changes the version of one dependency, cycling through
+ * them, and fingerprints the document, which only rehashes the path to the change.
+ * {@code fingerprintFromScratch} alternates between two configurations, so that no cached
+ * fingerprint can be reused and the whole document is hashed every time, and
+ * {@code fingerprintUnchanged} fingerprints the unchanged document. For comparison,
+ * {@code serializeAfterEdit} makes the same edit and serializes the document, the cost of
+ * detecting changes by comparing the XML.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main FingerprintBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class FingerprintBenchmark {
+
+    @Param({"1000", "10000"})
+    private int dependencies;
+
+    private Document document;
+    private List<Element> versions;
+    private int edits;
+    private final FingerprintConfig[] configs = {
+        FingerprintConfig.defaults(), FingerprintConfig.builder().comments(true).build()
+    };
+
+    /**
+     * Generates the POM.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        sb.append("  <dependencies>\n");
+        for (int i = 0; i < dependencies; i++) {
+            sb.append("    <dependency>\n");
+            sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <version>1.").append(i).append("</version>\n");
+            sb.append("    </dependency>\n");
+        }
+        document = Document.of(sb.append("  </dependencies>\n</project>\n").toString());
+        versions = document.root().descendants("version").collect(Collectors.toList());
+        document.fingerprint();
+    }
+
+    /**
+     * Changes the version of the next dependency and fingerprints the document.
+     *
+     * @return the fingerprint
+     */
+    @Benchmark
+    public Fingerprint fingerprintAfterEdit() {
+        edit();
+        return document.fingerprint();
+    }
+
+    /**
+     * Fingerprints the whole document, alternating configurations to defeat caching.
+     *
+     * @return the fingerprint
+     */
+    @Benchmark
+    public Fingerprint fingerprintFromScratch() {
+        return document.fingerprint(configs[edits++ & 1]);
+    }
+
+    /**
+     * Fingerprints the unchanged document.
+     *
+     * @return the fingerprint
+     */
+    @Benchmark
+    public Fingerprint fingerprintUnchanged() {
+        return document.fingerprint();
+    }
+
+    /**
+     * Changes the version of the next dependency and serializes the document.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String serializeAfterEdit() {
+        edit();
+        return document.toXml();
+    }
+
+    private void edit() {
+        Element version = versions.get(edits++ % versions.size());
+        version.textContent(version.textContent().endsWith(".1") ? "2.0" : "2.0.1");
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(FingerprintBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by FingerprintBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(FingerprintBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link Document#fingerprint()} and {@link Element#fingerprint()}.
+ */
+class FingerprintTest {
+
+    private static final String POM = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+            + "  <modelVersion>4.0.0</modelVersion>\n"
+            + "  <groupId>com.example</groupId>\n"
+            + "  <artifactId>app</artifactId>\n"
+            + "  <version>1.0-SNAPSHOT</version>\n"
+            + "  <!-- dependencies -->\n"
+            + "  <dependencies>\n"
+            + "    <dependency>\n"
+            + "      <groupId>junit</groupId>\n"
+            + "      <artifactId>junit</artifactId>\n"
+            + "      <version>4.13</version>\n"
+            + "      <scope>test</scope>\n"
+            + "    </dependency>\n"
+            + "  </dependencies>\n"
+            + "</project>\n";
+
+    @Test
+    void ignoresFormatting() {
+        String reformatted = "<?xml version='1.0'?>\n"
+                + "<pom:project xmlns:pom='http://maven.apache.org/POM/4.0.0'>"
+                + "<pom:modelVersion>4.0.0</pom:modelVersion>"
+                + "<pom:groupId><![CDATA[com.example]]></pom:groupId><pom:artifactId>&#97;pp</pom:artifactId>"
+                + "<pom:version>\n    1.0-SNAPSHOT\n  </pom:version>"
+                + "<pom:dependencies><pom:dependency><pom:groupId>junit</pom:groupId>"
+                + "<pom:artifactId>junit</pom:artifactId><pom:version>4.13</pom:version>"
+                + "<pom:scope>test</pom:scope></pom:dependency></pom:dependencies></pom:project>";
+
+        assertEquals(fingerprint(POM), fingerprint(reformatted));
+        assertNotEquals(fingerprint(POM), fingerprint(POM.replace("4.13", "4.13.2")));
+        assertNotEquals(fingerprint(POM), fingerprint(POM.replace("POM/4.0.0\"", "POM/4.1.0\"")));
+        assertNotEquals(fingerprint(POM), fingerprint(POM.replace("scope", "type")));
+    }
+
+    @Test
+    void coversAttributesAndNamespaces() {
+        assertEquals(fingerprint("<a x='1' y=\"2\"/>"), fingerprint("<a  y='2'\n   x='1'></a>"));
+        assertNotEquals(fingerprint("<a x='1'/>"), fingerprint("<a x='2'/>"));
+        assertNotEquals(fingerprint("<a x='1'/>"), fingerprint("<a y='1'/>"));
+        assertEquals(fingerprint("<p:a xmlns:p='urn:x' p:k='v'/>"), fingerprint("<q:a xmlns:q='urn:x' q:k='v'/>"));
+        assertNotEquals(fingerprint("<p:a xmlns:p='urn:x'/>"), fingerprint("<p:a xmlns:p='urn:y'/>"));
+        assertNotEquals(fingerprint("<a xmlns='urn:x' k='v'/>"), fingerprint("<p:a xmlns:p='urn:x' p:k='v'/>"));
+        assertNotEquals(fingerprint("<a><b/></a>"), fingerprint("<a><b/><b/></a>"));
+        assertNotEquals(fingerprint("<a><b/>t</a>"), fingerprint("<a>t<b/></a>"));
+    }
+
+    @Test
+    void appliesConfiguration() {
+        FingerprintConfig ordered = FingerprintConfig.builder().attributeOrder(true).build();
+        FingerprintConfig exact = FingerprintConfig.builder().normalizeWhitespace(false).build();
+        FingerprintConfig comments = FingerprintConfig.builder().comments(true).build();
+
+        assertNotEquals(
+                Document.of("<a x='1' y='2'/>").fingerprint(ordered),
+                Document.of("<a y='2' x='1'/>").fingerprint(ordered));
+        assertEquals(fingerprint("<a>t  u</a>"), fingerprint("<a> t\n u </a>"));
+        assertNotEquals(
+                Document.of("<a>t  u</a>").fingerprint(exact),
+                Document.of("<a> t\n u </a>").fingerprint(exact));
+        assertEquals(fingerprint("<a>t<!-- c -->u</a>"), fingerprint("<a>tu</a>"));
+        assertNotEquals(
+                Document.of("<a>t<!-- c -->u</a>").fingerprint(comments),
+                Document.of("<a>tu</a>").fingerprint(comments));
+        assertNotEquals(fingerprint("<a><?pi x?></a>"), fingerprint("<a/>"));
+
+        Document document = Document.of(POM);
+        assertNotEquals(document.fingerprint(), document.fingerprint(comments));
+        assertEquals(document.fingerprint(), document.fingerprint(FingerprintConfig.defaults()));
+    }
+
+    @Test
+    void cachesUntilModified() {
+        Document document = Document.of(POM);
+        Element root = document.root();
+        Element dependencies = root.childElement("dependencies").orElseThrow();
+        Element groupId = root.childElement("groupId").orElseThrow();
+        Fingerprint fingerprint = document.fingerprint();
+        Fingerprint dependenciesFingerprint = dependencies.fingerprint();
+        Fingerprint groupIdFingerprint = groupId.fingerprint();
+
+        assertEquals(fingerprint, document.fingerprint());
+        assertSame(dependenciesFingerprint, dependencies.fingerprint());
+
+        Editor editor = new Editor(document);
+        editor.setTextContent(dependencies.descendants("version").findFirst().orElseThrow(), "4.13.2");
+
+        assertNotEquals(fingerprint, document.fingerprint());
+        assertNotEquals(dependenciesFingerprint, dependencies.fingerprint());
+        assertEquals(Document.of(document.toXml()).fingerprint(), document.fingerprint());
+        assertSame(groupIdFingerprint, groupId.fingerprint());
+    }
+
+    @Test
+    void followsAttributeObjectChanges() {
+        Document document = Document.of("<a><b class='x'/><c/></a>");
+        Document other = Document.of("<a><b class='x'/><c/></a>");
+        assertEquals(other.fingerprint(), document.fingerprint());
+
+        document.root().childElement("b").orElseThrow().attributeObject("class").value("manual");
+
+        assertNotEquals(other.fingerprint(), document.fingerprint());
+        assertEquals(fingerprint("<a><b class='manual'/><c/></a>"), document.fingerprint());
+    }
+
+    @Test
+    void followsNamespaceScope() {
+        Document document = Document.of("<a xmlns='urn:x'><b><c/></b></a>");
+        Element b = document.root().childElement("b").orElseThrow();
+        Fingerprint before = b.fingerprint();
+
+        document.root().attribute("xmlns", "urn:y");
+
+        assertNotEquals(before, b.fingerprint());
+        assertEquals(Document.of("<b xmlns='urn:y'><c/></b>").root().fingerprint(), b.fingerprint());
+
+        Element c = b.childElement("c").orElseThrow();
+        Fingerprint inB = c.fingerprint();
+        Element detached = new Element("d");
+        detached.addChild(c);
+        assertNotEquals(inB, c.fingerprint());
+        assertEquals(Document.of("<c/>").root().fingerprint(), c.fingerprint());
+    }
+
+    @Test
+    void formatsAndParses() {
+        Fingerprint fingerprint = fingerprint(POM);
+
+        assertEquals(32, fingerprint.toString().length());
+        assertTrue(fingerprint.toString().matches("[0-9a-f]{32}"), fingerprint.toString());
+        assertEquals(fingerprint, Fingerprint.parse(fingerprint.toString()));
+        assertEquals("00000000000000000000000000000001", new Fingerprint(0, 1).toString());
+        assertThrows(IllegalArgumentException.class, () -> Fingerprint.parse("123"));
+        assertThrows(IllegalArgumentException.class, () -> Fingerprint.parse("x".repeat(32)));
+    }
+
+    @Test
+    void matchesReparsedDocumentAfterRandomEdits() {
+        String[] names = {"a", "b", "c"};
+        for (int seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            Document document = Document.of(POM);
+            document.fingerprint();
+            for (int edit = 0; edit < 10; edit++) {
+                List<Element> elements = document.root().descendants().collect(Collectors.toList());
+                Element element = elements.get(random.nextInt(elements.size()));
+                switch (random.nextInt(5)) {
+                    case 0:
+                        element.attribute(names[random.nextInt(3)], String.valueOf(random.nextInt(3)));
+                        break;
+                    case 1:
+                        element.textContent("t" + random.nextInt(3));
+                        break;
+                    case 2:
+                        element.addChild(new Element(names[random.nextInt(3)]));
+                        break;
+                    case 3:
+                        element.parentElement().removeChild(element);
+                        break;
+                    default:
+                        element.precedingWhitespace(random.nextBoolean() ? "\n    " : "");
+                        break;
+                }
+                assertEquals(
+                        Document.of(document.toXml()).fingerprint(), document.fingerprint(), "seed " + seed);
+            }
+        }
+    }
+
+    private static Fingerprint fingerprint(String xml) {
+        return Document.of(xml).fingerprint();
+    }
+}
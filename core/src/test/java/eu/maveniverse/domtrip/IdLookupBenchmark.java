@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for repeated ID lookups in a large POM, comparing
+ * {@link Document#elementById(String)} and an ID attribute query, which use the document's ID
+ * index, with a scan over {@link Element#descendants()}. The {@code afterChange} variant
+ * modifies the document before each lookup, so it measures rebuilding the index.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main IdLookupBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class IdLookupBenchmark {
+
+    @Param({"100", "1000"})
+    private int dependencyCount;
+
+    private Document document;
+    private Element root;
+    private Element version;
+    private String[] ids;
+    private int next;
+
+    /**
+     * Generates and parses a POM whose dependencies have an {@code id} attribute.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<project>\n  <version>1.0</version>\n  <dependencies>\n");
+        for (int i = 0; i < dependencyCount; i++) {
+            sb.append("    <dependency id=\"dep-").append(i).append("\">\n");
+            sb.append("      <groupId>com.example</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("    </dependency>\n");
+        }
+        sb.append("  </dependencies>\n</project>\n");
+        document = Document.of(sb.toString());
+        root = document.root();
+        version = root.childElement("version").orElseThrow();
+        // Spread the lookups over the document
+        ids = new String[16];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = "dep-" + (i * 7919 % dependencyCount);
+        }
+    }
+
+    private String nextId() {
+        return ids[next++ & (ids.length - 1)];
+    }
+
+    /**
+     * Looks up an element through the document's ID index.
+     *
+     * @return the element
+     */
+    @Benchmark
+    public Optional<Element> elementById() {
+        return document.elementById(nextId());
+    }
+
+    /**
+     * Changes the document, then looks up an element, which rebuilds the ID index.
+     *
+     * @return the element
+     */
+    @Benchmark
+    public Optional<Element> elementByIdAfterChange() {
+        version.textContent((next & 1) == 0 ? "1.0" : "1.1");
+        return document.elementById(nextId());
+    }
+
+    /**
+     * Finds an element with a query on its ID attribute, which takes the candidates from the
+     * document's ID index.
+     *
+     * @return the element
+     */
+    @Benchmark
+    public Optional<Element> query() {
+        return root.query().withAttribute("id", nextId()).first();
+    }
+
+    /**
+     * Finds an element by scanning the descendants for the ID attribute.
+     *
+     * @return the element
+     */
+    @Benchmark
+    public Optional<Element> scan() {
+        String id = nextId();
+        return root.descendants()
+                .filter(element -> id.equals(element.attribute("id")))
+                .findFirst();
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(IdLookupBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by IdLookupBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(IdLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link MultiQuery}, checking that evaluating expressions together selects the same
+ * elements as evaluating each of them on its own.
+ */
+class MultiQueryTest {
+
+    private static final String POM = """
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <groupId>org.example</groupId>
+              <artifactId>my-project</artifactId>
+              <version>1.0.0</version>
+              <dependencies>
+                <dependency scope="test">
+                  <groupId>org.junit</groupId>
+                  <artifactId>junit</artifactId>
+                  <version>5.9.2</version>
+                  <scope>test</scope>
+                  <exclusions>
+                    <exclusion><groupId>org.hamcrest</groupId></exclusion>
+                  </exclusions>
+                </dependency>
+                <dependency>
+                  <groupId>org.example</groupId>
+                  <artifactId>example-lib</artifactId>
+                  <version>1.0.0</version>
+                </dependency>
+              </dependencies>
+              <build>
+                <plugins>
+                  <plugin>
+                    <artifactId>maven-compiler-plugin</artifactId>
+                    <version>3.11.0</version>
+                    <dependencies>
+                      <dependency><groupId>org.ow2.asm</groupId></dependency>
+                    </dependencies>
+                  </plugin>
+                  <plugin>
+                    <artifactId>maven-surefire-plugin</artifactId>
+                  </plugin>
+                </plugins>
+              </build>
+            </project>""";
+
+    private final Element root = Document.of(POM).root();
+
+    private static void assertSameAsSeparate(Element context, String... expressions) {
+        MultiQuery query = MultiQuery.compile(expressions);
+        Map<XPathExpression, List<Element>> results = query.select(context);
+        assertEquals(query.expressions(), new ArrayList<>(results.keySet()));
+        for (XPathExpression expression : query.expressions()) {
+            List<Element> expected = expression.select(context);
+            List<Element> actual = results.get(expression);
+            assertEquals(expected.size(), actual.size(), expression.expression());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), actual.get(i), expression.expression());
+            }
+        }
+    }
+
+    @Test
+    void childPathsSharingPrefixes() {
+        assertSameAsSeparate(
+                root,
+                "groupId",
+                "version",
+                "dependencies/dependency",
+                "dependencies/dependency/groupId",
+                "dependencies/dependency/artifactId",
+                "build/plugins/plugin",
+                "build/plugins/plugin/artifactId",
+                "build/plugins/*/version",
+                "missing/path");
+    }
+
+    @Test
+    void descendantPaths() {
+        assertSameAsSeparate(
+                root,
+                "//dependency",
+                "//dependency/groupId",
+                "//groupId",
+                "dependencies//groupId",
+                "//dependencies//dependency//groupId",
+                "build//dependency",
+                "//plugin//*");
+    }
+
+    @Test
+    void predicates() {
+        assertSameAsSeparate(
+                root,
+                "dependencies/dependency[scope='test']",
+                "dependencies/dependency[@scope]",
+                "dependencies/dependency[@scope='test']/artifactId",
+                "//dependency[groupId='org.example']",
+                "//plugin[artifactId='maven-surefire-plugin']",
+                "dependencies/dependency[1]",
+                "dependencies/dependency[2]/groupId",
+                "dependencies/dependency[last()]",
+                "build/plugins/plugin[last()][artifactId='maven-surefire-plugin']",
+                "build/plugins/plugin[1][2]",
+                "//plugin/dependencies/dependency[1]/groupId");
+    }
+
+    @Test
+    void selfSteps() {
+        assertSameAsSeparate(root, ".", "./groupId", "dependencies/./dependency", "//dependency/.[@scope]", "./.[1]");
+    }
+
+    @Test
+    void expressionsEvaluatedSeparately() {
+        assertSameAsSeparate(
+                root, "//groupId/..", "//dependency[1]", "//dependency[last()]/version", "dependencies/dependency");
+    }
+
+    @Test
+    void nestedContextsSelectElementsOnce() {
+        Element nested =
+                Document.of("<r><a><b/><a><b/><a><b/></a></a><b/></a><b/></r>").root();
+        assertSameAsSeparate(nested, "//a//b", "//a/b", "//a//a", "//a//a//b", "a//a/b[1]", "//b", "a/a");
+    }
+
+    @Test
+    void prefixedNames() {
+        Element envelope = Document.of(
+                        "<soap:Envelope xmlns:soap='urn:s'><soap:Body><m:op xmlns:m='urn:m'/><op/></soap:Body></soap:Envelope>")
+                .root();
+        assertSameAsSeparate(envelope, "Body/op", "soap:Body/m:op", "//op", "//m:op", "//soap:Body//*");
+    }
+
+    @Test
+    void evaluatesAgainstInnerContext() {
+        Element dependencies = root.childElement("dependencies").orElseThrow();
+        assertSameAsSeparate(dependencies, "dependency/groupId", "//groupId", "dependency[last()]", ".");
+    }
+
+    @Test
+    void duplicateExpressionsAreEvaluatedOnce() {
+        XPathExpression expression = XPathExpression.compile("//groupId");
+        MultiQuery query = MultiQuery.of(expression, expression);
+        assertEquals(1, query.expressions().size());
+        assertEquals(5, query.select(root).get(expression).size());
+    }
+
+    @Test
+    void nullContextSelectsNothing() {
+        MultiQuery query = MultiQuery.compile("//groupId", "//groupId/..");
+        Map<XPathExpression, List<Element>> results = query.select(null);
+        assertEquals(2, results.size());
+        results.values().forEach(elements -> assertTrue(elements.isEmpty()));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> MultiQuery.of((XPathExpression[]) null));
+        assertThrows(IllegalArgumentException.class, () -> MultiQuery.of(XPathExpression.compile("a"), null));
+        assertThrows(IllegalArgumentException.class, () -> MultiQuery.compile((String[]) null));
+        assertThrows(DomTripException.class, () -> MultiQuery.compile("a", "b[!!!]"));
+    }
+}
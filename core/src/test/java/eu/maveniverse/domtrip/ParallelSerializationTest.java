@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that parallel serialization of wide elements produces the same output as sequential serialization.
+ */
+class ParallelSerializationTest {
+
+    private ForkJoinPool pool;
+    private String xml;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+        xml = buildWideXml(1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    private static String buildWideXml(int count) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<project>\n");
+        sb.append("  <dependencies>\n");
+        for (int i = 0; i < count; i++) {
+            sb.append("    <!-- dependency ").append(i).append(" -->\n");
+            sb.append("    <dependency id='d").append(i).append("'>\n");
+            sb.append("      <groupId>com.example &amp; co</groupId>\n");
+            sb.append("      <artifactId   >artifact-").append(i).append("</artifactId>\n");
+            if (i % 100 == 0) {
+                // nested wide element
+                sb.append("      <exclusions>\n");
+                for (int j = 0; j < 300; j++) {
+                    sb.append("        <exclusion>e").append(j).append("</exclusion>\n");
+                }
+                sb.append("      </exclusions>\n");
+            }
+            sb.append("    </dependency>\n");
+        }
+        sb.append("  </dependencies>\n");
+        sb.append("</project>\n");
+        return sb.toString();
+    }
+
+    private void assertParallelMatchesSequential(DomTripConfig config, Document document) {
+        Serializer sequential = new Serializer(config);
+        Serializer parallel = new Serializer(config);
+        parallel.setParallel(pool);
+        assertTrue(parallel.isParallel());
+        assertEquals(sequential.serialize(document), parallel.serialize(document));
+    }
+
+    @Test
+    void unmodifiedDocument() {
+        Document document = Document.of(xml);
+        assertParallelMatchesSequential(DomTripConfig.defaults(), document);
+        Serializer parallel = new Serializer();
+        parallel.setParallel(pool);
+        assertEquals(xml, parallel.serialize(document));
+    }
+
+    @Test
+    void modifiedDocument() {
+        Document document = Document.of(xml);
+        Editor editor = new Editor(document);
+        document.root()
+                .descendants("dependency")
+                .filter(d -> d.attribute("id").endsWith("7"))
+                .collect(Collectors.toList())
+                .forEach(d -> editor.addElement(d, "version", "1.0"));
+        assertParallelMatchesSequential(DomTripConfig.defaults(), document);
+    }
+
+    @Test
+    void prettyPrint() {
+        Document document = Document.of(xml);
+        assertParallelMatchesSequential(DomTripConfig.prettyPrint(), document);
+        assertParallelMatchesSequential(DomTripConfig.raw(), document);
+        assertParallelMatchesSequential(DomTripConfig.prettyPrint().withCommentPreservation(false), document);
+    }
+
+    @Test
+    void withSerializationCache() {
+        Document document = Document.of(xml);
+        Serializer parallel = new Serializer(DomTripConfig.defaults().withSerializationCache(true));
+        parallel.setParallel(pool);
+        assertEquals(xml, parallel.serialize(document));
+
+        document.root().descendant("exclusion").orElseThrow().textContent("changed");
+        assertEquals(new Serializer().serialize(document), parallel.serialize(document));
+    }
+
+    @Test
+    void config() {
+        Serializer serializer = new Serializer(DomTripConfig.defaults().withParallelSerialization(true));
+        assertTrue(serializer.isParallel());
+        serializer.setParallel(false);
+        assertFalse(serializer.isParallel());
+
+        Document document = Document.of(xml);
+        Editor editor = new Editor(document, DomTripConfig.defaults().withParallelSerialization(true));
+        assertEquals(xml, editor.toXml());
+    }
+}
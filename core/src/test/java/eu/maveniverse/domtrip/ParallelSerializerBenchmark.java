@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for parallel serialization of a wide document, run with an increasing number
+ * of fork/join worker threads to show how serialization scales with cores.
+ *
+ * <p>A {@code threads} value of 1 serializes sequentially, without a pool.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main ParallelSerializerBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class ParallelSerializerBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private ForkJoinPool pool;
+    private Document document;
+    private Serializer preserving;
+    private Serializer pretty;
+
+    /**
+     * Builds and parses a POM with 20000 dependencies, modifies every dependency so that the
+     * preservation mode cannot fall back to the original source, and creates the serializers.
+     */
+    @Setup
+    public void setup() {
+        document = Document.of(SerializerBenchmark.buildPom(20000));
+        document.root().descendants("dependency").forEach(dependency -> dependency.attribute("optional", "false"));
+
+        preserving = new Serializer();
+        pretty = new Serializer(DomTripConfig.prettyPrint());
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+            preserving.setParallel(pool);
+            pretty.setParallel(pool);
+        }
+    }
+
+    /**
+     * Shuts down the fork/join pool created for the benchmark.
+     */
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Serializes the modified document in preservation mode.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String serializePreserving() {
+        return preserving.serialize(document);
+    }
+
+    /**
+     * Serializes the document in pretty print mode.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String serializePretty() {
+        return pretty.serialize(document);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ParallelSerializerBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by ParallelSerializerBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ParallelSerializerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for parallel {@link XmlDiff} of two large documents, run with an increasing
+ * number of fork/join worker threads to show how diffing scales with cores.
+ *
+ * <p>The documents are POMs with 20000 dependencies, each with a few configuration elements;
+ * the second one changes the version and one configuration value of every fourth dependency.
+ * A {@code threads} value of 1 diffs sequentially, without a pool.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main ParallelXmlDiffBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class ParallelXmlDiffBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private ForkJoinPool pool;
+    private Document before;
+    private Document after;
+    private DiffConfig positional;
+    private DiffConfig keyed;
+
+    /**
+     * Builds and parses both POMs and creates the configurations.
+     */
+    @Setup
+    public void setup() {
+        before = Document.of(buildPom(20000, false));
+        after = Document.of(buildPom(20000, true));
+
+        DiffConfig.Builder positionalBuilder = DiffConfig.builder();
+        DiffConfig.Builder keyedBuilder = DiffConfig.builder().matchBy("dependency", "groupId", "artifactId");
+        if (threads > 1) {
+            pool = new ForkJoinPool(threads);
+            positionalBuilder.parallel(pool);
+            keyedBuilder.parallel(pool);
+        }
+        positional = positionalBuilder.build();
+        keyed = keyedBuilder.build();
+    }
+
+    private static String buildPom(int count, boolean edited) {
+        StringBuilder sb = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i = 0; i < count; i++) {
+            boolean edit = edited && i % 4 == 0;
+            sb.append("    <dependency>\n");
+            sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <version>").append(edit ? "2." : "1.").append(i).append("</version>\n");
+            sb.append("      <configuration>\n");
+            for (int j = 0; j < 5; j++) {
+                sb.append("        <option name=\"o").append(j).append("\">");
+                sb.append(edit && j == 2 ? "changed" : "value-" + j).append("</option>\n");
+            }
+            sb.append("      </configuration>\n");
+            sb.append("    </dependency>\n");
+        }
+        return sb.append("  </dependencies>\n</project>\n").toString();
+    }
+
+    /**
+     * Shuts down the fork/join pool created for the benchmark.
+     */
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Diffs the documents, matching dependencies by position.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult diffPositional() {
+        return XmlDiff.diff(before, after, positional);
+    }
+
+    /**
+     * Diffs the documents, matching dependencies by groupId and artifactId.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult diffKeyed() {
+        return XmlDiff.diff(before, after, keyed);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ParallelXmlDiffBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by ParallelXmlDiffBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(ParallelXmlDiffBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for pretty printing with {@link DomTripConfig#prettyPrint()}, run with the GC
+ * profiler so that the allocation rate per operation ({@code gc.alloc.rate.norm}) can be compared
+ * with the size of the produced output.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main PrettyPrintBenchmark -prof gc}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class PrettyPrintBenchmark {
+
+    @Param({"100", "2000"})
+    private int dependencyCount;
+
+    private Serializer serializer;
+    private Document document;
+    private Document modifiedDocument;
+
+    /**
+     * Parses the generated all-ASCII POM, once as is and once with every text node modified so
+     * that text content has to be escaped, and creates the pretty printing serializer.
+     */
+    @Setup
+    public void setup() {
+        String xml = SerializerBenchmark.buildPom(dependencyCount);
+        serializer = new Serializer(DomTripConfig.prettyPrint());
+        document = Document.of(xml);
+        modifiedDocument = Document.of(xml);
+        modifiedDocument
+                .root()
+                .descendants()
+                .filter(element -> element.childCount() == 1)
+                .collect(Collectors.toList())
+                .forEach(element -> element.textContent(element.textContent()));
+    }
+
+    /**
+     * Pretty prints the unmodified document.
+     *
+     * @return the pretty printed document
+     */
+    @Benchmark
+    public String prettyPrint() {
+        return serializer.serialize(document);
+    }
+
+    /**
+     * Pretty prints the document whose text nodes have all been modified.
+     *
+     * @return the pretty printed document
+     */
+    @Benchmark
+    public String prettyPrintModified() {
+        return serializer.serialize(modifiedDocument);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(PrettyPrintBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by PrettyPrintBenchmark with the GC profiler.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(PrettyPrintBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
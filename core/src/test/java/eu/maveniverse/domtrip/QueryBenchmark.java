@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the query layer: string XPath expressions, {@link ElementQuery} chains,
+ * {@link Element#descendants(String)} and {@link Element#path(String...)}, over synthetic
+ * documents of different shapes.
+ *
+ * <p>Results are reported as throughput together with the allocations of the GC profiler,
+ * whose {@code gc.alloc.rate.norm} row gives the bytes allocated per operation. The same
+ * documents are queried through jaxen by {@code JaxenQueryBenchmark} in the jaxen module.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main eu.maveniverse.domtrip.QueryBenchmark -prof gc}</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class QueryBenchmark {
+
+    static final String SELECT = "//dependency[scope='test']/artifactId";
+
+    @Param({"small", "medium", "large", "deep"})
+    private String shape;
+
+    private Element root;
+    private XPathExpression select;
+    private XPathExpression childPath;
+    private CompiledXPath compiled;
+
+    /**
+     * Parses the document of the selected shape and compiles the expressions.
+     */
+    @Setup
+    public void setup() {
+        root = Document.of(buildDocument(shape)).root();
+        select = XPathExpression.compile(SELECT);
+        childPath = XPathExpression.compile("dependencies/dependency/version");
+        compiled = CompiledXPath.compile(SELECT);
+    }
+
+    /**
+     * Builds a project with dependencies: {@code small}, {@code medium} and {@code large}
+     * documents have 10, 200 and 5000 dependencies in one list, while {@code deep} documents
+     * nest 200 levels of modules with 5 dependencies each. Every third dependency has the
+     * test scope.
+     *
+     * @param shape the document shape
+     * @return the document XML
+     */
+    static String buildDocument(String shape) {
+        int breadth;
+        int depth;
+        switch (shape) {
+            case "small":
+                breadth = 10;
+                depth = 1;
+                break;
+            case "medium":
+                breadth = 200;
+                depth = 1;
+                break;
+            case "large":
+                breadth = 5000;
+                depth = 1;
+                break;
+            case "deep":
+                breadth = 5;
+                depth = 200;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown document shape: " + shape);
+        }
+        StringBuilder sb = new StringBuilder("<project>\n<version>1.0.0</version>\n");
+        int id = 0;
+        for (int level = 0; level < depth; level++) {
+            sb.append("<dependencies>\n");
+            for (int i = 0; i < breadth; i++, id++) {
+                sb.append("<dependency id=\"d")
+                        .append(id)
+                        .append("\"><groupId>com.example.group")
+                        .append(id % 3)
+                        .append("</groupId><artifactId>artifact-")
+                        .append(id)
+                        .append("</artifactId><version>1.")
+                        .append(id)
+                        .append("</version>")
+                        .append(id % 3 == 0 ? "<scope>test</scope>" : "")
+                        .append("</dependency>\n");
+            }
+            sb.append("</dependencies>\n");
+            if (level < depth - 1) {
+                sb.append("<modules><module>\n");
+            }
+        }
+        for (int level = 1; level < depth; level++) {
+            sb.append("</module></modules>\n");
+        }
+        return sb.append("</project>\n").toString();
+    }
+
+    /**
+     * Compiles the filtered descendant expression.
+     *
+     * @return the compiled expression
+     */
+    @Benchmark
+    public XPathExpression xpathCompile() {
+        return XPathExpression.compile(SELECT);
+    }
+
+    /**
+     * Selects the artifact ids of all test dependencies with a precompiled expression.
+     *
+     * @return the selected elements
+     */
+    @Benchmark
+    public List<Element> xpathSelect() {
+        return select.select(root);
+    }
+
+    /**
+     * Selects the artifact id of the first test dependency with a precompiled expression.
+     *
+     * @return the first selected element
+     */
+    @Benchmark
+    public Optional<Element> xpathSelectFirst() {
+        return select.selectFirst(root);
+    }
+
+    /**
+     * Selects the versions of the top-level dependencies through a child path.
+     *
+     * @return the selected elements
+     */
+    @Benchmark
+    public List<Element> xpathChildPath() {
+        return childPath.select(root);
+    }
+
+    /**
+     * Selects the artifact ids of all test dependencies with the full XPath engine.
+     *
+     * @return the selected elements
+     */
+    @Benchmark
+    public List<Element> compiledXPathSelect() {
+        return compiled.select(root);
+    }
+
+    /**
+     * Counts the top-level test dependencies through an element query chain.
+     *
+     * @return the number of top-level test dependencies
+     */
+    @Benchmark
+    public long elementQuery() {
+        return root.query().withName("scope").withTextContent("test").atDepth(3).count();
+    }
+
+    /**
+     * Finds the dependency with a given id attribute through an element query chain.
+     *
+     * @return the dependency
+     */
+    @Benchmark
+    public Optional<Element> elementQueryByAttribute() {
+        return root.query().withName("dependency").withAttribute("id", "d7").first();
+    }
+
+    /**
+     * Counts all dependencies through the descendant stream.
+     *
+     * @return the number of dependencies
+     */
+    @Benchmark
+    public long descendants() {
+        return root.descendants("dependency").count();
+    }
+
+    /**
+     * Navigates to the version of the first top-level dependency by name path.
+     *
+     * @return the version element
+     */
+    @Benchmark
+    public Optional<Element> path() {
+        return root.path("dependencies", "dependency", "version");
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(QueryBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by QueryBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(QueryBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
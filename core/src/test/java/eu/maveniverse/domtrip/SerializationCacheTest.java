@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the subtree serialization cache and node generations.
+ */
+class SerializationCacheTest {
+
+    private static final String POM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <!-- a comment before the root -->
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <modelVersion>4.0.0</modelVersion>
+              <groupId>com.example</groupId>
+              <artifactId>demo</artifactId>
+              <dependencies>
+                <dependency>
+                  <groupId>org.junit.jupiter</groupId>
+                  <artifactId>junit-jupiter</artifactId>
+                  <version>5.10.0</version>
+                  <scope>test</scope>
+                </dependency>
+                <dependency>
+                  <groupId>org.assertj</groupId>
+                  <artifactId   >assertj-core</artifactId>
+                  <version>3.24.2</version>
+                  <scope>test</scope>
+                </dependency>
+                <dependency>
+                  <groupId>org.slf4j</groupId>
+                  <artifactId>slf4j-api</artifactId>
+                  <version>2.0.9</version>
+                </dependency>
+              </dependencies>
+              <build   />
+            </project>
+            """;
+
+    private Document cachedDoc;
+    private Document plainDoc;
+    private Serializer cached;
+    private Serializer plain;
+
+    @BeforeEach
+    void setUp() {
+        cachedDoc = Document.of(POM);
+        plainDoc = Document.of(POM);
+        cached = new Serializer();
+        cached.setSerializationCache(true);
+        plain = new Serializer();
+    }
+
+    private void assertSameOutput() {
+        assertEquals(plain.serialize(plainDoc), cached.serialize(cachedDoc));
+    }
+
+    private static Element dependency(Document doc, int index) {
+        return doc.root()
+                .childElement("dependencies")
+                .orElseThrow()
+                .childElements("dependency")
+                .toList()
+                .get(index);
+    }
+
+    @Nested
+    class Generation {
+
+        @Test
+        void markModifiedAdvancesNodeAndAncestors() {
+            Element version = dependency(cachedDoc, 1).childElement("version").orElseThrow();
+            Element other = dependency(cachedDoc, 0);
+            long versionGeneration = version.generation();
+            long rootGeneration = cachedDoc.root().generation();
+            long documentGeneration = cachedDoc.generation();
+            long otherGeneration = other.generation();
+
+            version.textContent("3.25.0");
+
+            assertTrue(version.generation() > versionGeneration);
+            assertTrue(cachedDoc.root().generation() > rootGeneration);
+            assertTrue(cachedDoc.generation() > documentGeneration);
+            assertEquals(otherGeneration, other.generation());
+        }
+
+        @Test
+        void clearModifiedAdvancesGeneration() {
+            Element root = cachedDoc.root();
+            root.attribute("foo", "bar");
+            long generation = root.generation();
+
+            cachedDoc.clearModified();
+
+            assertTrue(root.generation() > generation);
+        }
+
+        @Test
+        void internalChangesAdvanceAncestors() {
+            Element version = dependency(cachedDoc, 1).childElement("version").orElseThrow();
+            long documentGeneration = cachedDoc.generation();
+
+            ((Text) version.child(0)).rawContent("3.24.2");
+
+            assertTrue(cachedDoc.generation() > documentGeneration);
+            assertFalse(version.isModified());
+
+            version.textContent("3.25.0");
+            documentGeneration = cachedDoc.generation();
+
+            version.child(0).clearModified();
+
+            assertTrue(cachedDoc.generation() > documentGeneration);
+        }
+    }
+
+    @Nested
+    class Output {
+
+        @Test
+        void unmodifiedDocumentIsReused() {
+            String first = cached.serialize(cachedDoc);
+            assertEquals(POM, first);
+            assertSame(first, cached.serialize(cachedDoc));
+        }
+
+        @Test
+        void textChange() {
+            assertSameOutput();
+            dependency(cachedDoc, 1).childElement("version").orElseThrow().textContent("3.25.0");
+            dependency(plainDoc, 1).childElement("version").orElseThrow().textContent("3.25.0");
+            assertSameOutput();
+            assertTrue(cached.serialize(cachedDoc).contains("<version>3.25.0</version>"));
+            assertTrue(cached.serialize(cachedDoc).contains("<artifactId   >assertj-core</artifactId>"));
+        }
+
+        @Test
+        void rawTextChange() {
+            assertSameOutput();
+            for (Document doc : new Document[] {cachedDoc, plainDoc}) {
+                Element version = dependency(doc, 1).childElement("version").orElseThrow();
+                ((Text) version.child(0)).rawContent("3.24.&#50;");
+            }
+            assertSameOutput();
+            assertTrue(cached.serialize(cachedDoc).contains("<version>3.24.&#50;</version>"));
+        }
+
+        @Test
+        void attributeChange() {
+            assertSameOutput();
+            dependency(cachedDoc, 2).attribute("id", "slf4j");
+            dependency(plainDoc, 2).attribute("id", "slf4j");
+            assertSameOutput();
+        }
+
+        @Test
+        void attributeObjectChanges() {
+            for (Document doc : new Document[] {cachedDoc, plainDoc}) {
+                dependency(doc, 1).attribute("class", "x");
+            }
+            assertSameOutput();
+            for (Document doc : new Document[] {cachedDoc, plainDoc}) {
+                dependency(doc, 1).attributeObject("class").value("manual");
+            }
+            assertSameOutput();
+            assertTrue(cached.serialize(cachedDoc).contains("class=\"manual\""));
+            for (Document doc : new Document[] {cachedDoc, plainDoc}) {
+                Attribute attribute = doc.root().attributeObject("xmlns");
+                attribute.quoteStyle(QuoteStyle.SINGLE).precedingWhitespace("  ");
+            }
+            assertSameOutput();
+            assertTrue(cached.serialize(cachedDoc).contains("<project  xmlns='"));
+            for (Document doc : new Document[] {cachedDoc, plainDoc}) {
+                dependency(doc, 1).attributeQuote("class", QuoteStyle.SINGLE);
+                dependency(doc, 1).attributeWhitespace("class", "\n    ");
+            }
+            assertSameOutput();
+            assertTrue(cached.serialize(cachedDoc).contains("<dependency\n    class='manual'>"));
+        }
+
+        @Test
+        void removedAttributeNoLongerMarksElement() {
+            Element element = dependency(cachedDoc, 1);
+            element.attribute("class", "x");
+            Attribute attribute = element.attributeObject("class");
+            element.removeAttribute("class");
+            cachedDoc.root().clearModified();
+            long generation = element.generation();
+
+            attribute.value("manual");
+
+            assertEquals(generation, element.generation());
+            assertFalse(element.isModified());
+        }
+
+        @Test
+        void structuralChanges() {
+            assertSameOutput();
+            for (Document doc : new Document[] {cachedDoc, plainDoc}) {
+                Editor editor = new Editor(doc);
+                Element dependencies = doc.root().childElement("dependencies").orElseThrow();
+                editor.addElement(dependencies, "dependency", "added");
+                dependencies.removeChild(dependency(doc, 0));
+                doc.root().childElement("build").orElseThrow().addChild(new Element("plugins"));
+            }
+            assertSameOutput();
+        }
+
+        @Test
+        void repeatedEditsAndClearModified() {
+            for (int i = 0; i < 5; i++) {
+                dependency(cachedDoc, i % 3)
+                        .childElement("version")
+                        .orElseThrow()
+                        .textContent("1." + i);
+                dependency(plainDoc, i % 3)
+                        .childElement("version")
+                        .orElseThrow()
+                        .textContent("1." + i);
+                assertSameOutput();
+            }
+            cachedDoc.clearModified();
+            plainDoc.clearModified();
+            assertSameOutput();
+        }
+
+        @Test
+        void commentsFilteredAtTopLevel() {
+            DomTripConfig config = DomTripConfig.defaults().withCommentPreservation(false);
+            Serializer filtering = new Serializer(config.withSerializationCache(true));
+            String expected = new Serializer(config).serialize(plainDoc);
+            assertEquals(expected, filtering.serialize(cachedDoc));
+            assertEquals(expected, filtering.serialize(cachedDoc));
+        }
+
+        @Test
+        void prettyPrintIsNotAffected() {
+            cached.setPrettyPrint(true);
+            plain.setPrettyPrint(true);
+            cached.serialize(cachedDoc);
+            dependency(cachedDoc, 0).childElement("scope").orElseThrow().textContent("compile");
+            dependency(plainDoc, 0).childElement("scope").orElseThrow().textContent("compile");
+            assertSameOutput();
+        }
+
+        @Test
+        void disablingDropsCache() {
+            cached.serialize(cachedDoc);
+            assertTrue(cached.isSerializationCache());
+            cached.setSerializationCache(false);
+            assertFalse(cached.isSerializationCache());
+            assertSameOutput();
+        }
+    }
+
+    @Test
+    void editorHonorsConfig() {
+        Editor editor = new Editor(cachedDoc, DomTripConfig.defaults().withSerializationCache(true));
+        String before = editor.toXml();
+        assertSame(before, editor.toXml());
+
+        Element version = dependency(cachedDoc, 2).childElement("version").orElseThrow();
+        editor.setTextContent(version, "2.0.10");
+        dependency(plainDoc, 2).childElement("version").orElseThrow().textContent("2.0.10");
+
+        assertEquals(new Editor(plainDoc).toXml(), editor.toXml());
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the edit-then-serialize loop of an interactive editor, comparing
+ * plain serialization with the subtree serialization cache.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main SerializerBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class SerializerBenchmark {
+
+    @Param({"100", "2000"})
+    private int dependencyCount;
+
+    private Editor plainEditor;
+    private Editor cachedEditor;
+    private List<Element> plainVersions;
+    private List<Element> cachedVersions;
+    private int edit;
+
+    /**
+     * Parses the generated POM twice, once for an editor without and once for an editor with
+     * the serialization cache, and collects the version elements edited by the benchmarks.
+     */
+    @Setup
+    public void setup() {
+        String xml = buildPom(dependencyCount);
+
+        plainEditor = new Editor(Document.of(xml));
+        cachedEditor = new Editor(Document.of(xml), DomTripConfig.defaults().withSerializationCache(true));
+        plainVersions = versions(plainEditor.document());
+        cachedVersions = versions(cachedEditor.document());
+        cachedEditor.toXml();
+    }
+
+    /**
+     * Changes one dependency version and serializes the whole document without caching.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String editThenSerialize() {
+        return editThenSerialize(plainEditor, plainVersions);
+    }
+
+    /**
+     * Changes one dependency version and serializes the whole document, reusing the cached
+     * output of all unchanged subtrees.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String editThenSerializeCached() {
+        return editThenSerialize(cachedEditor, cachedVersions);
+    }
+
+    /**
+     * Serializes the unchanged document again without caching.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String serializeUnchanged() {
+        return plainEditor.toXml();
+    }
+
+    /**
+     * Serializes the unchanged document again with the serialization cache.
+     *
+     * @return the serialized document
+     */
+    @Benchmark
+    public String serializeUnchangedCached() {
+        return cachedEditor.toXml();
+    }
+
+    private String editThenSerialize(Editor editor, List<Element> versions) {
+        int index = edit++;
+        Element version = versions.get(index % versions.size());
+        editor.setTextContent(version, "1." + (index & 0xff));
+        return editor.toXml();
+    }
+
+    private static List<Element> versions(Document document) {
+        return document.root()
+                .descendants("dependency")
+                .map(dependency -> dependency.childElement("version").orElseThrow())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds a POM with the given number of dependencies.
+     *
+     * @param dependencyCount the number of dependencies
+     * @return the generated POM XML
+     */
+    static String buildPom(int dependencyCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        sb.append("  <modelVersion>4.0.0</modelVersion>\n");
+        sb.append("  <groupId>com.example</groupId>\n");
+        sb.append("  <artifactId>benchmark-app</artifactId>\n");
+        sb.append("  <version>1.0.0-SNAPSHOT</version>\n\n");
+        sb.append("  <dependencies>\n");
+        for (int i = 0; i < dependencyCount; i++) {
+            sb.append("    <dependency>\n");
+            sb.append("      <groupId>com.example.group").append(i % 50).append("</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <version>").append(i % 10).append(".0.0</version>\n");
+            if (i % 3 == 0) {
+                sb.append("      <scope>test</scope>\n");
+            }
+            sb.append("    </dependency>\n");
+        }
+        sb.append("  </dependencies>\n");
+        sb.append("</project>\n");
+        return sb.toString();
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(SerializerBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by SerializerBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(SerializerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
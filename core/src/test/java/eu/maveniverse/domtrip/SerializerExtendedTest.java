@@ -591,4 +591,33 @@ class SerializerExtendedTest {
         int elementIndent = elementLine.indexOf("<child>");
         assertEquals(elementIndent, piIndent, "Processing instruction and element should have the same indentation");
     }
+
+    @Test
+    void testPrettyPrintAfterChangingIndentation() {
+        Document doc = Document.of("<root><a><b>x &amp; y</b></a></root>");
+        Serializer s = new Serializer(DomTripConfig.prettyPrint());
+        s.setIndentString("  ");
+        assertEquals("\n<root>\n  <a>\n    <b>x &amp; y</b>\n  </a>\n</root>", s.serialize(doc));
+
+        s.setIndentString("\t");
+        assertEquals("\n<root>\n\t<a>\n\t\t<b>x &amp; y</b>\n\t</a>\n</root>", s.serialize(doc));
+
+        s.setLineEnding("\r\n");
+        assertEquals("\r\n<root>\r\n\t<a>\r\n\t\t<b>x &amp; y</b>\r\n\t</a>\r\n</root>", s.serialize(doc));
+    }
+
+    @Test
+    void testPrettyPrintDeepNesting() {
+        StringBuilder xml = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            xml.append("<e").append(i).append(">");
+        }
+        for (int i = 39; i >= 0; i--) {
+            xml.append("</e").append(i).append(">");
+        }
+        Serializer s = new Serializer(DomTripConfig.prettyPrint().withIndentString(" "));
+        String result = s.serialize(Document.of(xml.toString()));
+        assertTrue(result.contains("\n" + " ".repeat(39) + "<e39/>"));
+        assertTrue(result.endsWith("\n </e1>\n</e0>"));
+    }
 }
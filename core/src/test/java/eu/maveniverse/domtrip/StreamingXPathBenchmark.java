@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for extracting values from a POM, comparing parsing the document and selecting
+ * from it with {@link StreamingXPath}, which reads the XML once without building nodes.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main StreamingXPathBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class StreamingXPathBenchmark {
+
+    @Param({"10", "500"})
+    private int dependencyCount;
+
+    private String xml;
+    private XPathExpression artifactIds;
+    private XPathExpression version;
+    private StreamingXPath streaming;
+
+    /**
+     * Generates the POM and compiles the expressions.
+     */
+    @Setup
+    public void setup() {
+        xml = SerializerBenchmark.buildPom(dependencyCount);
+        artifactIds = XPathExpression.compile("dependencies/dependency/artifactId");
+        version = XPathExpression.compile("version");
+        streaming = StreamingXPath.of(artifactIds, version);
+    }
+
+    /**
+     * Parses the POM into a document and selects the values from it.
+     *
+     * @param blackhole consumes the values
+     */
+    @Benchmark
+    public void parseThenSelect(Blackhole blackhole) {
+        Element root = Document.of(xml).root();
+        for (Element element : artifactIds.select(root)) {
+            blackhole.consume(element.textContent());
+        }
+        for (Element element : version.select(root)) {
+            blackhole.consume(element.textContent());
+        }
+    }
+
+    /**
+     * Extracts the values while reading the POM.
+     *
+     * @param blackhole consumes the values
+     */
+    @Benchmark
+    public void streaming(Blackhole blackhole) {
+        streaming.select(xml, match -> blackhole.consume(match.text()));
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(StreamingXPathBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by StreamingXPathBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(StreamingXPathBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
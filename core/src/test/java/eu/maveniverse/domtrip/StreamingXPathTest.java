@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link StreamingXPath}, checking that the elements reported while reading are those
+ * selected from the parsed document.
+ */
+class StreamingXPathTest {
+
+    private static final String POM = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <!DOCTYPE project [ <!ENTITY x "y"> ]>
+            <!-- header -->
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <groupId>org.example</groupId>
+              <artifactId>my-project</artifactId>
+              <version>1.0.0</version>
+              <description><![CDATA[Uses <tags> & such]]> and &lt;entities&gt;</description>
+              <dependencies>
+                <dependency scope="test" id='a&amp;b'>
+                  <groupId>org.junit</groupId>
+                  <artifactId>junit</artifactId>
+                  <!-- <artifactId>commented</artifactId> -->
+                  <version>5.9.2</version>
+                  <exclusions>
+                    <exclusion><groupId>org.hamcrest</groupId></exclusion>
+                  </exclusions>
+                </dependency>
+                <dependency>
+                  <groupId>org.example</groupId>
+                  <?pi <groupId>ignored</groupId> ?>
+                  <artifactId>example-lib</artifactId>
+                  <version>1.0.0</version>
+                </dependency>
+              </dependencies>
+              <build>
+                <plugins>
+                  <plugin>
+                    <artifactId>maven-compiler-plugin</artifactId>
+                    <configuration><release>17</release><parameters/></configuration>
+                    <dependencies>
+                      <dependency><groupId>org.ow2.asm</groupId></dependency>
+                    </dependencies>
+                  </plugin>
+                </plugins>
+              </build>
+            </project>
+            """;
+
+    private static List<StreamingXPath.Match> stream(String xml, StreamingXPath query) {
+        List<StreamingXPath.Match> matches = new ArrayList<>();
+        query.select(xml, matches::add);
+        return matches;
+    }
+
+    /**
+     * Checks that streaming reports, for each expression, the elements it selects in the parsed
+     * document, in the order their end tags appear. Absolute expressions are evaluated against
+     * an element standing in for the document.
+     */
+    private static void assertSameAsParsed(String xml, String... expressions) {
+        StreamingXPath query = StreamingXPath.compile(expressions);
+        List<StreamingXPath.Match> matches = stream(xml, query);
+        Element root = Document.of(xml).root();
+        Element document = new Element("document");
+        document.addChild(root);
+        List<Element> endOrder = new ArrayList<>();
+        collectInEndOrder(root, endOrder);
+        for (XPathExpression expression : query.expressions()) {
+            Set<Element> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+            selected.addAll(expression.select(expression.absolute() ? document : root));
+            List<Element> expected = new ArrayList<>();
+            for (Element element : endOrder) {
+                if (selected.contains(element)) {
+                    expected.add(element);
+                }
+            }
+            List<StreamingXPath.Match> actual = new ArrayList<>();
+            for (StreamingXPath.Match match : matches) {
+                if (match.expression().equals(expression)) {
+                    actual.add(match);
+                }
+            }
+            assertEquals(expected.size(), actual.size(), expression.expression());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).name(), actual.get(i).name(), expression.expression());
+                assertEquals(expected.get(i).attributes(), actual.get(i).attributes(), expression.expression());
+                assertEquals(expected.get(i).textContent(), actual.get(i).text(), expression.expression());
+            }
+        }
+    }
+
+    private static void collectInEndOrder(Element element, List<Element> elements) {
+        element.childElements().forEach(child -> collectInEndOrder(child, elements));
+        elements.add(element);
+    }
+
+    @Test
+    void childPaths() {
+        assertSameAsParsed(
+                POM,
+                "groupId",
+                "/project/version",
+                "/project/dependencies/dependency/artifactId",
+                "/*/build//artifactId",
+                "/./project",
+                "/other",
+                "dependencies/dependency",
+                "dependencies/dependency/artifactId",
+                "build/plugins/plugin/*",
+                "missing/path",
+                "*");
+    }
+
+    @Test
+    void absolutePathsStartAtTheDocument() {
+        StreamingXPath query =
+                StreamingXPath.compile("/project/version", "/project/dependencies/dependency/artifactId", "/version");
+        List<StreamingXPath.Match> matches = stream(POM, query);
+        assertEquals(
+                List.of("1.0.0", "junit", "example-lib"),
+                matches.stream().map(StreamingXPath.Match::textTrimmed).toList());
+        assertEquals("/project/version", matches.get(0).expression().expression());
+    }
+
+    @Test
+    void descendantPaths() {
+        assertSameAsParsed(POM, "//groupId", "//dependency//groupId", "dependencies//groupId", "//plugin//*", "//*");
+    }
+
+    @Test
+    void attributePredicatesAndSelfSteps() {
+        assertSameAsParsed(
+                POM,
+                "dependencies/dependency[@scope]",
+                "dependencies/dependency[@scope='test']/version",
+                "//dependency[@id='a&b']",
+                "//dependency[@scope='compile']",
+                ".",
+                "./groupId",
+                "//dependency/.[@scope]");
+    }
+
+    @Test
+    void nestedMatchesAreReportedOnce() {
+        String xml = "<r><a><b/><a><b>x</b><a><b/></a></a><b/></a><b/></r>";
+        assertSameAsParsed(xml, "//a//b", "//a/b", "//a//a", "//a", "a//a/b", "//b");
+    }
+
+    @Test
+    void reportsTextAndAttributes() {
+        List<StreamingXPath.Match> matches =
+                stream(POM, StreamingXPath.compile("description", "dependencies/dependency[@id]"));
+        assertEquals(2, matches.size());
+        assertEquals("Uses <tags> & such and <entities>", matches.get(0).text());
+        StreamingXPath.Match dependency = matches.get(1);
+        assertEquals("dependency", dependency.name());
+        assertEquals("a&b", dependency.attribute("id"));
+        assertNull(dependency.attribute("missing"));
+        assertEquals(
+                List.of("scope", "id"), new ArrayList<>(dependency.attributes().keySet()));
+        assertEquals("", dependency.textTrimmed());
+    }
+
+    @Test
+    void prefixedNames() {
+        String xml = "<soap:Envelope xmlns:soap='urn:s'><soap:Body><m:op xmlns:m='urn:m'>1</m:op>"
+                + "<op>2</op></soap:Body></soap:Envelope>";
+        assertSameAsParsed(xml, "Body/op", "soap:Body/m:op", "//op", "//m:op", "//soap:Body//*");
+        StreamingXPath.Match match =
+                stream(xml, StreamingXPath.compile("Body/m:op")).get(0);
+        assertEquals("m:op", match.name());
+        assertEquals("op", match.localName());
+    }
+
+    @Test
+    void matchesAreReportedWhenElementsEnd() {
+        List<String> names = new ArrayList<>();
+        StreamingXPath.compile("//*", ".").select("<a><b><c/></b><d/></a>", match -> names.add(match.name()));
+        assertEquals(List.of("c", "b", "d", "a"), names);
+    }
+
+    @Test
+    void readsStreamsAndFiles(@TempDir Path dir) throws Exception {
+        String xml = "<?xml version='1.0' encoding='ISO-8859-1'?><project><name>café</name></project>";
+        byte[] bytes = xml.getBytes(StandardCharsets.ISO_8859_1);
+        StreamingXPath query = StreamingXPath.compile("name");
+
+        List<StreamingXPath.Match> matches = new ArrayList<>();
+        query.select(new ByteArrayInputStream(bytes), matches::add);
+        assertEquals("café", matches.get(0).text());
+
+        Path file = dir.resolve("pom.xml");
+        Files.write(file, bytes);
+        matches.clear();
+        query.select(file, matches::add);
+        assertEquals("café", matches.get(0).text());
+
+        matches.clear();
+        byte[] withBom = ("\uFEFF<project><name>ü</name></project>").getBytes(StandardCharsets.UTF_8);
+        query.select(new ByteArrayInputStream(withBom), matches::add);
+        assertEquals("ü", matches.get(0).text());
+
+        assertThrows(DomTripException.class, () -> query.select(dir.resolve("missing.xml"), matches::add));
+    }
+
+    @Test
+    void readsAcrossBufferBoundaries() {
+        StringBuilder sb = new StringBuilder("<r>");
+        for (int i = 0; i < 2000; i++) {
+            sb.append("<item id=\"")
+                    .append(i)
+                    .append("\"><!-- skipped --><value>value-")
+                    .append(i);
+            sb.append("</value><other><value/></other></item>");
+        }
+        String xml = sb.append("</r>").toString();
+        assertSameAsParsed(xml, "item[@id='1999']/value", "item/value", "//other");
+
+        List<String> values = new ArrayList<>();
+        StreamingXPath.compile("item/value").select(new StringReader(xml), match -> values.add(match.text()));
+        assertEquals(2000, values.size());
+        assertEquals("value-1234", values.get(1234));
+    }
+
+    @Test
+    void rejectsUnsupportedExpressions() {
+        assertThrows(DomTripException.class, () -> StreamingXPath.compile("dependency[1]"));
+        assertThrows(DomTripException.class, () -> StreamingXPath.compile("a", "//groupId/.."));
+        assertThrows(DomTripException.class, () -> StreamingXPath.compile("dependency[scope='test']"));
+        assertThrows(DomTripException.class, () -> StreamingXPath.compile("dependency[last()]"));
+        assertTrue(StreamingXPath.isStreamable(XPathExpression.compile("//a/b[@c='d']/.")));
+        assertFalse(StreamingXPath.isStreamable(XPathExpression.compile("a[b='c']")));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> StreamingXPath.of((XPathExpression[]) null));
+        assertThrows(IllegalArgumentException.class, () -> StreamingXPath.of(XPathExpression.compile("a"), null));
+        assertThrows(IllegalArgumentException.class, () -> StreamingXPath.compile((String[]) null));
+        StreamingXPath query = StreamingXPath.compile("a");
+        assertThrows(IllegalArgumentException.class, () -> query.select("<a/>", null));
+        assertThrows(DomTripException.class, () -> query.select((String) null, match -> {}));
+        assertEquals(
+                1,
+                StreamingXPath.of(
+                                query.expressions().get(0), query.expressions().get(0))
+                        .expressions()
+                        .size());
+    }
+
+    @Test
+    void rejectsMalformedXml() {
+        StreamingXPath query = StreamingXPath.compile("//b");
+        DomTripException mismatched =
+                assertThrows(DomTripException.class, () -> query.select("<a><b></c></a>", m -> {}));
+        assertTrue(mismatched.getMessage().startsWith("Mismatched closing tag: expected '</b>' but found '</c>'"));
+        DomTripException unclosed = assertThrows(DomTripException.class, () -> query.select("<a><b>", m -> {}));
+        assertEquals("Unclosed element '<b>'", unclosed.getMessage());
+        assertThrows(DomTripException.class, () -> query.select("<a><b x='1></b></a>", m -> {}));
+        assertThrows(DomTripException.class, () -> query.select("<a><!-- open </a>", m -> {}));
+        // Skipped subtrees need balanced tags
+        assertThrows(DomTripException.class, () -> StreamingXPath.compile("b").select("<a><c><d></c>", m -> {}));
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link StreamingXmlDiff}, checking that the changes reported while reading are those
+ * of {@link XmlDiff} on the parsed documents.
+ */
+class StreamingXmlDiffTest {
+
+    private static final String[] NAMES = {"a", "b", "c", "dep", "p:x"};
+
+    private static final DiffConfig[] CONFIGS = {
+        DiffConfig.defaults(),
+        DiffConfig.builder().matchBy("dep", "g", "id").build(),
+        DiffConfig.builder().matchBy("a", "k0").matchBy("dep", "g").build()
+    };
+
+    @Test
+    void reportsSameChangesAsXmlDiffOnGeneratedDocuments() {
+        int changes = 0;
+        for (int seed = 0; seed < 1000; seed++) {
+            Random random = new Random(seed);
+            StringBuilder sb = new StringBuilder();
+            if (random.nextBoolean()) {
+                sb.append("<?xml version=\"1.0\"?>\n<!-- header -->\n");
+            }
+            generate(random, sb, 0, "");
+            String before = sb.toString();
+            String after = random.nextInt(10) == 0 ? before : mutate(random, before);
+            if (random.nextInt(4) == 0) {
+                after = after.replace("\n", "\n ");
+            }
+            for (DiffConfig config : CONFIGS) {
+                List<String> expected = XmlDiff.diff(Document.of(before), Document.of(after), config).changes().stream()
+                        .map(XmlChange::toString)
+                        .sorted()
+                        .collect(Collectors.toList());
+                List<String> actual = streamingChanges(before, after, config);
+                Collections.sort(actual);
+                assertEquals(expected, actual, "seed " + seed + "\n" + before + "\n----\n" + after);
+                changes += expected.size();
+            }
+        }
+        assertTrue(changes > 10000);
+    }
+
+    @Test
+    void matchesKeyedSiblingsInAnyOrder() {
+        String before = "<project><dependencies>"
+                + "<dependency><groupId>g</groupId><artifactId>a</artifactId><version>1</version></dependency>"
+                + "<dependency><groupId>g</groupId><artifactId>b</artifactId><version>1</version></dependency>"
+                + "</dependencies></project>";
+        String after = "<project><dependencies>"
+                + "<dependency><groupId>g</groupId><artifactId>b</artifactId><version>2</version></dependency>"
+                + "<dependency><groupId>g</groupId><artifactId>a</artifactId><version>1</version></dependency>"
+                + "</dependencies></project>";
+        DiffConfig config = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+
+        List<String> changes = streamingChanges(before, after, config);
+
+        assertTrue(changes.contains("ELEMENT_MOVED: /project/dependencies/dependency[1]: \"1\" → \"2\""));
+        assertTrue(changes.contains("TEXT_CHANGED: /project/dependencies/dependency[2]/version: \"1\" → \"2\""));
+        assertEquals(3, changes.size());
+    }
+
+    @Test
+    void holdsChangesUntilPositionalIndexIsKnown() {
+        String before = "<root><item>1</item><item>2</item><single>x</single></root>";
+        String after = "<root><item>1</item><item>3</item><single>y</single></root>";
+
+        List<String> changes = streamingChanges(before, after, DiffConfig.defaults());
+
+        assertEquals(
+                List.of(
+                        "TEXT_CHANGED: /root/item[2]: \"2\" → \"3\"",
+                        "TEXT_CHANGED: /root/single: \"x\" → \"y\""),
+                changes);
+    }
+
+    @Test
+    void comparesSiblingsInDifferentOrder() {
+        String before = "<root><a>1</a><b>2</b><c>3</c></root>";
+        String after = "<root><c>3</c><b>2</b><a>4</a><d/></root>";
+
+        List<String> changes = streamingChanges(before, after, DiffConfig.defaults());
+
+        assertEquals(List.of("TEXT_CHANGED: /root/a: \"1\" → \"4\"", "ELEMENT_ADDED: /root/d: \"<d>\""), changes);
+    }
+
+    @Test
+    void reportsReplacedRoot() {
+        List<String> changes = streamingChanges("<a>1</a>", "<b>1</b>", DiffConfig.defaults());
+
+        assertEquals(List.of("ELEMENT_REMOVED: /a: \"1\"", "ELEMENT_ADDED: /b: \"1\""), changes);
+    }
+
+    @Test
+    void listenerStopsComparison() {
+        String before = "<root><a>1</a><b>1</b><c>1</c></root>";
+        String after = "<root><a>2</a><b>2</b><c>2</c></root>";
+        List<XmlChange> changes = new ArrayList<>();
+
+        boolean completed = StreamingXmlDiff.diff(before, after, DiffConfig.defaults(), change -> {
+            changes.add(change);
+            return false;
+        });
+
+        assertFalse(completed);
+        assertEquals(1, changes.size());
+        assertEquals("/root/a", changes.get(0).path());
+    }
+
+    @Test
+    void readsStreamsAndFiles(@TempDir Path dir) throws Exception {
+        String before = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<root><name>café</name></root>";
+        String after = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<root><name>cafés</name></root>";
+        Path beforeFile = dir.resolve("before.xml");
+        Path afterFile = dir.resolve("after.xml");
+        Files.write(beforeFile, before.getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(afterFile, after.getBytes(StandardCharsets.UTF_8));
+
+        List<XmlChange> fromFiles = new ArrayList<>();
+        assertTrue(StreamingXmlDiff.diff(beforeFile, afterFile, DiffConfig.defaults(), fromFiles::add));
+        List<XmlChange> fromStreams = new ArrayList<>();
+        assertTrue(StreamingXmlDiff.diff(
+                new ByteArrayInputStream(Files.readAllBytes(beforeFile)),
+                new ByteArrayInputStream(Files.readAllBytes(afterFile)),
+                DiffConfig.defaults(),
+                fromStreams::add));
+
+        assertEquals(1, fromFiles.size());
+        assertEquals("TEXT_CHANGED: /root/name: \"café\" → \"cafés\"", fromFiles.get(0).toString());
+        assertEquals(fromFiles, fromStreams);
+    }
+
+    @Test
+    void rejectsMalformedXml() {
+        assertThrows(
+                DomTripException.class,
+                () -> StreamingXmlDiff.diff("<a><b></a>", "<a><b/></a>", DiffConfig.defaults(), change -> true));
+        assertThrows(
+                DomTripException.class,
+                () -> StreamingXmlDiff.diff("<a>", "<a/>", DiffConfig.defaults(), change -> true));
+    }
+
+    private static List<String> streamingChanges(String before, String after, DiffConfig config) {
+        List<String> changes = new ArrayList<>();
+        assertTrue(StreamingXmlDiff.diff(before, after, config, change -> changes.add(change.toString())));
+        return changes;
+    }
+
+    /** Generates an element with random attributes, namespaces, text, comments, PIs, CDATA and children. */
+    private static void generate(Random random, StringBuilder sb, int depth, String indent) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        sb.append(indent).append('<').append(name);
+        if (name.equals("p:x") || random.nextInt(6) == 0) {
+            sb.append(" xmlns:p=\"urn:").append(random.nextInt(2)).append('"');
+        }
+        int attributes = random.nextInt(3);
+        for (int i = 0; i < attributes; i++) {
+            char quote = random.nextBoolean() ? '"' : '\'';
+            sb.append(random.nextBoolean() ? " " : "\n  ").append('k').append(random.nextInt(3));
+            sb.append('=').append(quote).append(random.nextInt(3));
+            sb.append(random.nextInt(8) == 0 ? "&amp;" : "").append(quote);
+        }
+        if (random.nextInt(5) == 0) {
+            sb.append(' ');
+        }
+        if (depth > 3 || random.nextInt(5) == 0) {
+            sb.append("/>\n");
+            return;
+        }
+        sb.append('>');
+        int children = random.nextInt(depth == 0 ? 12 : 6);
+        for (int i = 0; i < children; i++) {
+            switch (random.nextInt(12)) {
+                case 0:
+                    sb.append('t').append(random.nextInt(3)).append(random.nextInt(6) == 0 ? "&lt;" : "");
+                    break;
+                case 1:
+                    sb.append("<!--c").append(random.nextInt(3)).append("-->");
+                    break;
+                case 2:
+                    sb.append("<?pi d").append(random.nextInt(2)).append("?>");
+                    break;
+                case 3:
+                    sb.append("<![CDATA[x").append(random.nextInt(2)).append("]]>");
+                    break;
+                case 4:
+                    sb.append(indent).append("  <dep><g>").append(random.nextInt(3));
+                    sb.append("</g><id>").append(random.nextInt(3));
+                    sb.append("</id><v>").append(random.nextInt(3)).append("</v></dep>\n");
+                    break;
+                default:
+                    sb.append('\n');
+                    generate(random, sb, depth + 1, indent + "  ");
+                    break;
+            }
+        }
+        sb.append(indent).append(random.nextBoolean() ? "</" : "</ ").append(name).append('>');
+    }
+
+    /** Removes, adds, edits and moves a few random elements. */
+    private static String mutate(Random random, String xml) {
+        Document document = Document.of(xml);
+        List<Element> elements = document.root().descendants().collect(Collectors.toList());
+        elements.add(document.root());
+        int edits = 1 + random.nextInt(4);
+        for (int i = 0; i < edits; i++) {
+            Element element = elements.get(random.nextInt(elements.size()));
+            Element parent = element.parent() instanceof Element ? (Element) element.parent() : null;
+            switch (random.nextInt(7)) {
+                case 0:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        elements.remove(element);
+                    }
+                    break;
+                case 1:
+                    element.attribute("k" + random.nextInt(3), String.valueOf(random.nextInt(3)));
+                    break;
+                case 2:
+                    element.textContent("t" + random.nextInt(3));
+                    break;
+                case 3:
+                    Element child = new Element(NAMES[random.nextInt(NAMES.length)]);
+                    element.addChild(child);
+                    elements.add(child);
+                    break;
+                case 4:
+                    element.addChild(new Comment("m"));
+                    break;
+                case 5:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        parent.addChild(element);
+                    }
+                    break;
+                default:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        parent.insertChild(0, element);
+                    }
+                    break;
+            }
+        }
+        return document.toXml();
+    }
+}
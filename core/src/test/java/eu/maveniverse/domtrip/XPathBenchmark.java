@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for repeatedly evaluating the same set of mini-XPath expressions against a
+ * small POM, comparing compilation on every call with the shared expression cache used by
+ * {@link Element#select(String)} and with explicitly precompiled expressions.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XPathBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XPathBenchmark {
+
+    static final String[] EXPRESSIONS = {
+        "version",
+        "groupId",
+        "artifactId",
+        "dependencies/dependency",
+        "dependencies/dependency[1]",
+        "dependencies/dependency[last()]",
+        "dependencies/dependency[scope='test']",
+        "dependencies/dependency[groupId='com.example.group1']/version",
+        "//dependency",
+        "//dependency[artifactId='artifact-7']",
+        "//scope",
+        "dependencies/*/artifactId"
+    };
+
+    private Element root;
+    private XPathExpression[] compiled;
+
+    /**
+     * Parses a POM with a handful of dependencies and precompiles the expressions.
+     */
+    @Setup
+    public void setup() {
+        root = Document.of(SerializerBenchmark.buildPom(10)).root();
+        compiled = new XPathExpression[EXPRESSIONS.length];
+        for (int i = 0; i < EXPRESSIONS.length; i++) {
+            compiled[i] = XPathExpression.compile(EXPRESSIONS[i]);
+        }
+    }
+
+    /**
+     * Compiles every expression before evaluating it, as the convenience methods did before
+     * compiled expressions were cached.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void compileEachTime(Blackhole blackhole) {
+        for (String expression : EXPRESSIONS) {
+            blackhole.consume(XPathExpression.compile(expression).select(root));
+        }
+    }
+
+    /**
+     * Evaluates every expression through {@link Element#select(String)}, which looks the
+     * compiled expression up in the shared cache.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void selectCached(Blackhole blackhole) {
+        for (String expression : EXPRESSIONS) {
+            blackhole.consume(root.select(expression));
+        }
+    }
+
+    /**
+     * Evaluates explicitly precompiled expressions, the lower bound for the cached variant.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void selectPrecompiled(Blackhole blackhole) {
+        for (XPathExpression expression : compiled) {
+            blackhole.consume(expression.select(root));
+        }
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XPathBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XPathBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XPathBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for evaluating precompiled mini-XPath expressions against large POMs,
+ * comparing first-match queries, which stop at the first selected element, with queries
+ * selecting all matches.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XPathEvaluationBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XPathEvaluationBenchmark {
+
+    @Param({"1000", "20000"})
+    private int dependencyCount;
+
+    private Element root;
+    private XPathExpression allDependencies;
+    private XPathExpression testDependencies;
+    private XPathExpression lastVersion;
+
+    /**
+     * Parses the generated POM and compiles the expressions.
+     */
+    @Setup
+    public void setup() {
+        root = Document.of(SerializerBenchmark.buildPom(dependencyCount)).root();
+        allDependencies = XPathExpression.compile("//dependency");
+        testDependencies = XPathExpression.compile("dependencies/dependency[scope='test']/artifactId");
+        lastVersion = XPathExpression.compile("dependencies/dependency[last()]/version");
+    }
+
+    /**
+     * Selects the first dependency anywhere in the document.
+     *
+     * @return the first dependency
+     */
+    @Benchmark
+    public Optional<Element> firstDescendant() {
+        return allDependencies.selectFirst(root);
+    }
+
+    /**
+     * Selects all dependencies anywhere in the document.
+     *
+     * @return all dependencies
+     */
+    @Benchmark
+    public List<Element> allDescendants() {
+        return allDependencies.select(root);
+    }
+
+    /**
+     * Checks whether there is a test dependency through a child path with a predicate.
+     *
+     * @return whether a test dependency exists
+     */
+    @Benchmark
+    public boolean existsFiltered() {
+        return testDependencies.exists(root);
+    }
+
+    /**
+     * Selects the artifact ids of all test dependencies.
+     *
+     * @return the artifact ids of all test dependencies
+     */
+    @Benchmark
+    public List<Element> allFiltered() {
+        return testDependencies.select(root);
+    }
+
+    /**
+     * Selects the version of the last dependency, which has to look at every dependency.
+     *
+     * @return the version of the last dependency
+     */
+    @Benchmark
+    public Optional<Element> firstAfterLast() {
+        return lastVersion.selectFirst(root);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XPathEvaluationBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XPathEvaluationBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XPathEvaluationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -462,6 +462,131 @@ class XPathExpressionTest {
         }
     }
 
+    // ========== LAZY EVALUATION ==========
+
+    @Nested
+    class LazyEvaluationTests {
+
+        private String artifactId(Element dependency) {
+            return dependency.selectFirst("artifactId").get().textContentTrimmed();
+        }
+
+        @Test
+        void positionAppliesAfterPrecedingFilters() {
+            List<Element> results = root.select("dependencies/dependency[scope='test'][2]");
+            assertEquals(1, results.size());
+            assertEquals("junit-api", artifactId(results.get(0)));
+        }
+
+        @Test
+        void filtersApplyAfterPosition() {
+            assertTrue(root.select("dependencies/dependency[2][scope='test']").isEmpty());
+            assertEquals(
+                    "junit",
+                    artifactId(root.selectFirst("dependencies/dependency[1][scope='test']")
+                            .get()));
+        }
+
+        @Test
+        void chainedPositions() {
+            assertEquals(
+                    "junit-api",
+                    artifactId(root.selectFirst("dependencies/dependency[last()][1]")
+                            .get()));
+            assertTrue(root.select("dependencies/dependency[1][2]").isEmpty());
+            assertEquals(1, root.select("dependencies/dependency[2][last()]").size());
+        }
+
+        @Test
+        void positionIsRelativeToEachContext() {
+            List<Element> results = root.select("//dependency/*[last()]");
+            assertEquals(3, results.size());
+            assertEquals("scope", results.get(0).name());
+            assertEquals("version", results.get(1).name());
+            assertEquals("scope", results.get(2).name());
+        }
+
+        @Test
+        void selectFirstAndExistsMatchSelect() {
+            String[] expressions = {
+                "//dependency",
+                "//version",
+                "dependencies/dependency[scope='test']",
+                "dependencies/dependency[last()]/version",
+                "//plugin/..",
+                "./build//artifactId",
+                "*/*[2]",
+                "//dependency[scope='compile']",
+                "//missing"
+            };
+            for (String expression : expressions) {
+                XPathExpression compiled = XPathExpression.compile(expression);
+                List<Element> all = compiled.select(root);
+                assertEquals(all.stream().findFirst(), compiled.selectFirst(root), expression);
+                assertEquals(!all.isEmpty(), compiled.exists(root), expression);
+            }
+        }
+
+        @Test
+        void nullContext() {
+            XPathExpression expr = XPathExpression.compile("//dependency");
+            assertFalse(expr.selectFirst(null).isPresent());
+            assertFalse(expr.exists(null));
+        }
+    }
+
+    // ========== DOCUMENT ORDER ==========
+
+    @Nested
+    class DocumentOrderTests {
+
+        private final Element nested = Document.of("""
+                        <r>
+                          <a id="1">
+                            <b id="1"/>
+                            <a id="2">
+                              <b id="2"/>
+                              <a id="3"><b id="3"/></a>
+                            </a>
+                            <b id="4"/>
+                          </a>
+                          <b id="5"/>
+                        </r>""").root();
+
+        private String ids(List<Element> elements) {
+            StringBuilder sb = new StringBuilder();
+            for (Element element : elements) {
+                sb.append(element.name()).append(element.attribute("id")).append(' ');
+            }
+            return sb.toString().trim();
+        }
+
+        @Test
+        void chainedDescendantsAreUnique() {
+            assertEquals("b1 b2 b3 b4", ids(nested.select("//a//b")));
+            assertEquals("a2 a3", ids(nested.select("//a//a")));
+            assertEquals("b2 b3", ids(nested.select("//a//a//b")));
+        }
+
+        @Test
+        void childrenOfNestedContextsAreInDocumentOrder() {
+            assertEquals("b1 b2 b3 b4", ids(nested.select("//a/b")));
+            assertEquals("b1", ids(nested.selectFirst("//a/b").stream().toList()));
+        }
+
+        @Test
+        void parentsAreUnique() {
+            assertEquals("a1 a2 a3", ids(nested.select("//a/b/..")));
+            assertEquals("a1 a2", ids(nested.select("//a/a/..")));
+        }
+
+        @Test
+        void positionsStayRelativeToEachContext() {
+            assertEquals("b1 b2 b3", ids(nested.select("//a//b[1]")));
+            assertEquals("b3 b4", ids(nested.select("//a//b[last()]")));
+        }
+    }
+
     // ========== ERROR HANDLING ==========
 
     @Nested
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for chained descendant steps on a pathologically nested document, in which
+ * every {@code a} element contains a {@code b} element and the next {@code a} element. Scanning
+ * the descendants of every matched {@code a} separately takes time quadratic in the depth.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XPathNestingBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XPathNestingBenchmark {
+
+    @Param({"100", "1000"})
+    private int depth;
+
+    private Element root;
+    private XPathExpression descendantOfDescendant;
+    private XPathExpression childOfDescendant;
+    private XPathExpression parentOfDescendant;
+
+    /**
+     * Generates and parses the nested document and compiles the expressions.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<root>");
+        for (int i = 0; i < depth; i++) {
+            sb.append("<a><b/>");
+        }
+        for (int i = 0; i < depth; i++) {
+            sb.append("</a>");
+        }
+        root = Document.of(sb.append("</root>").toString()).root();
+        descendantOfDescendant = XPathExpression.compile("//a//b");
+        childOfDescendant = XPathExpression.compile("//a/b");
+        parentOfDescendant = XPathExpression.compile("//b/..");
+    }
+
+    /**
+     * Selects every {@code b} below an {@code a}, which scans the document once.
+     *
+     * @return the selected elements
+     */
+    @Benchmark
+    public List<Element> descendantOfDescendant() {
+        return descendantOfDescendant.select(root);
+    }
+
+    /**
+     * Selects the {@code b} children of every {@code a}, whose contexts are all nested.
+     *
+     * @return the selected elements
+     */
+    @Benchmark
+    public List<Element> childOfDescendant() {
+        return childOfDescendant.select(root);
+    }
+
+    /**
+     * Selects the parents of every {@code b}, sorting them into document order.
+     *
+     * @return the selected elements
+     */
+    @Benchmark
+    public List<Element> parentOfDescendant() {
+        return parentOfDescendant.select(root);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XPathNestingBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XPathNestingBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XPathNestingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link XmlDiff#apply(DiffResult, Document)} on a POM with a few edited,
+ * added and removed dependencies, against parsing the edited POM again.
+ *
+ * <p>Both benchmarks bring a document up to date with the edited POM: {@code apply} patches a
+ * fresh copy of the original document, prepared before each invocation, while {@code reparse}
+ * parses the edited POM from scratch.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XmlDiffApplyBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XmlDiffApplyBenchmark {
+
+    @Param({"1000", "10000"})
+    private int dependencies;
+
+    private Document base;
+    private String afterXml;
+    private DiffResult diff;
+    private Document target;
+
+    /**
+     * Generates the POM, edits a copy and diffs both.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i = 0; i < dependencies; i++) {
+            sb.append("    <dependency>\n");
+            sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <version>1.").append(i).append("</version>\n");
+            sb.append("    </dependency>\n");
+        }
+        String xml = sb.append("  </dependencies>\n</project>\n").toString();
+        base = Document.of(xml);
+        Document after = Document.of(xml);
+        Element list = after.root().childElement("dependencies").orElseThrow();
+        list.descendants("version").skip(dependencies / 2).findFirst().orElseThrow().textContent("2.0");
+        list.removeChild(list.childElements("dependency").skip(dependencies / 3).findFirst().orElseThrow());
+        Element added = list.childElements("dependency").findFirst().orElseThrow().copy();
+        added.childElement("artifactId").orElseThrow().textContent("artifact-new");
+        list.addChild(added);
+        afterXml = after.toXml();
+        after = Document.of(afterXml);
+        DiffConfig config = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+        diff = XmlDiff.diff(base, after, config);
+    }
+
+    /**
+     * Copies the original document for the next {@code apply}.
+     */
+    @Setup(Level.Invocation)
+    public void copyBase() {
+        target = base.copy();
+    }
+
+    /**
+     * Applies the diff to a copy of the original document.
+     *
+     * @return the patched document
+     */
+    @Benchmark
+    public Document apply() {
+        XmlDiff.apply(diff, target);
+        return target;
+    }
+
+    /**
+     * Parses the edited POM.
+     *
+     * @return the parsed document
+     */
+    @Benchmark
+    public Document reparse() {
+        return Document.of(afterXml);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffApplyBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XmlDiffApplyBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffApplyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link XmlDiff#apply(DiffResult, Document)}, checking that applying the diff of two
+ * documents to a copy of the first one yields a document without changes from the second.
+ */
+class XmlDiffApplyTest {
+
+    private static final String[] NAMES = {"a", "b", "c", "dep", "p:x"};
+
+    private static final DiffConfig[] CONFIGS = {
+        DiffConfig.defaults(),
+        DiffConfig.builder().matchBy("dep", "g", "id").build(),
+        DiffConfig.builder().matchBy("a", "k0").matchBy("dep", "g").build()
+    };
+
+    @Test
+    void roundTripsRandomEdits() {
+        int changes = 0;
+        int parsed = 0;
+        for (int seed = 0; seed < 1000; seed++) {
+            Random random = new Random(seed);
+            StringBuilder sb = new StringBuilder();
+            generate(random, sb, 0, "");
+            String before = sb.toString();
+            String after = mutate(random, before);
+            if (random.nextInt(4) == 0) {
+                after = after.replace("\n", "\n ");
+            }
+            for (DiffConfig config : CONFIGS) {
+                Document afterDocument = Document.of(after);
+                DiffResult diff = XmlDiff.diff(Document.of(before), afterDocument, config);
+                Document target = Document.of(before);
+
+                XmlDiff.apply(diff, target);
+
+                String message = "seed " + seed + "\n" + before + "\n----\n" + after + "\n----\n" + target.toXml();
+                assertEquals(List.of(), XmlDiff.diff(target, afterDocument, config).changes(), message);
+                // The order of differently named siblings is not compared, and text around them
+                // may be parsed differently, so the serialized target is only checked otherwise
+                if (sameOrder(target.root(), afterDocument.root())) {
+                    assertEquals(
+                            List.of(),
+                            XmlDiff.diff(Document.of(target.toXml()), afterDocument, config)
+                                    .changes(),
+                            message);
+                    parsed++;
+                }
+                changes += diff.changes().size();
+            }
+        }
+        assertTrue(changes > 10000);
+        assertTrue(parsed > 2000);
+    }
+
+    @Test
+    void roundTripsToSameXmlWhenOnlyValuesChange() {
+        String before = "<project>\n  <version>1.0</version>\n  <properties>\n"
+                + "    <a.version>1</a.version>\n    <b.version>2</b.version>\n  </properties>\n</project>\n";
+        String after = "<project>\n  <version>1.1</version>\n  <properties>\n"
+                + "    <a.version>1</a.version>\n    <b.version  kind='x'>3</b.version>\n  </properties>\n</project>\n";
+        Document target = Document.of(before);
+
+        XmlDiff.apply(XmlDiff.diff(Document.of(before), Document.of(after)), target);
+
+        assertEquals(after, target.toXml());
+    }
+
+    @Test
+    void modifiesOnlyChangedNodes() {
+        String before = "<project><name>n</name><dependencies>"
+                + "<dependency><groupId>g</groupId><artifactId>a</artifactId><version>1</version></dependency>"
+                + "<dependency><groupId>g</groupId><artifactId>b</artifactId><version>1</version></dependency>"
+                + "</dependencies></project>";
+        String after = before.replace("<artifactId>b</artifactId><version>1", "<artifactId>b</artifactId><version>2");
+        Document target = Document.of(before);
+        Element name = target.root().childElement("name").orElseThrow();
+        Element first = target.root().descendant("dependency").orElseThrow();
+
+        XmlDiff.apply(XmlDiff.diff(Document.of(before), Document.of(after)), target);
+
+        assertEquals(after, target.toXml());
+        assertTrue(target.root().isModified());
+        assertFalse(name.isModified());
+        assertFalse(first.isModified());
+    }
+
+    @Test
+    void appliesKeyedMovesAdditionsAndRemovals() {
+        String before = "<project><dependencies>\n"
+                + "  <dependency><groupId>g</groupId><artifactId>a</artifactId></dependency>\n"
+                + "  <dependency><groupId>g</groupId><artifactId>b</artifactId></dependency>\n"
+                + "  <dependency><groupId>g</groupId><artifactId>c</artifactId></dependency>\n"
+                + "</dependencies></project>";
+        String after = "<project><dependencies>\n"
+                + "  <dependency><groupId>g</groupId><artifactId>c</artifactId></dependency>\n"
+                + "  <dependency><groupId>g</groupId><artifactId>d</artifactId></dependency>\n"
+                + "  <dependency><groupId>g</groupId><artifactId>a</artifactId></dependency>\n"
+                + "</dependencies></project>";
+        DiffConfig config = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+        Document target = Document.of(before);
+
+        XmlDiff.apply(XmlDiff.diff(Document.of(before), Document.of(after), config), target);
+
+        assertEquals(after, target.toXml());
+    }
+
+    @Test
+    void replacesRoot() {
+        Document target = Document.of("<?xml version=\"1.0\"?>\n<a>1</a>");
+
+        XmlDiff.apply(XmlDiff.diff(Document.of("<a>1</a>"), Document.of("<b>2</b>")), target);
+
+        assertEquals("<?xml version=\"1.0\"?>\n<b>2</b>", target.toXml());
+    }
+
+    @Test
+    void rejectsMismatchingTarget() {
+        DiffResult diff = XmlDiff.diff(Document.of("<a><b/><b/></a>"), Document.of("<a><b/><b x='1'/></a>"));
+
+        DomTripException e =
+                assertThrows(DomTripException.class, () -> XmlDiff.apply(diff, Document.of("<a><b/></a>")));
+        assertTrue(e.getMessage().contains("/a/b[2]"), e.getMessage());
+    }
+
+    @Test
+    void rejectsTruncatedDiff() {
+        Document before = Document.of("<a><b/><c/></a>");
+        Document after = Document.of("<a><b x='1'/><c y='2'/></a>");
+
+        DiffResult truncated = XmlDiff.diff(before, after, DiffConfig.defaults(), 1);
+        assertFalse(truncated.isComplete());
+        Document target = before.copy();
+        assertThrows(DomTripException.class, () -> XmlDiff.apply(truncated, target));
+        assertFalse(target.isModified());
+
+        DiffResult limited = XmlDiff.diff(before, after, DiffConfig.defaults(), 3);
+        assertTrue(limited.isComplete());
+        XmlDiff.apply(limited, target);
+        assertFalse(XmlDiff.diff(target, after).hasChanges());
+    }
+
+    @Test
+    void placesTextLikeAfterSide() {
+        String[][] pairs = {
+            {"<r>t0<a/></r>", "<r>\n  <a/>t0</r>"},
+            {"<r>t0\n  <c/>\n<!--m-->\n  <b/></r>", "<r>t0\n  \n<!--m-->\n  <b/></r>"},
+            {"<r>t<a/>\n<![CDATA[x]]></r>", "<r>t\n <![CDATA[x]]></r>"}
+        };
+        for (String[] pair : pairs) {
+            Document target = Document.of(pair[0]);
+
+            XmlDiff.apply(XmlDiff.diff(Document.of(pair[0]), Document.of(pair[1])), target);
+
+            assertEquals(pair[1], target.toXml());
+        }
+    }
+
+    @Test
+    void reordersSiblingsMatchedByPosition() {
+        String before = "<r><dep g='2'/><dep g='1'/><x/><dep/></r>";
+        String after = "<r><dep/><dep g='1'/><dep g='2'/></r>";
+        DiffConfig config = DiffConfig.builder().matchBy("dep", "g").build();
+        Document afterDocument = Document.of(after);
+        Document target = Document.of(before);
+
+        XmlDiff.apply(XmlDiff.diff(Document.of(before), afterDocument, config), target);
+
+        assertEquals(after, target.toXml());
+        assertEquals(List.of(), XmlDiff.diff(target, afterDocument, config).changes());
+    }
+
+    @Test
+    void appliesChangesToEqualProcessingInstructions() {
+        String[][] pairs = {
+            {"<r><?p0 d?><?p1 d?></r>", "<r><?p1 d?><?p0 d?></r>"},
+            {"<r><?p d?><a/><?q d?><?p d?><b/></r>", "<r><?p d?><a/><?q d?><b/></r>"},
+            {"<r><?p d?><?p d?><?q d?></r>", "<r><?p d?><?p e?><?q d?></r>"}
+        };
+        for (String[] pair : pairs) {
+            Document target = Document.of(pair[0]);
+
+            XmlDiff.apply(XmlDiff.diff(Document.of(pair[0]), Document.of(pair[1])), target);
+
+            assertEquals(pair[1], target.toXml());
+        }
+    }
+
+    /** Returns whether the children other than text of two elements come in the same order, down the tree. */
+    private static boolean sameOrder(Element element, Element other) {
+        List<Node> children = element.children().filter(c -> !(c instanceof Text)).collect(Collectors.toList());
+        List<Node> others = other.children().filter(c -> !(c instanceof Text)).collect(Collectors.toList());
+        if (children.size() != others.size()) {
+            return false;
+        }
+        for (int i = 0; i < children.size(); i++) {
+            Node child = children.get(i);
+            Node o = others.get(i);
+            if (child.getClass() != o.getClass()
+                    || child instanceof Element
+                            && (!((Element) child).name().equals(((Element) o).name())
+                                    || !sameOrder((Element) child, (Element) o))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Generates an element with random attributes, namespaces, text, comments, PIs, CDATA and children. */
+    private static void generate(Random random, StringBuilder sb, int depth, String indent) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        sb.append(indent).append('<').append(name);
+        if (name.equals("p:x") || random.nextInt(6) == 0) {
+            sb.append(" xmlns:p=\"urn:").append(random.nextInt(2)).append('"');
+        }
+        int attributes = random.nextInt(3);
+        for (int i = 0; i < attributes; i++) {
+            char quote = random.nextBoolean() ? '"' : '\'';
+            sb.append(random.nextBoolean() ? " " : "\n  ").append('k').append(random.nextInt(3));
+            sb.append('=').append(quote).append(random.nextInt(3));
+            sb.append(random.nextInt(8) == 0 ? "&amp;" : "").append(quote);
+        }
+        if (depth > 3 || random.nextInt(5) == 0) {
+            sb.append("/>\n");
+            return;
+        }
+        sb.append('>');
+        int children = random.nextInt(depth == 0 ? 12 : 6);
+        for (int i = 0; i < children; i++) {
+            switch (random.nextInt(13)) {
+                case 0:
+                    sb.append('t').append(random.nextInt(3)).append(random.nextInt(6) == 0 ? "&lt;" : "");
+                    break;
+                case 1:
+                    sb.append("<!--c").append(random.nextInt(3)).append("-->");
+                    break;
+                case 2:
+                    sb.append("<?p").append(random.nextInt(2)).append(" d").append(random.nextInt(2)).append("?>");
+                    break;
+                case 3:
+                    sb.append("<![CDATA[x").append(random.nextInt(2)).append("]]>");
+                    break;
+                case 4:
+                    sb.append(indent).append("  <dep><g>").append(random.nextInt(3));
+                    sb.append("</g><id>").append(random.nextInt(3));
+                    sb.append("</id><v>").append(random.nextInt(3)).append("</v></dep>\n");
+                    break;
+                case 5:
+                    // Same-name siblings without keys among keyed ones
+                    sb.append(indent).append("  <dep>");
+                    sb.append(random.nextBoolean() ? "<v>" + random.nextInt(3) + "</v>" : "").append("</dep>\n");
+                    break;
+                default:
+                    sb.append('\n');
+                    generate(random, sb, depth + 1, indent + "  ");
+                    break;
+            }
+        }
+        sb.append(indent).append("</").append(name).append('>');
+    }
+
+    /** Removes, adds, edits and moves a few random nodes. */
+    private static String mutate(Random random, String xml) {
+        Document document = Document.of(xml);
+        List<Element> elements = document.root().descendants().collect(Collectors.toList());
+        elements.add(document.root());
+        int edits = 1 + random.nextInt(5);
+        for (int i = 0; i < edits; i++) {
+            Element element = elements.get(random.nextInt(elements.size()));
+            Element parent = element.parent() instanceof Element ? (Element) element.parent() : null;
+            switch (random.nextInt(11)) {
+                case 0:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        elements.removeAll(element.descendants().collect(Collectors.toList()));
+                        elements.remove(element);
+                    }
+                    break;
+                case 1:
+                    element.attribute("k" + random.nextInt(3), String.valueOf(random.nextInt(3)));
+                    break;
+                case 2:
+                    element.removeAttribute("k" + random.nextInt(3));
+                    break;
+                case 3:
+                    element.textContent("t" + random.nextInt(3));
+                    break;
+                case 4:
+                    Element child = new Element(NAMES[random.nextInt(NAMES.length)]);
+                    element.insertChild(random.nextInt(element.childCount() + 1), child);
+                    elements.add(child);
+                    break;
+                case 5:
+                    element.addChild(new Comment("m"));
+                    break;
+                case 6:
+                    element.children()
+                            .filter(Comment.class::isInstance)
+                            .findFirst()
+                            .ifPresent(element::removeChild);
+                    break;
+                case 7:
+                    element.addChild(new ProcessingInstruction("pi", "e"));
+                    break;
+                case 8:
+                    element.precedingWhitespace(random.nextBoolean() ? "\n    " : "");
+                    break;
+                case 9:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        parent.addChild(element);
+                    }
+                    break;
+                default:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        parent.insertChild(0, element);
+                    }
+                    break;
+            }
+        }
+        return document.toXml();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link XmlDiff#diff(Document, Document, DiffConfig)} and the filters of
+ * {@link DiffResult} across document pairs of increasing size and width, run with the GC
+ * profiler to report allocation along with time.
+ *
+ * <p>The documents are POMs with {@code dependencies} dependencies, each having a
+ * configuration with {@code width} options. The {@code identical} pair parses the same POM
+ * twice, the {@code lightlyEdited} pair changes every hundredth version, the
+ * {@code reordered} pair shuffles the dependencies, and the {@code heavilyEdited} pair
+ * changes every version and every other option, removes every tenth dependency and adds as
+ * many new ones.</p>
+ *
+ * <p>{@code diff} matches dependencies by position and {@code diffKeyed} by groupId and
+ * artifactId. {@code semanticChanges} and {@code changesUnder} filter the result of the
+ * keyed diff. The documents are not modified between invocations, so their subtree hashes
+ * are cached after the first one, see {@link XmlDiffHashingBenchmark} for the cost of
+ * hashing them again.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XmlDiffBenchmark -prof gc}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XmlDiffBenchmark {
+
+    @Param({"identical", "lightlyEdited", "reordered", "heavilyEdited"})
+    private String pair;
+
+    @Param({"100", "1000", "10000"})
+    private int dependencies;
+
+    @Param({"1", "10"})
+    private int width;
+
+    private Document before;
+    private Document after;
+    private DiffConfig keys;
+    private DiffResult keyedResult;
+
+    /**
+     * Generates the two POMs of the pair and diffs them once for the filter benchmarks.
+     */
+    @Setup
+    public void setup() {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < dependencies; i++) {
+            order.add(i);
+        }
+        StringBuilder beforeXml = new StringBuilder("<project>\n  <dependencies>\n");
+        StringBuilder afterXml = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i : order) {
+            appendDependency(beforeXml, i, "1." + i, "value");
+        }
+        switch (pair) {
+            case "identical":
+                for (int i : order) {
+                    appendDependency(afterXml, i, "1." + i, "value");
+                }
+                break;
+            case "lightlyEdited":
+                for (int i : order) {
+                    appendDependency(afterXml, i, i % 100 == 0 ? "2." + i : "1." + i, "value");
+                }
+                break;
+            case "reordered":
+                Collections.shuffle(order, new Random(0));
+                for (int i : order) {
+                    appendDependency(afterXml, i, "1." + i, "value");
+                }
+                break;
+            case "heavilyEdited":
+                for (int i : order) {
+                    if (i % 10 != 0) {
+                        appendDependency(afterXml, i, "2." + i, "changed");
+                    }
+                }
+                for (int i = 0; i < dependencies; i += 10) {
+                    appendDependency(afterXml, dependencies + i, "1.0", "value");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown pair: " + pair);
+        }
+        before = Document.of(beforeXml.append("  </dependencies>\n</project>\n").toString());
+        after = Document.of(afterXml.append("  </dependencies>\n</project>\n").toString());
+        keys = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+        keyedResult = XmlDiff.diff(before, after, keys);
+    }
+
+    /**
+     * Appends a dependency whose configuration has {@link #width} options, the odd ones
+     * having the given value.
+     */
+    private void appendDependency(StringBuilder sb, int i, String version, String value) {
+        sb.append("    <dependency>\n");
+        sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+        sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+        sb.append("      <version>").append(version).append("</version>\n");
+        sb.append("      <configuration>\n");
+        for (int k = 0; k < width; k++) {
+            sb.append("        <option").append(k).append('>');
+            sb.append(k % 2 == 1 ? value : "value").append(k);
+            sb.append("</option").append(k).append(">\n");
+        }
+        sb.append("      </configuration>\n");
+        sb.append("    </dependency>\n");
+    }
+
+    /**
+     * Diffs the documents, matching dependencies by position.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult diff() {
+        return XmlDiff.diff(before, after);
+    }
+
+    /**
+     * Diffs the documents, matching dependencies by groupId and artifactId.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult diffKeyed() {
+        return XmlDiff.diff(before, after, keys);
+    }
+
+    /**
+     * Filters the semantic changes of the keyed diff.
+     *
+     * @return the semantic changes
+     */
+    @Benchmark
+    public List<XmlChange> semanticChanges() {
+        return keyedResult.semanticChanges();
+    }
+
+    /**
+     * Filters the changes of the keyed diff under the dependencies.
+     *
+     * @return the changes under the dependencies
+     */
+    @Benchmark
+    public List<XmlChange> changesUnder() {
+        return keyedResult.changesUnder("/project/dependencies");
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include("\\." + XmlDiffBenchmark.class.getSimpleName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XmlDiffBenchmark with the GC profiler.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include("\\." + XmlDiffBenchmark.class.getSimpleName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
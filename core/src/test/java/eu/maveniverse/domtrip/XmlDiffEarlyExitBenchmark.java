@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the early exit variants of {@link XmlDiff} on POMs with 10,000
+ * dependencies, compared with a full diff.
+ *
+ * <p>The {@code equal} pair differs in indentation only, so that it is equivalent but has a
+ * formatting change on every line. The {@code nearlyEqual} pair changes the version of the
+ * last dependency, and the {@code veryDifferent} pair changes every version.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XmlDiffEarlyExitBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XmlDiffEarlyExitBenchmark {
+
+    private static final int DEPENDENCIES = 10000;
+
+    @Param({"equal", "nearlyEqual", "veryDifferent"})
+    private String pair;
+
+    private Document before;
+    private Document after;
+    private DiffConfig config;
+
+    /**
+     * Generates and parses both POMs of the pair.
+     */
+    @Setup
+    public void setup() {
+        before = Document.of(buildPom("  ", -1));
+        switch (pair) {
+            case "equal":
+                after = Document.of(buildPom("    ", -1));
+                break;
+            case "nearlyEqual":
+                after = Document.of(buildPom("  ", DEPENDENCIES - 1));
+                break;
+            default:
+                after = Document.of(buildPom("  ", DEPENDENCIES));
+                break;
+        }
+        config = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+    }
+
+    /** Builds a POM with the given indentation, changing the version of the edited dependency, or all. */
+    private static String buildPom(String indent, int edited) {
+        StringBuilder sb = new StringBuilder("<project>\n").append(indent).append("<dependencies>\n");
+        for (int i = 0; i < DEPENDENCIES; i++) {
+            String version = (i == edited || edited == DEPENDENCIES ? "2." : "1.") + i;
+            sb.append(indent).append(indent).append("<dependency>\n");
+            sb.append(indent).append(indent).append(indent);
+            sb.append("<groupId>com.example.group").append(i % 10).append("</groupId>\n");
+            sb.append(indent).append(indent).append(indent);
+            sb.append("<artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append(indent).append(indent).append(indent);
+            sb.append("<version>").append(version).append("</version>\n");
+            sb.append(indent).append(indent).append("</dependency>\n");
+        }
+        return sb.append(indent).append("</dependencies>\n</project>\n").toString();
+    }
+
+    /**
+     * Computes the full diff and checks it for semantic changes.
+     *
+     * @return whether the documents are equivalent
+     */
+    @Benchmark
+    public boolean fullDiff() {
+        return !XmlDiff.diff(before, after, config).hasSemanticChanges();
+    }
+
+    /**
+     * Checks the documents for equivalence, stopping at the first semantic change.
+     *
+     * @return whether the documents are equivalent
+     */
+    @Benchmark
+    public boolean isEquivalent() {
+        return XmlDiff.isEquivalent(before, after, config);
+    }
+
+    /**
+     * Diffs the documents up to their first change.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult firstChange() {
+        return XmlDiff.diff(before, after, config, 1);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffEarlyExitBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XmlDiffEarlyExitBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffEarlyExitBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link XmlDiff} on a POM with 10,000 dependencies diffed against a copy
+ * with a single edit, with and without subtree hashing.
+ *
+ * <p>The {@code oneEdit} benchmark diffs the same two documents repeatedly, so that their
+ * hashes are cached, while {@code editAndDiff} edits the copy before each diff, so that it
+ * is hashed again every time.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XmlDiffHashingBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XmlDiffHashingBenchmark {
+
+    @Param({"true", "false"})
+    private boolean subtreeHashing;
+
+    private Document before;
+    private Document after;
+    private Element editedVersion;
+    private DiffConfig config;
+    private int edits;
+
+    /**
+     * Generates the POM, parses it twice and changes the version of one dependency in the copy.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i = 0; i < 10000; i++) {
+            sb.append("    <dependency>\n");
+            sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <version>1.").append(i).append("</version>\n");
+            sb.append("    </dependency>\n");
+        }
+        String xml = sb.append("  </dependencies>\n</project>\n").toString();
+        before = Document.of(xml);
+        after = Document.of(xml);
+        editedVersion =
+                after.root().descendants("version").skip(5000).findFirst().orElseThrow();
+        editedVersion.textContent("2.0");
+        config = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .subtreeHashing(subtreeHashing)
+                .build();
+    }
+
+    /**
+     * Diffs the unchanged documents.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult oneEdit() {
+        return XmlDiff.diff(before, after, config);
+    }
+
+    /**
+     * Edits the copy, then diffs the documents.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult editAndDiff() {
+        editedVersion.textContent((edits++ & 1) == 0 ? "2.0" : "3.0");
+        return XmlDiff.diff(before, after, config);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffHashingBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XmlDiffHashingBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffHashingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link XmlDiff} child matching on a POM with many dependencies, which are
+ * reordered and partly changed between the two documents. The {@code keyed} variant matches
+ * dependencies by groupId and artifactId, the {@code positional} variant by position.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XmlDiffKeyMatchingBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XmlDiffKeyMatchingBenchmark {
+
+    @Param({"1000", "10000"})
+    private int dependencyCount;
+
+    private Document before;
+    private Document after;
+    private DiffConfig keys;
+
+    /**
+     * Generates the two POMs: the after document lists the dependencies in reverse order,
+     * with every tenth version changed.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder beforeXml = new StringBuilder("<project>\n  <dependencies>\n");
+        StringBuilder afterXml = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i = 0; i < dependencyCount; i++) {
+            appendDependency(beforeXml, i, "1." + i);
+            int j = dependencyCount - 1 - i;
+            appendDependency(afterXml, j, j % 10 == 0 ? "2." + j : "1." + j);
+        }
+        before = Document.of(beforeXml.append("  </dependencies>\n</project>\n").toString());
+        after = Document.of(afterXml.append("  </dependencies>\n</project>\n").toString());
+        keys = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+    }
+
+    private static void appendDependency(StringBuilder sb, int i, String version) {
+        sb.append("    <dependency>\n");
+        sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+        sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+        sb.append("      <version>").append(version).append("</version>\n");
+        sb.append("    </dependency>\n");
+    }
+
+    /**
+     * Diffs the documents, matching dependencies by their keys.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult keyed() {
+        return XmlDiff.diff(before, after, keys);
+    }
+
+    /**
+     * Diffs the documents, matching dependencies by position.
+     *
+     * @return the diff result
+     */
+    @Benchmark
+    public DiffResult positional() {
+        return XmlDiff.diff(before, after);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffKeyMatchingBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XmlDiffKeyMatchingBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlDiffKeyMatchingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -2,10 +2,14 @@ package eu.maveniverse.domtrip;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
@@ -119,6 +123,21 @@ class XmlDiffTest {
         assertFalse(result.hasSemanticChanges());
     }
 
+    @Test
+    void detectsEmptyElementStyleChangeOfElementLosingItsChildren() {
+        Document before = Document.of("<project><deps><dep/></deps><other><x/></other><more/></project>");
+        Document after = Document.of("<project><deps/><other></other><more><y/></more></project>");
+
+        DiffResult result = XmlDiff.diff(before, after);
+
+        assertEquals(4, result.changes().size(), result.toString());
+        assertChange(result, ChangeType.ELEMENT_REMOVED, "/project/deps/dep");
+        assertChange(
+                result, ChangeType.EMPTY_ELEMENT_STYLE_CHANGED, "/project/deps", "expanded", "self-closing");
+        assertChange(result, ChangeType.ELEMENT_REMOVED, "/project/other/x");
+        assertChange(result, ChangeType.ELEMENT_ADDED, "/project/more/y");
+    }
+
     @Test
     void detectsCommentAdded() {
         Document before = Document.of("<project><version>1.0</version></project>");
@@ -377,6 +396,246 @@ class XmlDiffTest {
         assertChange(result, ChangeType.TEXT_CHANGED, "/root/thing", "old", "new");
     }
 
+    @Test
+    void duplicateMatchKeysMatchInDocumentOrder() {
+        Document before = Document.of("<items><item id=\"1\">A</item><item id=\"1\">B</item></items>");
+        Document after = Document.of("<items><x/><item id=\"1\">A2</item><item id=\"1\">B2</item></items>");
+
+        DiffConfig config = DiffConfig.builder().matchBy("item", "id").build();
+        DiffResult result = XmlDiff.diff(before, after, config);
+
+        assertChange(result, ChangeType.TEXT_CHANGED, "/items/item[1]", "A", "A2");
+        assertChange(result, ChangeType.TEXT_CHANGED, "/items/item[2]", "B", "B2");
+        assertFalse(result.changes().stream().anyMatch(c -> c.type() == ChangeType.ELEMENT_MOVED));
+    }
+
+    @Test
+    void matchByKeysAcrossManySiblings() {
+        StringBuilder before = new StringBuilder("<deps>");
+        StringBuilder after = new StringBuilder("<deps><dep id=\"new\">0</dep>");
+        for (int i = 0; i < 2000; i++) {
+            before.append("<dep id=\"").append(i).append("\">").append(i).append("</dep>");
+            // Reverse the order and drop the first dependency
+            int j = 1999 - i;
+            if (j > 0) {
+                after.append("<dep id=\"").append(j).append("\">").append(j).append("</dep>");
+            }
+        }
+
+        DiffConfig config = DiffConfig.builder().matchBy("dep", "id").build();
+        DiffResult result = XmlDiff.diff(
+                Document.of(before.append("</deps>").toString()),
+                Document.of(after.append("</deps>").toString()),
+                config);
+
+        // The unmatched dependencies are then matched by position
+        assertChange(result, ChangeType.ATTRIBUTE_CHANGED, "/deps/dep[1]/@id", "0", "new");
+        assertFalse(result.changes().stream().anyMatch(c -> c.type() == ChangeType.TEXT_CHANGED));
+        // Among the reversed dependencies, only the middle one keeps its position
+        assertEquals(
+                1998,
+                result.changes().stream()
+                        .filter(c -> c.type() == ChangeType.ELEMENT_MOVED)
+                        .count());
+        assertChange(result, ChangeType.ELEMENT_MOVED, "/deps/dep[2]", "2", "2000");
+    }
+
+    @Test
+    void detectsChangesAfterIdenticalDocumentIsModified() {
+        String xml = "<project><dependencies><dependency><version>1.0</version></dependency></dependencies></project>";
+        Document before = Document.of(xml);
+        Document after = Document.of(xml);
+        assertFalse(XmlDiff.diff(before, after).hasChanges());
+
+        // The hashes cached by the first diff must not hide the edit
+        after.root().descendant("version").orElseThrow().textContent("2.0");
+
+        DiffResult result = XmlDiff.diff(before, after);
+        assertChange(result, ChangeType.TEXT_CHANGED, "/project/dependencies/dependency/version", "1.0", "2.0");
+    }
+
+    @Test
+    void detectsAttributeObjectChangesAfterIdenticalDocumentIsModified() {
+        String xml = "<project><a class='x'/><b/></project>";
+        Document before = Document.of(xml);
+        Document after = Document.of(xml);
+        assertTrue(XmlDiff.isEquivalent(before, after));
+
+        // Changing the attribute in place must invalidate the cached subtree hashes as well
+        after.root().childElement("a").orElseThrow().attributeObject("class").value("manual");
+
+        DiffResult result = XmlDiff.diff(before, after);
+        assertEquals(1, result.changes().size(), result.toString());
+        assertChange(result, ChangeType.ATTRIBUTE_CHANGED, "/project/a/@class", "x", "manual");
+        assertFalse(XmlDiff.isEquivalent(before, after));
+    }
+
+    @Test
+    void detectsFormattingChangesInDeepSubtrees() {
+        Document before = Document.of("<a><b><c x='1'>t &amp; u</c></b><b/></a>");
+        Document after = Document.of("<a><b><c x=\"1\">t &#38; u</c></b><b></b></a>");
+
+        DiffResult result = XmlDiff.diff(before, after);
+
+        assertFalse(result.hasSemanticChanges());
+        assertChange(result, ChangeType.QUOTE_STYLE_CHANGED, "/a/b[1]/c/@x");
+        assertChange(result, ChangeType.ENTITY_FORM_CHANGED, "/a/b[1]/c");
+        assertChange(result, ChangeType.EMPTY_ELEMENT_STYLE_CHANGED, "/a/b[2]");
+    }
+
+    @Test
+    void subtreeHashingDoesNotChangeResult() {
+        Document before = Document.of("<deps>"
+                + "<dep id=\"1\"><v>1</v></dep><dep id=\"2\"><v>2</v></dep><dep id=\"3\"><v>3</v></dep>"
+                + "</deps>");
+        Document after = Document.of("<deps>"
+                + "<dep id=\"3\"><v>3</v></dep><dep id=\"1\"><v>1</v></dep><dep id=\"2\"><!-- x --><v>2</v></dep>"
+                + "</deps>");
+
+        DiffConfig hashing = DiffConfig.builder().matchBy("dep", "id").build();
+        DiffConfig noHashing =
+                DiffConfig.builder().matchBy("dep", "id").subtreeHashing(false).build();
+
+        assertTrue(hashing.isSubtreeHashing());
+        assertFalse(noHashing.isSubtreeHashing());
+        assertEquals(
+                XmlDiff.diff(before, after, noHashing).toString(),
+                XmlDiff.diff(before, after, hashing).toString());
+        assertChange(XmlDiff.diff(before, after, hashing), ChangeType.COMMENT_ADDED, "/deps/dep[2]/comment()");
+    }
+
+    @Test
+    void parallelDiffMatchesSequentialDiff() {
+        StringBuilder before = new StringBuilder("<project><dependencies>");
+        StringBuilder after = new StringBuilder("<project><dependencies>");
+        for (int i = 0; i < 3000; i++) {
+            String dependency = "<dependency><groupId>g" + i % 7 + "</groupId><artifactId>a" + i
+                    + "</artifactId><version>1." + i + "</version></dependency>";
+            before.append(dependency);
+            // Change, remove, add and reorder some dependencies
+            if (i % 11 == 0) {
+                after.append(dependency.replace("<version>1.", "<version>2."));
+            } else if (i % 13 == 0) {
+                after.append("<dependency><groupId>new</groupId><artifactId>a")
+                        .append(i)
+                        .append("</artifactId></dependency>");
+            } else if (i % 17 == 0) {
+                after.insert("<project><dependencies>".length(), dependency);
+            } else if (i % 19 != 0) {
+                after.append(dependency);
+            }
+        }
+        Document beforeDoc =
+                Document.of(before.append("</dependencies></project>").toString());
+        Document afterDoc =
+                Document.of(after.append("</dependencies></project>").toString());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (boolean keyed : new boolean[] {false, true}) {
+                for (boolean hashing : new boolean[] {false, true}) {
+                    DiffConfig.Builder builder = DiffConfig.builder().subtreeHashing(hashing);
+                    if (keyed) {
+                        builder.matchBy("dependency", "groupId", "artifactId");
+                    }
+                    DiffResult sequential = XmlDiff.diff(beforeDoc, afterDoc, builder.build());
+                    DiffResult parallel = XmlDiff.diff(
+                            beforeDoc, afterDoc, builder.parallel(pool).build());
+
+                    assertTrue(sequential.changes().size() > 100);
+                    assertEquals(sequential.changes().size(), parallel.changes().size());
+                    for (int i = 0; i < sequential.changes().size(); i++) {
+                        XmlChange expected = sequential.changes().get(i);
+                        XmlChange actual = parallel.changes().get(i);
+                        assertEquals(expected.toString(), actual.toString());
+                        assertSame(expected.beforeNode(), actual.beforeNode());
+                        assertSame(expected.afterNode(), actual.afterNode());
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void equivalentDocumentsMayDifferInFormatting() {
+        Document before = Document.of("""
+                <project>
+                  <version a="1" b="2">1.0</version>
+                  <name>a &amp; b</name>
+                  <empty/>
+                </project>""");
+        Document after = Document.of("""
+                <project>
+                    <version b='2'  a='1'>1.0</version>
+                    <name>a &#38; b</name>
+                    <empty></empty>
+                </project>""");
+
+        assertTrue(XmlDiff.diff(before, after).hasFormattingChanges());
+        assertTrue(XmlDiff.isEquivalent(before, after));
+        assertTrue(XmlDiff.isEquivalent(
+                before, after, DiffConfig.builder().subtreeHashing(false).build()));
+    }
+
+    @Test
+    void semanticChangeMakesDocumentsNotEquivalent() {
+        String xml = """
+                <project>
+                  <dependencies>
+                    <dependency><groupId>g</groupId><artifactId>a</artifactId><version>1</version></dependency>
+                    <dependency><groupId>g</groupId><artifactId>b</artifactId><version>1</version></dependency>
+                  </dependencies>
+                </project>""";
+        Document before = Document.of(xml);
+        Document after = Document.of(xml);
+        after.root().descendants("version").skip(1).findFirst().orElseThrow().textContent("2");
+
+        assertFalse(XmlDiff.isEquivalent(before, after));
+        assertFalse(XmlDiff.isEquivalent(
+                before, after, DiffConfig.builder().subtreeHashing(false).build()));
+        assertFalse(XmlDiff.isEquivalent(before, Document.of("<other/>")));
+        assertTrue(XmlDiff.isEquivalent(new Document(), new Document()));
+    }
+
+    @Test
+    void diffWithLimitReturnsFirstChanges() {
+        Document before = Document.of("<r><a>1</a><b>2</b><c>3</c><d>4</d></r>");
+        Document after = Document.of("<r><a>X</a><b>Y</b><c>Z</c><d>4</d></r>");
+        DiffConfig config = DiffConfig.defaults();
+        List<XmlChange> all = XmlDiff.diff(before, after, config).changes();
+
+        assertEquals(3, all.size());
+        for (int limit = 0; limit <= 4; limit++) {
+            List<XmlChange> limited = XmlDiff.diff(before, after, config, limit).changes();
+            assertEquals(all.subList(0, Math.min(limit, all.size())).toString(), limited.toString());
+        }
+        assertThrows(IllegalArgumentException.class, () -> XmlDiff.diff(before, after, config, -1));
+    }
+
+    @Test
+    void diffWithListenerStopsWhenListenerReturnsFalse() {
+        Document before = Document.of("<r><a>1</a><b>2</b><c>3</c></r>");
+        Document after = Document.of("<r><a>X</a><b>Y</b><c>Z</c><d/></r>");
+        List<XmlChange> reported = new ArrayList<>();
+
+        boolean completed = XmlDiff.diff(before, after, DiffConfig.defaults(), change -> {
+            reported.add(change);
+            return change.type() != ChangeType.TEXT_CHANGED;
+        });
+
+        assertFalse(completed);
+        assertEquals(2, reported.size());
+        assertEquals(ChangeType.ELEMENT_ADDED, reported.get(0).type());
+        assertEquals("/r/d", reported.get(0).path());
+        assertEquals("/r/a", reported.get(1).path());
+
+        reported.clear();
+        assertTrue(XmlDiff.diff(before, after, DiffConfig.defaults(), reported::add));
+        assertEquals(XmlDiff.diff(before, after).changes().toString(), reported.toString());
+    }
+
     @Test
     void diffResultToStringWithChanges() {
         Document before = Document.of("<r><a>1</a><b>2</b></r>");
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the shared escaping and unescaping engine.
+ */
+class XmlEscaperTest {
+
+    @Nested
+    class Escape {
+
+        @Test
+        void returnsInputWhenNothingToEscape() {
+            String text = "plain text with \"quotes\" and 'apostrophes' and ünïcödé";
+            assertSame(text, XmlEscaper.escapeText(text));
+            assertSame("it's", XmlEscaper.escapeAttribute("it's", '"'));
+            assertSame("say \"hi\"", XmlEscaper.escapeAttribute("say \"hi\"", '\''));
+            assertEquals("", XmlEscaper.escapeText(null));
+        }
+
+        @Test
+        void escapesText() {
+            assertEquals("a &lt; b &amp;&amp; c &gt; d \"'", XmlEscaper.escapeText("a < b && c > d \"'"));
+            assertEquals("&lt;&gt;&amp;", XmlEscaper.escapeText("<>&"));
+        }
+
+        @Test
+        void escapesOnlyActiveQuoteInAttributes() {
+            assertEquals("&lt;&quot;it's&quot;&gt;", XmlEscaper.escapeAttribute("<\"it's\">", '"'));
+            assertEquals("&lt;\"it&apos;s\"&gt;", XmlEscaper.escapeAttribute("<\"it's\">", '\''));
+        }
+
+        @Test
+        void appendsToBuilder() {
+            StringBuilder sb = new StringBuilder("x=");
+            XmlEscaper.escapeText("1 < 2", sb);
+            XmlEscaper.escapeText(null, sb);
+            sb.append(';');
+            XmlEscaper.escapeAttribute("a&b", '"', sb);
+            XmlEscaper.escapeAttribute("plain", '\'', sb);
+            assertEquals("x=1 &lt; 2;a&amp;bplain", sb.toString());
+        }
+    }
+
+    @Nested
+    class Unescape {
+
+        @Test
+        void returnsInputWithoutAmpersand() {
+            String text = "no entities here <>\"'";
+            assertSame(text, XmlEscaper.unescape(text));
+            assertEquals("", XmlEscaper.unescape(null));
+        }
+
+        @Test
+        void decodesNamedEntities() {
+            assertEquals("<>\"'&", XmlEscaper.unescape("&lt;&gt;&quot;&apos;&amp;"));
+            assertEquals("a & b", XmlEscaper.unescape("a &amp; b"));
+        }
+
+        @Test
+        void decodesNumericReferences() {
+            assertEquals("AAA", XmlEscaper.unescape("&#65;&#x41;&#X41;"));
+            assertEquals("😀", XmlEscaper.unescape("&#x1F600;"));
+            assertEquals("A", XmlEscaper.unescape("&#0000065;"));
+        }
+
+        @Test
+        void doesNotDecodeTwice() {
+            assertEquals("&lt;", XmlEscaper.unescape("&#38;lt;"));
+            assertEquals("&amp;", XmlEscaper.unescape("&amp;amp;"));
+        }
+
+        @Test
+        void keepsUnresolvableReferencesLiteral() {
+            String[] literals = {
+                "&",
+                "&#",
+                "&#;",
+                "&#x;",
+                "&#65",
+                "&#-65;",
+                "&#xZZ;",
+                "&#0;",
+                "&#xD800;",
+                "&#99999999999;",
+                "&nbsp;",
+                "& lt;",
+                "&lt",
+                "&#12 abc;"
+            };
+            for (String literal : literals) {
+                assertEquals(literal, XmlEscaper.unescape(literal), literal);
+            }
+        }
+
+        @Test
+        void matchesIntegerParsingOfReferences() {
+            // Same digits and sign handling as Integer.parseInt, which earlier versions used
+            assertEquals("A", XmlEscaper.unescape("&#+65;"));
+            assertEquals("A", XmlEscaper.unescape("&#x+41;"));
+        }
+
+        @Test
+        void appendsToBuilder() {
+            StringBuilder sb = new StringBuilder("[");
+            XmlEscaper.unescape("a &lt; b", sb);
+            XmlEscaper.unescape(null, sb);
+            XmlEscaper.unescape(" plain ", sb);
+            XmlEscaper.unescape("&unknown;&#65;", sb);
+            assertEquals("[a < b plain &unknown;A", sb.toString());
+        }
+    }
+
+    @Test
+    void roundTrips() {
+        String text = "if (a < b && c > d) { s = \"it's\"; } &#65; 😀";
+        assertEquals(text, XmlEscaper.unescape(XmlEscaper.escapeText(text)));
+        assertEquals(text, XmlEscaper.unescape(XmlEscaper.escapeAttribute(text, '"')));
+        assertEquals(text, XmlEscaper.unescape(XmlEscaper.escapeAttribute(text, '\'')));
+    }
+}
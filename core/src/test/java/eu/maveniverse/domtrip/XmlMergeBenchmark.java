@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link XmlMerge#merge(Document, Document, Document, DiffConfig)} on a large
+ * POM edited independently on both sides.
+ *
+ * <p>Our side bumps a few versions and adds a dependency, their side bumps other versions,
+ * removes a dependency and adds another. {@code merge} merges both, while {@code mergeUnchanged}
+ * merges an unchanged side, which only costs copying ours once the subtree hashes show that
+ * nothing changed.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main XmlMergeBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class XmlMergeBenchmark {
+
+    @Param({"1000", "10000"})
+    private int dependencies;
+
+    private DiffConfig config;
+    private Document base;
+    private Document ours;
+    private Document theirs;
+
+    /**
+     * Generates the POM and edits two copies of it.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i = 0; i < dependencies; i++) {
+            sb.append("    <dependency>\n");
+            sb.append("      <groupId>com.example.group").append(i % 10).append("</groupId>\n");
+            sb.append("      <artifactId>artifact-").append(i).append("</artifactId>\n");
+            sb.append("      <version>1.").append(i).append("</version>\n");
+            sb.append("    </dependency>\n");
+        }
+        String xml = sb.append("  </dependencies>\n</project>\n").toString();
+        config = DiffConfig.builder()
+                .matchBy("dependency", "groupId", "artifactId")
+                .build();
+        base = Document.of(xml);
+        ours = edit(xml, 0, "ours");
+        theirs = edit(xml, 1, "theirs");
+    }
+
+    /** Bumps every hundredth version starting at {@code offset} and adds a dependency. */
+    private Document edit(String xml, int offset, String added) {
+        Document document = Document.of(xml);
+        Element list = document.root().childElement("dependencies").orElseThrow();
+        List<Element> versions = list.descendants("version").collect(Collectors.toList());
+        for (int i = offset; i < versions.size(); i += 100) {
+            versions.get(i).textContent("2.0");
+        }
+        if (offset > 0) {
+            list.removeChild(list.childElements("dependency")
+                    .skip(dependencies / 3)
+                    .findFirst()
+                    .orElseThrow());
+        }
+        Element dependency = list.childElements("dependency").findFirst().orElseThrow().copy();
+        dependency.childElement("artifactId").orElseThrow().textContent("artifact-" + added);
+        list.addChild(dependency);
+        return Document.of(document.toXml());
+    }
+
+    /**
+     * Merges the changes of both sides.
+     *
+     * @return the merge result
+     */
+    @Benchmark
+    public MergeResult merge() {
+        return XmlMerge.merge(base, ours, theirs, config);
+    }
+
+    /**
+     * Merges our changes with an unchanged side.
+     *
+     * @return the merge result
+     */
+    @Benchmark
+    public MergeResult mergeUnchanged() {
+        return XmlMerge.merge(base, ours, base, config);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlMergeBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by XmlMergeBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(XmlMergeBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
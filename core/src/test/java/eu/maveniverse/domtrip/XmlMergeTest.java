@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link XmlMerge}.
+ */
+class XmlMergeTest {
+
+    private static final String BASE = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project>\n"
+            + "  <groupId>com.example</groupId>\n"
+            + "  <artifactId>app</artifactId>\n"
+            + "  <version>1.0</version>\n"
+            + "  <properties>\n"
+            + "    <java.version>17</java.version>\n"
+            + "  </properties>\n"
+            + "  <dependencies>\n"
+            + "    <dependency>\n"
+            + "      <groupId>org.slf4j</groupId>\n"
+            + "      <artifactId>slf4j-api</artifactId>\n"
+            + "      <version>2.0.0</version>\n"
+            + "    </dependency>\n"
+            + "    <dependency>\n"
+            + "      <groupId>junit</groupId>\n"
+            + "      <artifactId>junit</artifactId>\n"
+            + "      <version>4.13</version>\n"
+            + "      <scope>test</scope>\n"
+            + "    </dependency>\n"
+            + "  </dependencies>\n"
+            + "</project>\n";
+
+    private static final DiffConfig KEYED = DiffConfig.builder()
+            .matchBy("dependency", "groupId", "artifactId")
+            .build();
+
+    private static final String[] NAMES = {"a", "b", "c", "dep"};
+
+    @Test
+    void mergesChangesOfBothSides() {
+        String ours = BASE.replace("<version>1.0</version>", "<version>1.1</version>")
+                .replace(
+                        "  </dependencies>",
+                        "    <dependency>\n      <groupId>org.ours</groupId>\n"
+                                + "      <artifactId>ours</artifactId>\n    </dependency>\n  </dependencies>");
+        String theirs = BASE.replace("<java.version>17</java.version>", "<java.version>21</java.version>")
+                .replace("<project>", "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">")
+                .replace("<version>2.0.0</version>", "<version>2.0.9</version>")
+                .replace(
+                        "    <dependency>\n      <groupId>junit</groupId>",
+                        "    <dependency>\n        <groupId>org.theirs</groupId>\n"
+                                + "        <artifactId>theirs</artifactId>\n    </dependency>\n"
+                                + "    <dependency>\n      <groupId>junit</groupId>");
+
+        MergeResult result = merge(BASE, ours, theirs, KEYED);
+
+        assertEquals(List.of(), result.conflicts());
+        String expected = BASE.replace("<version>1.0</version>", "<version>1.1</version>")
+                .replace("<java.version>17</java.version>", "<java.version>21</java.version>")
+                .replace("<project>", "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">")
+                .replace("<version>2.0.0</version>", "<version>2.0.9</version>")
+                .replace(
+                        "    <dependency>\n      <groupId>junit</groupId>",
+                        "    <dependency>\n        <groupId>org.theirs</groupId>\n"
+                                + "        <artifactId>theirs</artifactId>\n    </dependency>\n"
+                                + "    <dependency>\n      <groupId>junit</groupId>")
+                .replace(
+                        "  </dependencies>",
+                        "    <dependency>\n      <groupId>org.ours</groupId>\n"
+                                + "      <artifactId>ours</artifactId>\n    </dependency>\n  </dependencies>");
+        assertEquals(expected, result.document().toXml());
+    }
+
+    @Test
+    void keepsFormattingOfOurSide() {
+        String ours = BASE.replace("  <", "    <").replace("    </project>", "</project>");
+        String theirs = BASE.replace("<version>4.13</version>", "<version>4.13.2</version>");
+
+        MergeResult result = merge(BASE, ours, theirs, KEYED);
+
+        assertFalse(result.hasConflicts());
+        assertEquals(ours.replace("<version>4.13</version>", "<version>4.13.2</version>"), result.document()
+                .toXml());
+    }
+
+    @Test
+    void mergesRemovalsOfUnchangedElements() {
+        String ours = BASE.replace("<version>1.0</version>", "<version>1.1</version>");
+        String theirs = BASE.replace("\n    <scope>test</scope>", "")
+                .replace(
+                        "\n    <dependency>\n      <groupId>org.slf4j</groupId>\n"
+                                + "      <artifactId>slf4j-api</artifactId>\n"
+                                + "      <version>2.0.0</version>\n    </dependency>",
+                        "");
+
+        MergeResult result = merge(BASE, ours, theirs, KEYED);
+
+        assertFalse(result.hasConflicts());
+        assertEquals(theirs.replace("<version>1.0</version>", "<version>1.1</version>"), result.document()
+                .toXml());
+    }
+
+    @Test
+    void identicalChangesDoNotConflict() {
+        String edited = BASE.replace("<version>1.0</version>", "<version>2.0</version>")
+                .replace("<dependencies>", "<dependencies combine.children=\"append\">");
+
+        MergeResult result = merge(BASE, edited, edited, KEYED);
+
+        assertFalse(result.hasConflicts());
+        assertEquals(edited, result.document().toXml());
+    }
+
+    @Test
+    void reportsConflictingTextChanges() {
+        String ours = BASE.replace("<version>1.0</version>", "<version>1.1</version>");
+        String theirs = BASE.replace("<version>1.0</version>", "<version>2.0</version>")
+                .replace("<java.version>17</java.version>", "<java.version>21</java.version>");
+
+        MergeResult result = merge(BASE, ours, theirs, KEYED);
+
+        assertEquals(1, result.conflicts().size());
+        MergeConflict conflict = result.conflicts().get(0);
+        assertEquals("/project/version", conflict.path());
+        assertEquals(ChangeType.TEXT_CHANGED, conflict.ours().type());
+        assertEquals("1.1", conflict.ours().afterValue());
+        assertEquals("2.0", conflict.theirs().afterValue());
+        assertEquals("1.0", conflict.theirs().beforeValue());
+        assertEquals(ours.replace("17", "21"), result.document().toXml());
+    }
+
+    @Test
+    void reportsConflictingAttributeChanges() {
+        String base = "<project><build><plugins>\n"
+                + "  <plugin combine.self='merge'><artifactId>p</artifactId></plugin>\n"
+                + "</plugins></build></project>";
+        String ours = base.replace("combine.self='merge'", "combine.self='override'");
+        String theirs = base.replace("combine.self='merge'", "inherited='false'");
+
+        MergeResult result = merge(base, ours, theirs, DiffConfig.defaults());
+
+        assertEquals(1, result.conflicts().size());
+        MergeConflict conflict = result.conflicts().get(0);
+        assertEquals("/project/build/plugins/plugin/@combine.self", conflict.path());
+        assertEquals(ChangeType.ATTRIBUTE_CHANGED, conflict.ours().type());
+        assertEquals(ChangeType.ATTRIBUTE_REMOVED, conflict.theirs().type());
+        assertEquals(
+                base.replace("combine.self='merge'", "combine.self='override' inherited='false'"),
+                result.document().toXml());
+    }
+
+    @Test
+    void reportsModifiedRemovedElements() {
+        String ours = BASE.replace("<version>4.13</version>", "<version>4.13.2</version>");
+        String theirs = BASE.replace(
+                "\n    <dependency>\n      <groupId>junit</groupId>\n      <artifactId>junit</artifactId>\n"
+                        + "      <version>4.13</version>\n      <scope>test</scope>\n    </dependency>",
+                "");
+
+        MergeResult ourResult = merge(BASE, ours, theirs, KEYED);
+        MergeResult theirResult = merge(BASE, theirs, ours, KEYED);
+
+        assertEquals(1, ourResult.conflicts().size());
+        MergeConflict conflict = ourResult.conflicts().get(0);
+        assertEquals("/project/dependencies/dependency[2]", conflict.path());
+        assertEquals(ChangeType.TEXT_CHANGED, conflict.ours().type());
+        assertEquals("/project/dependencies/dependency[2]/version", conflict.ours().path());
+        assertEquals(ChangeType.ELEMENT_REMOVED, conflict.theirs().type());
+        assertEquals(ours, ourResult.document().toXml());
+        assertEquals(ChangeType.ELEMENT_REMOVED, theirResult.conflicts().get(0).ours().type());
+        assertEquals(theirs, theirResult.document().toXml());
+    }
+
+    @Test
+    void reportsDifferentAdditionsOfTheSameElement() {
+        String ours = BASE.replace("  <properties>", "  <packaging>jar</packaging>\n  <properties>");
+        String theirs = BASE.replace("  <properties>", "  <packaging>pom</packaging>\n  <properties>");
+
+        MergeResult result = merge(BASE, ours, theirs, KEYED);
+
+        assertEquals(1, result.conflicts().size());
+        assertEquals("/project/packaging", result.conflicts().get(0).path());
+        assertEquals(ChangeType.ELEMENT_ADDED, result.conflicts().get(0).theirs().type());
+        assertEquals("pom", result.conflicts().get(0).theirs().afterValue());
+        assertEquals(ours, result.document().toXml());
+    }
+
+    @Test
+    void mergesComments() {
+        String ours = BASE.replace("<version>1.0</version>", "<version>1.1</version>");
+        String theirs = BASE.replace("  <properties>\n", "  <properties>\n    <!-- compiler -->\n")
+                .replace("<groupId>com.example</groupId>", "<!-- id -->\n  <groupId>com.example</groupId>");
+
+        MergeResult result = merge(BASE, ours, theirs, KEYED);
+
+        assertFalse(result.hasConflicts());
+        assertEquals(theirs.replace("<version>1.0</version>", "<version>1.1</version>"), result.document()
+                .toXml());
+    }
+
+    @Test
+    void mergesReorderingOfTheirSide() {
+        String slf4j = "    <dependency>\n      <groupId>org.slf4j</groupId>\n"
+                + "      <artifactId>slf4j-api</artifactId>\n      <version>2.0.0</version>\n    </dependency>\n";
+        String junit = "    <dependency>\n      <groupId>junit</groupId>\n      <artifactId>junit</artifactId>\n"
+                + "      <version>4.13</version>\n      <scope>test</scope>\n    </dependency>\n";
+        String ours = BASE.replace("<version>1.0</version>", "<version>1.1</version>")
+                .replace("<version>4.13</version>", "<version>4.13.2</version>");
+        String theirs = BASE.replace(slf4j + junit, junit + slf4j);
+
+        MergeResult result = merge(BASE, ours, theirs, KEYED);
+
+        assertFalse(result.hasConflicts());
+        assertEquals(
+                ours.replace(slf4j + junit.replace("4.13", "4.13.2"), junit.replace("4.13", "4.13.2") + slf4j),
+                result.document().toXml());
+    }
+
+    @Test
+    void reportsConflictingReorderings() {
+        MergeResult result =
+                merge("<a><b/><c/><d/></a>", "<a><c/><b/><d/></a>", "<a><b/><d/><c/></a>", DiffConfig.defaults());
+
+        assertEquals(1, result.conflicts().size());
+        MergeConflict conflict = result.conflicts().get(0);
+        assertEquals("/a/c", conflict.path());
+        assertEquals(ChangeType.ELEMENT_MOVED, conflict.ours().type());
+        assertEquals("1", conflict.ours().afterValue());
+        assertEquals("3", conflict.theirs().afterValue());
+        assertEquals("<a><c/><b/><d/></a>", result.document().toXml());
+    }
+
+    @Test
+    void insertsElementsWithoutAnchorFirst() {
+        MergeResult result = merge(
+                "<r><?p1?></r>", "<r><?p1?></r>", "<r><dep/><?p1?><dep g='1'/></r>", DiffConfig.defaults());
+
+        assertFalse(result.hasConflicts());
+        assertEquals("<r><dep/><?p1?><dep g='1'/></r>", result.document().toXml());
+    }
+
+    @Test
+    void mergesEqualProcessingInstructions() {
+        MergeResult result =
+                merge("<r><?p0?></r>", "<r><?p0?></r>", "<r><?p1?><?p1?><?p0?></r>", DiffConfig.defaults());
+
+        assertFalse(result.hasConflicts());
+        assertEquals("<r><?p1?><?p1?><?p0?></r>", result.document().toXml());
+    }
+
+    @Test
+    void doesNotModifyInputs() {
+        Document base = Document.of(BASE);
+        Document ours = Document.of(BASE.replace("1.0", "1.1"));
+        Document theirs = Document.of(BASE.replace("17", "21"));
+
+        XmlMerge.merge(base, ours, theirs, KEYED);
+
+        assertEquals(BASE, base.toXml());
+        assertEquals(BASE.replace("1.0", "1.1"), ours.toXml());
+        assertEquals(BASE.replace("17", "21"), theirs.toXml());
+        assertFalse(ours.isModified());
+    }
+
+    @Test
+    void mergesOneSidedChanges() {
+        DiffConfig[] configs = {DiffConfig.defaults(), DiffConfig.builder().matchBy("dep", "g").build()};
+        for (int seed = 0; seed < 300; seed++) {
+            Random random = new Random(seed);
+            StringBuilder sb = new StringBuilder();
+            generate(random, sb, 0, "");
+            String base = sb.toString();
+            String edited = mutate(random, base);
+            for (DiffConfig config : configs) {
+                MergeResult ourChanges = merge(base, edited, base, config);
+                assertEquals(List.of(), ourChanges.conflicts());
+                assertEquals(edited, ourChanges.document().toXml(), "seed " + seed);
+
+                MergeResult theirChanges = merge(base, base, edited, config);
+                assertEquals(List.of(), theirChanges.conflicts());
+                assertTrue(
+                        XmlDiff.isEquivalent(theirChanges.document(), Document.of(edited), config),
+                        "seed " + seed + "\n" + base + "\n----\n" + edited + "\n----\n"
+                                + theirChanges.document().toXml());
+
+                MergeResult sameChanges = merge(base, edited, edited, config);
+                assertEquals(List.of(), sameChanges.conflicts());
+                assertEquals(edited, sameChanges.document().toXml(), "seed " + seed);
+            }
+        }
+    }
+
+    private static MergeResult merge(String base, String ours, String theirs, DiffConfig config) {
+        return XmlMerge.merge(Document.of(base), Document.of(ours), Document.of(theirs), config);
+    }
+
+    /** Generates an element with random attributes, text, comments, processing instructions and children. */
+    private static void generate(Random random, StringBuilder sb, int depth, String indent) {
+        String name = NAMES[random.nextInt(NAMES.length)];
+        sb.append(indent).append('<').append(name);
+        int attributes = random.nextInt(3);
+        for (int i = 0; i < attributes; i++) {
+            sb.append(' ').append('k').append(i).append("=\"").append(random.nextInt(3)).append('"');
+        }
+        if (depth > 3 || random.nextInt(5) == 0) {
+            sb.append("/>\n");
+            return;
+        }
+        sb.append('>');
+        int children = random.nextInt(depth == 0 ? 10 : 5);
+        for (int i = 0; i < children; i++) {
+            switch (random.nextInt(10)) {
+                case 0:
+                    sb.append('t').append(random.nextInt(3));
+                    break;
+                case 1:
+                    sb.append("<!--c").append(random.nextInt(3)).append("-->");
+                    break;
+                case 2:
+                    sb.append(indent).append("  <dep><g>").append(random.nextInt(5));
+                    sb.append("</g><v>").append(random.nextInt(3)).append("</v></dep>\n");
+                    break;
+                case 3:
+                    sb.append("<?p").append(random.nextInt(2)).append("?>");
+                    break;
+                case 4:
+                    sb.append(indent).append("  <dep/>\n");
+                    break;
+                default:
+                    sb.append('\n');
+                    generate(random, sb, depth + 1, indent + "  ");
+                    break;
+            }
+        }
+        sb.append(indent).append("</").append(name).append('>');
+    }
+
+    /** Removes, inserts and edits a few random nodes. */
+    private static String mutate(Random random, String xml) {
+        Document document = Document.of(xml);
+        List<Element> elements = document.root().descendants().collect(Collectors.toList());
+        elements.add(document.root());
+        int edits = 1 + random.nextInt(4);
+        for (int i = 0; i < edits; i++) {
+            Element element = elements.get(random.nextInt(elements.size()));
+            Element parent = element.parentElement();
+            switch (random.nextInt(9)) {
+                case 0:
+                    if (parent != null) {
+                        parent.removeChild(element);
+                        elements.removeAll(element.descendants().collect(Collectors.toList()));
+                        elements.remove(element);
+                    }
+                    break;
+                case 1:
+                    element.attribute("k" + random.nextInt(3), String.valueOf(random.nextInt(3)));
+                    break;
+                case 2:
+                    element.removeAttribute("k" + random.nextInt(3));
+                    break;
+                case 3:
+                    if (element.childElements().findAny().isEmpty()) {
+                        element.textContent("t" + random.nextInt(3));
+                    }
+                    break;
+                case 4:
+                    Element child = new Element(NAMES[random.nextInt(NAMES.length)]);
+                    element.insertChild(random.nextInt(element.childCount() + 1), child);
+                    elements.add(child);
+                    break;
+                case 5:
+                    element.addChild(new Comment("m"));
+                    break;
+                case 6:
+                    ProcessingInstruction pi = new ProcessingInstruction("p" + random.nextInt(2), null);
+                    element.insertChild(random.nextInt(element.childCount() + 1), pi);
+                    break;
+                case 7:
+                    element.children()
+                            .filter(ProcessingInstruction.class::isInstance)
+                            .reduce((first, second) -> random.nextBoolean() ? first : second)
+                            .ifPresent(node -> element.removeChildAt(element.indexOfChild(node)));
+                    break;
+                default:
+                    element.children()
+                            .filter(Comment.class::isInstance)
+                            .findFirst()
+                            .ifPresent(element::removeChild);
+                    break;
+            }
+        }
+        return document.toXml();
+    }
+}
@@ -12,17 +12,13 @@ import eu.maveniverse.domtrip.Comment;
 import eu.maveniverse.domtrip.ContainerNode;
 import eu.maveniverse.domtrip.Document;
 import eu.maveniverse.domtrip.Element;
-import eu.maveniverse.domtrip.NamespaceContext;
 import eu.maveniverse.domtrip.NamespaceResolver;
 import eu.maveniverse.domtrip.Node;
 import eu.maveniverse.domtrip.ProcessingInstruction;
 import eu.maveniverse.domtrip.Text;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.NoSuchElementException;
 import org.jaxen.DefaultNavigator;
 import org.jaxen.FunctionCallException;
 import org.jaxen.JaxenConstants;
@@ -43,6 +39,12 @@ import org.jaxen.saxpath.SAXPathException;
  * on the attribute axis. Similarly, {@link NamespaceNode} wrappers represent
  * namespace declarations on the namespace axis.</p>
  *
+ * <p>Child and sibling axes iterate over the live child lists without copying them.
+ * Navigators created by {@link DomTripXPath} for an evaluation cache the wrapper nodes and the
+ * string values of elements with nested content, so that repeated axis steps do not rebuild
+ * them. The cache is dropped with the evaluation, so concurrent evaluations share no state;
+ * the shared {@linkplain #getInstance() instance} does not cache.</p>
+ *
  * <h3>Usage:</h3>
  * <pre>{@code
  * Navigator nav = DomTripNavigator.getInstance();
@@ -61,6 +63,22 @@ public class DomTripNavigator extends DefaultNavigator {
 
     private static final DomTripNavigator INSTANCE = new DomTripNavigator();
 
+    private final transient ElementCache cache;
+
+    /**
+     * Creates a navigator that does not cache derived values.
+     */
+    public DomTripNavigator() {
+        this(null);
+    }
+
+    /**
+     * Creates a navigator backed by the given cache, or an uncached one if it is {@code null}.
+     */
+    DomTripNavigator(ElementCache cache) {
+        this.cache = cache;
+    }
+
     /**
      * Returns the singleton navigator instance.
      *
@@ -76,9 +94,8 @@ public class DomTripNavigator extends DefaultNavigator {
     @SuppressWarnings("rawtypes")
     public Iterator getChildAxisIterator(Object contextNode) {
         if (contextNode instanceof ContainerNode) {
-            List<Object> children = new ArrayList<>();
-            ((ContainerNode) contextNode).children().forEach(children::add);
-            return children.iterator();
+            ContainerNode container = (ContainerNode) contextNode;
+            return new ChildIterator(container, 0, container.childCount(), 1);
         }
         return JaxenConstants.EMPTY_ITERATOR;
     }
@@ -115,13 +132,11 @@ public class DomTripNavigator extends DefaultNavigator {
     @SuppressWarnings("rawtypes")
     public Iterator getFollowingSiblingAxisIterator(Object contextNode) {
         if (contextNode instanceof Node) {
-            List<Object> siblings = new ArrayList<>();
-            Optional<Node> next = ((Node) contextNode).nextSibling();
-            while (next.isPresent()) {
-                siblings.add(next.get());
-                next = next.get().nextSibling();
+            Node node = (Node) contextNode;
+            ContainerNode parent = node.parent();
+            if (parent != null) {
+                return new ChildIterator(parent, node.siblingIndex() + 1, parent.childCount(), 1);
             }
-            return siblings.iterator();
         }
         return JaxenConstants.EMPTY_ITERATOR;
     }
@@ -130,13 +145,12 @@ public class DomTripNavigator extends DefaultNavigator {
     @SuppressWarnings("rawtypes")
     public Iterator getPrecedingSiblingAxisIterator(Object contextNode) {
         if (contextNode instanceof Node) {
-            List<Object> siblings = new ArrayList<>();
-            Optional<Node> prev = ((Node) contextNode).previousSibling();
-            while (prev.isPresent()) {
-                siblings.add(prev.get());
-                prev = prev.get().previousSibling();
+            Node node = (Node) contextNode;
+            ContainerNode parent = node.parent();
+            if (parent != null) {
+                // Reverse document order, nearest sibling first
+                return new ChildIterator(parent, node.siblingIndex() - 1, -1, -1);
             }
-            return siblings.iterator();
         }
         return JaxenConstants.EMPTY_ITERATOR;
     }
@@ -146,16 +160,9 @@ public class DomTripNavigator extends DefaultNavigator {
     @Override
     @SuppressWarnings("rawtypes")
     public Iterator getAttributeAxisIterator(Object contextNode) {
-        if (contextNode instanceof Element) {
-            Element element = (Element) contextNode;
-            List<Object> attributes = new ArrayList<>();
-            for (Map.Entry<String, Attribute> entry : element.attributeObjects().entrySet()) {
-                String name = entry.getKey();
-                if (!isNamespaceDeclaration(name)) {
-                    attributes.add(new AttributeNode(element, name, entry.getValue()));
-                }
-            }
-            return attributes.iterator();
+        if (contextNode instanceof Element && ((Element) contextNode).hasAttributes()) {
+            AttributeNode[] attributes = attributes((Element) contextNode);
+            return attributes.length == 0 ? JaxenConstants.EMPTY_ITERATOR : new ArrayIterator(attributes);
         }
         return JaxenConstants.EMPTY_ITERATOR;
     }
@@ -166,30 +173,27 @@ public class DomTripNavigator extends DefaultNavigator {
     @SuppressWarnings("rawtypes")
     public Iterator getNamespaceAxisIterator(Object contextNode) {
         if (contextNode instanceof Element) {
-            Element element = (Element) contextNode;
-            NamespaceContext ctx = element.namespaceContext();
-            List<Object> namespaces = new ArrayList<>();
-            // Always include the xml namespace
-            namespaces.add(new NamespaceNode(element, "xml", "http://www.w3.org/XML/1998/namespace"));
-            // Default namespace
-            String defaultUri = ctx.defaultNamespaceURI();
-            if (defaultUri != null && !defaultUri.isEmpty()) {
-                namespaces.add(new NamespaceNode(element, "", defaultUri));
-            }
-            // Prefixed namespaces
-            for (String prefix : ctx.declaredPrefixes()) {
-                String uri = ctx.namespaceURI(prefix);
-                if (uri != null) {
-                    namespaces.add(new NamespaceNode(element, prefix, uri));
-                }
-            }
-            return namespaces.iterator();
+            return new ArrayIterator(namespaces((Element) contextNode));
         }
         return JaxenConstants.EMPTY_ITERATOR;
     }
 
     // ---- Document ----
 
+    /**
+     * Finds an element by ID through {@link Document#elementById(String)}, so the XPath
+     * {@code id()} function uses the document's ID index and honors its configured
+     * {@linkplain Document#idAttributes() ID attributes}.
+     */
+    @Override
+    public Object getElementById(Object contextNode, String elementId) {
+        Object document = getDocumentNode(contextNode);
+        if (document instanceof Document) {
+            return ((Document) document).elementById(elementId).orElse(null);
+        }
+        return null;
+    }
+
     @Override
     public Object getDocumentNode(Object contextNode) {
         if (contextNode instanceof Document) {
@@ -248,7 +252,9 @@ public class DomTripNavigator extends DefaultNavigator {
 
     @Override
     public String getElementName(Object element) {
-        return ((Element) element).localName();
+        String name = ((Element) element).name();
+        int colon = name.indexOf(':');
+        return colon >= 0 ? name.substring(colon + 1) : name;
     }
 
     @Override
@@ -264,7 +270,23 @@ public class DomTripNavigator extends DefaultNavigator {
 
     @Override
     public String getElementStringValue(Object element) {
-        return getDeepTextContent((Element) element);
+        Element e = (Element) element;
+        int count = e.childCount();
+        if (count == 0) {
+            return "";
+        }
+        if (count == 1 && e.child(0) instanceof Text) {
+            return ((Text) e.child(0)).content();
+        }
+        return cache != null ? cache.stringValue(e) : ElementCache.computeStringValue(e);
+    }
+
+    private AttributeNode[] attributes(Element element) {
+        return cache != null ? cache.attributes(element) : ElementCache.computeAttributes(element);
+    }
+
+    private NamespaceNode[] namespaces(Element element) {
+        return cache != null ? cache.namespaces(element) : ElementCache.computeNamespaces(element);
     }
 
     // ---- Attribute accessors ----
@@ -362,17 +384,8 @@ public class DomTripNavigator extends DefaultNavigator {
         return null;
     }
 
-    @Override
-    public Object getElementById(Object contextNode, String elementId) {
-        return null;
-    }
-
     // ---- Private helpers ----
 
-    private static boolean isNamespaceDeclaration(String attrName) {
-        return "xmlns".equals(attrName) || attrName.startsWith("xmlns:");
-    }
-
     private static Element resolveElement(Object context) {
         if (context instanceof Element) {
             return (Element) context;
@@ -389,19 +402,63 @@ public class DomTripNavigator extends DefaultNavigator {
         return null;
     }
 
-    private static String getDeepTextContent(ContainerNode container) {
-        StringBuilder sb = new StringBuilder();
-        collectTextContent(container, sb);
-        return sb.toString();
+    /**
+     * Iterates over a range of the live child list of a container, forwards or backwards,
+     * without copying it.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class ChildIterator implements Iterator {
+        private final ContainerNode container;
+        private final int end;
+        private final int step;
+        private int index;
+
+        ChildIterator(ContainerNode container, int start, int end, int step) {
+            this.container = container;
+            this.index = start;
+            this.end = end;
+            this.step = step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index != end;
+        }
+
+        @Override
+        public Object next() {
+            if (index == end) {
+                throw new NoSuchElementException();
+            }
+            Node child = container.child(index);
+            index += step;
+            return child;
+        }
     }
 
-    private static void collectTextContent(ContainerNode container, StringBuilder sb) {
-        container.children().forEach(child -> {
-            if (child instanceof Text) {
-                sb.append(((Text) child).content());
-            } else if (child instanceof ContainerNode) {
-                collectTextContent((ContainerNode) child, sb);
+    /**
+     * Iterates over cached wrapper nodes.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final class ArrayIterator implements Iterator {
+        private final Object[] nodes;
+        private int index;
+
+        ArrayIterator(Object[] nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < nodes.length;
+        }
+
+        @Override
+        public Object next() {
+            if (index == nodes.length) {
+                throw new NoSuchElementException();
             }
-        });
+            return nodes[index++];
+        }
     }
 }
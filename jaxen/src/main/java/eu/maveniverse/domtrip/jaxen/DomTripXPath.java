@@ -9,9 +9,12 @@ package eu.maveniverse.domtrip.jaxen;
 
 import eu.maveniverse.domtrip.Element;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.jaxen.BaseXPath;
+import org.jaxen.Context;
+import org.jaxen.ContextSupport;
 import org.jaxen.JaxenException;
 
 /**
@@ -63,6 +66,26 @@ public class DomTripXPath extends BaseXPath {
         super(xpathExpr, DomTripNavigator.getInstance());
     }
 
+    /**
+     * Creates the evaluation context with a navigator of its own, whose element cache lives
+     * only as long as this evaluation.
+     */
+    @Override
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    protected Context getContext(Object node) {
+        if (node instanceof Context) {
+            return (Context) node;
+        }
+        ContextSupport shared = getContextSupport();
+        Context context = new Context(new ContextSupport(
+                shared.getNamespaceContext(),
+                shared.getFunctionContext(),
+                shared.getVariableContext(),
+                new DomTripNavigator(new ElementCache())));
+        context.setNodeSet(node instanceof List ? (List) node : Collections.singletonList(node));
+        return context;
+    }
+
     /**
      * Evaluates this expression and returns only {@link Element} results.
      *
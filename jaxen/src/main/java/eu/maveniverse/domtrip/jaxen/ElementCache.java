@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip.jaxen;
+
+import eu.maveniverse.domtrip.Attribute;
+import eu.maveniverse.domtrip.ContainerNode;
+import eu.maveniverse.domtrip.Element;
+import eu.maveniverse.domtrip.NamespaceContext;
+import eu.maveniverse.domtrip.Node;
+import eu.maveniverse.domtrip.Text;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Values the navigator derives from an element, cached so that repeated axis steps and
+ * comparisons do not rebuild them.
+ *
+ * <p>A cache belongs to a single evaluation, during which the document is not expected to
+ * change, and is discarded with it. Concurrent evaluations therefore never share a cache or
+ * a lock, and cached wrappers, which refer to their elements, cannot keep a document alive
+ * after the evaluation. Navigators without a cache compute the values on every call with the
+ * static methods.</p>
+ */
+final class ElementCache {
+
+    private static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
+
+    private final Map<Element, Entry> entries = new IdentityHashMap<>();
+
+    /**
+     * Returns the attribute wrappers of an element, excluding namespace declarations.
+     */
+    AttributeNode[] attributes(Element element) {
+        Entry entry = entry(element);
+        if (entry.attributes == null) {
+            entry.attributes = computeAttributes(element);
+        }
+        return entry.attributes;
+    }
+
+    /**
+     * Returns the namespace wrappers in scope for an element, starting with the xml namespace.
+     */
+    NamespaceNode[] namespaces(Element element) {
+        Entry entry = entry(element);
+        if (entry.namespaces == null) {
+            entry.namespaces = computeNamespaces(element);
+        }
+        return entry.namespaces;
+    }
+
+    /**
+     * Returns the XPath string value of an element: the concatenated text of its descendants.
+     */
+    String stringValue(Element element) {
+        Entry entry = entry(element);
+        if (entry.stringValue == null) {
+            entry.stringValue = computeStringValue(element);
+        }
+        return entry.stringValue;
+    }
+
+    private Entry entry(Element element) {
+        return entries.computeIfAbsent(element, e -> new Entry());
+    }
+
+    static AttributeNode[] computeAttributes(Element element) {
+        List<AttributeNode> attributes = new ArrayList<>();
+        for (Map.Entry<String, Attribute> attribute :
+                element.attributeObjects().entrySet()) {
+            String name = attribute.getKey();
+            if (!isNamespaceDeclaration(name)) {
+                attributes.add(new AttributeNode(element, name, attribute.getValue()));
+            }
+        }
+        return attributes.toArray(new AttributeNode[0]);
+    }
+
+    static NamespaceNode[] computeNamespaces(Element element) {
+        NamespaceContext ctx = element.namespaceContext();
+        List<NamespaceNode> namespaces = new ArrayList<>();
+        // Always include the xml namespace
+        namespaces.add(new NamespaceNode(element, "xml", XML_NAMESPACE));
+        // Default namespace
+        String defaultUri = ctx.defaultNamespaceURI();
+        if (defaultUri != null && !defaultUri.isEmpty()) {
+            namespaces.add(new NamespaceNode(element, "", defaultUri));
+        }
+        // Prefixed namespaces
+        for (String prefix : ctx.declaredPrefixes()) {
+            String uri = ctx.namespaceURI(prefix);
+            if (uri != null) {
+                namespaces.add(new NamespaceNode(element, prefix, uri));
+            }
+        }
+        return namespaces.toArray(new NamespaceNode[0]);
+    }
+
+    static String computeStringValue(Element element) {
+        StringBuilder sb = new StringBuilder();
+        collectTextContent(element, sb);
+        return sb.toString();
+    }
+
+    static boolean isNamespaceDeclaration(String attrName) {
+        return "xmlns".equals(attrName) || attrName.startsWith("xmlns:");
+    }
+
+    private static void collectTextContent(ContainerNode container, StringBuilder sb) {
+        for (int i = 0, count = container.childCount(); i < count; i++) {
+            Node child = container.child(i);
+            if (child instanceof Text) {
+                sb.append(((Text) child).content());
+            } else if (child instanceof ContainerNode) {
+                collectTextContent((ContainerNode) child, sb);
+            }
+        }
+    }
+
+    /** The cached values of one element, each computed on first use. */
+    private static final class Entry {
+        AttributeNode[] attributes;
+        NamespaceNode[] namespaces;
+        String stringValue;
+    }
+}
@@ -9,6 +9,7 @@ package eu.maveniverse.domtrip.jaxen;
 
 import eu.maveniverse.domtrip.DomTripException;
 import eu.maveniverse.domtrip.Element;
+import eu.maveniverse.domtrip.ExpressionCache;
 import java.util.List;
 import java.util.Optional;
 import org.jaxen.JaxenException;
@@ -17,8 +18,10 @@ import org.jaxen.JaxenException;
  * Static utility for evaluating full XPath 1.0 expressions against DomTrip documents.
  *
  * <p>This class provides convenient one-shot methods that wrap {@link JaxenException}
- * into {@link DomTripException} for consistency with the core DomTrip API. For repeated
- * evaluation of the same expression, use {@link #compile(String)} to avoid re-parsing.</p>
+ * into {@link DomTripException} for consistency with the core DomTrip API. The one-shot
+ * methods keep compiled expressions in a bounded internal cache, so evaluating the same
+ * expression again does not re-parse it. Use {@link #compile(String)} to get a private
+ * instance whose namespace, function or variable context can be customized.</p>
  *
  * <h3>Quick Queries:</h3>
  * <pre>{@code
@@ -62,10 +65,25 @@ import org.jaxen.JaxenException;
  */
 public final class XPath {
 
+    /**
+     * Compiled expressions shared by the one-shot methods. They are never handed out, so their
+     * contexts are never modified and they can be evaluated concurrently.
+     */
+    private static final ExpressionCache<DomTripXPath> CACHE =
+            new ExpressionCache<>(ExpressionCache.DEFAULT_MAXIMUM_SIZE, XPath::compileForCache);
+
     private XPath() {
         // utility class
     }
 
+    private static DomTripXPath compileForCache(String expression) {
+        try {
+            return new DomTripXPath(expression);
+        } catch (JaxenException e) {
+            throw new DomTripException("XPath evaluation failed: " + expression, e);
+        }
+    }
+
     /**
      * Evaluates an XPath expression and returns matching elements.
      *
@@ -76,7 +94,7 @@ public final class XPath {
      */
     public static List<Element> select(Object context, String expression) {
         try {
-            return new DomTripXPath(expression).selectElements(context);
+            return CACHE.get(expression).selectElements(context);
         } catch (JaxenException e) {
             throw new DomTripException("XPath evaluation failed: " + expression, e);
         }
@@ -92,12 +110,56 @@ public final class XPath {
      */
     public static Optional<Element> selectFirst(Object context, String expression) {
         try {
-            return new DomTripXPath(expression).selectFirstElement(context);
+            return CACHE.get(expression).selectFirstElement(context);
         } catch (JaxenException e) {
             throw new DomTripException("XPath evaluation failed: " + expression, e);
         }
     }
 
+    /**
+     * Returns how many lookups of {@link #select(Object, String)} and
+     * {@link #selectFirst(Object, String)} found their expression already compiled.
+     *
+     * @return the number of cache hits
+     * @since 1.5.0
+     */
+    public static long cacheHitCount() {
+        return CACHE.hitCount();
+    }
+
+    /**
+     * Returns how many lookups of {@link #select(Object, String)} and
+     * {@link #selectFirst(Object, String)} had to compile their expression.
+     *
+     * @return the number of cache misses
+     * @since 1.5.0
+     */
+    public static long cacheMissCount() {
+        return CACHE.missCount();
+    }
+
+    /**
+     * Returns how many compiled expressions were discarded to keep the cache used by
+     * {@link #select(Object, String)} and {@link #selectFirst(Object, String)} within its
+     * maximum size.
+     *
+     * @return the number of cache evictions
+     * @since 1.5.0
+     */
+    public static long cacheEvictionCount() {
+        return CACHE.evictionCount();
+    }
+
+    /**
+     * Discards the compiled expressions kept for {@link #select(Object, String)} and
+     * {@link #selectFirst(Object, String)}, and resets the hit, miss and eviction counts.
+     *
+     * @since 1.5.0
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
     /**
      * Compiles an XPath expression for repeated evaluation.
      *
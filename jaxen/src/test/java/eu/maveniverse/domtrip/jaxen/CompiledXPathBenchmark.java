@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip.jaxen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import eu.maveniverse.domtrip.CompiledXPath;
+import eu.maveniverse.domtrip.Document;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jaxen.JaxenException;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks comparing the core {@link CompiledXPath} engine with {@link DomTripXPath} on a
+ * shared suite of XPath 1.0 queries over a POM with 1000 dependencies. Both sides evaluate
+ * precompiled expressions to their natural result type.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main CompiledXPathBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class CompiledXPathBenchmark {
+
+    private static final Map<String, String> QUERIES = new HashMap<>();
+
+    static {
+        QUERIES.put("path", "/project/dependencies/dependency/version");
+        QUERIES.put("descendant", "//artifactId");
+        QUERIES.put("predicate", "//dependency[scope = 'test']/artifactId");
+        QUERIES.put("function", "//dependency[starts-with(groupId, 'com.example.group1') and not(scope)]");
+        QUERIES.put("position", "//dependency[position() mod 10 = 0]/version");
+        QUERIES.put("axis", "//dependency[@id = 'd500']/following-sibling::dependency[1]/preceding::groupId[1]");
+        QUERIES.put("union", "//groupId | //version");
+        QUERIES.put("count", "count(//dependency[scope = 'test']) > 100");
+        QUERIES.put("sum", "sum(//dependency/@rank) div count(//dependency)");
+    }
+
+    @Param({"path", "descendant", "predicate", "function", "position", "axis", "union", "count", "sum"})
+    private String query;
+
+    private Document document;
+    private CompiledXPath compiled;
+    private DomTripXPath jaxen;
+
+    /**
+     * Parses the POM and compiles the query with both engines.
+     *
+     * @throws JaxenException if the query is invalid
+     */
+    @Setup
+    public void setup() throws JaxenException {
+        StringBuilder sb = new StringBuilder("<project>\n  <version>1.0.0</version>\n  <dependencies>\n");
+        for (int i = 0; i < 1000; i++) {
+            sb.append("    <dependency id=\"d")
+                    .append(i)
+                    .append("\" rank=\"")
+                    .append(i % 7)
+                    .append("\"><groupId>com.example.group")
+                    .append(i % 3)
+                    .append("</groupId><artifactId>artifact-")
+                    .append(i)
+                    .append("</artifactId><version>1.")
+                    .append(i)
+                    .append("</version>")
+                    .append(i % 3 == 0 ? "<scope>test</scope>" : "")
+                    .append("</dependency>\n");
+        }
+        document = Document.of(sb.append("  </dependencies>\n</project>\n").toString());
+        String expression = QUERIES.get(query);
+        compiled = CompiledXPath.compile(expression);
+        jaxen = new DomTripXPath(expression);
+    }
+
+    /**
+     * Evaluates the query with the core engine.
+     *
+     * @return the query result
+     */
+    @Benchmark
+    public Object core() {
+        return compiled.evaluate(document);
+    }
+
+    /**
+     * Evaluates the query with jaxen.
+     *
+     * @return the query result
+     * @throws JaxenException if evaluation fails
+     */
+    @Benchmark
+    public Object jaxen() throws JaxenException {
+        return jaxen.evaluate(document);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(CompiledXPathBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by CompiledXPathBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(CompiledXPathBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
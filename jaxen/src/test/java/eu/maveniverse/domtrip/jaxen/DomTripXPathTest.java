@@ -14,6 +14,8 @@ import eu.maveniverse.domtrip.DomTripException;
 import eu.maveniverse.domtrip.Element;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.jaxen.JaxenException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
@@ -420,6 +422,34 @@ class DomTripXPathTest {
         void invalidExpressionThrowsDomTripException() {
             assertThrows(DomTripException.class, () -> XPath.compile("[invalid[["));
         }
+
+        @Test
+        void oneShotMethodsReuseCachedExpressions() {
+            String expression = "//item[@type='a' and @id!='cache-test']";
+            long misses = XPath.cacheMissCount();
+            long hits = XPath.cacheHitCount();
+
+            assertEquals(2, XPath.select(simpleRoot, expression).size());
+            assertTrue(XPath.selectFirst(simpleRoot, expression).isPresent());
+
+            assertTrue(XPath.cacheMissCount() >= misses + 1);
+            assertTrue(XPath.cacheHitCount() >= hits + 1);
+            assertNotSame(XPath.compile(expression), XPath.compile(expression));
+        }
+
+        @Test
+        void clearCacheRecompilesExpressions() {
+            String expression = "//item[@type='b' and @id!='clear-test']";
+            assertEquals(1, XPath.select(simpleRoot, expression).size());
+
+            XPath.clearCache();
+            assertEquals(0, XPath.cacheHitCount());
+            assertEquals(0, XPath.cacheMissCount());
+            assertEquals(0, XPath.cacheEvictionCount());
+
+            assertEquals(1, XPath.select(simpleRoot, expression).size());
+            assertTrue(XPath.cacheMissCount() >= 1);
+        }
     }
 
     @Nested
@@ -662,4 +692,108 @@ class DomTripXPathTest {
             assertEquals(2, results.size());
         }
     }
+
+    @Nested
+    class CachedNavigationTests {
+
+        @Test
+        void siblingAxesStartAtTheNearestSibling() {
+            Element second = XPath.select(simpleRoot, "items/item[2]").get(0);
+            assertEquals(
+                    "Third",
+                    XPath.select(second, "following-sibling::*[1]").get(0).textContent());
+            assertEquals(
+                    "First",
+                    XPath.select(second, "preceding-sibling::*[1]").get(0).textContent());
+            assertTrue(XPath.select(simpleRoot, "following-sibling::*").isEmpty());
+        }
+
+        @Test
+        void attributeWrappersAreReused() throws JaxenException {
+            Element item = XPath.select(simpleRoot, "items/item[1]").get(0);
+            DomTripXPath xpath = new DomTripXPath("@*");
+            List<?> first = xpath.selectNodes(item);
+            List<?> second = xpath.selectNodes(item);
+            assertEquals(2, first.size());
+            assertSame(first.get(0), second.get(0));
+            assertSame(first.get(1), second.get(1));
+        }
+
+        @Test
+        void attributeChangesAreVisible() {
+            assertTrue(XPath.select(simpleRoot, "//item[@type='c']").isEmpty());
+            Element item = XPath.select(simpleRoot, "items/item[2]").get(0);
+            item.attribute("type", "c");
+            assertEquals(1, XPath.select(simpleRoot, "//item[@type='c']").size());
+            item.removeAttribute("type");
+            assertTrue(XPath.select(simpleRoot, "//item[@type]").stream().noneMatch(e -> e == item));
+        }
+
+        @Test
+        void stringValueChangesAreVisible() {
+            assertEquals(1, XPath.select(simpleRoot, "//tags[. = 'xmlxpath']").size());
+            XPath.select(simpleRoot, "//tag[1]").get(0).textContent("json");
+            assertTrue(XPath.select(simpleRoot, "//tags[. = 'xmlxpath']").isEmpty());
+            assertEquals(1, XPath.select(simpleRoot, "//tags[. = 'jsonxpath']").size());
+        }
+
+        @Test
+        void namespaceChangesOnAncestorsAreVisible() throws JaxenException {
+            Element stockName =
+                    XPath.select(nsRoot, "//*[local-name()='StockName']").get(0);
+            DomTripXPath xpath = new DomTripXPath("namespace::*");
+            int before = xpath.selectNodes(stockName).size();
+            nsRoot.namespaceDeclaration("x", "urn:x");
+            assertEquals(before + 1, xpath.selectNodes(stockName).size());
+        }
+    }
+
+    @Nested
+    class IdFunctionTests {
+
+        @Test
+        void idSelectsElementsById() {
+            List<Element> results = XPath.select(simpleRoot, "id('2')");
+            assertEquals(1, results.size());
+            assertEquals("Second", results.get(0).textContent());
+        }
+
+        @Test
+        void idAcceptsWhitespaceSeparatedIds() {
+            List<Element> results = XPath.select(simpleRoot, "id('3 1 missing')");
+            assertEquals(
+                    Set.of("First", "Third"),
+                    results.stream().map(Element::textContent).collect(Collectors.toSet()));
+        }
+
+        @Test
+        void idCanBeFollowedByAPath() {
+            assertEquals(1, XPath.select(simpleRoot, "id('1')[@type='a']").size());
+            assertTrue(XPath.select(simpleRoot, "id('2')[@type='a']").isEmpty());
+        }
+
+        @Test
+        void idFollowsMutations() {
+            Element third = XPath.select(simpleRoot, "items/item[3]").get(0);
+            assertEquals(1, XPath.select(simpleRoot, "id('3')").size());
+            third.attribute("id", "4");
+            assertTrue(XPath.select(simpleRoot, "id('3')").isEmpty());
+            assertSame(third, XPath.select(simpleRoot, "id('4')").get(0));
+        }
+
+        @Test
+        void idUsesConfiguredAttributes() {
+            simpleRoot.document().idAttributes("type");
+            List<Element> results = XPath.select(simpleRoot, "id('a')");
+            assertEquals(1, results.size());
+            assertEquals("First", results.get(0).textContent());
+            assertTrue(XPath.select(simpleRoot, "id('1')").isEmpty());
+        }
+
+        @Test
+        void idWithoutDocumentSelectsNothing() {
+            Element detached = Element.of("item").attribute("id", "1");
+            assertTrue(XPath.select(detached, "id('1')").isEmpty());
+        }
+    }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip.jaxen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import eu.maveniverse.domtrip.Document;
+import eu.maveniverse.domtrip.Element;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.jaxen.JaxenException;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for {@link DomTripXPath} over the synthetic documents of the core
+ * {@code QueryBenchmark}, with the same expressions and benchmark names, so that the results of
+ * both modules can be compared row by row.
+ *
+ * <p>Results are reported as throughput together with the allocations of the GC profiler,
+ * whose {@code gc.alloc.rate.norm} row gives the bytes allocated per operation.</p>
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main JaxenQueryBenchmark -prof gc}</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class JaxenQueryBenchmark {
+
+    private static final String SELECT = "//dependency[scope='test']/artifactId";
+
+    @Param({"small", "medium", "large", "deep"})
+    private String shape;
+
+    private Element root;
+    private DomTripXPath select;
+    private DomTripXPath childPath;
+
+    /**
+     * Parses the document of the selected shape and compiles the expressions.
+     *
+     * @throws JaxenException if an expression is invalid
+     */
+    @Setup
+    public void setup() throws JaxenException {
+        root = Document.of(buildDocument(shape)).root();
+        select = new DomTripXPath(SELECT);
+        childPath = new DomTripXPath("dependencies/dependency/version");
+    }
+
+    /**
+     * Builds the same documents as the core {@code QueryBenchmark}: {@code small},
+     * {@code medium} and {@code large} documents have 10, 200 and 5000 dependencies in one
+     * list, while {@code deep} documents nest 200 levels of modules with 5 dependencies each.
+     *
+     * @param shape the document shape
+     * @return the document XML
+     */
+    static String buildDocument(String shape) {
+        int breadth;
+        int depth;
+        switch (shape) {
+            case "small":
+                breadth = 10;
+                depth = 1;
+                break;
+            case "medium":
+                breadth = 200;
+                depth = 1;
+                break;
+            case "large":
+                breadth = 5000;
+                depth = 1;
+                break;
+            case "deep":
+                breadth = 5;
+                depth = 200;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown document shape: " + shape);
+        }
+        StringBuilder sb = new StringBuilder("<project>\n<version>1.0.0</version>\n");
+        int id = 0;
+        for (int level = 0; level < depth; level++) {
+            sb.append("<dependencies>\n");
+            for (int i = 0; i < breadth; i++, id++) {
+                sb.append("<dependency id=\"d")
+                        .append(id)
+                        .append("\"><groupId>com.example.group")
+                        .append(id % 3)
+                        .append("</groupId><artifactId>artifact-")
+                        .append(id)
+                        .append("</artifactId><version>1.")
+                        .append(id)
+                        .append("</version>")
+                        .append(id % 3 == 0 ? "<scope>test</scope>" : "")
+                        .append("</dependency>\n");
+            }
+            sb.append("</dependencies>\n");
+            if (level < depth - 1) {
+                sb.append("<modules><module>\n");
+            }
+        }
+        for (int level = 1; level < depth; level++) {
+            sb.append("</module></modules>\n");
+        }
+        return sb.append("</project>\n").toString();
+    }
+
+    /**
+     * Compiles the filtered descendant expression.
+     *
+     * @return the compiled expression
+     * @throws JaxenException if the expression is invalid
+     */
+    @Benchmark
+    public DomTripXPath xpathCompile() throws JaxenException {
+        return new DomTripXPath(SELECT);
+    }
+
+    /**
+     * Selects the artifact ids of all test dependencies with a precompiled expression.
+     *
+     * @return the selected elements
+     * @throws JaxenException if evaluation fails
+     */
+    @Benchmark
+    public List<Element> xpathSelect() throws JaxenException {
+        return select.selectElements(root);
+    }
+
+    /**
+     * Selects the artifact id of the first test dependency with a precompiled expression.
+     *
+     * @return the first selected element
+     * @throws JaxenException if evaluation fails
+     */
+    @Benchmark
+    public Optional<Element> xpathSelectFirst() throws JaxenException {
+        return select.selectFirstElement(root);
+    }
+
+    /**
+     * Selects the versions of the top-level dependencies through a child path.
+     *
+     * @return the selected elements
+     * @throws JaxenException if evaluation fails
+     */
+    @Benchmark
+    public List<Element> xpathChildPath() throws JaxenException {
+        return childPath.selectElements(root);
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(JaxenQueryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by JaxenQueryBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(JaxenQueryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip.jaxen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import eu.maveniverse.domtrip.Document;
+import eu.maveniverse.domtrip.Element;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.jaxen.JaxenException;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for repeatedly evaluating the same set of XPath 1.0 expressions through
+ * {@link XPath#select(Object, String)}, comparing a new {@link DomTripXPath} per call with the
+ * shared expression cache.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main JaxenXPathBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class JaxenXPathBenchmark {
+
+    private static final String[] EXPRESSIONS = {
+        "/project/version",
+        "/project/dependencies/dependency",
+        "//dependency[scope='test']",
+        "//dependency[not(scope)]",
+        "//dependency[contains(groupId, 'group1')]",
+        "//dependency[scope='test' and starts-with(artifactId, 'artifact-')]",
+        "//groupId | //artifactId",
+        "//dependency[last()]/following-sibling::*",
+        "count(//dependency) > 5",
+        "//dependency[position() mod 2 = 0]/version"
+    };
+
+    private Element root;
+
+    /**
+     * Parses a POM with a handful of dependencies.
+     */
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder("<project>\n  <version>1.0.0</version>\n  <dependencies>\n");
+        for (int i = 0; i < 10; i++) {
+            sb.append("    <dependency><groupId>com.example.group")
+                    .append(i % 3)
+                    .append("</groupId><artifactId>artifact-")
+                    .append(i)
+                    .append("</artifactId><version>1.")
+                    .append(i)
+                    .append("</version>")
+                    .append(i % 3 == 0 ? "<scope>test</scope>" : "")
+                    .append("</dependency>\n");
+        }
+        root = Document.of(sb.append("  </dependencies>\n</project>\n").toString())
+                .root();
+    }
+
+    /**
+     * Creates a new expression for every evaluation, as {@link XPath#select(Object, String)} did
+     * before compiled expressions were cached.
+     *
+     * @param blackhole consumes the results
+     * @throws JaxenException if an expression is invalid
+     */
+    @Benchmark
+    public void compileEachTime(Blackhole blackhole) throws JaxenException {
+        for (String expression : EXPRESSIONS) {
+            blackhole.consume(new DomTripXPath(expression).selectElements(root));
+        }
+    }
+
+    /**
+     * Evaluates every expression through {@link XPath#select(Object, String)}.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void selectCached(Blackhole blackhole) {
+        for (String expression : EXPRESSIONS) {
+            blackhole.consume(XPath.select(root, expression));
+        }
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(JaxenXPathBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by JaxenXPathBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(JaxenXPathBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
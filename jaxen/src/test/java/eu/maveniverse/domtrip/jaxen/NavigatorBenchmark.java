@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip.jaxen;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import eu.maveniverse.domtrip.Attribute;
+import eu.maveniverse.domtrip.ContainerNode;
+import eu.maveniverse.domtrip.Document;
+import eu.maveniverse.domtrip.Element;
+import eu.maveniverse.domtrip.Node;
+import eu.maveniverse.domtrip.Text;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.jaxen.BaseXPath;
+import org.jaxen.JaxenConstants;
+import org.jaxen.JaxenException;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for descendant queries on large POMs, comparing {@link DomTripNavigator} with
+ * a navigator that copies child and sibling lists, wraps attributes anew on every call and
+ * rebuilds the string value of an element on every comparison.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main NavigatorBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class NavigatorBenchmark {
+
+    @Param({
+        "//dependency[scope='test']/artifactId",
+        "//*[@combine.children]",
+        "//dependency[following-sibling::dependency[1]/groupId = groupId]",
+        "//plugin[contains(., 'true')]",
+        "//dependencies[. = 'none']"
+    })
+    private String expression;
+
+    @Param({"500"})
+    private int dependencyCount;
+
+    private Element root;
+    private BaseXPath direct;
+    private BaseXPath copying;
+
+    /**
+     * Generates and parses the POM and compiles the expression for both navigators.
+     *
+     * @throws JaxenException if the expression is invalid
+     */
+    @Setup
+    public void setup() throws JaxenException {
+        StringBuilder sb = new StringBuilder("<project>\n  <dependencies>\n");
+        for (int i = 0; i < dependencyCount; i++) {
+            sb.append("    <dependency><groupId>com.example.group")
+                    .append(i % 7)
+                    .append("</groupId><artifactId>artifact-")
+                    .append(i)
+                    .append("</artifactId><version>1.")
+                    .append(i % 5)
+                    .append("</version>")
+                    .append(i % 3 == 0 ? "<scope>test</scope>" : "")
+                    .append("</dependency>\n");
+        }
+        sb.append("  </dependencies>\n  <build><plugins>\n");
+        for (int i = 0; i < dependencyCount / 10; i++) {
+            sb.append("    <plugin><artifactId>plugin-")
+                    .append(i)
+                    .append("</artifactId><configuration combine.children=\"append\"><skip>")
+                    .append(i % 2 == 0)
+                    .append("</skip></configuration></plugin>\n");
+        }
+        root = Document.of(sb.append("  </plugins></build>\n</project>\n").toString())
+                .root();
+        direct = new DomTripXPath(expression);
+        copying = new BaseXPath(expression, new CopyingNavigator());
+    }
+
+    /**
+     * Evaluates the query with {@link DomTripNavigator}.
+     *
+     * @return the selected nodes
+     * @throws JaxenException if evaluation fails
+     */
+    @Benchmark
+    public List<?> directNavigator() throws JaxenException {
+        return direct.selectNodes(root);
+    }
+
+    /**
+     * Evaluates the query with the copying navigator.
+     *
+     * @return the selected nodes
+     * @throws JaxenException if evaluation fails
+     */
+    @Benchmark
+    public List<?> copyingNavigator() throws JaxenException {
+        return copying.selectNodes(root);
+    }
+
+    /**
+     * Navigates like {@link DomTripNavigator} did before its axis iterators stopped copying.
+     */
+    @SuppressWarnings("rawtypes")
+    static class CopyingNavigator extends DomTripNavigator {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Iterator getChildAxisIterator(Object contextNode) {
+            if (contextNode instanceof ContainerNode) {
+                List<Object> children = new ArrayList<>();
+                ((ContainerNode) contextNode).children().forEach(children::add);
+                return children.iterator();
+            }
+            return JaxenConstants.EMPTY_ITERATOR;
+        }
+
+        @Override
+        public Iterator getFollowingSiblingAxisIterator(Object contextNode) {
+            if (contextNode instanceof Node) {
+                List<Object> siblings = new ArrayList<>();
+                Optional<Node> next = ((Node) contextNode).nextSibling();
+                while (next.isPresent()) {
+                    siblings.add(next.get());
+                    next = next.get().nextSibling();
+                }
+                return siblings.iterator();
+            }
+            return JaxenConstants.EMPTY_ITERATOR;
+        }
+
+        @Override
+        public Iterator getPrecedingSiblingAxisIterator(Object contextNode) {
+            if (contextNode instanceof Node) {
+                List<Object> siblings = new ArrayList<>();
+                Optional<Node> prev = ((Node) contextNode).previousSibling();
+                while (prev.isPresent()) {
+                    siblings.add(prev.get());
+                    prev = prev.get().previousSibling();
+                }
+                return siblings.iterator();
+            }
+            return JaxenConstants.EMPTY_ITERATOR;
+        }
+
+        @Override
+        public Iterator getAttributeAxisIterator(Object contextNode) {
+            if (contextNode instanceof Element) {
+                Element element = (Element) contextNode;
+                List<Object> attributes = new ArrayList<>();
+                for (Map.Entry<String, Attribute> entry :
+                        element.attributeObjects().entrySet()) {
+                    String name = entry.getKey();
+                    if (!ElementCache.isNamespaceDeclaration(name)) {
+                        attributes.add(new AttributeNode(element, name, entry.getValue()));
+                    }
+                }
+                return attributes.iterator();
+            }
+            return JaxenConstants.EMPTY_ITERATOR;
+        }
+
+        @Override
+        public String getElementName(Object element) {
+            return ((Element) element).localName();
+        }
+
+        @Override
+        public String getElementStringValue(Object element) {
+            StringBuilder sb = new StringBuilder();
+            collectTextContent((Element) element, sb);
+            return sb.toString();
+        }
+
+        private static void collectTextContent(ContainerNode container, StringBuilder sb) {
+            container.children().forEach(child -> {
+                if (child instanceof Text) {
+                    sb.append(((Text) child).content());
+                } else if (child instanceof ContainerNode) {
+                    collectTextContent((ContainerNode) child, sb);
+                }
+            });
+        }
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(NavigatorBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by NavigatorBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(NavigatorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
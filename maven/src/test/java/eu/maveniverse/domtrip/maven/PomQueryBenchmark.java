@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2023-2026 Maveniverse Org.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-v20.html
+ */
+package eu.maveniverse.domtrip.maven;
+
+import static eu.maveniverse.domtrip.maven.MavenPomElements.Elements.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import eu.maveniverse.domtrip.Document;
+import eu.maveniverse.domtrip.Element;
+import eu.maveniverse.domtrip.MultiQuery;
+import eu.maveniverse.domtrip.XPathExpression;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * JMH benchmarks for the queries a POM analyzer runs against every POM, built from the
+ * {@link MavenPomElements.Elements} constants, comparing one traversal per expression with a
+ * single traversal for all of them through {@link MultiQuery}.
+ *
+ * <p>Run via main method or: {@code java -cp ... org.openjdk.jmh.Main PomQueryBenchmark}</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("java:S3577") // JMH benchmark class does not follow test naming convention
+public class PomQueryBenchmark {
+
+    private static final String SKIP_TESTS = "skipTests";
+
+    static final String[] EXPRESSIONS = {
+        path(MODEL_VERSION),
+        path(GROUP_ID),
+        path(ARTIFACT_ID),
+        path(VERSION),
+        path(PACKAGING),
+        path(NAME),
+        path(DESCRIPTION),
+        path(URL),
+        path(PARENT, GROUP_ID),
+        path(PARENT, ARTIFACT_ID),
+        path(PARENT, VERSION),
+        path(PARENT, RELATIVE_PATH),
+        path(PROPERTIES, "*"),
+        path(MODULES, MODULE),
+        path(DEPENDENCIES, DEPENDENCY),
+        path(DEPENDENCIES, DEPENDENCY, GROUP_ID),
+        path(DEPENDENCIES, DEPENDENCY, ARTIFACT_ID),
+        path(DEPENDENCIES, DEPENDENCY, VERSION),
+        path(DEPENDENCIES, DEPENDENCY + "[" + SCOPE + "='test']"),
+        path(DEPENDENCIES, DEPENDENCY + "[" + OPTIONAL + "='true']"),
+        path(DEPENDENCIES, DEPENDENCY, EXCLUSIONS, EXCLUSION),
+        path(DEPENDENCY_MANAGEMENT, DEPENDENCIES, DEPENDENCY),
+        path(DEPENDENCY_MANAGEMENT, DEPENDENCIES, DEPENDENCY, VERSION),
+        path(DEPENDENCY_MANAGEMENT, DEPENDENCIES, DEPENDENCY + "[" + TYPE + "='pom']"),
+        path(BUILD, FINAL_NAME),
+        path(BUILD, DEFAULT_GOAL),
+        path(BUILD, SOURCE_DIRECTORY),
+        path(BUILD, PLUGINS, PLUGIN),
+        path(BUILD, PLUGINS, PLUGIN, ARTIFACT_ID),
+        path(BUILD, PLUGINS, PLUGIN, VERSION),
+        path(BUILD, PLUGINS, PLUGIN, CONFIGURATION),
+        path(BUILD, PLUGINS, PLUGIN, EXECUTIONS, EXECUTION, GOALS, "*"),
+        path(BUILD, PLUGIN_MANAGEMENT, PLUGINS, PLUGIN),
+        path(BUILD, PLUGIN_MANAGEMENT, PLUGINS, PLUGIN, VERSION),
+        path(BUILD, EXTENSIONS, EXTENSION),
+        path(PROFILES, PROFILE, ID),
+        path(PROFILES, PROFILE, DEPENDENCIES, DEPENDENCY),
+        path(PROFILES, PROFILE, BUILD, PLUGINS, PLUGIN),
+        path(REPOSITORIES, REPOSITORY),
+        path(PLUGIN_REPOSITORIES, PLUGIN_REPOSITORY),
+        path(DISTRIBUTION_MANAGEMENT, REPOSITORY),
+        path(SCM),
+        path(LICENSES, "*"),
+        path(DEVELOPERS, "*"),
+        "//" + DEPENDENCY + "[" + VERSION + "='${project.version}']",
+        "//" + PLUGIN + "/" + DEPENDENCIES + "/" + DEPENDENCY,
+        "//" + EXECUTION + "[" + PHASE + "='none']",
+        "//" + CONFIGURATION + "//" + SKIP_TESTS
+    };
+
+    @Param({"50", "500"})
+    private int size;
+
+    private Element root;
+    private List<XPathExpression> expressions;
+    private MultiQuery multiQuery;
+
+    private static String path(String... elements) {
+        return String.join("/", elements);
+    }
+
+    /**
+     * Generates and parses a POM with the given number of dependencies, managed dependencies
+     * and plugins, and compiles the expressions.
+     */
+    @Setup
+    public void setup() {
+        root = Document.of(buildPom(size)).root();
+        expressions = new ArrayList<>();
+        for (String expression : EXPRESSIONS) {
+            expressions.add(XPathExpression.compile(expression));
+        }
+        multiQuery = MultiQuery.of(expressions);
+    }
+
+    static String buildPom(int size) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        sb.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+        sb.append("  <modelVersion>4.0.0</modelVersion>\n");
+        sb.append("  <parent>\n    <groupId>com.example</groupId>\n    <artifactId>parent</artifactId>\n");
+        sb.append("    <version>1.0.0</version>\n  </parent>\n");
+        sb.append("  <artifactId>benchmark</artifactId>\n  <packaging>jar</packaging>\n");
+        sb.append("  <properties>\n");
+        for (int i = 0; i < size / 5; i++) {
+            sb.append("    <version.lib").append(i).append(">1.").append(i).append("</version.lib");
+            sb.append(i).append(">\n");
+        }
+        sb.append("  </properties>\n");
+        sb.append("  <dependencyManagement>\n    <dependencies>\n");
+        for (int i = 0; i < size; i++) {
+            appendDependency(sb, "      ", i, i % 10 == 0 ? "<type>pom</type><scope>import</scope>" : "");
+        }
+        sb.append("    </dependencies>\n  </dependencyManagement>\n");
+        sb.append("  <dependencies>\n");
+        for (int i = 0; i < size; i++) {
+            appendDependency(
+                    sb,
+                    "    ",
+                    i,
+                    i % 3 == 0
+                            ? "<scope>test</scope>"
+                            : "<exclusions><exclusion><groupId>org.excluded</groupId>"
+                                    + "<artifactId>excluded</artifactId></exclusion></exclusions>");
+        }
+        sb.append("  </dependencies>\n");
+        sb.append("  <build>\n    <plugins>\n");
+        for (int i = 0; i < size / 5; i++) {
+            sb.append("      <plugin>\n        <artifactId>plugin-").append(i).append("</artifactId>\n");
+            sb.append("        <version>2.").append(i).append("</version>\n");
+            sb.append("        <configuration><skipTests>").append(i % 2 == 0).append("</skipTests>");
+            sb.append("<includes><include>**/*.java</include></includes></configuration>\n");
+            sb.append("        <executions><execution><id>default</id><phase>verify</phase>");
+            sb.append("<goals><goal>check</goal></goals></execution></executions>\n");
+            sb.append("      </plugin>\n");
+        }
+        sb.append("    </plugins>\n  </build>\n");
+        sb.append("</project>\n");
+        return sb.toString();
+    }
+
+    private static void appendDependency(StringBuilder sb, String indent, int i, String extra) {
+        sb.append(indent).append("<dependency><groupId>com.example.group").append(i % 7);
+        sb.append("</groupId><artifactId>artifact-").append(i).append("</artifactId>");
+        sb.append("<version>")
+                .append(i % 4 == 0 ? "${project.version}" : "1." + i)
+                .append("</version>");
+        sb.append(extra).append("</dependency>\n");
+    }
+
+    /**
+     * Evaluates every expression on its own, walking the document once per expression.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void separateSelects(Blackhole blackhole) {
+        for (XPathExpression expression : expressions) {
+            blackhole.consume(expression.select(root));
+        }
+    }
+
+    /**
+     * Evaluates all expressions together in a single traversal.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void multiQuery(Blackhole blackhole) {
+        blackhole.consume(multiQuery.select(root));
+    }
+
+    @Test
+    void runBenchmarks() throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(PomQueryBenchmark.class.getSimpleName())
+                .build();
+        Collection<?> results = new Runner(opt).run();
+        assertFalse(results.isEmpty(), "JMH should have produced benchmark results");
+    }
+
+    /**
+     * Entrypoint to execute the JMH benchmarks defined by PomQueryBenchmark.
+     *
+     * @param args command-line arguments (ignored)
+     * @throws Exception if the JMH runner fails to execute the benchmarks
+     */
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+                .include(PomQueryBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}